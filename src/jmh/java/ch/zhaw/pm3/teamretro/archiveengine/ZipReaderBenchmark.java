@@ -0,0 +1,84 @@
+package ch.zhaw.pm3.teamretro.archiveengine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures reading single entries of the example scenario via the
+ * {@link ZipReader}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ZipReaderBenchmark {
+
+    /**
+     * The entry to read, a large level configuration and a small meta file.
+     */
+    @Param({ "levels/Home Of Sonichu.json", "assets/sprites/day/meta.json" })
+    public String entry;
+
+    /**
+     * Whether the archive is read through a {@link MappedZipReader}.
+     */
+    @Param({ "false", "true" })
+    public boolean mapped;
+
+    /**
+     * The reader of the example scenario.
+     */
+    private ZipReader zipReader;
+
+    /**
+     * Opens the example scenario.
+     *
+     * @throws IOException if the archive couldn't be opened
+     */
+    @Setup
+    public void setup() throws IOException {
+        String archive = Paths.get("ExampleScenario.zip").toAbsolutePath().toString();
+        zipReader = mapped ? new MappedZipReader(archive) : new ZipReader(archive);
+    }
+
+    /**
+     * @return the entry decoded as text
+     * @throws IOException if the entry couldn't be read
+     */
+    @Benchmark
+    public String getText() throws IOException {
+        return zipReader.getText(entry);
+    }
+
+    /**
+     * @return the raw bytes of the entry
+     * @throws IOException if the entry couldn't be read
+     */
+    @Benchmark
+    public byte[] getFile() throws IOException {
+        try (InputStream input = zipReader.getFile(entry)) {
+            return input.readAllBytes();
+        }
+    }
+
+    /**
+     * @return the entry as buffer, stored entries of a mapped archive aren't
+     *         copied
+     * @throws IOException if the entry couldn't be read
+     */
+    @Benchmark
+    public ByteBuffer getBuffer() throws IOException {
+        return zipReader.getBuffer(entry);
+    }
+}
@@ -0,0 +1,58 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures loading a level end to end via
+ * {@link GamePackFactory#getLevel(String, String)}: reading the archive,
+ * parsing the configuration and setting up the sprites.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GetLevelBenchmark {
+
+    /**
+     * The name of the level to load.
+     */
+    @Param({ "Sky Land", "Home Of Sonichu" })
+    public String levelName;
+
+    /**
+     * Whether the decoded images are dropped before every load, which simulates
+     * the very first load of a game pack.
+     */
+    @Param({ "false", "true" })
+    public boolean coldImages;
+
+    /**
+     * Drops the decoded images if requested.
+     */
+    @Setup(Level.Invocation)
+    public void dropImages() {
+        if (coldImages) {
+            ImageCache.getShared().clear();
+        }
+    }
+
+    /**
+     * @return the loaded level
+     * @throws IOException               if the archive couldn't be read
+     * @throws InvalidLevelConfiguration if the level is invalid
+     */
+    @Benchmark
+    public ch.zhaw.pm3.teamretro.gamepack.Level getLevel() throws IOException, InvalidLevelConfiguration {
+        return GamePackFactory.getLevel(LevelParseBenchmark.EXAMPLE_SCENARIO, levelName);
+    }
+}
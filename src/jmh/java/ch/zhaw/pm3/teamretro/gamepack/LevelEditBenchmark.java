@@ -0,0 +1,114 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.Block;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.EntityType;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Player;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite;
+
+/**
+ * Measures the editor operations {@link Level#addEntity(EntityType, Sprite, Position)}
+ * and {@link Level#removeEntity(Position)} on large levels.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LevelEditBenchmark {
+
+    /**
+     * The amount of blocks per row of the generated level.
+     */
+    private static final int BLOCKS_PER_ROW = 1000;
+
+    /**
+     * The size of a single block.
+     */
+    private static final int TILE_SIZE = 32;
+
+    /**
+     * The amount of blocks in the level.
+     */
+    @Param({ "10000", "100000" })
+    public int entities;
+
+    /**
+     * The level being edited.
+     */
+    private Level level;
+
+    /**
+     * The sprite of the placed blocks.
+     */
+    private Sprite sprite;
+
+    /**
+     * A position without any block on it.
+     */
+    private Position freePosition;
+
+    /**
+     * A position with a block on it.
+     */
+    private Position usedPosition;
+
+    /**
+     * Generates a level made of rows of blocks and a player.
+     *
+     * @throws InvalidLevelConfiguration if the level is invalid
+     */
+    @Setup
+    public void setup() throws InvalidLevelConfiguration {
+        sprite = new Sprite("day.grass");
+        List<Entity> blocks = new ArrayList<>(entities + 1);
+        for (int i = 0; i < entities; i++) {
+            Position position = new Position(i % BLOCKS_PER_ROW * TILE_SIZE, i / BLOCKS_PER_ROW * TILE_SIZE);
+            blocks.add(new Block(position, sprite, sprite.getProperties()));
+        }
+        blocks.add(new Player(new Position(0, -TILE_SIZE), new Sprite("protagonist.protagonist"),
+                sprite.getProperties()));
+        level = new Level("benchmark", Set.of("day", "protagonist"), "day.dayBackground", blocks);
+
+        int rows = (entities + BLOCKS_PER_ROW - 1) / BLOCKS_PER_ROW;
+        freePosition = new Position(0, (rows + 1) * TILE_SIZE);
+        usedPosition = new Position(TILE_SIZE * 3, TILE_SIZE);
+    }
+
+    /**
+     * Places a block on an empty position and removes it again.
+     *
+     * @return the removed block
+     * @throws InvalidLevelConfiguration if the level is invalid
+     */
+    @Benchmark
+    public Optional<Entity> addAndRemove() throws InvalidLevelConfiguration {
+        level.addEntity(EntityType.BLOCK, sprite, freePosition);
+        return level.removeEntity(freePosition);
+    }
+
+    /**
+     * Places a block onto an existing one, which replaces it.
+     *
+     * @return the replaced block
+     * @throws InvalidLevelConfiguration if the level is invalid
+     */
+    @Benchmark
+    public Optional<Entity> replace() throws InvalidLevelConfiguration {
+        return level.addEntity(EntityType.BLOCK, sprite, usedPosition).getValue();
+    }
+}
@@ -0,0 +1,73 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ch.zhaw.pm3.teamretro.archiveengine.ZipReader;
+
+/**
+ * Measures how long it takes to parse the json configuration of the levels in
+ * the example scenario, without any archive access or sprite setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LevelParseBenchmark {
+
+    /**
+     * The game pack the levels are taken from, relative to the project root.
+     */
+    static final String EXAMPLE_SCENARIO = Paths.get("ExampleScenario.zip").toAbsolutePath().toString();
+
+    /**
+     * The name of the level to parse.
+     */
+    @Param({ "Sky Land", "Home Of Sonichu" })
+    public String levelName;
+
+    /**
+     * The json configuration of the level.
+     */
+    private String levelJson;
+
+    /**
+     * Reads the level configuration once, so only the parsing is measured.
+     *
+     * @throws IOException if the example scenario couldn't be read
+     */
+    @Setup
+    public void setup() throws IOException {
+        levelJson = new ZipReader(EXAMPLE_SCENARIO).getText(String.format("levels/%s.json", levelName));
+    }
+
+    /**
+     * @return the parsed level
+     * @throws InvalidLevelConfiguration if the level is invalid
+     */
+    @Benchmark
+    public Level valueOf() throws InvalidLevelConfiguration {
+        return Level.valueOf(levelJson);
+    }
+
+    /**
+     * Only builds the org.json tree of the level, as the level was parsed before
+     * the streaming parser, for comparison.
+     *
+     * @return the json tree
+     */
+    @Benchmark
+    public JSONObject jsonTree() {
+        return JsonParser.stringToJSONObject(levelJson);
+    }
+}
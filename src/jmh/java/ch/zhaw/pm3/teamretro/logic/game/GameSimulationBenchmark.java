@@ -0,0 +1,90 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ch.zhaw.pm3.teamretro.gamepack.GamePackFactory;
+import ch.zhaw.pm3.teamretro.gamepack.InvalidLevelConfiguration;
+import ch.zhaw.pm3.teamretro.gamepack.Level;
+
+/**
+ * Measures a single tick of the game, meaning the movement and the collision
+ * checks of the player and all the enemies. The {@link GameSimulation} runs
+ * headless, so no display is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameSimulationBenchmark {
+
+    /**
+     * The height of the canvas, entities falling below it die.
+     */
+    private static final double FALL_LIMIT = 512;
+
+    /**
+     * The name of the level to simulate.
+     */
+    @Param({ "Sky Land", "Home Of Sonichu" })
+    public String levelName;
+
+    /**
+     * Whether the player keeps running to the right, otherwise the player stands
+     * still and only the enemies move.
+     */
+    @Param({ "false", "true" })
+    public boolean running;
+
+    /**
+     * The keys currently pressed.
+     */
+    private final Set<KeyBindings> pressed = EnumSet.noneOf(KeyBindings.class);
+
+    /**
+     * The simulation of the level.
+     */
+    private GameSimulation simulation;
+
+    /**
+     * Loads the level and starts the simulation.
+     *
+     * @throws IOException               if the archive couldn't be read
+     * @throws InvalidLevelConfiguration if the level is invalid
+     */
+    @Setup
+    public void setup() throws IOException, InvalidLevelConfiguration {
+        Level level = GamePackFactory.getLevel(Paths.get("ExampleScenario.zip").toAbsolutePath().toString(),
+                levelName);
+        if (running) {
+            pressed.add(KeyBindings.WALK_RIGHT);
+            pressed.add(KeyBindings.RUN);
+        }
+        simulation = new GameSimulation(pressed::contains, FALL_LIMIT);
+        simulation.start(level);
+    }
+
+    /**
+     * Advances the game by a single tick, a won level starts over.
+     *
+     * @throws InvalidLevelConfiguration if an entity is invalid
+     */
+    @Benchmark
+    public void tick() throws InvalidLevelConfiguration {
+        if (!simulation.isRunning()) {
+            simulation.reset();
+        }
+        simulation.tick(Simulation.TICK_DURATION);
+    }
+}
@@ -2,6 +2,8 @@ package ch.zhaw.pm3.teamretro.archiveengine;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
 /**
@@ -10,8 +12,8 @@ import java.nio.charset.Charset;
 public interface ArchiveReader {
 
     /**
-     * Will extract the file content as String. This method uses the UTF-8 charset
-     * to decode.
+     * Will extract the file content as String, the line endings are kept as they
+     * are. This method uses the UTF-8 charset to decode.
      * 
      * @param filename the name of the file to extract
      * @return a String object
@@ -20,7 +22,8 @@ public interface ArchiveReader {
     public String getText(String filename) throws IOException;
 
     /**
-     * Will extract the file content as String.
+     * Will extract the file content as String, the line endings are kept as they
+     * are.
      * 
      * @param filename the name of the file to extract
      * @param charset  the charset used to decode the string
@@ -38,6 +41,47 @@ public interface ArchiveReader {
      */
     public InputStream getFile(String filename) throws IOException;
 
+    /**
+     * Will extract the whole file content. The size stored in the archive is used
+     * to allocate the array once.
+     * 
+     * @param filename the requested name of the file
+     * @return the content of the file
+     * @throws IOException if the file doesn't exist or other
+     */
+    public byte[] readAllBytes(String filename) throws IOException;
+
+    /**
+     * Will return a reader decoding the file content on the fly. This method uses
+     * the UTF-8 charset to decode.
+     * 
+     * @param filename the requested name of the file
+     * @return a reader, it has to be closed by the caller
+     * @throws IOException if the file doesn't exist or other
+     */
+    public Reader getReader(String filename) throws IOException;
+
+    /**
+     * Will return a reader decoding the file content on the fly.
+     * 
+     * @param filename the requested name of the file
+     * @param charset  the charset used to decode the content
+     * @return a reader, it has to be closed by the caller
+     * @throws IOException if the file doesn't exist or other
+     */
+    public Reader getReader(String filename, Charset charset) throws IOException;
+
+    /**
+     * Will return the whole file content as a read-only buffer. Implementations
+     * may expose the archive directly without copying, the buffer must not be
+     * used after the archive was written.
+     * 
+     * @param filename the requested name of the file
+     * @return a read-only buffer positioned at the start of the content
+     * @throws IOException if the file doesn't exist or other
+     */
+    public ByteBuffer getBuffer(String filename) throws IOException;
+
     /**
      * Will check if the given file exists in the archive.
      * 
@@ -47,6 +91,16 @@ public interface ArchiveReader {
      */
     public boolean hasFile(String filename) throws IOException;
 
+    /**
+     * Will return a stamp of the file content. The stamp changes whenever the
+     * content of the file changes, which allows caching data derived from it.
+     * 
+     * @param filename the file name
+     * @return the content stamp
+     * @throws IOException if the file doesn't exist or other
+     */
+    public long getStamp(String filename) throws IOException;
+
     /**
      * Will check if the given Folder exists in the archive.
      * 
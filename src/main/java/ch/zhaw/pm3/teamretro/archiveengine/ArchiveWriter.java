@@ -5,6 +5,10 @@ import java.io.InputStream;
 
 /**
  * The main writer interface to be exposed to the upper systems.
+ * <p>
+ * Every change is written to the archive right away, unless a transaction is
+ * running. The changes of a transaction are staged in memory and written at
+ * once on {@link #commit()}, while reading already sees the staged changes.
  */
 public interface ArchiveWriter extends ArchiveReader {
 
@@ -52,4 +56,34 @@ public interface ArchiveWriter extends ArchiveReader {
      * @throws IOException if the folder doesn't exist or other
      */
     public void removeFolder(String path) throws IOException;
+
+    /**
+     * Will start a transaction, the following changes are staged in memory until
+     * the transaction is committed.
+     * 
+     * @throws IOException if a transaction is already running
+     */
+    public void beginTransaction() throws IOException;
+
+    /**
+     * Will write all the staged changes to the archive at once and end the
+     * transaction. The archive is either fully updated or left as it was.
+     * 
+     * @throws IOException if no transaction is running or writing failed, the
+     *                     transaction is ended anyway
+     */
+    public void commit() throws IOException;
+
+    /**
+     * Will drop all the staged changes and end the transaction, nothing happens if
+     * no transaction is running.
+     */
+    public void rollback();
+
+    /**
+     * Will check if a transaction is running.
+     * 
+     * @return true if changes are currently staged instead of written
+     */
+    public boolean isInTransaction();
 }
@@ -0,0 +1,55 @@
+package ch.zhaw.pm3.teamretro.archiveengine;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An input stream reading the remaining bytes of a buffer, without copying
+ * them up front.
+ */
+class ByteBufferInputStream extends InputStream {
+
+    /**
+     * The buffer read from, its position is the position of the stream.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates a stream over the remaining bytes of the buffer.
+     * 
+     * @param buffer the buffer to read from, it is not duplicated
+     */
+    ByteBufferInputStream(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+        return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int read = Math.min(length, buffer.remaining());
+        buffer.get(bytes, offset, read);
+        return read;
+    }
+
+    @Override
+    public long skip(long n) {
+        int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+        buffer.position(buffer.position() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+}
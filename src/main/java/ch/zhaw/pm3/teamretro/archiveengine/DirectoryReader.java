@@ -0,0 +1,159 @@
+package ch.zhaw.pm3.teamretro.archiveengine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * An ArchiveReader backed by an exploded directory with the same layout as the
+ * zip archive. It's meant for authoring packs, the files can be edited in place
+ * and are read without any extraction.
+ */
+public class DirectoryReader implements ArchiveReader {
+
+	/**
+	 * The delimiter used by the paths inside of the archive.
+	 */
+	protected static final String ARCHIVE_DELIMITER = "/";
+
+	/**
+	 * The directory name / location as given.
+	 */
+	protected final String name;
+
+	/**
+	 * The absolute and normalized root directory, no path may leave it.
+	 */
+	protected final Path root;
+
+	/**
+	 * Constructs an archive reader object for an existing directory.
+	 *
+	 * @param directoryName the path of the directory
+	 * @throws IOException if the directory doesn't exist
+	 */
+	public DirectoryReader(String directoryName) throws IOException {
+		this.name = directoryName;
+		this.root = Path.of(directoryName).toAbsolutePath().normalize();
+
+		if (!Files.isDirectory(root)) {
+			throw new IOException(String.format("The requested directory %s does not exist.", this.name));
+		}
+	}
+
+	/**
+	 * Will resolve the archive path inside of the directory.
+	 *
+	 * @param path the archive path
+	 * @return the path on the file system
+	 * @throws IOException if the path leaves the directory
+	 */
+	protected Path resolve(String path) throws IOException {
+		Path resolved = root.resolve(path.replace('\\', '/')).normalize();
+		if (!resolved.startsWith(root)) {
+			throw new IOException(String.format("The path <%s> leaves the archive.", path));
+		}
+		return resolved;
+	}
+
+	/**
+	 * Will convert the path to the archive path used as key, folders don't end
+	 * with the delimiter.
+	 *
+	 * @param path the path of the file or folder
+	 * @return the path relative to the root with archive delimiters
+	 * @throws IOException if the path leaves the directory
+	 */
+	protected String toArchivePath(String path) throws IOException {
+		return root.relativize(resolve(path)).toString().replace(File.separatorChar, '/');
+	}
+
+	/**
+	 * Will resolve the path of an existing file.
+	 *
+	 * @param filename the archive path of the file
+	 * @return the path on the file system
+	 * @throws IOException if the file doesn't exist or is a directory
+	 */
+	private Path resolveFile(String filename) throws IOException {
+		Path file = resolve(filename);
+		if (Files.isDirectory(file)) {
+			throw new IOException("No directories may be extracted from this method.");
+		}
+		if (!Files.isRegularFile(file)) {
+			throw new IOException(String.format("No such file exists <%s>", filename));
+		}
+		return file;
+	}
+
+	@Override
+	public String getText(String filename) throws IOException {
+		return getText(filename, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public String getText(String filename, Charset charset) throws IOException {
+		return new String(readAllBytes(filename), charset);
+	}
+
+	@Override
+	public InputStream getFile(String filename) throws IOException {
+		return Files.newInputStream(resolveFile(filename));
+	}
+
+	@Override
+	public byte[] readAllBytes(String filename) throws IOException {
+		return Files.readAllBytes(resolveFile(filename));
+	}
+
+	@Override
+	public Reader getReader(String filename) throws IOException {
+		return getReader(filename, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public Reader getReader(String filename, Charset charset) throws IOException {
+		return Files.newBufferedReader(resolveFile(filename), charset);
+	}
+
+	@Override
+	public ByteBuffer getBuffer(String filename) throws IOException {
+		return ByteBuffer.wrap(readAllBytes(filename)).asReadOnlyBuffer();
+	}
+
+	@Override
+	public boolean hasFile(String filename) throws IOException {
+		return Files.isRegularFile(resolve(filename));
+	}
+
+	/**
+	 * Will return the content stamp of the file, it's built from the size and the
+	 * last modification time, so the file doesn't need to be read.
+	 *
+	 * @param filename the file path
+	 * @return the content stamp
+	 * @throws IOException if the file doesn't exist
+	 */
+	@Override
+	public long getStamp(String filename) throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(resolveFile(filename), BasicFileAttributes.class);
+		return (attributes.size() << Integer.SIZE) ^ attributes.lastModifiedTime().toMillis();
+	}
+
+	@Override
+	public boolean hasFolder(String dirname) throws IOException {
+		return Files.isDirectory(resolve(dirname));
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+}
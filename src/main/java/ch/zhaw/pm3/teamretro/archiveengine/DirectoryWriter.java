@@ -0,0 +1,360 @@
+package ch.zhaw.pm3.teamretro.archiveengine;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * An ArchiveWriter backed by an exploded directory. Every change only writes
+ * the affected file, which is replaced atomically so readers never see it half
+ * written.
+ */
+public class DirectoryWriter extends DirectoryReader implements ArchiveWriter {
+
+	/**
+	 * The changes staged by the running transaction, null if there is none. Maps
+	 * the archive path (folders end with the delimiter) to the new content, a
+	 * null value marks the entry as removed. The entries are kept in the order
+	 * they were last changed in.
+	 */
+	private Map<String, byte[]> staged;
+
+	/**
+	 * Will create a new directory oriented ArchiveWriter.
+	 *
+	 * @param directoryName the path of the directory
+	 * @throws IOException if the directory doesn't exist
+	 */
+	public DirectoryWriter(String directoryName) throws IOException {
+		super(directoryName);
+	}
+
+	/**
+	 * Will check if the parent folder of the archive path exists.
+	 *
+	 * @param archivePath the archive path
+	 * @return true if the parent exists or the path is in the top level
+	 * @throws IOException if the path leaves the directory
+	 */
+	private boolean hasParentFolder(String archivePath) throws IOException {
+		int delimiter = archivePath.lastIndexOf(ARCHIVE_DELIMITER);
+		return delimiter < 0 || hasFolder(archivePath.substring(0, delimiter + 1));
+	}
+
+	/**
+	 * Will stage the change, it's moved to the end if the entry was changed
+	 * before.
+	 *
+	 * @param archivePath the archive path of the entry
+	 * @param content     the new content, null to remove the entry
+	 */
+	private void stage(String archivePath, byte[] content) {
+		staged.remove(archivePath);
+		staged.put(archivePath, content);
+	}
+
+	@Override
+	public void addFolder(String path) throws IOException {
+		if (!path.endsWith(ARCHIVE_DELIMITER)) {
+			throw new IOException(String.format("%s is not a valid directory path", path));
+		}
+		String archivePath = toArchivePath(path);
+		if (!hasParentFolder(archivePath)) {
+			throw new IOException("Parent folder doesn't exist");
+		}
+
+		if (isInTransaction()) {
+			stage(archivePath + ARCHIVE_DELIMITER, new byte[0]);
+			return;
+		}
+		Files.createDirectories(resolve(archivePath));
+	}
+
+	@Override
+	public void addFile(String data, String name) throws IOException {
+		addFile(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), name);
+	}
+
+	@Override
+	public void addFile(InputStream data, String filepath) throws IOException {
+		if (filepath.endsWith(ARCHIVE_DELIMITER)) {
+			throw new IOException(String.format("%s is not a valid file path", filepath));
+		}
+		String archivePath = toArchivePath(filepath);
+		if (!hasParentFolder(archivePath)) {
+			throw new IOException("Parent folder doesn't exist");
+		}
+
+		if (isInTransaction()) {
+			stage(archivePath, data.readAllBytes());
+			return;
+		}
+		writeFile(resolve(archivePath), data);
+	}
+
+	/**
+	 * Will write the file into a temporary file next to it first and move it in
+	 * place afterwards. A replaced file keeps its permissions.
+	 *
+	 * @param file the file to write
+	 * @param data the content of the file
+	 * @throws IOException if writing failed
+	 */
+	private static void writeFile(Path file, InputStream data) throws IOException {
+		Path temp = TempFiles.createFor(file);
+		try {
+			// written into the file as it is, replacing it would drop its permissions
+			try (OutputStream output = Files.newOutputStream(temp)) {
+				data.transferTo(output);
+			}
+			try {
+				Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Will delete the folder and everything inside of it.
+	 *
+	 * @param folder the folder to delete
+	 * @throws IOException if something couldn't be deleted
+	 */
+	private static void deleteFolder(Path folder) throws IOException {
+		List<Path> paths;
+		try (Stream<Path> walk = Files.walk(folder)) {
+			paths = new ArrayList<>();
+			walk.sorted(Comparator.reverseOrder()).forEach(paths::add);
+		}
+		for (Path path : paths) {
+			Files.delete(path);
+		}
+	}
+
+	@Override
+	public void removeFile(String path) throws IOException {
+		if (!hasFile(path)) {
+			throw new IOException(String.format("requested file <%s> doesn't exist", path));
+		}
+
+		if (isInTransaction()) {
+			stage(toArchivePath(path), null);
+			return;
+		}
+		Files.delete(resolve(path));
+	}
+
+	@Override
+	public void removeFolder(String path) throws IOException {
+		if (!path.endsWith(ARCHIVE_DELIMITER)) {
+			throw new IOException("path is not a valid directory path.");
+		}
+		if (!hasFolder(path)) {
+			throw new IOException(String.format("requested folder <%s> doesn't exist", path));
+		}
+		String archivePath = toArchivePath(path);
+		if (archivePath.isEmpty()) {
+			throw new IOException("The root of the archive can not be removed.");
+		}
+
+		if (isInTransaction()) {
+			stageFolderRemoval(archivePath + ARCHIVE_DELIMITER);
+			return;
+		}
+		deleteFolder(resolve(archivePath));
+	}
+
+	/**
+	 * Will mark the folder and everything inside of it as removed, no matter if it
+	 * was written or staged.
+	 *
+	 * @param archivePath the archive path of the folder, ending with the delimiter
+	 * @throws IOException if the folder couldn't be listed
+	 */
+	private void stageFolderRemoval(String archivePath) throws IOException {
+		List<String> removed = new ArrayList<>();
+		Path folder = resolve(archivePath);
+		if (Files.isDirectory(folder)) {
+			try (Stream<Path> walk = Files.walk(folder)) {
+				walk.forEach(path -> {
+					String entry = root.relativize(path).toString().replace(File.separatorChar, '/');
+					removed.add(Files.isDirectory(path) ? entry + ARCHIVE_DELIMITER : entry);
+				});
+			}
+		}
+		for (String entry : staged.keySet()) {
+			if (entry.startsWith(archivePath)) {
+				removed.add(entry);
+			}
+		}
+		removed.add(archivePath);
+		for (String entry : removed) {
+			stage(entry, null);
+		}
+	}
+
+	@Override
+	public void beginTransaction() throws IOException {
+		if (isInTransaction()) {
+			throw new IOException("A transaction is already running.");
+		}
+		staged = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Will apply the staged changes in the order they were made. Every file is
+	 * replaced atomically, but unlike a zip archive the directory as a whole may
+	 * be left with only some of the changes if writing fails halfway.
+	 */
+	@Override
+	public void commit() throws IOException {
+		if (!isInTransaction()) {
+			throw new IOException("No transaction is running.");
+		}
+		Map<String, byte[]> changes = staged;
+		staged = null;
+
+		for (Map.Entry<String, byte[]> change : changes.entrySet()) {
+			String archivePath = change.getKey();
+			Path path = resolve(archivePath);
+			boolean folder = archivePath.endsWith(ARCHIVE_DELIMITER);
+			if (change.getValue() != null) {
+				if (folder) {
+					Files.createDirectories(path);
+				} else {
+					writeFile(path, new ByteArrayInputStream(change.getValue()));
+				}
+			} else if (folder && Files.isDirectory(path)) {
+				deleteFolder(path);
+			} else if (!folder) {
+				Files.deleteIfExists(path);
+			}
+		}
+	}
+
+	@Override
+	public void rollback() {
+		staged = null;
+	}
+
+	@Override
+	public boolean isInTransaction() {
+		return staged != null;
+	}
+
+	@Override
+	public boolean hasFile(String filename) throws IOException {
+		if (isInTransaction() && !filename.endsWith(ARCHIVE_DELIMITER)) {
+			String archivePath = toArchivePath(filename);
+			if (staged.containsKey(archivePath)) {
+				return staged.get(archivePath) != null;
+			}
+		}
+		return super.hasFile(filename);
+	}
+
+	@Override
+	public boolean hasFolder(String dirname) throws IOException {
+		if (isInTransaction()) {
+			String archivePath = toArchivePath(dirname) + ARCHIVE_DELIMITER;
+			if (staged.containsKey(archivePath)) {
+				return staged.get(archivePath) != null;
+			}
+		}
+		return super.hasFolder(dirname);
+	}
+
+	/**
+	 * Will return the staged content while a transaction changed the file, the
+	 * file in the directory otherwise.
+	 */
+	@Override
+	public InputStream getFile(String filename) throws IOException {
+		byte[] content = getStagedContent(filename);
+		if (content != null) {
+			return new ByteArrayInputStream(content);
+		}
+		return super.getFile(filename);
+	}
+
+	@Override
+	public byte[] readAllBytes(String filename) throws IOException {
+		byte[] content = getStagedContent(filename);
+		if (content != null) {
+			return content.clone();
+		}
+		return super.readAllBytes(filename);
+	}
+
+	@Override
+	public Reader getReader(String filename, Charset charset) throws IOException {
+		byte[] content = getStagedContent(filename);
+		if (content != null) {
+			return new InputStreamReader(new ByteArrayInputStream(content), charset);
+		}
+		return super.getReader(filename, charset);
+	}
+
+	@Override
+	public ByteBuffer getBuffer(String filename) throws IOException {
+		byte[] content = getStagedContent(filename);
+		if (content != null) {
+			return ByteBuffer.wrap(content).asReadOnlyBuffer();
+		}
+		return super.getBuffer(filename);
+	}
+
+	@Override
+	public long getStamp(String filename) throws IOException {
+		byte[] content = getStagedContent(filename);
+		if (content != null) {
+			CRC32 crc = new CRC32();
+			crc.update(content);
+			return ((long) content.length << Integer.SIZE) ^ crc.getValue();
+		}
+		return super.getStamp(filename);
+	}
+
+	/**
+	 * Will return the content the running transaction staged for the file.
+	 *
+	 * @param filename the file path
+	 * @return the staged content, null if the file wasn't changed
+	 * @throws IOException if the transaction removed the file
+	 */
+	private byte[] getStagedContent(String filename) throws IOException {
+		if (!isInTransaction() || filename.endsWith(ARCHIVE_DELIMITER)) {
+			return null;
+		}
+		String archivePath = toArchivePath(filename);
+		if (!staged.containsKey(archivePath)) {
+			return null;
+		}
+		byte[] content = staged.get(archivePath);
+		if (content == null) {
+			throw new IOException(String.format("No such file exists <%s>", filename));
+		}
+		return content;
+	}
+}
@@ -0,0 +1,174 @@
+package ch.zhaw.pm3.teamretro.archiveengine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import ch.zhaw.pm3.teamretro.jfr.ArchiveReadEvent;
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.model.enums.CompressionMethod;
+
+/**
+ * A zip oriented ArchiveReader, which maps the whole archive into memory.
+ * Entries which were stored without compression are handed out as read-only
+ * slices of the mapping, nothing is copied or inflated. Compressed and
+ * encrypted entries are extracted as usual.
+ *
+ * As long as the mapping is alive, some systems (e.g. Windows) don't allow to
+ * replace the archive, that's why it's only used when enabled with the
+ * {@link #ENABLED_PROPERTY}.
+ */
+public class MappedZipReader extends ZipReader {
+
+	/**
+	 * The name of the system property enabling mapped archive access.
+	 */
+	public static final String ENABLED_PROPERTY = "jumpandbuild.archive.mapped";
+
+	/**
+	 * The signature every local file header starts with.
+	 */
+	private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+
+	/**
+	 * The size of the fixed part of a local file header.
+	 */
+	private static final int LOCAL_FILE_HEADER_SIZE = 30;
+
+	/**
+	 * The offset of the file name length inside of a local file header.
+	 */
+	private static final int FILE_NAME_LENGTH_OFFSET = 26;
+
+	/**
+	 * The offset of the extra field length inside of a local file header.
+	 */
+	private static final int EXTRA_FIELD_LENGTH_OFFSET = 28;
+
+	/**
+	 * The whole archive mapped into memory, null if it's too large to be mapped
+	 * at once.
+	 */
+	private MappedByteBuffer mapping;
+
+	/**
+	 * Constructs a mapped archive reader object for an existing zip file.
+	 *
+	 * @param fileName the name of the zip archive
+	 * @throws IOException if the archive doesn't exist or can't be mapped
+	 */
+	public MappedZipReader(String fileName) throws IOException {
+		super(fileName);
+		map();
+	}
+
+	/**
+	 * @return true if mapped archive access was enabled with the system property
+	 */
+	public static boolean isEnabled() {
+		return Boolean.getBoolean(ENABLED_PROPERTY);
+	}
+
+	/**
+	 * Will map the archive into memory, the channel is closed right away as the
+	 * mapping stays valid on its own.
+	 *
+	 * @throws IOException if the archive can't be mapped
+	 */
+	private void map() throws IOException {
+		try (FileChannel channel = FileChannel.open(Path.of(name), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				mapping = null;
+				return;
+			}
+			mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			mapping.order(ByteOrder.LITTLE_ENDIAN);
+		}
+	}
+
+	@Override
+	protected void reopen() throws IOException {
+		super.reopen();
+		map();
+	}
+
+	/**
+	 * Will return a slice of the mapping for stored entries, the content is
+	 * extracted for any other entry.
+	 */
+	@Override
+	public ByteBuffer getBuffer(String filename) throws IOException {
+		ByteBuffer content = getMappedContent(filename);
+		return content != null ? content : super.getBuffer(filename);
+	}
+
+	/**
+	 * Will read stored entries straight out of the mapping.
+	 */
+	@Override
+	public InputStream getFile(String fileName) throws IOException {
+		ByteBuffer content = getMappedContent(fileName);
+		return content != null ? new ByteBufferInputStream(content) : super.getFile(fileName);
+	}
+
+	/**
+	 * Will return the content of the file inside of the mapping.
+	 *
+	 * @param filename the requested name of the file
+	 * @return a read-only slice of the content, null if the file doesn't exist or
+	 *         can't be read without extracting it
+	 * @throws IOException if the local file header is corrupt
+	 */
+	private ByteBuffer getMappedContent(String filename) throws IOException {
+		FileHeader fh = getFileHeader(filename);
+		ByteBuffer content = fh == null ? null : slice(fh);
+		if (content == null) {
+			return null;
+		}
+
+		ArchiveReadEvent event = new ArchiveReadEvent();
+		if (event.shouldCommit()) {
+			event.setArchive(name);
+			event.setEntry(filename);
+			event.setCompressedSize(fh.getCompressedSize());
+			event.setSize(fh.getUncompressedSize());
+			event.commit();
+		}
+		return content;
+	}
+
+	/**
+	 * Will locate the content of the entry inside of the mapping.
+	 *
+	 * @param fh the file header of the entry
+	 * @return a read-only slice of the content, null if the entry can't be read
+	 *         without extracting it
+	 * @throws IOException if the local file header is corrupt
+	 */
+	private ByteBuffer slice(FileHeader fh) throws IOException {
+		if (mapping == null || fh.isDirectory() || fh.isEncrypted()
+				|| fh.getCompressionMethod() != CompressionMethod.STORE) {
+			return null;
+		}
+		long offset = fh.getOffsetLocalHeader();
+		if (offset < 0 || offset + LOCAL_FILE_HEADER_SIZE > mapping.capacity()
+				|| mapping.getInt((int) offset) != LOCAL_FILE_HEADER_SIGNATURE) {
+			throw new IOException(String.format("Corrupt local file header of <%s>", fh.getFileName()));
+		}
+		int start = (int) offset + LOCAL_FILE_HEADER_SIZE
+				+ Short.toUnsignedInt(mapping.getShort((int) offset + FILE_NAME_LENGTH_OFFSET))
+				+ Short.toUnsignedInt(mapping.getShort((int) offset + EXTRA_FIELD_LENGTH_OFFSET));
+		long size = fh.getCompressedSize();
+		if (start + size > mapping.capacity()) {
+			throw new IOException(String.format("Content of <%s> exceeds the archive", fh.getFileName()));
+		}
+		ByteBuffer content = mapping.duplicate();
+		content.position(start).limit(start + (int) size);
+		return content.slice().asReadOnlyBuffer();
+	}
+}
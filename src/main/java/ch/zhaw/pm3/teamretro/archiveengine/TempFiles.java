@@ -0,0 +1,54 @@
+package ch.zhaw.pm3.teamretro.archiveengine;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Creates the temporary files which are written first and moved in place of
+ * the actual file afterwards.
+ */
+final class TempFiles {
+
+	/**
+	 * This is empty so that there can not be an initialized version of this class.
+	 */
+	private TempFiles() {
+	}
+
+	/**
+	 * Will create an empty temporary file next to the given file. Unlike
+	 * {@link Files#createTempFile(Path, String, String, java.nio.file.attribute.FileAttribute...)},
+	 * which only allows the owner to access it, the temporary file gets the
+	 * permissions of the file it replaces, or the default ones of a new file. So
+	 * moving it in place doesn't change who may read the file.
+	 *
+	 * @param file the file which is replaced by the temporary file
+	 * @return the temporary file
+	 * @throws IOException if the temporary file couldn't be created
+	 */
+	static Path createFor(Path file) throws IOException {
+		Path temp;
+		while (true) {
+			String name = String.format("%s.%x.tmp", file.getFileName(), ThreadLocalRandom.current().nextLong());
+			try {
+				temp = Files.createFile(file.resolveSibling(name));
+				break;
+			} catch (FileAlreadyExistsException e) {
+				// try another name
+			}
+		}
+		try {
+			if (Files.exists(file) && Files.getFileAttributeView(file, PosixFileAttributeView.class) != null) {
+				Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(file));
+			}
+		} catch (IOException e) {
+			Files.deleteIfExists(temp);
+			throw e;
+		}
+		return temp;
+	}
+}
@@ -3,10 +3,26 @@ package ch.zhaw.pm3.teamretro.archiveengine;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
 
 import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.io.outputstream.ZipOutputStream;
 import net.lingala.zip4j.model.FileHeader;
 import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.CompressionMethod;
+import net.lingala.zip4j.util.Zip4jUtil;
 
 /**
  * This class is meant as a pure abstraction layer back-end intended as
@@ -15,6 +31,31 @@ import net.lingala.zip4j.model.ZipParameters;
  */
 public class ZipWriter extends ZipReader implements ArchiveWriter {
 
+	/**
+	 * Size of the buffer used to copy the entries while committing.
+	 */
+	private static final int COPY_BUFFER_SIZE = 8192;
+
+	/**
+	 * Extensions of the file formats which are compressed already, deflating them
+	 * again barely saves any space but costs time on every read.
+	 */
+	private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(".png", ".jpg", ".jpeg", ".gif", ".ogg",
+			".mp3", ".zip");
+
+	/**
+	 * Whether already compressed files are stored without compression, so they
+	 * can be read without inflating them.
+	 */
+	private boolean storeCompressed = true;
+
+	/**
+	 * The changes staged by the running transaction, null if there is none. Maps
+	 * the zip path (folders end with the delimiter) to the new content, a null
+	 * value marks the entry as removed.
+	 */
+	private Map<String, byte[]> staged;
+
 	/**
 	 * Will create a new zip oriented ArchiveWriter.
 	 * 
@@ -51,6 +92,35 @@ public class ZipWriter extends ZipReader implements ArchiveWriter {
 		return new ZipParameters();
 	}
 
+	/**
+	 * Will check if the file is stored without compression.
+	 * 
+	 * @param zipPath the zip path of the file
+	 * @return true if the file is compressed already and storing is enabled
+	 */
+	private boolean shouldStore(String zipPath) {
+		if (!storeCompressed) {
+			return false;
+		}
+		int extension = zipPath.lastIndexOf('.');
+		return extension >= 0 && COMPRESSED_EXTENSIONS.contains(zipPath.substring(extension).toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * Will set if already compressed files (e.g. images) are stored without
+	 * compression, which is the default. Files already in the archive keep their
+	 * compression.
+	 * 
+	 * @param storeCompressed false to deflate every file
+	 */
+	public void setStoreCompressed(boolean storeCompressed) {
+		this.storeCompressed = storeCompressed;
+	}
+
+	public boolean isStoreCompressed() {
+		return storeCompressed;
+	}
+
 	/**
 	 * Will remove the respective file header from the zip file.
 	 * 
@@ -59,6 +129,7 @@ public class ZipWriter extends ZipReader implements ArchiveWriter {
 	 */
 	private void removeFileHeader(FileHeader fileHeader) throws IOException {
 		zipFile.removeFile(fileHeader);
+		reindex();
 	}
 
 	/**
@@ -69,6 +140,7 @@ public class ZipWriter extends ZipReader implements ArchiveWriter {
 	 */
 	private void addStream(InputStream fileContent, ZipParameters params) throws IOException {
 		zipFile.addStream(fileContent, params);
+		reindex();
 	}
 
 	@Override
@@ -82,6 +154,10 @@ public class ZipWriter extends ZipReader implements ArchiveWriter {
 		if (!hasParentFolder(zipPath))
 			throw new IOException("Parent folder doesn't exist");
 
+		if (isInTransaction()) {
+			staged.put(zipPath, new byte[0]);
+			return;
+		}
 		params.setFileNameInZip(zipPath);
 		addStream(new ByteArrayInputStream(new byte[0]), params);
 
@@ -106,7 +182,19 @@ public class ZipWriter extends ZipReader implements ArchiveWriter {
 		if (!hasParentFolder(zipPath))
 			throw new IOException("Parent folder doesn't exist");
 
+		if (isInTransaction()) {
+			staged.put(zipPath, data.readAllBytes());
+			return;
+		}
 		params.setFileNameInZip(zipPath);
+		if (shouldStore(zipPath)) {
+			// the size of stored files has to be known up front
+			byte[] content = data.readAllBytes();
+			params.setCompressionMethod(CompressionMethod.STORE);
+			params.setEntrySize(content.length);
+			addStream(new ByteArrayInputStream(content), params);
+			return;
+		}
 		addStream(data, params);
 	}
 
@@ -116,6 +204,14 @@ public class ZipWriter extends ZipReader implements ArchiveWriter {
 			throw new IOException(String.format("requested file <%s> doesn't exist", path));
 		}
 
+		if (isInTransaction()) {
+			if (hasFolder(path)) {
+				throw new IOException("The file requested to be removed is a directory.");
+			}
+			staged.put(pathToZipPath(path), null);
+			return;
+		}
+
 		FileHeader fileHeader = getFileHeader(path);
 
 		if (fileHeader.isDirectory()) {
@@ -136,10 +232,233 @@ public class ZipWriter extends ZipReader implements ArchiveWriter {
 		if (!hasFolder(zipPath)) {
 			throw new IOException(String.format("requested folder <%s> doesn't exist", path));
 		}
+		if (isInTransaction()) {
+			stageFolderRemoval(zipPath);
+			return;
+		}
 		FileHeader fileHeader = getFileHeader(path);
 		if (!fileHeader.isDirectory()) {
 			throw new IOException("The path requested to be removed is a file.");
 		}
 		removeFileHeader(fileHeader);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Will mark the folder and everything inside of it as removed, no matter if it
+	 * was committed or staged.
+	 * 
+	 * @param zipPath the zip path of the folder, ending with the delimiter
+	 * @throws IOException if the archive is corrupt or other
+	 */
+	private void stageFolderRemoval(String zipPath) throws IOException {
+		List<String> removed = new ArrayList<>();
+		for (FileHeader fileHeader : getFiles()) {
+			if (fileHeader.getFileName().startsWith(zipPath)) {
+				removed.add(fileHeader.getFileName());
+			}
+		}
+		for (String entry : staged.keySet()) {
+			if (entry.startsWith(zipPath)) {
+				removed.add(entry);
+			}
+		}
+		removed.add(zipPath);
+		for (String entry : removed) {
+			staged.put(entry, null);
+		}
+	}
+
+	@Override
+	public void beginTransaction() throws IOException {
+		if (isInTransaction()) {
+			throw new IOException("A transaction is already running.");
+		}
+		staged = new LinkedHashMap<>();
+	}
+
+	@Override
+	public void commit() throws IOException {
+		if (!isInTransaction()) {
+			throw new IOException("No transaction is running.");
+		}
+		Map<String, byte[]> changes = staged;
+		staged = null;
+		if (changes.isEmpty()) {
+			return;
+		}
+
+		Path target = Path.of(name).toAbsolutePath();
+		Path temp = TempFiles.createFor(target);
+		try {
+			try (OutputStream output = Files.newOutputStream(temp);
+					ZipOutputStream zip = new ZipOutputStream(output)) {
+				writeEntries(zip, changes);
+			}
+			try {
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+		reopen();
+	}
+
+	/**
+	 * Will write the committed entries merged with the changes in a single pass.
+	 * Replaced entries keep their position, new entries are appended in the order
+	 * they were staged.
+	 * 
+	 * @param zip     the stream of the new archive
+	 * @param changes the staged changes, entries are removed once written
+	 * @throws IOException if reading or writing an entry failed
+	 */
+	private void writeEntries(ZipOutputStream zip, Map<String, byte[]> changes) throws IOException {
+		byte[] buffer = new byte[COPY_BUFFER_SIZE];
+		for (FileHeader fileHeader : getFiles()) {
+			String entry = fileHeader.getFileName();
+			if (!changes.containsKey(entry)) {
+				ZipParameters params = setupZipParameters();
+				params.setFileNameInZip(entry);
+				params.setCompressionMethod(fileHeader.getCompressionMethod());
+				params.setEntrySize(fileHeader.getUncompressedSize());
+				params.setLastModifiedFileTime(Zip4jUtil.dosToExtendedEpochTme(fileHeader.getLastModifiedTime()));
+				zip.putNextEntry(params);
+				if (!fileHeader.isDirectory()) {
+					try (InputStream input = zipFile.getInputStream(fileHeader)) {
+						int read;
+						while ((read = input.read(buffer)) != -1) {
+							zip.write(buffer, 0, read);
+						}
+					}
+				}
+				zip.closeEntry();
+			} else {
+				writeEntry(zip, entry, changes.remove(entry));
+			}
+		}
+		for (Map.Entry<String, byte[]> change : changes.entrySet()) {
+			writeEntry(zip, change.getKey(), change.getValue());
+		}
+	}
+
+	/**
+	 * Will write a staged entry, nothing is written if it was removed.
+	 * 
+	 * @param zip     the stream of the new archive
+	 * @param entry   the zip path of the entry
+	 * @param content the staged content, null if removed
+	 * @throws IOException if writing failed
+	 */
+	private void writeEntry(ZipOutputStream zip, String entry, byte[] content) throws IOException {
+		if (content == null) {
+			return;
+		}
+		ZipParameters params = setupZipParameters();
+		params.setFileNameInZip(entry);
+		if (shouldStore(entry)) {
+			params.setCompressionMethod(CompressionMethod.STORE);
+			params.setEntrySize(content.length);
+		}
+		zip.putNextEntry(params);
+		zip.write(content);
+		zip.closeEntry();
+	}
+
+	@Override
+	public void rollback() {
+		staged = null;
+	}
+
+	@Override
+	public boolean isInTransaction() {
+		return staged != null;
+	}
+
+	@Override
+	public boolean hasFile(String filename) {
+		if (isInTransaction()) {
+			String zipPath = pathToZipPath(filename);
+			if (staged.containsKey(zipPath) && !filename.endsWith(ARCHIVE_DELIMITER)) {
+				return staged.get(zipPath) != null;
+			}
+		}
+		return super.hasFile(filename);
+	}
+
+	@Override
+	public boolean hasFolder(String dirname) {
+		if (isInTransaction()) {
+			String zipPath = pathToZipPath(dirname) + ARCHIVE_DELIMITER;
+			if (staged.containsKey(zipPath)) {
+				return staged.get(zipPath) != null;
+			}
+		}
+		return super.hasFolder(dirname);
+	}
+
+	/**
+	 * Will return the staged content while a transaction changed the file, the
+	 * file in the archive otherwise.
+	 */
+	@Override
+	public InputStream getFile(String fileName) throws IOException {
+		byte[] content = getStagedContent(fileName);
+		if (content != null) {
+			return new ByteArrayInputStream(content);
+		}
+		return super.getFile(fileName);
+	}
+
+	@Override
+	public byte[] readAllBytes(String filename) throws IOException {
+		byte[] content = getStagedContent(filename);
+		if (content != null) {
+			return content.clone();
+		}
+		return super.readAllBytes(filename);
+	}
+
+	@Override
+	public ByteBuffer getBuffer(String filename) throws IOException {
+		byte[] content = getStagedContent(filename);
+		if (content != null) {
+			return ByteBuffer.wrap(content).asReadOnlyBuffer();
+		}
+		return super.getBuffer(filename);
+	}
+
+	@Override
+	public long getStamp(String filename) throws IOException {
+		byte[] content = getStagedContent(filename);
+		if (content != null) {
+			CRC32 crc = new CRC32();
+			crc.update(content);
+			return ((long) content.length << Integer.SIZE) ^ crc.getValue();
+		}
+		return super.getStamp(filename);
+	}
+
+	/**
+	 * Will return the content the running transaction staged for the file.
+	 * 
+	 * @param filename the file path
+	 * @return the staged content, null if the file wasn't changed
+	 * @throws IOException if the transaction removed the file
+	 */
+	private byte[] getStagedContent(String filename) throws IOException {
+		if (!isInTransaction() || filename.endsWith(ARCHIVE_DELIMITER)) {
+			return null;
+		}
+		String zipPath = pathToZipPath(filename);
+		if (!staged.containsKey(zipPath)) {
+			return null;
+		}
+		byte[] content = staged.get(zipPath);
+		if (content == null) {
+			throw new IOException(String.format("No such file exists <%s>", filename));
+		}
+		return content;
+	}
+}
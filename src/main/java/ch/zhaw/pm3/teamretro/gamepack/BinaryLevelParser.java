@@ -0,0 +1,408 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.Block;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Effect;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Enemy;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.EntityType;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Item;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Player;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Behavior;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Properties;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite;
+
+/**
+ * Reads and writes the compact binary representation of a {@link Level}.
+ * <p>
+ * The format starts with a magic number and a version, followed by the level
+ * name, the background, the sprite packs and a dictionary of all the distinct
+ * entity kinds (type, sprite, properties and item effects). Every entity is
+ * then stored as its dictionary index and its position. Positions lying on the
+ * tile grid are stored as tile coordinates, all the others as raw doubles.
+ * Numbers are written as variable length integers, so most entities only take
+ * up three bytes.
+ */
+final class BinaryLevelParser {
+
+    /**
+     * Identifies a binary level file ("JABL").
+     */
+    static final int MAGIC = 0x4A41424C;
+
+    /**
+     * The current version of the format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * What the height and width dimensions of a tile are.
+     */
+    private static final int TILE_SIZE = 32;
+
+    /**
+     * Flag inside of the entity header, set when the position isn't on the tile
+     * grid.
+     */
+    private static final int UNALIGNED_FLAG = 1;
+
+    /**
+     * This is empty so that there can not be an initialized version of this class.
+     */
+    private BinaryLevelParser() {
+    }
+
+    /**
+     * Will encode the level.
+     *
+     * @param level the level to encode
+     * @return the binary representation
+     */
+    static byte[] toBytes(Level level) {
+        return toBytes(level.getLevelName(), level.getBackgroundName(), level.getSpritePacks(),
+                level.getEntityList());
+    }
+
+    /**
+     * Will encode a level made of the given parts, used to store only some of the
+     * entities of a level.
+     *
+     * @param levelName   the name of the level
+     * @param background  the name of the background sprite
+     * @param spritePacks the sprite packs needed by the level
+     * @param entities    the entities to encode
+     * @return the binary representation
+     */
+    static byte[] toBytes(String levelName, String background, Set<String> spritePacks, List<Entity> entities) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(levelName, background, spritePacks, entities, out);
+        } catch (IOException e) {
+            // can not happen while writing into memory
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Will decode a level.
+     *
+     * @param input the binary representation, it is not closed
+     * @return the decoded level
+     * @throws IOException               if the data could not be read
+     * @throws InvalidLevelConfiguration if the data isn't a valid level
+     */
+    static Level read(InputStream input) throws IOException, InvalidLevelConfiguration {
+        DataInputStream in = new DataInputStream(input);
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new InvalidLevelConfiguration("The data is not a binary level.");
+            }
+            int version = readVarInt(in);
+            if (version != VERSION) {
+                throw new InvalidLevelConfiguration(String.format("Unsupported level version <%d>.", version));
+            }
+
+            String levelName = in.readUTF();
+            String background = in.readUTF();
+            int spritePackCount = readVarInt(in);
+            Set<String> spritePacks = new LinkedHashSet<>(spritePackCount);
+            for (int i = 0; i < spritePackCount; i++) {
+                spritePacks.add(in.readUTF());
+            }
+
+            EntityInterner interner = new EntityInterner();
+            int kindCount = readVarInt(in);
+            EntityKind[] kinds = new EntityKind[kindCount];
+            for (int i = 0; i < kindCount; i++) {
+                kinds[i] = EntityKind.read(in, interner);
+            }
+
+            int entityCount = readVarInt(in);
+            List<Entity> entities = new ArrayList<>(entityCount);
+            for (int i = 0; i < entityCount; i++) {
+                int header = readVarInt(in);
+                int kind = header >>> 1;
+                if (kind >= kindCount) {
+                    throw new InvalidLevelConfiguration(String.format("Unknown entity kind <%d>.", kind));
+                }
+                Position position;
+                if ((header & UNALIGNED_FLAG) == 0) {
+                    position = new Position((double) readZigZag(in) * TILE_SIZE, (double) readZigZag(in) * TILE_SIZE);
+                } else {
+                    position = new Position(in.readDouble(), in.readDouble());
+                }
+                entities.add(kinds[kind].createEntity(position, interner));
+            }
+            return new Level(levelName, spritePacks, background, entities);
+        } catch (EOFException | IllegalArgumentException e) {
+            throw new InvalidLevelConfiguration(String.format("Binary level not valid <%s>", e.getMessage()));
+        }
+    }
+
+    /**
+     * Will write the level into the stream.
+     *
+     * @param levelName   the name of the level
+     * @param background  the name of the background sprite
+     * @param spritePacks the sprite packs needed by the level
+     * @param entities    the entities to write
+     * @param out         the stream to write to
+     * @throws IOException if something went wrong while writing
+     */
+    private static void write(String levelName, String background, Set<String> spritePacks, List<Entity> entities,
+            DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        writeVarInt(out, VERSION);
+        out.writeUTF(levelName);
+        out.writeUTF(background);
+        writeVarInt(out, spritePacks.size());
+        for (String spritePack : spritePacks) {
+            out.writeUTF(spritePack);
+        }
+
+        Map<EntityKind, Integer> dictionary = new HashMap<>();
+        int[] kindIndices = new int[entities.size()];
+        for (int i = 0; i < entities.size(); i++) {
+            EntityKind kind = EntityKind.of(entities.get(i));
+            Integer index = dictionary.get(kind);
+            if (index == null) {
+                index = dictionary.size();
+                dictionary.put(kind, index);
+            }
+            kindIndices[i] = index;
+        }
+
+        EntityKind[] kinds = new EntityKind[dictionary.size()];
+        dictionary.forEach((kind, index) -> kinds[index] = kind);
+        writeVarInt(out, kinds.length);
+        for (EntityKind kind : kinds) {
+            kind.write(out);
+        }
+
+        writeVarInt(out, entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            Position position = entities.get(i).getSpawnPosition();
+            if (isTileAligned(position.getX()) && isTileAligned(position.getY())) {
+                writeVarInt(out, kindIndices[i] << 1);
+                writeZigZag(out, (int) position.getX() / TILE_SIZE);
+                writeZigZag(out, (int) position.getY() / TILE_SIZE);
+            } else {
+                writeVarInt(out, kindIndices[i] << 1 | UNALIGNED_FLAG);
+                out.writeDouble(position.getX());
+                out.writeDouble(position.getY());
+            }
+        }
+    }
+
+    /**
+     * Checks if the coordinate lies on the tile grid and can be stored as an
+     * integer tile coordinate.
+     *
+     * @param coordinate the coordinate to check
+     * @return true if it is aligned
+     */
+    private static boolean isTileAligned(double coordinate) {
+        return coordinate % TILE_SIZE == 0 && Math.abs(coordinate) <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Writes an unsigned variable length integer, seven bits per byte.
+     *
+     * @param out   the stream to write to
+     * @param value the value to write
+     * @throws IOException if something went wrong while writing
+     */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads an unsigned variable length integer.
+     *
+     * @param in the stream to read from
+     * @return the value read
+     * @throws IOException if something went wrong while reading
+     */
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int current = in.readUnsignedByte();
+            value |= (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Variable length integer is too long.");
+    }
+
+    /**
+     * Writes a signed variable length integer, small negative values stay small.
+     *
+     * @param out   the stream to write to
+     * @param value the value to write
+     * @throws IOException if something went wrong while writing
+     */
+    private static void writeZigZag(DataOutputStream out, int value) throws IOException {
+        writeVarInt(out, (value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Reads a signed variable length integer.
+     *
+     * @param in the stream to read from
+     * @return the value read
+     * @throws IOException if something went wrong while reading
+     */
+    private static int readZigZag(DataInputStream in) throws IOException {
+        int value = readVarInt(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Everything an entity consists of, except of its position. Many entities of
+     * a level share the same kind, so they are stored only once.
+     */
+    private static final class EntityKind {
+
+        /**
+         * The type of the entity.
+         */
+        private final EntityType entityType;
+
+        /**
+         * The full name of the sprite.
+         */
+        private final String spriteName;
+
+        /**
+         * The properties of the entity.
+         */
+        private final Properties properties;
+
+        /**
+         * The effects of an item, empty for every other type.
+         */
+        private final List<Effect> effects;
+
+        /**
+         * @param entityType the type of the entity
+         * @param spriteName the full name of the sprite
+         * @param properties the properties of the entity
+         * @param effects    the effects of an item
+         */
+        private EntityKind(EntityType entityType, String spriteName, Properties properties, List<Effect> effects) {
+            this.entityType = entityType;
+            this.spriteName = spriteName;
+            this.properties = properties;
+            this.effects = effects;
+        }
+
+        /**
+         * @param entity the entity to get the kind of
+         * @return the kind of the entity
+         */
+        private static EntityKind of(Entity entity) {
+            List<Effect> effects = entity.getEntityType() == EntityType.ITEM ? ((Item) entity).getEffect()
+                    : Collections.emptyList();
+            return new EntityKind(entity.getEntityType(), entity.getSpriteName(), entity.getProperties(), effects);
+        }
+
+        /**
+         * Will create a new entity of this kind, it shares the properties and the
+         * sprite with the other entities of the level.
+         *
+         * @param position the position of the entity
+         * @param interner hands out the shared sprites
+         * @return the new entity
+         */
+        private Entity createEntity(Position position, EntityInterner interner) {
+            Sprite sprite = interner.sprite(spriteName);
+            switch (entityType) {
+                case BLOCK:
+                    return new Block(position, sprite, properties);
+                case ITEM:
+                    return new Item(position, sprite, properties, effects);
+                case PLAYER:
+                    return new Player(position, sprite, properties);
+                case ENEMY:
+                    return new Enemy(position, sprite, properties);
+                default:
+                    throw new EnumConstantNotPresentException(EntityType.class, entityType.name());
+            }
+        }
+
+        /**
+         * @param out the stream to write the kind to
+         * @throws IOException if something went wrong while writing
+         */
+        private void write(DataOutputStream out) throws IOException {
+            out.writeUTF(entityType.name());
+            out.writeUTF(spriteName);
+            out.writeUTF(properties.getEntityType().name());
+            out.writeUTF(properties.getBehavior().name());
+            out.writeBoolean(properties.isSolid());
+            writeVarInt(out, effects.size());
+            for (Effect effect : effects) {
+                out.writeUTF(effect.name());
+            }
+        }
+
+        /**
+         * @param in       the stream to read the kind from
+         * @param interner hands out the shared properties
+         * @return the kind read
+         * @throws IOException if something went wrong while reading
+         */
+        private static EntityKind read(DataInputStream in, EntityInterner interner) throws IOException {
+            EntityType entityType = EntityType.valueOf(in.readUTF());
+            String spriteName = in.readUTF();
+            EntityType propertiesType = EntityType.valueOf(in.readUTF());
+            Behavior behavior = Behavior.valueOf(in.readUTF());
+            Properties properties = interner.properties(behavior, propertiesType, in.readBoolean());
+            int effectCount = readVarInt(in);
+            List<Effect> effects = new ArrayList<>(effectCount);
+            for (int i = 0; i < effectCount; i++) {
+                effects.add(Effect.valueOf(in.readUTF()));
+            }
+            return new EntityKind(entityType, spriteName, properties, effects);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (other == null || !this.getClass().equals(other.getClass())) {
+                return false;
+            }
+            EntityKind that = (EntityKind) other;
+            return entityType == that.entityType && spriteName.equals(that.spriteName)
+                    && properties.equals(that.properties) && effects.equals(that.effects);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityType, spriteName, properties, effects);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * A growable two dimensional directory of chunks, addressed by integer chunk
+ * coordinates. Coordinates may be negative, the directory grows into any
+ * direction as soon as a chunk outside of the current bounds is requested.
+ * <p>
+ * Reading a chunk never allocates, which makes this structure suitable for the
+ * per frame lookups done in the game loop.
+ *
+ * @param <T> the type of a single chunk
+ */
+class ChunkGrid<T> {
+
+    /**
+     * The minimal amount of chunks added to a side once the directory grows.
+     */
+    private static final int GROWTH_MARGIN = 4;
+
+    /**
+     * All the chunks, stored column by column.
+     */
+    private Object[] chunks = new Object[0];
+
+    /**
+     * The chunk x coordinate of the first column.
+     */
+    private int originX = 0;
+
+    /**
+     * The chunk y coordinate of the first row.
+     */
+    private int originY = 0;
+
+    /**
+     * The amount of columns currently available.
+     */
+    private int columns = 0;
+
+    /**
+     * The amount of rows currently available.
+     */
+    private int rows = 0;
+
+    /**
+     * Will return the chunk at the given chunk coordinates.
+     *
+     * @param chunkX the chunk x coordinate
+     * @param chunkY the chunk y coordinate
+     * @return the chunk or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    T get(int chunkX, int chunkY) {
+        int column = chunkX - originX;
+        int row = chunkY - originY;
+        if (column < 0 || row < 0 || column >= columns || row >= rows) {
+            return null;
+        }
+        return (T) chunks[column * rows + row];
+    }
+
+    /**
+     * Will return the chunk at the given chunk coordinates and create it, if it
+     * doesn't exist yet.
+     *
+     * @param chunkX  the chunk x coordinate
+     * @param chunkY  the chunk y coordinate
+     * @param factory used to create a missing chunk
+     * @return the existing or newly created chunk
+     */
+    T getOrCreate(int chunkX, int chunkY, Supplier<T> factory) {
+        T chunk = get(chunkX, chunkY);
+        if (chunk == null) {
+            ensureBounds(chunkX, chunkY);
+            chunk = factory.get();
+            chunks[(chunkX - originX) * rows + (chunkY - originY)] = chunk;
+        }
+        return chunk;
+    }
+
+    /**
+     * Will hand every existing chunk to the consumer, column by column.
+     *
+     * @param consumer gets the chunk coordinates and the chunk
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(ChunkConsumer<T> consumer) {
+        for (int column = 0; column < columns; column++) {
+            for (int row = 0; row < rows; row++) {
+                Object chunk = chunks[column * rows + row];
+                if (chunk != null) {
+                    consumer.accept(originX + column, originY + row, (T) chunk);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all the chunks, the directory bounds are kept.
+     */
+    void clear() {
+        Arrays.fill(chunks, null);
+    }
+
+    /**
+     * Will grow the directory so that the given chunk coordinates are inside of
+     * it.
+     *
+     * @param chunkX the chunk x coordinate
+     * @param chunkY the chunk y coordinate
+     */
+    private void ensureBounds(int chunkX, int chunkY) {
+        if (columns == 0) {
+            originX = chunkX - GROWTH_MARGIN;
+            originY = chunkY - GROWTH_MARGIN;
+            columns = GROWTH_MARGIN * 2 + 1;
+            rows = GROWTH_MARGIN * 2 + 1;
+            chunks = new Object[columns * rows];
+            return;
+        }
+        if (chunkX >= originX && chunkY >= originY && chunkX < originX + columns && chunkY < originY + rows) {
+            return;
+        }
+        int newOriginX = originX;
+        int newOriginY = originY;
+        int newColumns = columns;
+        int newRows = rows;
+        if (chunkX < originX) {
+            newOriginX = chunkX - Math.max(GROWTH_MARGIN, columns);
+            newColumns += originX - newOriginX;
+        } else if (chunkX >= originX + columns) {
+            newColumns = chunkX - originX + 1 + Math.max(GROWTH_MARGIN, columns);
+        }
+        if (chunkY < originY) {
+            newOriginY = chunkY - Math.max(GROWTH_MARGIN, rows);
+            newRows += originY - newOriginY;
+        } else if (chunkY >= originY + rows) {
+            newRows = chunkY - originY + 1 + Math.max(GROWTH_MARGIN, rows);
+        }
+        Object[] newChunks = new Object[newColumns * newRows];
+        for (int column = 0; column < columns; column++) {
+            int targetColumn = column + originX - newOriginX;
+            System.arraycopy(chunks, column * rows, newChunks, targetColumn * newRows + originY - newOriginY, rows);
+        }
+        chunks = newChunks;
+        originX = newOriginX;
+        originY = newOriginY;
+        columns = newColumns;
+        rows = newRows;
+    }
+
+    /**
+     * Gets the existing chunks of the grid.
+     *
+     * @param <T> the type of a single chunk
+     */
+    @FunctionalInterface
+    interface ChunkConsumer<T> {
+
+        /**
+         * @param chunkX the chunk x coordinate
+         * @param chunkY the chunk y coordinate
+         * @param chunk  the chunk
+         */
+        void accept(int chunkX, int chunkY, T chunk);
+    }
+}
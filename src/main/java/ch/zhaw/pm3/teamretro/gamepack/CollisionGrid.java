@@ -0,0 +1,314 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.Block;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.EntityType;
+import ch.zhaw.pm3.teamretro.gamepack.entity.MovingEntity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Behavior;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Properties;
+
+/**
+ * The collision index of a single {@link Level}. It maps the 32px tiles of the
+ * level to the entity occupying them.
+ * <p>
+ * The index consists of two layers. The static layer is the {@link TileMap} of
+ * the level, only its collidable blocks are found. The dynamic layer holds the
+ * {@link MovingEntity moving entities}, they have to be re-placed via
+ * {@link #updateDynamic(MovingEntity) updateDynamic} after they moved. Looking
+ * up a tile never allocates, so it can safely be done multiple times per frame.
+ */
+public class CollisionGrid {
+
+    /**
+     * What the height and width dimensions of a tile are.
+     */
+    public static final int TILE_SIZE = 32;
+
+    /**
+     * The amount of bits used for the tile index inside of a chunk.
+     */
+    private static final int CHUNK_SHIFT = 4;
+
+    /**
+     * The amount of tiles per chunk side.
+     */
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    /**
+     * Mask used to get the tile index inside of a chunk.
+     */
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * The initial capacity reserved for the moving entities.
+     */
+    private static final int INITIAL_MOVING_CAPACITY = 16;
+
+    /**
+     * The blocks of the level.
+     */
+    private final TileMap tileMap;
+
+    /**
+     * The blocks handed out for the tiles of the static layer, reused for all the
+     * tiles sharing the same index inside of their chunk.
+     */
+    private final Block[] tileBlocks = new Block[CHUNK_SIZE * CHUNK_SIZE];
+
+    /**
+     * The moving entities, per tile.
+     */
+    private final ChunkGrid<MovingEntity[]> dynamicCells = new ChunkGrid<>();
+
+    /**
+     * All the moving entities currently placed inside of the dynamic layer.
+     */
+    private final List<MovingEntity> movingEntities = new ArrayList<>();
+
+    /**
+     * The tile x coordinate each moving entity is currently placed on, uses the
+     * same index as {@link #movingEntities}.
+     */
+    private int[] movingTileX = new int[INITIAL_MOVING_CAPACITY];
+
+    /**
+     * The tile y coordinate each moving entity is currently placed on, uses the
+     * same index as {@link #movingEntities}.
+     */
+    private int[] movingTileY = new int[INITIAL_MOVING_CAPACITY];
+
+    /**
+     * Creates the index of a level.
+     *
+     * @param tileMap the blocks of the level, used as the static layer
+     */
+    CollisionGrid(TileMap tileMap) {
+        this.tileMap = tileMap;
+    }
+
+    /**
+     * Will convert a pixel coordinate into the tile coordinate, it's the same as
+     * {@link ch.zhaw.pm3.teamretro.gamepack.entity.Position#clamp() clamping}
+     * the coordinate and dividing it by the tile size.
+     *
+     * @param coordinate the pixel coordinate
+     * @return the tile coordinate
+     */
+    public static int toTile(double coordinate) {
+        return (int) (coordinate / TILE_SIZE);
+    }
+
+    /**
+     * Checks if a moving entity may collide with the given block.
+     *
+     * @param entity the block to check
+     * @return true if it is solid or the winning block
+     */
+    public static boolean isCollidable(Entity entity) {
+        return isCollidable(entity.getProperties());
+    }
+
+    /**
+     * @param properties the properties of the block to check
+     * @return true if it is solid or the winning block
+     */
+    private static boolean isCollidable(Properties properties) {
+        return properties.isSolid() || properties.getBehavior() == Behavior.WIN;
+    }
+
+    /**
+     * Will return the entity occupying the given tile. Moving entities take
+     * precedence over blocks.
+     * <p>
+     * Attention the blocks are not the ones of the level, but stand-ins. They are
+     * reused as soon as a tile a multiple of 16 tiles away is looked up.
+     *
+     * @param tileX the tile x coordinate
+     * @param tileY the tile y coordinate
+     * @return the entity or null if the tile is empty
+     */
+    public Entity getEntityAt(int tileX, int tileY) {
+        int index = indexInChunk(tileX, tileY);
+        MovingEntity[] dynamicChunk = dynamicCells.get(tileX >> CHUNK_SHIFT, tileY >> CHUNK_SHIFT);
+        if (dynamicChunk != null && dynamicChunk[index] != null) {
+            return dynamicChunk[index];
+        }
+        TileMap.Tile tile = tileMap.getTile(tileX, tileY);
+        if (tile == null || !isCollidable(tile.getProperties())) {
+            return null;
+        }
+        return tileBlock(index, tileX, tileY, tile);
+    }
+
+    /**
+     * Will move the reused block of the given index onto the tile. The block is
+     * only created the first time the index is used.
+     *
+     * @param index the index of the tile inside of its chunk
+     * @param tileX the tile x coordinate
+     * @param tileY the tile y coordinate
+     * @param tile  the tile occupying it
+     * @return the block standing in for the tile
+     */
+    private Block tileBlock(int index, int tileX, int tileY, TileMap.Tile tile) {
+        double x = (double) tileX * TILE_SIZE;
+        double y = (double) tileY * TILE_SIZE;
+        Block block = tileBlocks[index];
+        if (block == null) {
+            block = new Block(new Position(x, y), tile.getSprite(), tile.getProperties());
+            tileBlocks[index] = block;
+            return block;
+        }
+        Position position = block.getPosition();
+        if (position.getX() != x || position.getY() != y) {
+            position.setX(x);
+            position.setY(y);
+            block.setPosition(position);
+        }
+        block.setSprite(tile.getSprite());
+        block.setProperties(tile.getProperties());
+        return block;
+    }
+
+    /**
+     * Will add a moving entity to the dynamic layer.
+     *
+     * @param entity the entity to add
+     */
+    void addDynamic(MovingEntity entity) {
+        if (indexOfMoving(entity) >= 0) {
+            return;
+        }
+        int index = movingEntities.size();
+        if (index == movingTileX.length) {
+            movingTileX = Arrays.copyOf(movingTileX, index * 2);
+            movingTileY = Arrays.copyOf(movingTileY, index * 2);
+        }
+        movingEntities.add(entity);
+        place(index);
+    }
+
+    /**
+     * Will remove a moving entity from the dynamic layer.
+     *
+     * @param entity the entity to remove
+     */
+    void removeDynamic(MovingEntity entity) {
+        int index = indexOfMoving(entity);
+        if (index < 0) {
+            return;
+        }
+        unplace(index);
+        int last = movingEntities.size() - 1;
+        // move the last entity into the freed slot
+        movingEntities.set(index, movingEntities.get(last));
+        movingTileX[index] = movingTileX[last];
+        movingTileY[index] = movingTileY[last];
+        movingEntities.remove(last);
+    }
+
+    /**
+     * Will move the given entity to the tile matching its current position. Has
+     * to be called after the entity moved.
+     *
+     * @param entity the entity that moved
+     */
+    public void updateDynamic(MovingEntity entity) {
+        int index = indexOfMoving(entity);
+        if (index < 0) {
+            return;
+        }
+        unplace(index);
+        place(index);
+    }
+
+    /**
+     * Will re-place all the moving entities, used in case positions were changed
+     * from outside of the game loop (e.g. restoring the spawn positions).
+     */
+    public void refreshDynamic() {
+        for (int i = 0; i < movingEntities.size(); i++) {
+            unplace(i);
+        }
+        for (int i = 0; i < movingEntities.size(); i++) {
+            place(i);
+        }
+    }
+
+    /**
+     * Removes all the moving entities, the static layer is cleared along with
+     * the tile map.
+     */
+    void clear() {
+        dynamicCells.clear();
+        movingEntities.clear();
+    }
+
+    /**
+     * Places the moving entity at the given index onto the tile of its position.
+     * The player is never replaced by an enemy.
+     *
+     * @param index the index of the entity
+     */
+    private void place(int index) {
+        MovingEntity entity = movingEntities.get(index);
+        int tileX = toTile(entity.getPosition().getX());
+        int tileY = toTile(entity.getPosition().getY());
+        movingTileX[index] = tileX;
+        movingTileY[index] = tileY;
+        MovingEntity[] chunk = dynamicCells.getOrCreate(tileX >> CHUNK_SHIFT, tileY >> CHUNK_SHIFT,
+                () -> new MovingEntity[CHUNK_SIZE * CHUNK_SIZE]);
+        int cell = indexInChunk(tileX, tileY);
+        if (chunk[cell] == null || chunk[cell].getEntityType() != EntityType.PLAYER) {
+            chunk[cell] = entity;
+        }
+    }
+
+    /**
+     * Removes the moving entity at the given index from the tile it was placed
+     * on, assuming no other entity took over the tile in the meantime.
+     *
+     * @param index the index of the entity
+     */
+    private void unplace(int index) {
+        int tileX = movingTileX[index];
+        int tileY = movingTileY[index];
+        MovingEntity[] chunk = dynamicCells.get(tileX >> CHUNK_SHIFT, tileY >> CHUNK_SHIFT);
+        int cell = indexInChunk(tileX, tileY);
+        if (chunk != null && chunk[cell] == movingEntities.get(index)) {
+            chunk[cell] = null;
+        }
+    }
+
+    /**
+     * Searches the index of a moving entity. A linear search is fine here, as
+     * there are only a few moving entities per level.
+     *
+     * @param entity the entity to search
+     * @return the index or -1 if it isn't part of the grid
+     */
+    private int indexOfMoving(MovingEntity entity) {
+        for (int i = 0; i < movingEntities.size(); i++) {
+            if (movingEntities.get(i) == entity) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Will return the index of the tile inside of its chunk.
+     *
+     * @param tileX the tile x coordinate
+     * @param tileY the tile y coordinate
+     * @return the index inside of the chunk array
+     */
+    private static int indexInChunk(int tileX, int tileY) {
+        return (tileX & CHUNK_MASK) * CHUNK_SIZE + (tileY & CHUNK_MASK);
+    }
+}
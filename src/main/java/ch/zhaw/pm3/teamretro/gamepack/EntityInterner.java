@@ -0,0 +1,55 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.EntityType;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Behavior;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Properties;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite;
+
+/**
+ * Hands out a single instance for equal properties and sprite references while
+ * a level is read. A level only has a few distinct combinations, so the
+ * entities share them instead of carrying their own copy. The properties are
+ * marked as shared, so they can't be changed through one of the entities.
+ * <p>
+ * The sprites handed out are the placeholders created from the sprite name,
+ * they are replaced by the loaded sprites when the level is set up.
+ */
+final class EntityInterner {
+
+    /**
+     * The distinct properties handed out so far.
+     */
+    private final Map<Properties, Properties> properties = new HashMap<>();
+
+    /**
+     * The placeholder sprites handed out so far, by their name.
+     */
+    private final Map<String, Sprite> sprites = new HashMap<>();
+
+    /**
+     * Will return the shared properties with the given values.
+     *
+     * @param behavior   the behavior
+     * @param entityType the type
+     * @param solid      the solidity
+     * @return the shared properties
+     */
+    Properties properties(Behavior behavior, EntityType entityType, boolean solid) {
+        Properties candidate = new Properties(behavior, entityType, solid);
+        Properties shared = properties.putIfAbsent(candidate, candidate.share());
+        return shared == null ? candidate : shared;
+    }
+
+    /**
+     * Will return the shared placeholder sprite with the given name.
+     *
+     * @param name the full name of the sprite
+     * @return the shared sprite
+     */
+    Sprite sprite(String name) {
+        return sprites.computeIfAbsent(name, Sprite::new);
+    }
+}
@@ -1,5 +1,9 @@
 package ch.zhaw.pm3.teamretro.gamepack;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -109,7 +113,46 @@ public class GamePack {
 
     @JSONPropertyIgnore
     public String toJSON() {
-        return JsonParser.objToJson(this);
+        StringWriter writer = new StringWriter();
+        try {
+            writeJson(writer, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Will write the meta information as json straight to the writer, in the
+     * same member order org.json used.
+     * 
+     * @param writer  where the json is written to, it is flushed but not closed
+     * @param compact true to leave out all the whitespace, false to indent it
+     *                like {@link #toJSON()}
+     * @throws IOException if the json could not be written
+     */
+    public void writeJson(Writer writer, boolean compact) throws IOException {
+        JsonPrinter printer = new JsonPrinter(writer, compact ? 0 : JsonParser.INDENT);
+        // org.json left out members without a value
+        printer.beginObject(name == null ? 2 : 3);
+        printer.name(SPRITE_PACKS_IN_JSON);
+        printer.beginArray(spritePacks.size());
+        for (String spritePack : spritePacks) {
+            printer.value(spritePack);
+        }
+        printer.endArray();
+        if (name != null) {
+            printer.name(NAME_IN_JSON);
+            printer.value(name);
+        }
+        printer.name(LEVELS_IN_JSON);
+        printer.beginArray(levels.size());
+        for (String level : levels) {
+            printer.value(level);
+        }
+        printer.endArray();
+        printer.endObject();
+        writer.flush();
     }
 
     /**
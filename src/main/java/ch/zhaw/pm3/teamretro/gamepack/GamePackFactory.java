@@ -1,25 +1,36 @@
 package ch.zhaw.pm3.teamretro.gamepack;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.stream.Stream;
 
 import ch.zhaw.pm3.teamretro.archiveengine.ArchiveReader;
 import ch.zhaw.pm3.teamretro.archiveengine.ArchiveWriter;
+import ch.zhaw.pm3.teamretro.archiveengine.DirectoryReader;
+import ch.zhaw.pm3.teamretro.archiveengine.DirectoryWriter;
+import ch.zhaw.pm3.teamretro.archiveengine.MappedZipReader;
 import ch.zhaw.pm3.teamretro.archiveengine.ZipReader;
 import ch.zhaw.pm3.teamretro.archiveengine.ZipWriter;
 import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.MovingEntity;
 import ch.zhaw.pm3.teamretro.gamepack.sprite.Animation;
 import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite;
 import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite.SpriteInformation;
 import ch.zhaw.pm3.teamretro.gamepack.sprite.SpritePack;
-import javafx.scene.image.Image;
+import ch.zhaw.pm3.teamretro.jfr.LevelLoadEvent;
 
 /**
  * This is a factory class that handles any interaction with the into memory
@@ -44,6 +55,28 @@ public class GamePackFactory {
 	 */
 	private static final String LEVEL_PATH = String.format("%s/%%s.json", LEVELS_FOLDER);
 
+	/**
+	 * The path of the configurations in the binary format, these take precedence
+	 * over the json configurations.
+	 */
+	private static final String LEVEL_BINARY_PATH = String.format("%s/%%s.bin", LEVELS_FOLDER);
+
+	/**
+	 * The folder of the chunks of a level, only long levels are stored in chunks.
+	 */
+	private static final String LEVEL_CHUNK_FOLDER = String.format("%s/%%s/", LEVELS_FOLDER);
+
+	/**
+	 * The path of a single chunk of a level.
+	 */
+	private static final String LEVEL_CHUNK_PATH = String.format("%s/%%s/chunk_%%d.bin", LEVELS_FOLDER);
+
+	/**
+	 * Levels spanning more chunks than this are stored in chunks, so they can be
+	 * streamed while playing.
+	 */
+	static final int STREAMED_LEVEL_CHUNKS = 8;
+
 	/**
 	 * The path for the sprite configurations.
 	 */
@@ -81,7 +114,37 @@ public class GamePackFactory {
 		if (archiveReader != null && archiveName.equals(GamePackFactory.archiveReader.getName())) {
 			return;
 		}
-		archiveReader = new ZipReader(archiveName);
+		archiveReader = openReader(archiveName);
+	}
+
+	/**
+	 * Will open the archive for reading. A directory is read as exploded archive,
+	 * which is meant for authoring packs.
+	 * 
+	 * @param archiveName the archive path
+	 * @return the reader
+	 * @throws IOException if the archive doesn't exist or is invalid
+	 */
+	private static ArchiveReader openReader(String archiveName) throws IOException {
+		if (Files.isDirectory(Paths.get(archiveName))) {
+			return new DirectoryReader(archiveName);
+		}
+		return MappedZipReader.isEnabled() ? new MappedZipReader(archiveName) : new ZipReader(archiveName);
+	}
+
+	/**
+	 * Will open the archive for writing. Writing to a directory only touches the
+	 * changed files instead of rewriting the whole archive.
+	 * 
+	 * @param archiveName the archive path
+	 * @return the writer
+	 * @throws IOException if the archive doesn't exist or is invalid
+	 */
+	private static ArchiveWriter openWriter(String archiveName) throws IOException {
+		if (Files.isDirectory(Paths.get(archiveName))) {
+			return new DirectoryWriter(archiveName);
+		}
+		return new ZipWriter(archiveName, true);
 	}
 
 	/**
@@ -97,7 +160,7 @@ public class GamePackFactory {
 	 * @throws IOException
 	 */
 	private static ArchiveWriter setupFactorWriter(String archiveName) throws IOException {
-		ArchiveWriter archiveWriter = new ZipWriter(archiveName, true);
+		ArchiveWriter archiveWriter = openWriter(archiveName);
 		// add a new updated reader instance
 		archiveReader = archiveWriter;
 		return archiveWriter;
@@ -141,33 +204,32 @@ public class GamePackFactory {
 	/**
 	 * Will fill up the sprite with the needed images.
 	 * 
+	 * @param reader the archive to read the images from
 	 * @param sprite the sprite to fill up
 	 * @throws IOException if something went wrong
 	 */
-	private static void setSpriteData(Sprite sprite) throws IOException {
+	private static void setSpriteData(ArchiveReader reader, Sprite sprite) throws IOException {
+		// the decoded images are shared, so restarting or switching levels doesn't
+		// decode them again
+		ImageCache imageCache = ImageCache.getShared();
 		// setup idle
 		for (String path : sprite.getPaths(Animation.IDLE)) {
-			Image img = new Image(archiveReader.getFile(path));
-
-			sprite.addImage(Animation.IDLE, img);
+			sprite.addImage(Animation.IDLE, imageCache.getImage(reader, path));
 		}
 		// setup walk
 		for (String path : sprite.getPaths(Animation.WALK)) {
-			Image img = new Image(archiveReader.getFile(path));
-
-			sprite.addImage(Animation.WALK, img);
+			sprite.addImage(Animation.WALK, imageCache.getImage(reader, path));
 		}
 		// setup jumps
 		for (String path : sprite.getPaths(Animation.JUMP)) {
-			Image img = new Image(archiveReader.getFile(path));
-
-			sprite.addImage(Animation.JUMP, img);
+			sprite.addImage(Animation.JUMP, imageCache.getImage(reader, path));
 		}
 	}
 
 	/**
 	 * Will add a new image to the given sprite
 	 * 
+	 * @param reader      the archive to read the images from
 	 * @param spritePacks all the initialized sprite packs
 	 * @param sprites     all the sprite data
 	 * @param spriteName  the name of the sprite to be initialized
@@ -175,9 +237,9 @@ public class GamePackFactory {
 	 *                                   archiveEngine
 	 * @throws InvalidLevelConfiguration
 	 */
-	private static void setImage(Map<String, SpritePack> spritePacks, Map<String, Sprite> sprites, String spriteName)
-			throws IOException, InvalidLevelConfiguration {
-		if (spritePacks.containsKey(spriteName)) {
+	private static void setImage(ArchiveReader reader, Map<String, SpritePack> spritePacks,
+			Map<String, Sprite> sprites, String spriteName) throws IOException, InvalidLevelConfiguration {
+		if (sprites.containsKey(spriteName)) {
 			// sprite was already initializes return
 			return;
 		}
@@ -198,7 +260,7 @@ public class GamePackFactory {
 		}
 		// add image data to sprite
 
-		setSpriteData(sprite);
+		setSpriteData(reader, sprite);
 		sprites.put(spriteName, sprite);
 	}
 
@@ -206,19 +268,18 @@ public class GamePackFactory {
 	 * This method will prepare the sprite packs and return the deserialized
 	 * versions.
 	 * 
-	 * @param path
+	 * @param reader          the archive to read the sprite packs from
 	 * @param spritePackNames
 	 * @return
 	 * @throws IOException
 	 */
-	private static Map<String, SpritePack> setupSpritePacks(String path, Set<String> spritePackNames)
+	private static Map<String, SpritePack> setupSpritePacks(ArchiveReader reader, Set<String> spritePackNames)
 			throws IOException {
-		setupFactory(path);
 		Map<String, SpritePack> spritePacks = new HashMap<>();
 		// initialize all the sprite packs required
 		for (String spriteName : spritePackNames) {
 			String spritePath = String.format(SPRITES_PATH, spriteName);
-			String spriteJson = archiveReader.getText(String.format(SPRITES_META, spriteName));
+			String spriteJson = reader.getText(String.format(SPRITES_META, spriteName));
 			SpritePack pack = SpritePack.valueOf(spriteName, spritePath, spriteJson);
 			spritePacks.put(spriteName, pack);
 		}
@@ -238,7 +299,7 @@ public class GamePackFactory {
 			throws IOException {
 		setupFactory(path);
 
-		Map<String, SpritePack> spritePacksData = setupSpritePacks(path, spritePackNames);
+		Map<String, SpritePack> spritePacksData = setupSpritePacks(archiveReader, spritePackNames);
 
 		Map<String, Map<String, Sprite>> spritePacks = new HashMap<>();
 		for (String packName : spritePackNames) {
@@ -246,7 +307,7 @@ public class GamePackFactory {
 			Map<String, Sprite> sprites = spritePack.getSprites();
 
 			for (Sprite sprite : sprites.values()) {
-				setSpriteData(sprite);
+				setSpriteData(archiveReader, sprite);
 			}
 			spritePacks.put(packName, sprites);
 		}
@@ -254,38 +315,179 @@ public class GamePackFactory {
 	}
 
 	/**
-	 * Will get the level json from the archive.
+	 * Will generate a level object and will fill it up with the needed sprite data
 	 * 
-	 * This is set to package private so that it can be used from the testing
-	 * environment.
+	 * @param archivePath the archive path
+	 * @param levelName   the name of the requested level
+	 * @return a level object
+	 * @throws IOException               if something went wrong with the archive
+	 * @throws InvalidLevelConfiguration as the name says
+	 */
+	public static Level getLevel(String archivePath, String levelName) throws IOException, InvalidLevelConfiguration {
+		LevelLoadEvent event = new LevelLoadEvent();
+		event.begin();
+		Level level = readLevel(archivePath, levelName);
+		setupLevel(archivePath, level);
+
+		if (event.shouldCommit()) {
+			event.setArchive(archivePath);
+			event.setLevel(levelName);
+			event.setEntities(level.getEntityCount());
+			event.commit();
+		}
+		return level;
+	}
+
+	/**
+	 * Will read the level configuration from the archive, without setting up the
+	 * sprites. The binary configuration is preferred over the json one.
 	 * 
-	 * @param archivePath the path to the archive
-	 * @param levelName   the name of the levels
-	 * @return the raw json string
-	 * @throws IOException
+	 * @param archivePath the archive path
+	 * @param levelName   the name of the requested level
+	 * @return a level object
+	 * @throws IOException               if something went wrong with the archive
+	 * @throws InvalidLevelConfiguration as the name says
 	 */
-	static String getLevelJson(String archivePath, String levelName) throws IOException {
+	private static Level readLevel(String archivePath, String levelName) throws IOException, InvalidLevelConfiguration {
 		setupFactory(archivePath);
-		return archiveReader.getText(String.format(LEVEL_PATH, levelName));
+		String binaryPath = String.format(LEVEL_BINARY_PATH, levelName);
+		if (archiveReader.hasFile(binaryPath)) {
+			Level level;
+			try (InputStream input = archiveReader.getFile(binaryPath)) {
+				level = Level.valueOf(input);
+			}
+			// a level stored in chunks is read as a whole here
+			int[] chunks = getChunkRange(archiveReader, levelName);
+			if (chunks != null) {
+				for (int chunk = chunks[0]; chunk <= chunks[1]; chunk++) {
+					level.addChunk(readChunk(archiveReader, levelName, chunk));
+				}
+			}
+			return level;
+		}
+		// the json is parsed while it's decoded, large levels aren't copied into a
+		// string first
+		try (Reader reader = archiveReader.getReader(String.format(LEVEL_PATH, levelName))) {
+			return Level.valueOf(reader);
+		}
 	}
 
 	/**
-	 * Will generate a level object and will fill it up with the needed sprite data
+	 * Will return the first and the last chunk of a level stored in chunks. The
+	 * chunks are stored without any gaps and always include the chunk 0.
+	 * 
+	 * @param reader    the archive the level is stored in
+	 * @param levelName the name of the level
+	 * @return the first and the last chunk, null if the level isn't stored in
+	 *         chunks
+	 * @throws IOException if something went wrong with the archive
+	 */
+	private static int[] getChunkRange(ArchiveReader reader, String levelName) throws IOException {
+		if (!reader.hasFile(String.format(LEVEL_CHUNK_PATH, levelName, 0))) {
+			return null;
+		}
+		int first = 0;
+		while (reader.hasFile(String.format(LEVEL_CHUNK_PATH, levelName, first - 1))) {
+			first--;
+		}
+		int last = 0;
+		while (reader.hasFile(String.format(LEVEL_CHUNK_PATH, levelName, last + 1))) {
+			last++;
+		}
+		return new int[] { first, last };
+	}
+
+	/**
+	 * Will read the blocks and items of a single chunk, without setting up the
+	 * sprites.
+	 * 
+	 * @param reader    the archive the level is stored in
+	 * @param levelName the name of the level
+	 * @param chunk     the chunk to read
+	 * @return the entities of the chunk
+	 * @throws IOException               if something went wrong with the archive
+	 * @throws InvalidLevelConfiguration as the name says
+	 */
+	private static List<Entity> readChunk(ArchiveReader reader, String levelName, int chunk)
+			throws IOException, InvalidLevelConfiguration {
+		try (InputStream input = reader.getFile(String.format(LEVEL_CHUNK_PATH, levelName, chunk))) {
+			return Level.valueOf(input).getEntityList();
+		}
+	}
+
+	/**
+	 * Will prepare a level for playing. A level stored in chunks only gets its
+	 * moving entities right away, the blocks and items are loaded by the streamer
+	 * while the camera moves along. The streamer reads the archive on its own, so
+	 * it isn't affected by writing the archive or by loading another one. Any other
+	 * level is loaded as a whole.
 	 * 
 	 * @param archivePath the archive path
 	 * @param levelName   the name of the requested level
-	 * @return a level object
+	 * @return the streamer of the level
 	 * @throws IOException               if something went wrong with the archive
 	 * @throws InvalidLevelConfiguration as the name says
 	 */
-	public static Level getLevel(String archivePath, String levelName) throws IOException, InvalidLevelConfiguration {
-		// not calling setupFactory as it is called in getLevelJson anyway
-		// initialize the level
-		String levelJson = getLevelJson(archivePath, levelName);
-		Level level = Level.valueOf(levelJson);
-		setupLevel(archivePath, level);
+	public static LevelStreamer streamLevel(String archivePath, String levelName)
+			throws IOException, InvalidLevelConfiguration {
+		ArchiveReader reader = openReader(archivePath);
+		int[] chunks = getChunkRange(reader, levelName);
+		if (chunks == null) {
+			return new LevelStreamer(getLevel(archivePath, levelName), chunk -> Collections.emptyList(), 0, -1);
+		}
 
-		return level;
+		LevelLoadEvent event = new LevelLoadEvent();
+		event.begin();
+		Level level;
+		try (InputStream input = reader.getFile(String.format(LEVEL_BINARY_PATH, levelName))) {
+			level = Level.valueOf(input);
+		}
+		Map<String, Sprite> sprites = new HashMap<>();
+		Map<String, SpritePack> spritePacks = setupSpritePacks(reader, level.getSpritePacks());
+		setupLevel(reader, level, spritePacks, sprites);
+
+		if (event.shouldCommit()) {
+			event.setArchive(archivePath);
+			event.setLevel(levelName);
+			event.setEntities(level.getEntityCount());
+			event.commit();
+		}
+
+		return new LevelStreamer(level, new ArchiveChunkLoader(reader, levelName, spritePacks, sprites), chunks[0],
+				chunks[1]);
+	}
+
+	/**
+	 * Will export a level of the archive as json, no matter the format it is
+	 * stored in.
+	 * 
+	 * @param archivePath the archive path
+	 * @param levelName   the name of the level
+	 * @return the json representation of the level
+	 * @throws IOException               if something went wrong with the archive
+	 * @throws InvalidLevelConfiguration as the name says
+	 */
+	public static String exportLevelJson(String archivePath, String levelName)
+			throws IOException, InvalidLevelConfiguration {
+		return readLevel(archivePath, levelName).toJson();
+	}
+
+	/**
+	 * Will import a level from its json representation and write it into the
+	 * archive. The json is only the import and export format, the level is stored
+	 * in the binary format like any other.
+	 * 
+	 * @param archivePath the archive path
+	 * @param levelName   the name of the level, replaces the one in the json
+	 * @param json        the json representation of the level
+	 * @throws IOException               if something went wrong with the archive
+	 * @throws InvalidLevelConfiguration as the name says
+	 */
+	public static void importLevelJson(String archivePath, String levelName, String json)
+			throws IOException, InvalidLevelConfiguration {
+		Level imported = Level.valueOf(json);
+		writeLevel(archivePath, levelName, new Level(levelName, imported.getSpritePacks(),
+				imported.getBackgroundName(), imported.getEntityList()));
 	}
 
 	/**
@@ -297,22 +499,43 @@ public class GamePackFactory {
 	 * @throws InvalidLevelConfiguration
 	 */
 	private static void setupLevel(String archivePath, Level level) throws IOException, InvalidLevelConfiguration {
-		Map<String, Sprite> sprites = new HashMap<>();
-		Map<String, SpritePack> spritePacks = setupSpritePacks(archivePath, level.getSpritePacks());
+		setupFactory(archivePath);
+		setupLevel(archiveReader, level, setupSpritePacks(archiveReader, level.getSpritePacks()), new HashMap<>());
+	}
 
+	/**
+	 * Will setup a level with the given sprite packs.
+	 * 
+	 * @param reader      the archive to read the images from
+	 * @param level       the level to setup
+	 * @param spritePacks all the initialized sprite packs of the level
+	 * @param sprites     the sprites initialized so far, the ones of the level are
+	 *                    added
+	 * @throws IOException
+	 * @throws InvalidLevelConfiguration
+	 */
+	private static void setupLevel(ArchiveReader reader, Level level, Map<String, SpritePack> spritePacks,
+			Map<String, Sprite> sprites) throws IOException, InvalidLevelConfiguration {
 		// add background
 		String backgroundName = level.getBackgroundName();
-		setImage(spritePacks, sprites, backgroundName);
+		setImage(reader, spritePacks, sprites, backgroundName);
 		Sprite background = sprites.get(backgroundName);
 		level.setBackground(background);
 
 		// fill in sprites into entities
-		for (Entity entity : level.getEntityList()) {
+		for (Entity entity : level.getStoredEntities()) {
 			String spriteName = entity.getSpriteName();
-			setImage(spritePacks, sprites, spriteName);
+			setImage(reader, spritePacks, sprites, spriteName);
 			entity.setSprite(sprites.get(spriteName));
 		}
 
+		// and into the tiles, which covers all the blocks of the tile map
+		for (TileMap.Tile tile : level.getTileMap().getPalette()) {
+			String spriteName = tile.getSprite().getName();
+			setImage(reader, spritePacks, sprites, spriteName);
+			tile.setSprite(sprites.get(spriteName));
+		}
+
 	}
 
 	/**
@@ -395,14 +618,106 @@ public class GamePackFactory {
 		GamePack gamePack = getMetanformation(archivePath);
 		gamePack.addLevel(levelName, index);
 
-		// write meta data back to the archive
-		archiveWriter.addFile(gamePack.toJSON(), META);
+		// all the changes are written in a single pass, the archive is never left
+		// with only some of them
+		archiveWriter.beginTransaction();
+		try {
+			// write meta data back to the archive
+			archiveWriter.addFile(gamePack.toJSON(), META);
+
+			// the level is stored in the binary format, an old json version and old
+			// chunks are removed
+			removeIfExists(archiveWriter, String.format(LEVEL_PATH, levelName));
+			removeChunks(archiveWriter, levelName);
+			List<Entity> entities = level.getEntityList();
+			SortedMap<Integer, List<Entity>> chunks = LevelStreamer.split(entities);
+			if (chunks.isEmpty() || chunks.lastKey() - chunks.firstKey() < STREAMED_LEVEL_CHUNKS) {
+				archiveWriter.addFile(new ByteArrayInputStream(level.toBinary()),
+						String.format(LEVEL_BINARY_PATH, levelName));
+			} else {
+				writeChunks(archiveWriter, levelName, level, entities, chunks);
+			}
+			archiveWriter.commit();
+		} finally {
+			archiveWriter.rollback();
+		}
+	}
+
+	/**
+	 * Will write a long level in chunks. The level configuration only keeps the
+	 * moving entities, the blocks and items are stored in a configuration per
+	 * chunk. The chunks are written without any gaps and always include the chunk
+	 * 0, so they can be found without a listing of the archive.
+	 *
+	 * @param archiveWriter the archive to write to
+	 * @param levelName     the name of the level
+	 * @param level         the level to write
+	 * @param entities      all the entities of the level
+	 * @param chunks        the blocks and items of the level split into chunks
+	 * @throws IOException if something went wrong with the archive
+	 */
+	private static void writeChunks(ArchiveWriter archiveWriter, String levelName, Level level,
+			List<Entity> entities, SortedMap<Integer, List<Entity>> chunks) throws IOException {
+		List<Entity> movingEntities = new ArrayList<>();
+		for (Entity entity : entities) {
+			if (entity instanceof MovingEntity) {
+				movingEntities.add(entity);
+			}
+		}
+		archiveWriter.addFile(
+				new ByteArrayInputStream(BinaryLevelParser.toBytes(level.getLevelName(), level.getBackgroundName(),
+						level.getSpritePacks(), movingEntities)),
+				String.format(LEVEL_BINARY_PATH, levelName));
+
+		archiveWriter.addFolder(String.format(LEVEL_CHUNK_FOLDER, levelName));
+		for (int chunk = Math.min(0, chunks.firstKey()); chunk <= Math.max(0, chunks.lastKey()); chunk++) {
+			List<Entity> chunkEntities = chunks.getOrDefault(chunk, Collections.emptyList());
+			archiveWriter.addFile(
+					new ByteArrayInputStream(BinaryLevelParser.toBytes(level.getLevelName(),
+							level.getBackgroundName(), level.getSpritePacks(), chunkEntities)),
+					String.format(LEVEL_CHUNK_PATH, levelName, chunk));
+		}
+	}
 
-		// build level path
-		String levelPath = String.format(LEVEL_PATH, levelName);
+	/**
+	 * Will remove both the json and the binary configuration of a level, as far as
+	 * they exist.
+	 *
+	 * @param archiveWriter the archive to remove the level from
+	 * @param levelName     the level name
+	 * @throws IOException if something went wrong with the archive
+	 */
+	private static void removeLevelFiles(ArchiveWriter archiveWriter, String levelName) throws IOException {
+		removeIfExists(archiveWriter, String.format(LEVEL_PATH, levelName));
+		removeIfExists(archiveWriter, String.format(LEVEL_BINARY_PATH, levelName));
+		removeChunks(archiveWriter, levelName);
+	}
 
-		archiveWriter.addFile(level.toJson(), levelPath);
+	/**
+	 * Will remove the chunks of a level, in case it is stored in chunks.
+	 *
+	 * @param archiveWriter the archive to remove the chunks from
+	 * @param levelName     the level name
+	 * @throws IOException if something went wrong with the archive
+	 */
+	private static void removeChunks(ArchiveWriter archiveWriter, String levelName) throws IOException {
+		String folder = String.format(LEVEL_CHUNK_FOLDER, levelName);
+		if (archiveWriter.hasFolder(folder)) {
+			archiveWriter.removeFolder(folder);
+		}
+	}
 
+	/**
+	 * Will remove a file from the archive, in case it exists.
+	 *
+	 * @param archiveWriter the archive to remove the file from
+	 * @param path          the path of the file
+	 * @throws IOException if something went wrong with the archive
+	 */
+	private static void removeIfExists(ArchiveWriter archiveWriter, String path) throws IOException {
+		if (archiveWriter.hasFile(path)) {
+			archiveWriter.removeFile(path);
+		}
 	}
 
 	/**
@@ -423,11 +738,15 @@ public class GamePackFactory {
 					String.format("The requested level <%s> can not be removed as it does not exist.", levelName));
 		}
 
-		archiveWriter.addFile(gamePack.toJSON(), META);
-
-		String levelPath = String.format(LEVEL_PATH, levelName);
+		archiveWriter.beginTransaction();
+		try {
+			archiveWriter.addFile(gamePack.toJSON(), META);
 
-		archiveWriter.removeFile(levelPath);
+			removeLevelFiles(archiveWriter, levelName);
+			archiveWriter.commit();
+		} finally {
+			archiveWriter.rollback();
+		}
 	}
 
 	/**
@@ -451,26 +770,111 @@ public class GamePackFactory {
 		if (Files.exists(destination)) {
 			throw new IOException(String.format("Destination file <%s> does already exist.", destinationArchivePath));
 		}
-		Files.copy(source, destination, StandardCopyOption.REPLACE_EXISTING);
+		if (Files.isDirectory(source)) {
+			copyDirectory(source, destination);
+		} else {
+			Files.copy(source, destination, StandardCopyOption.REPLACE_EXISTING);
+		}
 
-		ArchiveWriter archiveWriter = new ZipWriter(destinationArchivePath);
+		ArchiveWriter archiveWriter = openWriter(destinationArchivePath);
 
 		// remove any old levels from the list
 		GamePack orgPack = getMetanformation(sourceArchivePath);
 
-		// remove all old level json definitions
-		for (String oldLevel : orgPack.getLevels()) {
-			// build level path
-			String levelPath = String.format(LEVEL_PATH, oldLevel);
-			archiveWriter.removeFile(levelPath);
-			gamePack.removeLevel(oldLevel);
-		}
+		archiveWriter.beginTransaction();
+		try {
+			// remove all old level definitions
+			for (String oldLevel : orgPack.getLevels()) {
+				removeLevelFiles(archiveWriter, oldLevel);
+				gamePack.removeLevel(oldLevel);
+			}
 
-		// create the meta data
-		archiveWriter.addFile(gamePack.toJSON(), META);
+			// create the meta data
+			archiveWriter.addFile(gamePack.toJSON(), META);
+			archiveWriter.commit();
+		} finally {
+			archiveWriter.rollback();
+		}
 
 		// write back the archive writer
 		archiveReader = archiveWriter;
 	}
 
+	/**
+	 * Will copy an exploded archive with everything inside of it.
+	 * 
+	 * @param source      the directory to copy
+	 * @param destination the directory to create
+	 * @throws IOException if something couldn't be copied
+	 */
+	private static void copyDirectory(Path source, Path destination) throws IOException {
+		try (Stream<Path> walk = Files.walk(source)) {
+			for (Path path : (Iterable<Path>) walk::iterator) {
+				Files.copy(path, destination.resolve(source.relativize(path).toString()));
+			}
+		}
+	}
+
+	/**
+	 * Loads the chunks of a streamed level with a reader of its own. The chunks
+	 * are loaded on the thread of the streamer and, if it has to wait for them, on
+	 * the thread running the game, so the sprites set up so far are guarded by the
+	 * loader itself.
+	 */
+	private static final class ArchiveChunkLoader implements LevelStreamer.ChunkLoader {
+
+		/**
+		 * The name of the streamed level.
+		 */
+		private final String levelName;
+
+		/**
+		 * All the initialized sprite packs of the level.
+		 */
+		private final Map<String, SpritePack> spritePacks;
+
+		/**
+		 * The sprites initialized so far.
+		 */
+		private final Map<String, Sprite> sprites;
+
+		/**
+		 * The archive the chunks are read from, null once the streamer was closed.
+		 */
+		private volatile ArchiveReader reader;
+
+		/**
+		 * @param reader      the archive the chunks are read from
+		 * @param levelName   the name of the streamed level
+		 * @param spritePacks all the initialized sprite packs of the level
+		 * @param sprites     the sprites initialized so far
+		 */
+		private ArchiveChunkLoader(ArchiveReader reader, String levelName, Map<String, SpritePack> spritePacks,
+				Map<String, Sprite> sprites) {
+			this.reader = reader;
+			this.levelName = levelName;
+			this.spritePacks = spritePacks;
+			this.sprites = sprites;
+		}
+
+		@Override
+		public synchronized List<Entity> load(int chunk) throws IOException, InvalidLevelConfiguration {
+			ArchiveReader archive = reader;
+			if (archive == null) {
+				throw new IOException(String.format("The level <%s> isn't streamed anymore.", levelName));
+			}
+			List<Entity> entities = readChunk(archive, levelName, chunk);
+			for (Entity entity : entities) {
+				String spriteName = entity.getSpriteName();
+				setImage(archive, spritePacks, sprites, spriteName);
+				entity.setSprite(sprites.get(spriteName));
+			}
+			return entities;
+		}
+
+		@Override
+		public void close() {
+			reader = null;
+		}
+	}
 }
@@ -0,0 +1,218 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import ch.zhaw.pm3.teamretro.archiveengine.ArchiveReader;
+import javafx.scene.image.Image;
+
+/**
+ * Keeps the decoded images of the game packs in memory, so the images don't
+ * have to be decoded again when a level is restarted, switched or opened in the
+ * editor.
+ * <p>
+ * An image is identified by its archive, its path inside of the archive and the
+ * content stamp of the file, so a changed file is decoded anew. The cache has a
+ * budget of bytes, the least recently used images are evicted once the decoded
+ * images exceed it.
+ */
+public final class ImageCache {
+
+    /**
+     * The default budget of the shared cache in bytes.
+     */
+    public static final long DEFAULT_BUDGET = 64L * 1024 * 1024;
+
+    /**
+     * The amount of bytes a decoded pixel takes up.
+     */
+    private static final int BYTES_PER_PIXEL = 4;
+
+    /**
+     * The cache shared by the game and the editor.
+     */
+    private static final ImageCache SHARED = new ImageCache(DEFAULT_BUDGET);
+
+    /**
+     * The cached images in their access order, the least recently used first.
+     */
+    private final Map<Key, Image> images = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The maximal amount of bytes the cached images may take up.
+     */
+    private final long budget;
+
+    /**
+     * The amount of bytes the cached images currently take up.
+     */
+    private long size = 0;
+
+    /**
+     * Will create a new cache.
+     *
+     * @param budget the maximal amount of bytes the cached images may take up
+     */
+    ImageCache(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * @return the cache shared by the game and the editor
+     */
+    public static ImageCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Will return the decoded image of the given file, the file is only decoded
+     * if it isn't cached yet.
+     *
+     * @param archiveReader the archive containing the image
+     * @param path          the path of the image inside of the archive
+     * @return the decoded image
+     * @throws IOException if something went wrong with the archive
+     */
+    public Image getImage(ArchiveReader archiveReader, String path) throws IOException {
+        return getImage(archiveReader.getName(), path, archiveReader.getStamp(path), () -> {
+            try (InputStream input = archiveReader.getFile(path)) {
+                return new Image(input);
+            }
+        });
+    }
+
+    /**
+     * Will return the cached image or decode it with the given loader.
+     *
+     * @param archive the name of the archive
+     * @param path    the path of the image inside of the archive
+     * @param stamp   the content stamp of the file
+     * @param loader  used to decode the image if it isn't cached
+     * @return the decoded image
+     * @throws IOException if the loader failed
+     */
+    synchronized Image getImage(String archive, String path, long stamp, ImageLoader loader) throws IOException {
+        Key key = new Key(archive, path, stamp);
+        Image image = images.get(key);
+        if (image == null) {
+            image = loader.load();
+            images.put(key, image);
+            size += sizeOf(image);
+            evict(key);
+        }
+        return image;
+    }
+
+    /**
+     * Removes all the images from the cache.
+     */
+    public synchronized void clear() {
+        images.clear();
+        size = 0;
+    }
+
+    /**
+     * @return the amount of bytes the cached images take up
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the amount of cached images
+     */
+    public synchronized int getImageCount() {
+        return images.size();
+    }
+
+    /**
+     * Evicts the least recently used images until the budget is met again. The
+     * image just added is always kept.
+     *
+     * @param keep the key of the image just added
+     */
+    private void evict(Key keep) {
+        Iterator<Map.Entry<Key, Image>> iterator = images.entrySet().iterator();
+        while (size > budget && iterator.hasNext()) {
+            Map.Entry<Key, Image> entry = iterator.next();
+            if (!entry.getKey().equals(keep)) {
+                size -= sizeOf(entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * @param image the image
+     * @return the amount of bytes the decoded image takes up
+     */
+    private static long sizeOf(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * BYTES_PER_PIXEL;
+    }
+
+    /**
+     * Decodes an image which isn't cached yet.
+     */
+    @FunctionalInterface
+    interface ImageLoader {
+
+        /**
+         * @return the decoded image
+         * @throws IOException if the image couldn't be read
+         */
+        Image load() throws IOException;
+    }
+
+    /**
+     * Identifies a cached image.
+     */
+    private static final class Key {
+
+        /**
+         * The name of the archive.
+         */
+        private final String archive;
+
+        /**
+         * The path of the image inside of the archive.
+         */
+        private final String path;
+
+        /**
+         * The content stamp of the file.
+         */
+        private final long stamp;
+
+        /**
+         * @param archive the name of the archive
+         * @param path    the path of the image inside of the archive
+         * @param stamp   the content stamp of the file
+         */
+        private Key(String archive, String path, long stamp) {
+            this.archive = archive;
+            this.path = path;
+            this.stamp = stamp;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return stamp == other.stamp && archive.equals(other.archive) && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(archive, path, stamp);
+        }
+    }
+}
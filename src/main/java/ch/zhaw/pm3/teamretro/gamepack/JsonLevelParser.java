@@ -0,0 +1,360 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.Block;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Effect;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Enemy;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.EntityType;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Item;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Player;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Behavior;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Properties;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite;
+
+/**
+ * Reads the json representation of a {@link Level} in a single pass. The json
+ * is tokenized while it's read and the entities are created right away, no
+ * json tree is built in between. Equal properties and sprites are shared
+ * between the entities, see {@link EntityInterner}.
+ * <p>
+ * Members which aren't part of the level configuration are skipped.
+ */
+final class JsonLevelParser {
+
+    /**
+     * The json name of the level name.
+     */
+    static final String LEVEL_NAME_JSON = "name";
+
+    /**
+     * The json name of the sprite packs.
+     */
+    static final String SPRITE_PACKS_JSON = "spritePacks";
+
+    /**
+     * The json name of the background.
+     */
+    static final String BACKGROUND_JSON = "background";
+
+    /**
+     * The json name of the entities.
+     */
+    static final String ENTITY_LIST_JSON = "entityList";
+
+    /**
+     * The json name of the entity type, used by the entities and the properties.
+     */
+    static final String ENTITY_TYPE_JSON = "entityType";
+
+    /**
+     * The json name of the position of an entity.
+     */
+    static final String POSITION_JSON = "position";
+
+    /**
+     * The json name of the sprite of an entity.
+     */
+    static final String SPRITE_JSON = "sprite";
+
+    /**
+     * The json name of the properties of an entity.
+     */
+    static final String PROPERTIES_JSON = "properties";
+
+    /**
+     * The json name of the effects of an item.
+     */
+    static final String EFFECTS_JSON = "effects";
+
+    /**
+     * The json name the effects of an item are written with by
+     * {@link Level#toJson()}, accepted as well.
+     */
+    static final String EFFECT_JSON = "effect";
+
+    /**
+     * The json name of the behavior inside of the properties.
+     */
+    static final String BEHAVIOR_JSON = "behavior";
+
+    /**
+     * The json name of the solidity inside of the properties.
+     */
+    static final String SOLID_JSON = "solid";
+
+    /**
+     * The json name of the x coordinate of a position.
+     */
+    static final String X_JSON = "x";
+
+    /**
+     * The json name of the y coordinate of a position.
+     */
+    static final String Y_JSON = "y";
+
+    /**
+     * Where the json is read from.
+     */
+    private final JsonTokenizer tokenizer;
+
+    /**
+     * Hands out the properties and sprites shared by the entities of the level.
+     */
+    private final EntityInterner interner = new EntityInterner();
+
+    /**
+     * @param reader the json data, it is not closed
+     */
+    private JsonLevelParser(Reader reader) {
+        this.tokenizer = new JsonTokenizer(reader);
+    }
+
+    /**
+     * Will read a level from its json representation.
+     *
+     * @param reader the json data, it is not closed
+     * @return the level
+     * @throws IOException               if the data couldn't be read
+     * @throws InvalidLevelConfiguration if the json or the level is invalid
+     */
+    static Level read(Reader reader) throws IOException, InvalidLevelConfiguration {
+        return new JsonLevelParser(reader).readLevel();
+    }
+
+    /**
+     * @return the level read
+     * @throws IOException               if the data couldn't be read
+     * @throws InvalidLevelConfiguration if the json or the level is invalid
+     */
+    private Level readLevel() throws IOException, InvalidLevelConfiguration {
+        String levelName = null;
+        Set<String> spritePacks = null;
+        String background = null;
+        List<Entity> entities = null;
+
+        tokenizer.beginObject();
+        while (tokenizer.hasNext()) {
+            switch (tokenizer.nextName()) {
+                case LEVEL_NAME_JSON:
+                    levelName = tokenizer.nextString();
+                    break;
+                case SPRITE_PACKS_JSON:
+                    spritePacks = readStrings();
+                    break;
+                case BACKGROUND_JSON:
+                    background = tokenizer.nextString();
+                    break;
+                case ENTITY_LIST_JSON:
+                    entities = readEntities();
+                    break;
+                default:
+                    tokenizer.skipValue();
+            }
+        }
+        tokenizer.endObject();
+        tokenizer.endDocument();
+
+        return new Level(required(levelName, LEVEL_NAME_JSON), required(spritePacks, SPRITE_PACKS_JSON),
+                required(background, BACKGROUND_JSON), required(entities, ENTITY_LIST_JSON));
+    }
+
+    /**
+     * @return the strings of an array
+     * @throws IOException               if the data couldn't be read
+     * @throws InvalidLevelConfiguration if the json is invalid
+     */
+    private Set<String> readStrings() throws IOException, InvalidLevelConfiguration {
+        Set<String> values = new LinkedHashSet<>();
+        tokenizer.beginArray();
+        while (tokenizer.hasNext()) {
+            values.add(tokenizer.nextString());
+        }
+        tokenizer.endArray();
+        return values;
+    }
+
+    /**
+     * @return the entities of the entity list
+     * @throws IOException               if the data couldn't be read
+     * @throws InvalidLevelConfiguration if the json or an entity is invalid
+     */
+    private List<Entity> readEntities() throws IOException, InvalidLevelConfiguration {
+        List<Entity> entities = new ArrayList<>();
+        tokenizer.beginArray();
+        while (tokenizer.hasNext()) {
+            entities.add(readEntity());
+        }
+        tokenizer.endArray();
+        return entities;
+    }
+
+    /**
+     * @return the entity read
+     * @throws IOException               if the data couldn't be read
+     * @throws InvalidLevelConfiguration if the json or the entity is invalid
+     */
+    private Entity readEntity() throws IOException, InvalidLevelConfiguration {
+        EntityType entityType = null;
+        Position position = null;
+        String spriteName = null;
+        Properties properties = null;
+        List<Effect> effects = null;
+
+        tokenizer.beginObject();
+        while (tokenizer.hasNext()) {
+            switch (tokenizer.nextName()) {
+                case ENTITY_TYPE_JSON:
+                    entityType = toEnum(EntityType.class, tokenizer.nextString());
+                    break;
+                case POSITION_JSON:
+                    position = readPosition();
+                    break;
+                case SPRITE_JSON:
+                    spriteName = tokenizer.nextString();
+                    break;
+                case PROPERTIES_JSON:
+                    properties = readProperties();
+                    break;
+                case EFFECTS_JSON:
+                case EFFECT_JSON:
+                    effects = readEffects();
+                    break;
+                default:
+                    tokenizer.skipValue();
+            }
+        }
+        tokenizer.endObject();
+
+        required(entityType, ENTITY_TYPE_JSON);
+        required(position, POSITION_JSON);
+        Sprite sprite = interner.sprite(required(spriteName, SPRITE_JSON));
+        required(properties, PROPERTIES_JSON);
+        switch (entityType) {
+            case BLOCK:
+                return new Block(position, sprite, properties);
+            case ITEM:
+                return new Item(position, sprite, properties, required(effects, EFFECTS_JSON));
+            case PLAYER:
+                return new Player(position, sprite, properties);
+            case ENEMY:
+                return new Enemy(position, sprite, properties);
+            default:
+                throw new EnumConstantNotPresentException(EntityType.class, entityType.name());
+        }
+    }
+
+    /**
+     * @return the position read
+     * @throws IOException               if the data couldn't be read
+     * @throws InvalidLevelConfiguration if the json is invalid
+     */
+    private Position readPosition() throws IOException, InvalidLevelConfiguration {
+        Double x = null;
+        Double y = null;
+        tokenizer.beginObject();
+        while (tokenizer.hasNext()) {
+            switch (tokenizer.nextName()) {
+                case X_JSON:
+                    x = tokenizer.nextDouble();
+                    break;
+                case Y_JSON:
+                    y = tokenizer.nextDouble();
+                    break;
+                default:
+                    tokenizer.skipValue();
+            }
+        }
+        tokenizer.endObject();
+        return new Position(required(x, X_JSON), required(y, Y_JSON));
+    }
+
+    /**
+     * @return the shared properties read
+     * @throws IOException               if the data couldn't be read
+     * @throws InvalidLevelConfiguration if the json is invalid
+     */
+    private Properties readProperties() throws IOException, InvalidLevelConfiguration {
+        EntityType entityType = null;
+        Behavior behavior = null;
+        boolean solid = false;
+        tokenizer.beginObject();
+        while (tokenizer.hasNext()) {
+            switch (tokenizer.nextName()) {
+                case ENTITY_TYPE_JSON:
+                    entityType = toEnum(EntityType.class, tokenizer.nextString());
+                    break;
+                case BEHAVIOR_JSON:
+                    behavior = toEnum(Behavior.class, tokenizer.nextString());
+                    break;
+                case SOLID_JSON:
+                    solid = tokenizer.nextBoolean();
+                    break;
+                default:
+                    tokenizer.skipValue();
+            }
+        }
+        tokenizer.endObject();
+        return interner.properties(required(behavior, BEHAVIOR_JSON), required(entityType, ENTITY_TYPE_JSON), solid);
+    }
+
+    /**
+     * @return the effects of an item
+     * @throws IOException               if the data couldn't be read
+     * @throws InvalidLevelConfiguration if the json is invalid
+     */
+    private List<Effect> readEffects() throws IOException, InvalidLevelConfiguration {
+        List<Effect> effects = new ArrayList<>();
+        tokenizer.beginArray();
+        while (tokenizer.hasNext()) {
+            effects.add(toEnum(Effect.class, tokenizer.nextString()));
+        }
+        tokenizer.endArray();
+        return effects.isEmpty() ? Collections.emptyList() : effects;
+    }
+
+    /**
+     * Will look up the enum constant, the case of the name doesn't matter.
+     *
+     * @param <E>   the type of the enum
+     * @param type  the class of the enum
+     * @param value the name of the constant
+     * @return the enum constant
+     * @throws InvalidLevelConfiguration if there is no such constant
+     */
+    private static <E extends Enum<E>> E toEnum(Class<E> type, String value) throws InvalidLevelConfiguration {
+        try {
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            try {
+                return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ignored) {
+                throw new InvalidLevelConfiguration(String.format("JSON configuration not valid <%s is not a %s>",
+                        value, type.getSimpleName()));
+            }
+        }
+    }
+
+    /**
+     * @param <T>   the type of the value
+     * @param value the value read, null if it was missing
+     * @param name  the json name of the value
+     * @return the value
+     * @throws InvalidLevelConfiguration if the value was missing
+     */
+    private static <T> T required(T value, String name) throws InvalidLevelConfiguration {
+        if (value == null) {
+            throw new InvalidLevelConfiguration(String.format("JSON configuration not valid <%s is missing>", name));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,147 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import static ch.zhaw.pm3.teamretro.gamepack.JsonLevelParser.BACKGROUND_JSON;
+import static ch.zhaw.pm3.teamretro.gamepack.JsonLevelParser.BEHAVIOR_JSON;
+import static ch.zhaw.pm3.teamretro.gamepack.JsonLevelParser.EFFECT_JSON;
+import static ch.zhaw.pm3.teamretro.gamepack.JsonLevelParser.ENTITY_LIST_JSON;
+import static ch.zhaw.pm3.teamretro.gamepack.JsonLevelParser.ENTITY_TYPE_JSON;
+import static ch.zhaw.pm3.teamretro.gamepack.JsonLevelParser.LEVEL_NAME_JSON;
+import static ch.zhaw.pm3.teamretro.gamepack.JsonLevelParser.POSITION_JSON;
+import static ch.zhaw.pm3.teamretro.gamepack.JsonLevelParser.PROPERTIES_JSON;
+import static ch.zhaw.pm3.teamretro.gamepack.JsonLevelParser.SOLID_JSON;
+import static ch.zhaw.pm3.teamretro.gamepack.JsonLevelParser.SPRITE_JSON;
+import static ch.zhaw.pm3.teamretro.gamepack.JsonLevelParser.SPRITE_PACKS_JSON;
+import static ch.zhaw.pm3.teamretro.gamepack.JsonLevelParser.X_JSON;
+import static ch.zhaw.pm3.teamretro.gamepack.JsonLevelParser.Y_JSON;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.List;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.Effect;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Item;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Properties;
+
+/**
+ * Writes the json representation of a {@link Level} without any reflection.
+ * The members are written in the order org.json put them in, so the output
+ * stays the same as before. Only the order of the sprite packs, the entity list
+ * and the background was never fixed: they share a bucket of the hash map
+ * org.json uses, so their order depended on the order the getters were found
+ * in. They are written in the order a fresh JVM used to write them.
+ *
+ * @see JsonLevelParser
+ */
+final class JsonLevelWriter {
+
+    /**
+     * This is empty so that there can not be an initialized version of this class.
+     */
+    private JsonLevelWriter() {
+    }
+
+    /**
+     * Will write the level as json.
+     *
+     * @param level        the level to write
+     * @param writer       where the json is written to, it is not closed
+     * @param indentFactor by how many spaces each level is indented, 0 for
+     *                     compact output
+     * @throws IOException if writing failed
+     */
+    static void write(Level level, Writer writer, int indentFactor) throws IOException {
+        JsonPrinter printer = new JsonPrinter(writer, indentFactor);
+        List<Entity> entities = level.getEntityList();
+
+        printer.beginObject(4);
+        printer.name(SPRITE_PACKS_JSON);
+        writeStrings(printer, level.getSpritePacks());
+        printer.name(ENTITY_LIST_JSON);
+        printer.beginArray(entities.size());
+        for (Entity entity : entities) {
+            writeEntity(printer, entity);
+        }
+        printer.endArray();
+        printer.name(BACKGROUND_JSON);
+        printer.value(level.getBackgroundName());
+        printer.name(LEVEL_NAME_JSON);
+        printer.value(level.getLevelName());
+        printer.endObject();
+        writer.flush();
+    }
+
+    /**
+     * @param printer where the strings are written to
+     * @param values  the strings to write as an array
+     * @throws IOException if writing failed
+     */
+    private static void writeStrings(JsonPrinter printer, Collection<String> values) throws IOException {
+        printer.beginArray(values.size());
+        for (String value : values) {
+            printer.value(value);
+        }
+        printer.endArray();
+    }
+
+    /**
+     * @param printer where the entity is written to
+     * @param entity  the entity to write
+     * @throws IOException if writing failed
+     */
+    private static void writeEntity(JsonPrinter printer, Entity entity) throws IOException {
+        boolean item = entity instanceof Item;
+
+        printer.beginObject(item ? 5 : 4);
+        printer.name(ENTITY_TYPE_JSON);
+        printer.value(entity.getEntityType());
+        if (item) {
+            List<Effect> effects = ((Item) entity).getEffect();
+            printer.name(EFFECT_JSON);
+            printer.beginArray(effects.size());
+            for (Effect effect : effects) {
+                printer.value(effect);
+            }
+            printer.endArray();
+        }
+        printer.name(SPRITE_JSON);
+        printer.value(entity.getSpriteName());
+        printer.name(POSITION_JSON);
+        writePosition(printer, entity.getSpawnPosition());
+        printer.name(PROPERTIES_JSON);
+        writeProperties(printer, entity.getProperties());
+        printer.endObject();
+    }
+
+    /**
+     * @param printer  where the position is written to
+     * @param position the position to write
+     * @throws IOException if writing failed
+     */
+    private static void writePosition(JsonPrinter printer, Position position) throws IOException {
+        printer.beginObject(2);
+        printer.name(X_JSON);
+        printer.value(position.getX());
+        printer.name(Y_JSON);
+        printer.value(position.getY());
+        printer.endObject();
+    }
+
+    /**
+     * @param printer    where the properties are written to
+     * @param properties the properties to write
+     * @throws IOException if writing failed
+     */
+    private static void writeProperties(JsonPrinter printer, Properties properties) throws IOException {
+        printer.beginObject(3);
+        printer.name(SOLID_JSON);
+        printer.value(properties.isSolid());
+        printer.name(ENTITY_TYPE_JSON);
+        printer.value(properties.getEntityType());
+        printer.name(BEHAVIOR_JSON);
+        printer.value(properties.getBehavior());
+        printer.endObject();
+    }
+}
@@ -1,6 +1,9 @@
 package ch.zhaw.pm3.teamretro.gamepack;
 
+import java.io.Reader;
+
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 /**
  * An abstraction over the org.json parser.
@@ -30,6 +33,17 @@ public class JsonParser {
 		return new JSONObject(jsonString);
 	}
 
+	/**
+	 * Will parse the json data read from the reader to a correct json object,
+	 * without reading it into a string first.
+	 * 
+	 * @param reader the json data to convert, it is not closed
+	 * @return the deserialized object
+	 */
+	public static JSONObject readerToJSONObject(Reader reader) {
+		return new JSONObject(new JSONTokener(reader));
+	}
+
 	/**
 	 * Will serialize the given object to a indented json string.
 	 * 
@@ -0,0 +1,279 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.json.JSONObject;
+
+/**
+ * Writes json straight to a {@link Writer}, one value after the other, without
+ * building a tree first. The layout is the same as the one of
+ * {@link JSONObject#toString(int)}: members are put on their own lines, except
+ * for objects and arrays with a single member, which stay on the line of their
+ * parent. That's why the amount of members has to be known when an object or
+ * array is started.
+ * <p>
+ * Strings and numbers are formatted by org.json, so as long as the members are
+ * written in the same order, the output is byte for byte the same as the one
+ * of {@link JsonParser#objToJson(Object)}.
+ */
+final class JsonPrinter {
+
+    /**
+     * Where the json is written to.
+     */
+    private final Writer writer;
+
+    /**
+     * By how many spaces each level is indented, 0 for compact output without
+     * any whitespace.
+     */
+    private final int indentFactor;
+
+    /**
+     * The objects and arrays which were started but not yet ended.
+     */
+    private final Deque<Container> open = new ArrayDeque<>();
+
+    /**
+     * Creates a printer writing to the writer.
+     *
+     * @param writer       where the json is written to, it is not closed
+     * @param indentFactor by how many spaces each level is indented, 0 for
+     *                     compact output
+     */
+    JsonPrinter(Writer writer, int indentFactor) {
+        this.writer = writer;
+        this.indentFactor = indentFactor;
+    }
+
+    /**
+     * Will start an object, its members are written with {@link #name(String)}
+     * followed by their value.
+     *
+     * @param size the amount of members the object will have
+     * @throws IOException if writing failed
+     */
+    void beginObject(int size) throws IOException {
+        begin('{', size);
+    }
+
+    /**
+     * Will end the current object.
+     *
+     * @throws IOException if writing failed
+     */
+    void endObject() throws IOException {
+        end('}');
+    }
+
+    /**
+     * Will start an array, its elements are written one after the other.
+     *
+     * @param size the amount of elements the array will have
+     * @throws IOException if writing failed
+     */
+    void beginArray(int size) throws IOException {
+        begin('[', size);
+    }
+
+    /**
+     * Will end the current array.
+     *
+     * @throws IOException if writing failed
+     */
+    void endArray() throws IOException {
+        end(']');
+    }
+
+    /**
+     * Will write the name of the next member of the current object.
+     *
+     * @param name the name of the member
+     * @throws IOException if writing failed
+     */
+    void name(String name) throws IOException {
+        nextMember();
+        JSONObject.quote(name, writer);
+        writer.write(':');
+        if (indentFactor > 0) {
+            writer.write(' ');
+        }
+    }
+
+    /**
+     * Will write a string, or null if there is none.
+     *
+     * @param value the string
+     * @throws IOException if writing failed
+     */
+    void value(String value) throws IOException {
+        nextElement();
+        if (value == null) {
+            writer.write("null");
+        } else {
+            JSONObject.quote(value, writer);
+        }
+    }
+
+    /**
+     * Will write the name of the enum constant as a string.
+     *
+     * @param value the enum constant
+     * @throws IOException if writing failed
+     */
+    void value(Enum<?> value) throws IOException {
+        value(value.name());
+    }
+
+    /**
+     * Will write a number, whole numbers are written without a fraction.
+     *
+     * @param value the number
+     * @throws IOException if writing failed
+     */
+    void value(double value) throws IOException {
+        nextElement();
+        writer.write(JSONObject.numberToString(value));
+    }
+
+    /**
+     * Will write a boolean.
+     *
+     * @param value the boolean
+     * @throws IOException if writing failed
+     */
+    void value(boolean value) throws IOException {
+        nextElement();
+        writer.write(Boolean.toString(value));
+    }
+
+    /**
+     * @param bracket the opening bracket
+     * @param size    the amount of members
+     * @throws IOException if writing failed
+     */
+    private void begin(char bracket, int size) throws IOException {
+        nextElement();
+        Container parent = open.peek();
+        int indent = parent == null ? 0 : parent.memberIndent();
+        open.push(new Container(size, indent));
+        writer.write(bracket);
+    }
+
+    /**
+     * @param bracket the closing bracket
+     * @throws IOException if writing failed
+     */
+    private void end(char bracket) throws IOException {
+        Container container = open.pop();
+        if (container.written != container.size) {
+            throw new IllegalStateException(String.format("Expected %d members but %d were written.",
+                    container.size, container.written));
+        }
+        if (container.size > 1) {
+            if (indentFactor > 0) {
+                writer.write('\n');
+            }
+            indent(container.indent);
+        }
+        writer.write(bracket);
+    }
+
+    /**
+     * Will start the next element of the current array, values of object members
+     * were already started by their name.
+     *
+     * @throws IOException if writing failed
+     */
+    private void nextElement() throws IOException {
+        Container container = open.peek();
+        if (container == null) {
+            return;
+        }
+        if (!container.named) {
+            nextMember();
+        }
+        container.named = false;
+    }
+
+    /**
+     * Will put the separator and the indentation in front of the next member.
+     *
+     * @throws IOException if writing failed
+     */
+    private void nextMember() throws IOException {
+        Container container = open.peek();
+        if (container == null || container.written == container.size) {
+            throw new IllegalStateException("No more members expected.");
+        }
+        if (container.size > 1) {
+            if (container.written > 0) {
+                writer.write(',');
+            }
+            if (indentFactor > 0) {
+                writer.write('\n');
+            }
+            indent(container.memberIndent());
+        }
+        container.written++;
+        container.named = true;
+    }
+
+    /**
+     * @param indent the amount of spaces to write
+     * @throws IOException if writing failed
+     */
+    private void indent(int indent) throws IOException {
+        for (int i = 0; i < indent; i++) {
+            writer.write(' ');
+        }
+    }
+
+    /**
+     * An object or array which was started.
+     */
+    private final class Container {
+
+        /**
+         * The amount of members it will have.
+         */
+        private final int size;
+
+        /**
+         * The indentation of the line it was started on.
+         */
+        private final int indent;
+
+        /**
+         * The amount of members started so far.
+         */
+        private int written;
+
+        /**
+         * True if the current member was started by its name and its value is
+         * still to come.
+         */
+        private boolean named;
+
+        /**
+         * @param size   the amount of members it will have
+         * @param indent the indentation of the line it was started on
+         */
+        private Container(int size, int indent) {
+            this.size = size;
+            this.indent = indent;
+        }
+
+        /**
+         * A single member stays on the line of its parent, others are indented.
+         *
+         * @return the indentation of its members
+         */
+        private int memberIndent() {
+            return size > 1 ? indent + indentFactor : indent;
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A minimal pull tokenizer for json, reading the values one after the other
+ * straight from a {@link Reader}, without building a tree. The caller knows the
+ * expected structure and asks for the next name or value; everything it isn't
+ * interested in is skipped with {@link #skipValue()}.
+ * <p>
+ * Commas are only checked to separate the elements, a missing comma is
+ * tolerated.
+ */
+final class JsonTokenizer {
+
+    /**
+     * How many characters are read from the reader at once.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Where the json is read from.
+     */
+    private final Reader reader;
+
+    /**
+     * The characters read ahead.
+     */
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    /**
+     * Reused to build the strings.
+     */
+    private final StringBuilder builder = new StringBuilder();
+
+    /**
+     * The position of the next character inside of the buffer.
+     */
+    private int position;
+
+    /**
+     * The amount of valid characters in the buffer.
+     */
+    private int limit;
+
+    /**
+     * The amount of characters consumed before the buffer, used for the error
+     * messages.
+     */
+    private long offset;
+
+    /**
+     * Creates a tokenizer reading from the reader.
+     *
+     * @param reader the json data, it is not closed
+     */
+    JsonTokenizer(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Will start reading an object.
+     *
+     * @throws IOException               if reading failed
+     * @throws InvalidLevelConfiguration if the next value isn't an object
+     */
+    void beginObject() throws IOException, InvalidLevelConfiguration {
+        expect('{');
+    }
+
+    /**
+     * Will finish reading an object, all its members have to be read.
+     *
+     * @throws IOException               if reading failed
+     * @throws InvalidLevelConfiguration if the object doesn't end here
+     */
+    void endObject() throws IOException, InvalidLevelConfiguration {
+        expect('}');
+    }
+
+    /**
+     * Will start reading an array.
+     *
+     * @throws IOException               if reading failed
+     * @throws InvalidLevelConfiguration if the next value isn't an array
+     */
+    void beginArray() throws IOException, InvalidLevelConfiguration {
+        expect('[');
+    }
+
+    /**
+     * Will finish reading an array, all its elements have to be read.
+     *
+     * @throws IOException               if reading failed
+     * @throws InvalidLevelConfiguration if the array doesn't end here
+     */
+    void endArray() throws IOException, InvalidLevelConfiguration {
+        expect(']');
+    }
+
+    /**
+     * Will check if the current object or array has another member, a separating
+     * comma is consumed.
+     *
+     * @return true if there is another member
+     * @throws IOException               if reading failed
+     * @throws InvalidLevelConfiguration if the data ended
+     */
+    boolean hasNext() throws IOException, InvalidLevelConfiguration {
+        int c = peek();
+        if (c == ',') {
+            position++;
+            c = peek();
+        }
+        return c != '}' && c != ']';
+    }
+
+    /**
+     * Will read the name of the next member of an object.
+     *
+     * @return the name
+     * @throws IOException               if reading failed
+     * @throws InvalidLevelConfiguration if there is no name
+     */
+    String nextName() throws IOException, InvalidLevelConfiguration {
+        String name = readString();
+        expect(':');
+        return name;
+    }
+
+    /**
+     * Will read a string value.
+     *
+     * @return the string
+     * @throws IOException               if reading failed
+     * @throws InvalidLevelConfiguration if the value isn't a string
+     */
+    String nextString() throws IOException, InvalidLevelConfiguration {
+        return readString();
+    }
+
+    /**
+     * Will read a number, it may be quoted as well.
+     *
+     * @return the number
+     * @throws IOException               if reading failed
+     * @throws InvalidLevelConfiguration if the value isn't a number
+     */
+    double nextDouble() throws IOException, InvalidLevelConfiguration {
+        String number = peek() == '"' ? readString() : readLiteral();
+        try {
+            return Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            throw error(String.format("<%s> is not a number", number));
+        }
+    }
+
+    /**
+     * Will read a boolean, it may be quoted as well.
+     *
+     * @return the boolean
+     * @throws IOException               if reading failed
+     * @throws InvalidLevelConfiguration if the value isn't a boolean
+     */
+    boolean nextBoolean() throws IOException, InvalidLevelConfiguration {
+        String literal = peek() == '"' ? readString() : readLiteral();
+        if ("true".equalsIgnoreCase(literal)) {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(literal)) {
+            return false;
+        }
+        throw error(String.format("<%s> is not a boolean", literal));
+    }
+
+    /**
+     * Will skip the next value, no matter its type.
+     *
+     * @throws IOException               if reading failed
+     * @throws InvalidLevelConfiguration if the value is invalid
+     */
+    void skipValue() throws IOException, InvalidLevelConfiguration {
+        int c = peek();
+        if (c == '{') {
+            beginObject();
+            while (hasNext()) {
+                nextName();
+                skipValue();
+            }
+            endObject();
+        } else if (c == '[') {
+            beginArray();
+            while (hasNext()) {
+                skipValue();
+            }
+            endArray();
+        } else if (c == '"') {
+            readString();
+        } else {
+            readLiteral();
+        }
+    }
+
+    /**
+     * Will check that the tokenizer read all the data, apart from whitespace.
+     *
+     * @throws IOException               if reading failed
+     * @throws InvalidLevelConfiguration if there is more data
+     */
+    void endDocument() throws IOException, InvalidLevelConfiguration {
+        skipWhitespace();
+        if (fill()) {
+            throw error(String.format("unexpected <%c>", buffer[position]));
+        }
+    }
+
+    /**
+     * Will consume the expected character.
+     *
+     * @param expected the character expected next
+     * @throws IOException               if reading failed
+     * @throws InvalidLevelConfiguration if an other character comes next
+     */
+    private void expect(char expected) throws IOException, InvalidLevelConfiguration {
+        int c = peek();
+        if (c != expected) {
+            throw error(String.format("expected <%c> but found <%c>", expected, c));
+        }
+        position++;
+    }
+
+    /**
+     * Will return the next character which isn't whitespace, without consuming it.
+     *
+     * @return the next character
+     * @throws IOException               if reading failed
+     * @throws InvalidLevelConfiguration if the data ended
+     */
+    private int peek() throws IOException, InvalidLevelConfiguration {
+        skipWhitespace();
+        if (!fill()) {
+            throw error("unexpected end of data");
+        }
+        return buffer[position];
+    }
+
+    /**
+     * Will consume the whitespace ahead.
+     *
+     * @throws IOException if reading failed
+     */
+    private void skipWhitespace() throws IOException {
+        while (fill()) {
+            char c = buffer[position];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    /**
+     * Will make sure there is at least one character in the buffer.
+     *
+     * @return false if the data ended
+     * @throws IOException if reading failed
+     */
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        offset += limit;
+        position = 0;
+        limit = 0;
+        int read = reader.read(buffer);
+        while (read == 0) {
+            read = reader.read(buffer);
+        }
+        if (read < 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+
+    /**
+     * Will read a quoted string and resolve its escape sequences.
+     *
+     * @return the string
+     * @throws IOException               if reading failed
+     * @throws InvalidLevelConfiguration if there is no string or it's invalid
+     */
+    private String readString() throws IOException, InvalidLevelConfiguration {
+        expect('"');
+        builder.setLength(0);
+        while (true) {
+            if (!fill()) {
+                throw error("unterminated string");
+            }
+            // copy the plain characters in one go
+            int start = position;
+            while (position < limit && buffer[position] != '"' && buffer[position] != '\\') {
+                position++;
+            }
+            builder.append(buffer, start, position - start);
+            if (position == limit) {
+                continue;
+            }
+            if (buffer[position++] == '"') {
+                return builder.toString();
+            }
+            builder.append(readEscape());
+        }
+    }
+
+    /**
+     * Will read an escape sequence, the backslash is already consumed.
+     *
+     * @return the escaped character
+     * @throws IOException               if reading failed
+     * @throws InvalidLevelConfiguration if the escape sequence is invalid
+     */
+    private char readEscape() throws IOException, InvalidLevelConfiguration {
+        char c = nextChar();
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(nextChar(), 16);
+                    if (digit < 0) {
+                        throw error("invalid unicode escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            default:
+                throw error(String.format("invalid escape <\\%c>", c));
+        }
+    }
+
+    /**
+     * Will consume the next character, whitespace included.
+     *
+     * @return the next character
+     * @throws IOException               if reading failed
+     * @throws InvalidLevelConfiguration if the data ended
+     */
+    private char nextChar() throws IOException, InvalidLevelConfiguration {
+        if (!fill()) {
+            throw error("unexpected end of data");
+        }
+        return buffer[position++];
+    }
+
+    /**
+     * Will read an unquoted value, like a number, a boolean or null.
+     *
+     * @return the literal
+     * @throws IOException               if reading failed
+     * @throws InvalidLevelConfiguration if there is no literal
+     */
+    private String readLiteral() throws IOException, InvalidLevelConfiguration {
+        peek();
+        builder.setLength(0);
+        while (fill()) {
+            char c = buffer[position];
+            if (c == ',' || c == '}' || c == ']' || c == ':' || c == '"' || c == ' ' || c == '\n' || c == '\r'
+                    || c == '\t' || c == '{' || c == '[') {
+                break;
+            }
+            builder.append(c);
+            position++;
+        }
+        if (builder.length() == 0) {
+            throw error(String.format("unexpected <%c>", buffer[position]));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @param message what went wrong
+     * @return the exception to throw, containing where it went wrong
+     */
+    private InvalidLevelConfiguration error(String message) {
+        return new InvalidLevelConfiguration(
+                String.format("JSON configuration not valid <%s at character %d>", message, offset + position));
+    }
+}
@@ -1,18 +1,24 @@
 package ch.zhaw.pm3.teamretro.gamepack;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
 import org.json.JSONPropertyIgnore;
 import org.json.JSONPropertyName;
 
@@ -22,6 +28,7 @@ import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
 import ch.zhaw.pm3.teamretro.gamepack.entity.EntityFactory;
 import ch.zhaw.pm3.teamretro.gamepack.entity.EntityType;
 import ch.zhaw.pm3.teamretro.gamepack.entity.Item;
+import ch.zhaw.pm3.teamretro.gamepack.entity.MovingEntity;
 import ch.zhaw.pm3.teamretro.gamepack.entity.Player;
 import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
 import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite;
@@ -78,17 +85,23 @@ public class Level {
 
     /**
      * The map of all the entities including the player, as defined during
-     * initialization.
+     * initialization. Blocks aligned to the tile grid are kept in the tile map
+     * instead.
      */
     private Map<Position, Entity> entityMap;
 
+    /**
+     * The blocks aligned to the tile grid, which are most of them.
+     */
+    private final TileMap tileMap = new TileMap();
+
     /**
      * The background sprite used.
      */
     private Sprite background;
 
     /**
-     * The map of all the currently spawned blocks.
+     * The map of the blocks which aren't aligned to the tile grid.
      */
     private Map<Position, Block> blockMap;
 
@@ -102,11 +115,51 @@ public class Level {
      */
     private Map<Position, Item> itemMap;
 
+    /**
+     * The enemies currently alive, the same as the values of the enemy map. Kept
+     * as a list so the game loop can walk over it without allocating an iterator.
+     */
+    private final List<Enemy> livingEnemies = new ArrayList<>();
+
+    /**
+     * Read only view of the living enemies.
+     */
+    private final List<Enemy> livingEnemiesView = Collections.unmodifiableList(livingEnemies);
+
     /**
      * The player of the game.
      */
     private Player player;
 
+    /**
+     * The collision index of all the blocks and moving entities.
+     */
+    private final CollisionGrid collisionGrid = new CollisionGrid(tileMap);
+
+    /**
+     * The spatial index of the blocks which aren't aligned to the tile grid, used
+     * to only draw the visible ones.
+     */
+    private final SpatialIndex blockIndex = new SpatialIndex();
+
+    /**
+     * The spatial index of all the items, used to only draw the visible ones.
+     */
+    private final SpatialIndex itemIndex = new SpatialIndex();
+
+    /**
+     * The left border of the area the blocks and items are loaded for, only
+     * differs from the whole level while it's streamed.
+     *
+     * @see LevelStreamer
+     */
+    private double streamedMinX = Double.NEGATIVE_INFINITY;
+
+    /**
+     * The right border of the area the blocks and items are loaded for.
+     */
+    private double streamedMaxX = Double.POSITIVE_INFINITY;
+
     /**
      * Will construct the new level
      * 
@@ -126,7 +179,7 @@ public class Level {
      * @param entities    all the entities that will live on this level
      * @throws InvalidLevelConfiguration if something went wrong
      */
-    private Level(String levelName, Set<String> spritePacks, String background, List<Entity> entities)
+    Level(String levelName, Set<String> spritePacks, String background, List<Entity> entities)
             throws InvalidLevelConfiguration {
         this.levelName = levelName;
         this.spritePacks = new HashSet<>(spritePacks);
@@ -137,8 +190,42 @@ public class Level {
         setUpEntityLists();
     }
 
+    /**
+     * Will serialize the level to an indented json string.
+     *
+     * @return the json representation of the level
+     * @see JsonLevelWriter
+     */
     public String toJson() {
-        return JsonParser.objToJson(this);
+        StringWriter writer = new StringWriter();
+        try {
+            writeJson(writer, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Will write the json representation of the level straight to the writer.
+     *
+     * @param writer  where the json is written to, it is flushed but not closed
+     * @param compact true to leave out all the whitespace, false to indent it
+     *                like {@link #toJson()}
+     * @throws IOException If the json could not be written.
+     */
+    public void writeJson(Writer writer, boolean compact) throws IOException {
+        JsonLevelWriter.write(this, writer, compact ? 0 : JsonParser.INDENT);
+    }
+
+    /**
+     * Will encode the level in the compact binary format.
+     *
+     * @return the binary representation of the level
+     * @see BinaryLevelParser
+     */
+    public byte[] toBinary() {
+        return BinaryLevelParser.toBytes(this);
     }
 
     @JSONPropertyName(LEVEL_NAME_JSON)
@@ -155,21 +242,88 @@ public class Level {
         return Collections.unmodifiableSet(spritePacks);
     }
 
+    /**
+     * Will return all the entities of the level. The blocks of the tile map are
+     * created for this, so this is meant for the editor and the export, not for
+     * every frame.
+     *
+     * @return a read only list of all the entities
+     */
     public List<Entity> getEntityList() {
-        return List.copyOf(entityMap.values());
+        List<Entity> entities = new ArrayList<>(getEntityCount());
+        entities.addAll(entityMap.values());
+        tileMap.addBlocksTo(entities);
+        return Collections.unmodifiableList(entities);
     }
 
-    public void setEntityList(List<Entity> entityList) {
+    /**
+     * Will replace all the entities of the level.
+     *
+     * @param entityList the new entities
+     * @throws InvalidLevelConfiguration If an invalid level configuration was
+     *                                   encountered.
+     */
+    public void setEntityList(List<Entity> entityList) throws InvalidLevelConfiguration {
         setupEntityMap(entityList);
+        setUpEntityLists();
+    }
+
+    /**
+     * @return the amount of entities, without creating the blocks of the tile map
+     */
+    @JSONPropertyIgnore
+    public int getEntityCount() {
+        return entityMap.size() + tileMap.size();
+    }
+
+    /**
+     * Will return the entities which aren't part of the tile map.
+     *
+     * @return a read only view of the entities
+     */
+    Collection<Entity> getStoredEntities() {
+        return Collections.unmodifiableCollection(entityMap.values());
     }
 
     /**
-     * This method will convert from a list to the internally used hash map.
+     * This method will convert from a list to the internally used hash map and
+     * tile map.
      *
      * @param entityList the entities
+     * @throws InvalidLevelConfiguration If an invalid level configuration was
+     *                                   encountered.
+     * @throws IllegalStateException     If two entities share the same position.
      */
-    private void setupEntityMap(List<Entity> entityList) {
-        this.entityMap = entityList.stream().collect(Collectors.toMap(Entity::getPosition, entity -> entity));
+    private void setupEntityMap(List<Entity> entityList) throws InvalidLevelConfiguration {
+        Map<Position, Entity> entities = new ConcurrentHashMap<>(entityList.size());
+        tileMap.clear();
+        for (Entity entity : entityList) {
+            Position key = keyOf(entity);
+            if (tileMap.getTile(key) != null || entities.containsKey(key)) {
+                throw new IllegalStateException(String.format("Duplicate key %s", key));
+            }
+            if (TileMap.isTile(entity)) {
+                tileMap.put(entity);
+            } else {
+                entities.put(key, entity);
+            }
+        }
+        this.entityMap = entities;
+    }
+
+    /**
+     * Will return the key the entity is stored with in the maps. Moving entities
+     * change their position in place, so they get a copy of their current
+     * position as key.
+     *
+     * @param entity the entity to store
+     * @return the key for the maps
+     */
+    private static Position keyOf(Entity entity) {
+        if (entity instanceof MovingEntity) {
+            return new Position(entity.getPosition().getX(), entity.getPosition().getY());
+        }
+        return entity.getPosition();
     }
 
     /**
@@ -179,8 +333,63 @@ public class Level {
      */
     public void restoreEnemies(List<Enemy> killedEnemies) {
         for (Enemy enemies : killedEnemies) {
-            enemyMap.put(enemies.getPosition(), enemies);
+            enemyMap.put(keyOf(enemies), enemies);
+            if (!livingEnemies.contains(enemies)) {
+                livingEnemies.add(enemies);
+            }
+            collisionGrid.addDynamic(enemies);
+        }
+    }
+
+    /**
+     * Will remove a killed enemy from the map, it can be brought back via
+     * {@link #restoreEnemies(List) restoreEnemies}.
+     *
+     * @param enemy the enemy to remove
+     * @return true if the enemy was still alive
+     */
+    public boolean killEnemy(Enemy enemy) {
+        if (!enemyMap.values().remove(enemy)) {
+            return false;
+        }
+        livingEnemies.remove(enemy);
+        collisionGrid.removeDynamic(enemy);
+        return true;
+    }
+
+    /**
+     * Will take a snapshot of the player and the enemies currently alive, so the
+     * level can later be reset to this state without loading it again.
+     *
+     * @return the snapshot of the current state
+     */
+    public LevelSnapshot createSnapshot() {
+        return new LevelSnapshot(this, player, livingEnemies);
+    }
+
+    /**
+     * Will reset the player and the enemies to the state of the snapshot. Killed
+     * enemies are brought back and the positions are restored.
+     *
+     * @param snapshot a snapshot taken of this level
+     * @throws IllegalArgumentException if the snapshot was taken of another level
+     */
+    public void restoreSnapshot(LevelSnapshot snapshot) {
+        if (snapshot.getLevel() != this) {
+            throw new IllegalArgumentException("The snapshot was taken of another level.");
+        }
+        for (Enemy enemy : livingEnemies) {
+            collisionGrid.removeDynamic(enemy);
+        }
+        enemyMap.clear();
+        livingEnemies.clear();
+        snapshot.restoreEntities();
+        for (Enemy enemy : snapshot.getEnemies()) {
+            enemyMap.put(keyOf(enemy), enemy);
+            livingEnemies.add(enemy);
+            collisionGrid.addDynamic(enemy);
         }
+        collisionGrid.refreshDynamic();
     }
 
     @JSONPropertyName(BACKGROUND_JSON)
@@ -209,7 +418,13 @@ public class Level {
      */
     @JSONPropertyIgnore
     public Map<Position, Block> getBlockList() {
-        return blockMap;
+        Map<Position, Block> blocks = new HashMap<>(blockMap);
+        List<Block> tiles = new ArrayList<>(tileMap.size());
+        tileMap.addBlocksTo(tiles);
+        for (Block block : tiles) {
+            blocks.put(block.getPosition(), block);
+        }
+        return blocks;
     }
 
     /**
@@ -242,41 +457,198 @@ public class Level {
         return itemMap;
     }
 
+    /**
+     * Will return the enemies currently alive. Unlike the enemy map it can be
+     * walked by index, which doesn't allocate.
+     *
+     * @return a read only list of the living enemies
+     */
+    @JSONPropertyIgnore
+    public List<Enemy> getLivingEnemies() {
+        return livingEnemiesView;
+    }
+
     @JSONPropertyIgnore
     public Player getPlayer() {
         return player;
     }
 
+    @JSONPropertyIgnore
+    public CollisionGrid getCollisionGrid() {
+        return collisionGrid;
+    }
+
+    @JSONPropertyIgnore
+    public TileMap getTileMap() {
+        return tileMap;
+    }
+
+    @JSONPropertyIgnore
+    public SpatialIndex getBlockIndex() {
+        return blockIndex;
+    }
+
+    @JSONPropertyIgnore
+    public SpatialIndex getItemIndex() {
+        return itemIndex;
+    }
+
     /**
-     * Will split up the entities into there corresponding location.
+     * Will split up the entities into there corresponding location. This rebuilds
+     * all the indexes from scratch, so it is only used when the whole level is
+     * loaded. Single entities are indexed via {@link #indexEntity(Entity)}.
      *
      * @throws InvalidLevelConfiguration If an invalid level configuration was
      *                                   encountered.
      */
     private void setUpEntityLists() throws InvalidLevelConfiguration {
         blockMap = new ConcurrentHashMap<>(blockMap != null ? blockMap.size() : 0);
-        enemyMap = new ConcurrentHashMap<>(enemyMap != null ? blockMap.size() : 0);
-        itemMap = new ConcurrentHashMap<>(itemMap != null ? blockMap.size() : 0);
+        enemyMap = new ConcurrentHashMap<>(enemyMap != null ? enemyMap.size() : 0);
+        itemMap = new ConcurrentHashMap<>(itemMap != null ? itemMap.size() : 0);
+        livingEnemies.clear();
         player = null;
+        collisionGrid.clear();
+        blockIndex.clear();
+        itemIndex.clear();
+        for (Entity entity : entityMap.values()) {
+            indexEntity(entity);
+        }
+    }
+
+    /**
+     * Will add a single entity to the index of its type.
+     *
+     * @param entity the entity to index
+     * @throws InvalidLevelConfiguration If the entity is a second player.
+     */
+    private void indexEntity(Entity entity) throws InvalidLevelConfiguration {
+        switch (entity.getEntityType()) {
+            case BLOCK:
+                blockMap.put(entity.getPosition(), (Block) entity);
+                blockIndex.add(entity);
+                break;
+            case ITEM:
+                itemMap.put(entity.getPosition(), (Item) entity);
+                itemIndex.add(entity);
+                break;
+            case PLAYER:
+                if (player != null) {
+                    throw new InvalidLevelConfiguration("There may not be more the a single player per level.");
+                }
+                player = (Player) entity;
+                collisionGrid.addDynamic(player);
+                break;
+            case ENEMY:
+                enemyMap.put(keyOf(entity), (Enemy) entity);
+                livingEnemies.add((Enemy) entity);
+                collisionGrid.addDynamic((Enemy) entity);
+                break;
+            default:
+                throw new EnumConstantNotPresentException(EntityType.class, entity.getEntityType().name());
+        }
+    }
+
+    /**
+     * Will remove a single entity from the index of its type.
+     *
+     * @param entity the entity to remove
+     */
+    private void unindexEntity(Entity entity) {
+        switch (entity.getEntityType()) {
+            case BLOCK:
+                removeFromMap(blockMap, entity);
+                blockIndex.remove(entity);
+                break;
+            case ITEM:
+                removeFromMap(itemMap, entity);
+                itemIndex.remove(entity);
+                break;
+            case PLAYER:
+                if (player == entity) {
+                    player = null;
+                }
+                collisionGrid.removeDynamic((Player) entity);
+                break;
+            case ENEMY:
+                removeFromMap(enemyMap, entity);
+                livingEnemies.remove(entity);
+                collisionGrid.removeDynamic((Enemy) entity);
+                break;
+            default:
+                throw new EnumConstantNotPresentException(EntityType.class, entity.getEntityType().name());
+        }
+    }
+
+    /**
+     * Removes the entity from one of the typed maps. Moving entities may have
+     * moved away from the position they are stored at, only then the whole map
+     * is searched.
+     *
+     * @param map    the map to remove from
+     * @param entity the entity to remove
+     */
+    private static void removeFromMap(Map<Position, ? extends Entity> map, Entity entity) {
+        if (!map.remove(entity.getPosition(), entity)) {
+            map.values().remove(entity);
+        }
+    }
+
+    /**
+     * Checks if the blocks around the given x coordinate are loaded. Moving
+     * entities outside of the loaded area would fall through the missing ground,
+     * so they have to wait until it's loaded.
+     *
+     * @param x the x coordinate to check
+     * @return true if the area is loaded, always true unless the level is
+     *         streamed
+     */
+    public boolean isStreamedIn(double x) {
+        return x >= streamedMinX && x < streamedMaxX;
+    }
+
+    /**
+     * Will set the area the blocks and items are currently loaded for.
+     *
+     * @param minX the left border of the area
+     * @param maxX the right border of the area, not included
+     */
+    void setStreamedArea(double minX, double maxX) {
+        streamedMinX = minX;
+        streamedMaxX = maxX;
+    }
+
+    /**
+     * Will add the blocks and items of a chunk which was streamed in.
+     *
+     * @param entities the entities of the chunk, there may not be any moving
+     *                 entities among them
+     * @throws InvalidLevelConfiguration If there are too many distinct blocks.
+     */
+    void addChunk(List<Entity> entities) throws InvalidLevelConfiguration {
+        for (Entity entity : entities) {
+            if (TileMap.isTile(entity)) {
+                tileMap.put(entity);
+            } else {
+                entityMap.put(keyOf(entity), entity);
+                indexEntity(entity);
+            }
+        }
+    }
+
+    /**
+     * Will remove the blocks and items of a chunk which was streamed out. Moving
+     * entities are kept.
+     *
+     * @param minX the left border of the chunk
+     * @param maxX the right border of the chunk, not included
+     */
+    void removeChunk(double minX, double maxX) {
+        tileMap.removeColumns(CollisionGrid.toTile(minX), CollisionGrid.toTile(maxX));
         for (Entity entity : entityMap.values()) {
-            switch (entity.getEntityType()) {
-                case BLOCK:
-                    blockMap.put(entity.getPosition(), (Block) entity);
-                    break;
-                case ITEM:
-                    itemMap.put(entity.getPosition(), (Item) entity);
-                    break;
-                case PLAYER:
-                    if (player != null) {
-                        throw new InvalidLevelConfiguration("There may not be more the a single player per level.");
-                    }
-                    player = (Player) entity;
-                    break;
-                case ENEMY:
-                    enemyMap.put(entity.getPosition(), (Enemy) entity);
-                    break;
-                default:
-                    throw new EnumConstantNotPresentException(EntityType.class, entity.getEntityType().name());
+            double x = entity.getPosition().getX();
+            if (!(entity instanceof MovingEntity) && x >= minX && x < maxX) {
+                entityMap.remove(keyOf(entity), entity);
+                unindexEntity(entity);
             }
         }
     }
@@ -297,24 +669,25 @@ public class Level {
      */
     public Pair<Optional<Entity>, Optional<Entity>> addEntity(EntityType type, Sprite sprite, Position position)
             throws InvalidLevelConfiguration {
-        // call remove entity with the rebuild flag false as not to rebuild the whole
-        // lists
-        Optional<Entity> oldEntities = removeEntity(position, false);
+        Optional<Entity> oldEntities = removeEntityAt(position);
 
-        if (type == EntityType.PLAYER) {
-            // don't rebuild list here, as it will be rebuild later on
-            oldEntities = removeEntity(player.getSpawnPosition(), false);
+        if (type == EntityType.PLAYER && player != null) {
+            // there may only be one player, so the old one is replaced
+            oldEntities = removeEntityAt(player.getSpawnPosition());
         }
 
         Entity newEntity = EntityFactory.createEntity(type, sprite, position);
-        entityMap.put(position, newEntity);
+        if (TileMap.isTile(newEntity)) {
+            tileMap.put(newEntity);
+        } else {
+            entityMap.put(position, newEntity);
+            indexEntity(newEntity);
+        }
 
         // just add the sprite pack to the level, this is okay as we are talking about a
         // HashSet
         addSpritePack(sprite.getSpriteInformation().getPackName());
 
-        // rebuild the data arrays
-        setUpEntityLists();
         return new Pair<>(Optional.of(newEntity), oldEntities);
     }
 
@@ -335,7 +708,7 @@ public class Level {
                     "Tried to remove an entity as position <%s>.%nThere always must be a player available.",
                     entity.getPosition()));
         }
-        return removeEntity(position, true);
+        return removeEntityAt(position);
     }
 
     /**
@@ -343,26 +716,20 @@ public class Level {
      * entity typed ('brutal' removal). It will return that entity, if it exists
      * inside of an optional.
      *
-     * @param position     the position to check on
-     * @param rebuildLists in case the entity setup list has to be rebuilt.
+     * @param position the position to check on
      * @return will return an optional with an entity inside
-     * @throws InvalidLevelConfiguration If an invalid level configuration was
-     *                                   encountered.
      */
-    private Optional<Entity> removeEntity(Position position, boolean rebuildLists) throws InvalidLevelConfiguration {
-        Optional<Entity> removedEntity = Optional.empty();
-
-        Entity entity = entityMap.remove(position);
-
-        if (entity != null) {
-            removedEntity = Optional.of(entity);
+    private Optional<Entity> removeEntityAt(Position position) {
+        Block block = tileMap.remove(position);
+        if (block != null) {
+            return Optional.of(block);
         }
-
-        if (rebuildLists) {
-            setUpEntityLists();
+        Entity entity = entityMap.remove(position);
+        if (entity == null) {
+            return Optional.empty();
         }
-
-        return removedEntity;
+        unindexEntity(entity);
+        return Optional.of(entity);
     }
 
     /**
@@ -374,23 +741,38 @@ public class Level {
      *                                   encountered.
      */
     public static Level valueOf(String json) throws InvalidLevelConfiguration {
-        JSONObject jsonObject = JsonParser.stringToJSONObject(json);
-
-        String levelName = jsonObject.getString(LEVEL_NAME_JSON);
-
-        Set<String> spritePacks = jsonObject.getJSONArray(SPRITE_PACKS_JSON).toList().stream().map(sp -> (String) sp)
-                .collect(Collectors.toSet());
-
-        String background = jsonObject.getString(BACKGROUND_JSON);
-        JSONArray entitiesRaw = jsonObject.getJSONArray(ENTITY_LIST_JSON);
-
-        List<Entity> entityList = new ArrayList<>(entitiesRaw.length());
-
-        for (Object e : entitiesRaw) {
-            JSONObject entity = (JSONObject) e;
-            entityList.add(EntityFactory.createEntity(entity));
+        try {
+            return valueOf(new StringReader(json));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
+
+    /**
+     * Will generate a new level from json data, which is parsed while it's read.
+     *
+     * @param json the json data, the reader is not closed
+     * @return a initialized level class
+     * @throws IOException               If the data could not be read.
+     * @throws InvalidLevelConfiguration If an invalid level configuration was
+     *                                   encountered.
+     * @see JsonLevelParser
+     */
+    public static Level valueOf(Reader json) throws IOException, InvalidLevelConfiguration {
+        return JsonLevelParser.read(json);
+    }
 
-        return new Level(levelName, spritePacks, background, entityList);
+    /**
+     * Will generate a new level from its binary representation.
+     *
+     * @param input the binary data, the stream is not closed
+     * @return a initialized level class
+     * @throws IOException               If the data could not be read.
+     * @throws InvalidLevelConfiguration If an invalid level configuration was
+     *                                   encountered.
+     * @see BinaryLevelParser
+     */
+    public static Level valueOf(InputStream input) throws IOException, InvalidLevelConfiguration {
+        return BinaryLevelParser.read(input);
     }
 }
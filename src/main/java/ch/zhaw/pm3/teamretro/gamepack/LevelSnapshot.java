@@ -0,0 +1,159 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.Direction;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Enemy;
+import ch.zhaw.pm3.teamretro.gamepack.entity.MovingEntity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Player;
+
+/**
+ * An immutable copy of the dynamic state of a {@link Level}, meaning the
+ * player, the living enemies and their movement state. Taken once the level is
+ * loaded, it allows restarting the level by copying a few values back instead
+ * of loading the level from the archive again.
+ *
+ * @see Level#createSnapshot()
+ * @see Level#restoreSnapshot(LevelSnapshot)
+ */
+public final class LevelSnapshot {
+
+    /**
+     * The level the snapshot was taken of.
+     */
+    private final Level level;
+
+    /**
+     * The player of the level, null if there was none.
+     */
+    private final Player player;
+
+    /**
+     * The enemies alive at the time of the snapshot.
+     */
+    private final List<Enemy> enemies;
+
+    /**
+     * The state of the player followed by the state of all the enemies.
+     */
+    private final State[] states;
+
+    /**
+     * Will take the snapshot.
+     *
+     * @param level   the level the snapshot is taken of
+     * @param player  the player of the level, may be null
+     * @param enemies the enemies currently alive
+     */
+    LevelSnapshot(Level level, Player player, Collection<Enemy> enemies) {
+        this.level = level;
+        this.player = player;
+        this.enemies = Collections.unmodifiableList(new ArrayList<>(enemies));
+        this.states = new State[this.enemies.size() + 1];
+        states[0] = player == null ? null : new State(player);
+        for (int i = 0; i < this.enemies.size(); i++) {
+            states[i + 1] = new State(this.enemies.get(i));
+        }
+    }
+
+    /**
+     * @return the level the snapshot was taken of
+     */
+    Level getLevel() {
+        return level;
+    }
+
+    /**
+     * @return the enemies alive at the time of the snapshot
+     */
+    List<Enemy> getEnemies() {
+        return enemies;
+    }
+
+    /**
+     * Will reset the player and the enemies to the state stored in the snapshot.
+     * Adding the enemies back to the level is up to the caller.
+     */
+    void restoreEntities() {
+        if (player != null) {
+            states[0].restore(player);
+        }
+        for (int i = 0; i < enemies.size(); i++) {
+            states[i + 1].restore(enemies.get(i));
+        }
+    }
+
+    /**
+     * The movement state of a single moving entity.
+     */
+    private static final class State {
+
+        /**
+         * The x coordinate.
+         */
+        private final double x;
+
+        /**
+         * The y coordinate.
+         */
+        private final double y;
+
+        /**
+         * The velocity along the x-axis.
+         */
+        private final double velocityX;
+
+        /**
+         * The velocity along the y-axis.
+         */
+        private final double velocityY;
+
+        /**
+         * The walking direction.
+         */
+        private final Direction walkDirection;
+
+        /**
+         * Whether the entity stood on the ground.
+         */
+        private final boolean onGround;
+
+        /**
+         * The speed of the entity.
+         */
+        private final int speed;
+
+        /**
+         * Will copy the state of the given entity.
+         *
+         * @param entity the entity to copy the state of
+         */
+        private State(MovingEntity entity) {
+            x = entity.getPosition().getX();
+            y = entity.getPosition().getY();
+            velocityX = entity.getVelocity().getX();
+            velocityY = entity.getVelocity().getY();
+            walkDirection = entity.getWalkDirection();
+            onGround = entity.isOnGround();
+            speed = entity.getSpeed();
+        }
+
+        /**
+         * Will reset the given entity to the stored state.
+         *
+         * @param entity the entity to reset
+         */
+        private void restore(MovingEntity entity) {
+            entity.setPosition(x, y);
+            entity.storePreviousPosition();
+            entity.setVelocity(velocityX, velocityY);
+            entity.setWalkDirection(walkDirection);
+            entity.setOnGround(onGround);
+            entity.setColliding(false);
+            entity.setSpeed(speed);
+        }
+    }
+}
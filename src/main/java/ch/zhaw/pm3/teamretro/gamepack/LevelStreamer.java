@@ -0,0 +1,388 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.MovingEntity;
+
+/**
+ * Keeps only the part of a long level around the player in memory. Such levels
+ * are stored in chunks of {@link #CHUNK_WIDTH} pixels, the blocks and items of
+ * a chunk are loaded on a background thread once the player gets close to it
+ * and dropped again once it's far away. The moving entities are always kept, as
+ * they may move from one chunk into another.
+ * <p>
+ * The level is only changed while {@link #update(double, double)} runs, which
+ * has to be called from the thread running the game. Only the chunk of the
+ * player is waited for, the other ones are added once they finished loading.
+ * The streamed area, in which the moving entities are simulated, covers the
+ * added chunks next to the player up to {@link #PRELOAD_CHUNKS} beyond the
+ * visible ones. It depends on how fast the chunks were loaded, unless they are
+ * loaded in the foreground as they are for a replay, see
+ * {@link #loadInForeground()}.
+ *
+ * @see GamePackFactory#streamLevel(String, String)
+ */
+public class LevelStreamer implements AutoCloseable {
+
+    /**
+     * The width of a chunk in pixels.
+     */
+    static final int CHUNK_WIDTH = 1024;
+
+    /**
+     * The distance [pixels] to each side of the player which counts as visible.
+     * The camera keeps the player on the canvas, so it covers a canvas up to that
+     * width.
+     */
+    public static final double VIEW_DISTANCE = CHUNK_WIDTH;
+
+    /**
+     * The amount of chunks to each side of the visible ones which are part of the
+     * streamed area.
+     */
+    private static final int PRELOAD_CHUNKS = 1;
+
+    /**
+     * The amount of chunks to each side of the visible ones loaded in the
+     * background and kept once loaded. It's larger than the preloaded amount, so
+     * the next chunk is ready before it's needed and moving back and forth at a
+     * chunk border doesn't load the same chunk over and over again.
+     */
+    private static final int KEEP_CHUNKS = 2;
+
+    /**
+     * The level the chunks are added to.
+     */
+    private final Level level;
+
+    /**
+     * Reads the chunks from the game pack.
+     */
+    private final ChunkLoader loader;
+
+    /**
+     * The first chunk of the level.
+     */
+    private final int firstChunk;
+
+    /**
+     * The last chunk of the level.
+     */
+    private final int lastChunk;
+
+    /**
+     * The thread the chunks are loaded on, only started once the first chunk is
+     * requested.
+     */
+    private ExecutorService executor;
+
+    /**
+     * The chunks which are loading or waiting to be added to the level.
+     */
+    private final Map<Integer, FutureTask<List<Entity>>> requested = new HashMap<>();
+
+    /**
+     * The chunks which are added to the level.
+     */
+    private final Set<Integer> resident = new HashSet<>();
+
+    /**
+     * The first visible chunk of the last update.
+     */
+    private int firstVisible = 1;
+
+    /**
+     * The last visible chunk of the last update, there are none before the first
+     * update.
+     */
+    private int lastVisible = 0;
+
+    /**
+     * Whether all the chunks of the streamed area were added in the last update,
+     * nothing is left to add until the visible area changes.
+     */
+    private boolean complete = false;
+
+    /**
+     * Whether the chunks are loaded right away instead of in the background.
+     */
+    private boolean foreground = false;
+
+    /**
+     * Whether the streamer was closed, nothing is loaded anymore.
+     */
+    private boolean closed = false;
+
+    /**
+     * @param level      the level without any blocks and items
+     * @param loader     reads the blocks and items of a single chunk
+     * @param firstChunk the first chunk of the level
+     * @param lastChunk  the last chunk of the level
+     */
+    LevelStreamer(Level level, ChunkLoader loader, int firstChunk, int lastChunk) {
+        this.level = level;
+        this.loader = loader;
+        this.firstChunk = firstChunk;
+        this.lastChunk = lastChunk;
+        // nothing is loaded until the camera is known
+        level.setStreamedArea(0, 0);
+    }
+
+    /**
+     * Will return the chunk the x coordinate belongs to.
+     *
+     * @param x the x coordinate
+     * @return the chunk
+     */
+    static int chunkOf(double x) {
+        return (int) Math.floor(x / CHUNK_WIDTH);
+    }
+
+    /**
+     * Will split the blocks and items of a level into chunks. The moving entities
+     * aren't part of any chunk.
+     *
+     * @param entities all the entities of the level
+     * @return the entities of each chunk, the chunks are sorted
+     */
+    static SortedMap<Integer, List<Entity>> split(List<Entity> entities) {
+        SortedMap<Integer, List<Entity>> chunks = new TreeMap<>();
+        for (Entity entity : entities) {
+            if (!(entity instanceof MovingEntity)) {
+                chunks.computeIfAbsent(chunkOf(entity.getPosition().getX()), chunk -> new ArrayList<>())
+                        .add(entity);
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * @return the level the chunks are streamed into
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Will load the chunks right away on the thread calling
+     * {@link #update(double, double)} from now on, e.g. for a headless replay
+     * which doesn't have to keep a frame rate. The streamed area then only depends
+     * on the visible area.
+     */
+    public void loadInForeground() {
+        foreground = true;
+    }
+
+    /**
+     * Will stream the level around the player, see {@link #VIEW_DISTANCE}.
+     *
+     * @param x the x coordinate of the player
+     * @throws InvalidLevelConfiguration If a chunk couldn't be loaded.
+     */
+    public void updateAround(double x) throws InvalidLevelConfiguration {
+        update(x - VIEW_DISTANCE, x + VIEW_DISTANCE);
+    }
+
+    /**
+     * Will load the chunks around the visible area and drop the ones far away from
+     * it. The chunks of the streamed area which finished loading are added to the
+     * level, only the chunk in the middle of the visible area, where the player
+     * is, is waited for.
+     *
+     * @param minX the left border of the visible area
+     * @param maxX the right border of the visible area
+     * @throws InvalidLevelConfiguration If a chunk couldn't be loaded.
+     */
+    public void update(double minX, double maxX) throws InvalidLevelConfiguration {
+        if (closed) {
+            throw new IllegalStateException("The streamer was closed.");
+        }
+        int first = chunkOf(minX);
+        int last = chunkOf(maxX);
+        if (first != firstVisible || last != lastVisible) {
+            firstVisible = first;
+            lastVisible = last;
+            for (int chunk = first - KEEP_CHUNKS; chunk <= last + KEEP_CHUNKS; chunk++) {
+                request(chunk);
+            }
+            dropFarChunks();
+            complete = false;
+        }
+        if (!complete) {
+            addStreamedChunks(chunkOf((minX + maxX) / 2));
+        }
+    }
+
+    /**
+     * Will add the chunks of the streamed area which finished loading and move
+     * the streamed area of the level along.
+     *
+     * @param required the chunk which is waited for
+     * @throws InvalidLevelConfiguration If a chunk couldn't be loaded.
+     */
+    private void addStreamedChunks(int required) throws InvalidLevelConfiguration {
+        int firstStreamed = firstVisible - PRELOAD_CHUNKS;
+        int lastStreamed = lastVisible + PRELOAD_CHUNKS;
+        for (int chunk = Math.max(firstStreamed, firstChunk); chunk <= Math.min(lastStreamed, lastChunk); chunk++) {
+            FutureTask<List<Entity>> loading = requested.get(chunk);
+            if (loading != null && (foreground || chunk == required || loading.isDone())) {
+                add(chunk, loading);
+            }
+        }
+        // the streamed area may not have any gaps, or enemies could walk into them
+        int left = required;
+        while (left > firstStreamed && isAdded(left - 1)) {
+            left--;
+        }
+        int right = required;
+        while (right < lastStreamed && isAdded(right + 1)) {
+            right++;
+        }
+        complete = left == firstStreamed && right == lastStreamed;
+        // there is nothing to load outside of the chunks of the level
+        boolean everything = lastChunk < firstChunk;
+        level.setStreamedArea(everything || left <= firstChunk ? Double.NEGATIVE_INFINITY : (double) left * CHUNK_WIDTH,
+                everything || right >= lastChunk ? Double.POSITIVE_INFINITY : (double) (right + 1) * CHUNK_WIDTH);
+    }
+
+    /**
+     * @param chunk the chunk to check
+     * @return whether the chunk was added to the level, chunks outside of the
+     *         level never have to be
+     */
+    private boolean isAdded(int chunk) {
+        return chunk < firstChunk || chunk > lastChunk || resident.contains(chunk);
+    }
+
+    /**
+     * Will start loading the chunk, unless it's already loading or loaded.
+     *
+     * @param chunk the chunk to load
+     */
+    private void request(int chunk) {
+        if (chunk < firstChunk || chunk > lastChunk || resident.contains(chunk) || requested.containsKey(chunk)) {
+            return;
+        }
+        FutureTask<List<Entity>> task = new FutureTask<>(() -> loader.load(chunk));
+        requested.put(chunk, task);
+        if (foreground) {
+            return;
+        }
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "level-streamer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        executor.execute(task);
+    }
+
+    /**
+     * Will remove the chunks far away from the visible area from the level and
+     * stop loading them.
+     */
+    private void dropFarChunks() {
+        int keepFirst = firstVisible - KEEP_CHUNKS;
+        int keepLast = lastVisible + KEEP_CHUNKS;
+        Iterator<Integer> chunks = resident.iterator();
+        while (chunks.hasNext()) {
+            int chunk = chunks.next();
+            if (chunk < keepFirst || chunk > keepLast) {
+                level.removeChunk((double) chunk * CHUNK_WIDTH, (double) (chunk + 1) * CHUNK_WIDTH);
+                chunks.remove();
+            }
+        }
+        Iterator<Map.Entry<Integer, FutureTask<List<Entity>>>> loading = requested.entrySet().iterator();
+        while (loading.hasNext()) {
+            Map.Entry<Integer, FutureTask<List<Entity>>> entry = loading.next();
+            if (entry.getKey() < keepFirst || entry.getKey() > keepLast) {
+                entry.getValue().cancel(true);
+                loading.remove();
+            }
+        }
+    }
+
+    /**
+     * Will add a chunk to the level. A chunk which didn't start loading yet is
+     * loaded right away instead of waiting for the ones before it, one which is
+     * loading in the background is waited for.
+     *
+     * @param chunk   the chunk to add
+     * @param loading the chunk being loaded
+     * @throws InvalidLevelConfiguration If the chunk couldn't be loaded.
+     */
+    private void add(int chunk, FutureTask<List<Entity>> loading) throws InvalidLevelConfiguration {
+        requested.remove(chunk);
+        // does nothing if the background thread already started it
+        loading.run();
+        try {
+            level.addChunk(loading.get());
+            resident.add(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InvalidLevelConfiguration(String.format("Loading the chunk <%d> was interrupted.", chunk));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof InvalidLevelConfiguration) {
+                throw (InvalidLevelConfiguration) e.getCause();
+            }
+            throw new InvalidLevelConfiguration(
+                    String.format("The chunk <%d> couldn't be loaded: %s", chunk, e.getCause().getMessage()));
+        }
+    }
+
+    /**
+     * Will stop loading and release the loader, the level keeps the chunks added
+     * so far.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        for (Future<List<Entity>> loading : requested.values()) {
+            loading.cancel(true);
+        }
+        requested.clear();
+        loader.close();
+    }
+
+    /**
+     * Reads the blocks and items of a single chunk, the sprites of them have to be
+     * set up already. Runs on the background thread, or on the thread running the
+     * game if a chunk is waited for.
+     */
+    @FunctionalInterface
+    interface ChunkLoader {
+
+        /**
+         * @param chunk the chunk to load
+         * @return the blocks and items of the chunk
+         * @throws IOException               If the chunk couldn't be read.
+         * @throws InvalidLevelConfiguration If the chunk is invalid.
+         */
+        List<Entity> load(int chunk) throws IOException, InvalidLevelConfiguration;
+
+        /**
+         * Will release whatever the loader reads from, nothing is loaded afterwards.
+         */
+        default void close() {
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+
+/**
+ * Sorts entities into square chunks of the level by their position, so all the
+ * entities inside of an area can be found without looking at the whole level.
+ * <p>
+ * The index is meant for entities which don't move, an entity has to be
+ * removed before its position is changed.
+ * <p>
+ * Every chunk carries a stamp which changes whenever an entity of the chunk is
+ * added or removed, this allows to cache data derived from a chunk.
+ */
+public class SpatialIndex {
+
+    /**
+     * The height and width of a chunk in pixels.
+     */
+    public static final int CHUNK_SIZE = 512;
+
+    /**
+     * The entities, per chunk.
+     */
+    private final ChunkGrid<Chunk> chunks = new ChunkGrid<>();
+
+    /**
+     * Counts all the modifications, used to stamp the modified chunks.
+     */
+    private long modifications = 0;
+
+    /**
+     * The stamp of the last time the whole index was cleared.
+     */
+    private long clearStamp = 0;
+
+    /**
+     * Will add an entity to the index.
+     *
+     * @param entity the entity to add
+     */
+    void add(Entity entity) {
+        Chunk chunk = chunks.getOrCreate(toChunk(entity.getPosition().getX()), toChunk(entity.getPosition().getY()),
+                Chunk::new);
+        chunk.entities.add(entity);
+        chunk.stamp = ++modifications;
+    }
+
+    /**
+     * Will remove an entity from the index.
+     *
+     * @param entity the entity to remove
+     */
+    void remove(Entity entity) {
+        Chunk chunk = chunks.get(toChunk(entity.getPosition().getX()), toChunk(entity.getPosition().getY()));
+        if (chunk == null) {
+            return;
+        }
+        for (int i = 0; i < chunk.entities.size(); i++) {
+            if (chunk.entities.get(i) == entity) {
+                chunk.entities.remove(i);
+                chunk.stamp = ++modifications;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes all the entities from the index.
+     */
+    void clear() {
+        chunks.clear();
+        clearStamp = ++modifications;
+    }
+
+    /**
+     * Will return the stamp of a chunk. The stamp changes every time an entity of
+     * the chunk is added or removed.
+     *
+     * @param chunkX the chunk x coordinate
+     * @param chunkY the chunk y coordinate
+     * @return the stamp of the chunk
+     */
+    public long getChunkStamp(int chunkX, int chunkY) {
+        Chunk chunk = chunks.get(chunkX, chunkY);
+        return chunk == null ? clearStamp : Math.max(chunk.stamp, clearStamp);
+    }
+
+    /**
+     * Will search all the entities positioned inside of the given area. The
+     * position of an entity is its top left corner, so the area has to be grown
+     * by the size of the biggest entity, to find all the entities overlapping
+     * it.
+     *
+     * @param minX   the left border of the area
+     * @param minY   the top border of the area
+     * @param maxX   the right border of the area
+     * @param maxY   the bottom border of the area
+     * @param result the list the found entities are put in, it is cleared first
+     * @return the result list
+     */
+    public List<Entity> query(double minX, double minY, double maxX, double maxY, List<Entity> result) {
+        result.clear();
+        int maxChunkX = toChunk(maxX);
+        int maxChunkY = toChunk(maxY);
+        for (int chunkX = toChunk(minX); chunkX <= maxChunkX; chunkX++) {
+            for (int chunkY = toChunk(minY); chunkY <= maxChunkY; chunkY++) {
+                Chunk chunk = chunks.get(chunkX, chunkY);
+                if (chunk == null) {
+                    continue;
+                }
+                for (int i = 0; i < chunk.entities.size(); i++) {
+                    Entity entity = chunk.entities.get(i);
+                    double x = entity.getPosition().getX();
+                    double y = entity.getPosition().getY();
+                    if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                        result.add(entity);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Will convert a pixel coordinate into the chunk coordinate.
+     *
+     * @param coordinate the pixel coordinate
+     * @return the chunk coordinate
+     */
+    public static int toChunk(double coordinate) {
+        return (int) Math.floor(coordinate / CHUNK_SIZE);
+    }
+
+    /**
+     * A single chunk of the index.
+     */
+    private static final class Chunk {
+
+        /**
+         * The entities positioned inside of the chunk.
+         */
+        private final List<Entity> entities = new ArrayList<>();
+
+        /**
+         * Changes every time an entity is added or removed.
+         */
+        private long stamp;
+    }
+}
@@ -0,0 +1,387 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.Block;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Animation;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Properties;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite;
+import javafx.scene.image.Image;
+
+/**
+ * The blocks of a {@link Level} which are aligned to the tile grid. Instead of
+ * a {@link Block} per tile, only the id of the {@link Tile} occupying it is
+ * kept, in chunks of 16 by 16 tiles. A tile is a distinct combination of a
+ * sprite and properties, a level only has a few of them. So a block takes up
+ * two bytes, and looking one up is a matter of indexing an array.
+ * <p>
+ * Blocks are only created on demand, e.g. for the editor or the export. They
+ * are copies, changing them doesn't change the map.
+ */
+public class TileMap {
+
+    /**
+     * The amount of bits used for the tile index inside of a chunk.
+     */
+    private static final int CHUNK_SHIFT = 4;
+
+    /**
+     * The amount of tiles per chunk side. A chunk covers the same area as a
+     * chunk of the {@link SpatialIndex}.
+     */
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    /**
+     * Mask used to get the tile index inside of a chunk.
+     */
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * The id of an empty tile.
+     */
+    private static final int EMPTY = 0;
+
+    /**
+     * The highest id a tile may get, the ids are stored as unsigned shorts.
+     */
+    private static final int MAX_ID = 0xFFFF;
+
+    /**
+     * The ids of the tiles, per chunk.
+     */
+    private final ChunkGrid<Chunk> chunks = new ChunkGrid<>();
+
+    /**
+     * All the distinct tiles, the id of a tile is its index plus one.
+     */
+    private final List<Tile> palette = new ArrayList<>();
+
+    /**
+     * Read only view of the palette.
+     */
+    private final List<Tile> paletteView = Collections.unmodifiableList(palette);
+
+    /**
+     * The amount of occupied tiles.
+     */
+    private int size = 0;
+
+    /**
+     * Counts all the modifications, used to stamp the modified chunks.
+     */
+    private long modifications = 0;
+
+    /**
+     * The stamp of the last time the whole map was cleared.
+     */
+    private long clearStamp = 0;
+
+    /**
+     * Checks if the entity can be stored in a tile map. Only plain blocks which
+     * are placed exactly on the tile grid can.
+     *
+     * @param entity the entity to check
+     * @return true if it can be stored as a tile
+     */
+    static boolean isTile(Entity entity) {
+        return entity.getClass() == Block.class && isAligned(entity.getPosition());
+    }
+
+    /**
+     * Checks if the position is placed exactly on the tile grid.
+     *
+     * @param position the position to check
+     * @return true if it is aligned
+     */
+    static boolean isAligned(Position position) {
+        return position.getX() % CollisionGrid.TILE_SIZE == 0 && position.getY() % CollisionGrid.TILE_SIZE == 0;
+    }
+
+    /**
+     * Will return the tile at the given tile coordinates, this never allocates.
+     *
+     * @param tileX the tile x coordinate
+     * @param tileY the tile y coordinate
+     * @return the tile or null if it's empty
+     */
+    public Tile getTile(int tileX, int tileY) {
+        Chunk chunk = chunks.get(tileX >> CHUNK_SHIFT, tileY >> CHUNK_SHIFT);
+        if (chunk == null) {
+            return null;
+        }
+        int id = Short.toUnsignedInt(chunk.ids[indexInChunk(tileX, tileY)]);
+        return id == EMPTY ? null : palette.get(id - 1);
+    }
+
+    /**
+     * Will return the tile at the given position.
+     *
+     * @param position the position
+     * @return the tile or null if it's empty or the position isn't aligned
+     */
+    Tile getTile(Position position) {
+        if (!isAligned(position)) {
+            return null;
+        }
+        return getTile(CollisionGrid.toTile(position.getX()), CollisionGrid.toTile(position.getY()));
+    }
+
+    /**
+     * Will put the block into the tile at its position, replacing the one that
+     * was there.
+     *
+     * @param block the block to put, has to be a {@link #isTile(Entity) tile}
+     * @throws InvalidLevelConfiguration If there are more distinct tiles than ids.
+     */
+    void put(Entity block) throws InvalidLevelConfiguration {
+        int tileX = CollisionGrid.toTile(block.getPosition().getX());
+        int tileY = CollisionGrid.toTile(block.getPosition().getY());
+        int id = idOf(block.getSprite(), block.getProperties());
+        Chunk chunk = chunks.getOrCreate(tileX >> CHUNK_SHIFT, tileY >> CHUNK_SHIFT, Chunk::new);
+        int index = indexInChunk(tileX, tileY);
+        if (chunk.ids[index] == EMPTY) {
+            size++;
+        }
+        chunk.ids[index] = (short) id;
+        chunk.stamp = ++modifications;
+    }
+
+    /**
+     * Will empty the tile at the given position.
+     *
+     * @param position the position of the tile
+     * @return a block of the removed tile or null if there was none
+     */
+    Block remove(Position position) {
+        Tile tile = getTile(position);
+        if (tile == null) {
+            return null;
+        }
+        int tileX = CollisionGrid.toTile(position.getX());
+        int tileY = CollisionGrid.toTile(position.getY());
+        Chunk chunk = chunks.get(tileX >> CHUNK_SHIFT, tileY >> CHUNK_SHIFT);
+        chunk.ids[indexInChunk(tileX, tileY)] = EMPTY;
+        chunk.stamp = ++modifications;
+        size--;
+        return tile.createBlock(tileX, tileY);
+    }
+
+    /**
+     * Will empty all the tiles in the given columns. The chunks are kept, so their
+     * stamps keep increasing.
+     *
+     * @param fromTileX the first tile x coordinate to empty
+     * @param toTileX   the tile x coordinate after the last one to empty
+     */
+    void removeColumns(int fromTileX, int toTileX) {
+        chunks.forEach((chunkX, chunkY, chunk) -> {
+            int from = Math.max(fromTileX - (chunkX << CHUNK_SHIFT), 0);
+            int to = Math.min(toTileX - (chunkX << CHUNK_SHIFT), CHUNK_SIZE);
+            if (from >= to) {
+                return;
+            }
+            for (int index = from * CHUNK_SIZE; index < to * CHUNK_SIZE; index++) {
+                if (chunk.ids[index] != EMPTY) {
+                    chunk.ids[index] = EMPTY;
+                    size--;
+                }
+            }
+            chunk.stamp = ++modifications;
+        });
+    }
+
+    /**
+     * Removes all the tiles, the palette is kept.
+     */
+    void clear() {
+        chunks.clear();
+        size = 0;
+        clearStamp = ++modifications;
+    }
+
+    /**
+     * @return the amount of occupied tiles
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Will return all the distinct tiles used so far. Their sprites can be
+     * replaced, which replaces the sprite of every block using them.
+     *
+     * @return a read only list of the tiles
+     */
+    public List<Tile> getPalette() {
+        return paletteView;
+    }
+
+    /**
+     * Will create a block for every occupied tile.
+     *
+     * @param blocks the collection the blocks are added to
+     */
+    void addBlocksTo(Collection<? super Block> blocks) {
+        chunks.forEach((chunkX, chunkY, chunk) -> {
+            for (int index = 0; index < chunk.ids.length; index++) {
+                int id = Short.toUnsignedInt(chunk.ids[index]);
+                if (id != EMPTY) {
+                    blocks.add(palette.get(id - 1).createBlock((chunkX << CHUNK_SHIFT) + (index >> CHUNK_SHIFT),
+                            (chunkY << CHUNK_SHIFT) + (index & CHUNK_MASK)));
+                }
+            }
+        });
+    }
+
+    /**
+     * Will return the stamp of a chunk. The stamp changes every time a tile of the
+     * chunk is changed.
+     *
+     * @param chunkX the chunk x coordinate
+     * @param chunkY the chunk y coordinate
+     * @return the stamp of the chunk
+     */
+    public long getChunkStamp(int chunkX, int chunkY) {
+        Chunk chunk = chunks.get(chunkX, chunkY);
+        return chunk == null ? clearStamp : Math.max(chunk.stamp, clearStamp);
+    }
+
+    /**
+     * Will search the id of the tile with the given sprite and properties and add
+     * it to the palette if there is none yet. There are only a few distinct tiles
+     * per level, so a linear search is fine here.
+     *
+     * @param sprite     the sprite of the tile
+     * @param properties the properties of the tile
+     * @return the id of the tile
+     * @throws InvalidLevelConfiguration If there are more distinct tiles than ids.
+     */
+    private int idOf(Sprite sprite, Properties properties) throws InvalidLevelConfiguration {
+        for (int i = 0; i < palette.size(); i++) {
+            if (palette.get(i).matches(sprite, properties)) {
+                return i + 1;
+            }
+        }
+        if (palette.size() == MAX_ID) {
+            throw new InvalidLevelConfiguration(
+                    String.format("There may not be more than %d distinct blocks per level.", MAX_ID));
+        }
+        Properties shared = properties.isShared() ? properties
+                : new Properties(properties.getBehavior(), properties.getEntityType(), properties.isSolid()).share();
+        palette.add(new Tile(sprite, shared));
+        return palette.size();
+    }
+
+    /**
+     * Will return the index of the tile inside of its chunk.
+     *
+     * @param tileX the tile x coordinate
+     * @param tileY the tile y coordinate
+     * @return the index inside of the chunk array
+     */
+    private static int indexInChunk(int tileX, int tileY) {
+        return (tileX & CHUNK_MASK) * CHUNK_SIZE + (tileY & CHUNK_MASK);
+    }
+
+    /**
+     * A distinct combination of a sprite and properties, shared by all the blocks
+     * looking and behaving the same.
+     */
+    public static final class Tile {
+
+        /**
+         * The sprite of the blocks, replaced once the sprite is loaded.
+         */
+        private Sprite sprite;
+
+        /**
+         * The shared properties of the blocks.
+         */
+        private final Properties properties;
+
+        /**
+         * @param sprite     the sprite of the blocks
+         * @param properties the shared properties of the blocks
+         */
+        private Tile(Sprite sprite, Properties properties) {
+            this.sprite = sprite;
+            this.properties = properties;
+        }
+
+        public Sprite getSprite() {
+            return sprite;
+        }
+
+        /**
+         * Will replace the sprite of all the blocks of this tile.
+         *
+         * @param sprite the new sprite, it has to have the same name
+         */
+        void setSprite(Sprite sprite) {
+            this.sprite = sprite;
+        }
+
+        public Properties getProperties() {
+            return properties;
+        }
+
+        /**
+         * Will return the image the blocks are drawn with, same as
+         * {@link Entity#getCurrentImage()} of a block.
+         *
+         * @return the image
+         * @throws InvalidLevelConfiguration If the sprite has no image.
+         */
+        public Image getImage() throws InvalidLevelConfiguration {
+            if (sprite.getImageCount(Animation.IDLE) == 0) {
+                throw new InvalidLevelConfiguration(
+                        String.format("The sprite called <%s> does not contain the animation type <%s>.",
+                                sprite.getName(), Animation.IDLE.name()));
+            }
+            return sprite.getImage(Animation.IDLE, 0);
+        }
+
+        /**
+         * @param tileX the tile x coordinate of the block
+         * @param tileY the tile y coordinate of the block
+         * @return a new block of this tile
+         */
+        Block createBlock(int tileX, int tileY) {
+            return new Block(new Position((double) tileX * CollisionGrid.TILE_SIZE,
+                    (double) tileY * CollisionGrid.TILE_SIZE), sprite, properties);
+        }
+
+        /**
+         * Sprites are compared by name, as the placeholders and the loaded sprites
+         * are different instances.
+         *
+         * @param sprite     the sprite to compare
+         * @param properties the properties to compare
+         * @return true if a block with them belongs to this tile
+         */
+        private boolean matches(Sprite sprite, Properties properties) {
+            return this.sprite.getName().equals(sprite.getName()) && this.properties.equals(properties);
+        }
+    }
+
+    /**
+     * A single chunk of the map.
+     */
+    private static final class Chunk {
+
+        /**
+         * The ids of the tiles, stored column by column.
+         */
+        private final short[] ids = new short[CHUNK_SIZE * CHUNK_SIZE];
+
+        /**
+         * The stamp of the last modification.
+         */
+        private long stamp;
+    }
+}
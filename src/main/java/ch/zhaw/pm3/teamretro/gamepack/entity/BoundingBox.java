@@ -0,0 +1,227 @@
+package ch.zhaw.pm3.teamretro.gamepack.entity;
+
+/**
+ * An axis aligned bounding box made of primitive fields. It's mutable, so a
+ * single instance can be reused for every tick, and none of the checks
+ * allocate. Boxes which only touch each other at their edges don't intersect.
+ */
+public final class BoundingBox {
+
+    /**
+     * The x coordinate of the left edge.
+     */
+    private double x;
+
+    /**
+     * The y coordinate of the top edge.
+     */
+    private double y;
+
+    /**
+     * The width of the box.
+     */
+    private double width;
+
+    /**
+     * The height of the box.
+     */
+    private double height;
+
+    /**
+     * Creates an empty box at the origin.
+     */
+    public BoundingBox() {
+        this(0, 0, 0, 0);
+    }
+
+    /**
+     * Creates a box.
+     *
+     * @param x      the x coordinate of the left edge
+     * @param y      the y coordinate of the top edge
+     * @param width  the width of the box
+     * @param height the height of the box
+     */
+    public BoundingBox(double x, double y, double width, double height) {
+        set(x, y, width, height);
+    }
+
+    /**
+     * Will move and resize the box.
+     *
+     * @param x      the x coordinate of the left edge
+     * @param y      the y coordinate of the top edge
+     * @param width  the width of the box
+     * @param height the height of the box
+     */
+    public void set(double x, double y, double width, double height) {
+        setPosition(x, y);
+        setSize(width, height);
+    }
+
+    /**
+     * Will move the box.
+     *
+     * @param x the x coordinate of the left edge
+     * @param y the y coordinate of the top edge
+     */
+    public void setPosition(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Will resize the box, the top left corner stays in place.
+     *
+     * @param width  the width of the box
+     * @param height the height of the box
+     */
+    public void setSize(double width, double height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * @return the x coordinate of the right edge
+     */
+    public double getMaxX() {
+        return x + width;
+    }
+
+    /**
+     * @return the y coordinate of the bottom edge
+     */
+    public double getMaxY() {
+        return y + height;
+    }
+
+    /**
+     * @return true if the box has no area, an empty box never intersects
+     */
+    public boolean isEmpty() {
+        return width <= 0 || height <= 0;
+    }
+
+    /**
+     * Checks if the two boxes overlap.
+     *
+     * @param other the other box
+     * @return true if they overlap
+     */
+    public boolean intersects(BoundingBox other) {
+        return intersects(other.x, other.y, other.width, other.height);
+    }
+
+    /**
+     * Checks if the box overlaps with the given area.
+     *
+     * @param otherX      the x coordinate of the left edge of the area
+     * @param otherY      the y coordinate of the top edge of the area
+     * @param otherWidth  the width of the area
+     * @param otherHeight the height of the area
+     * @return true if they overlap
+     */
+    public boolean intersects(double otherX, double otherY, double otherWidth, double otherHeight) {
+        return !isEmpty() && otherWidth > 0 && otherHeight > 0 && x < otherX + otherWidth && otherX < x + width
+                && y < otherY + otherHeight && otherY < y + height;
+    }
+
+    /**
+     * Checks if the point lies inside of the box. Points on the left and top edge
+     * are inside, the ones on the right and bottom edge are not.
+     *
+     * @param pointX the x coordinate of the point
+     * @param pointY the y coordinate of the point
+     * @return true if the point is inside
+     */
+    public boolean contains(double pointX, double pointY) {
+        return pointX >= x && pointX < x + width && pointY >= y && pointY < y + height;
+    }
+
+    /**
+     * Checks if the other box lies completely inside of this box.
+     *
+     * @param other the other box
+     * @return true if it's inside
+     */
+    public boolean contains(BoundingBox other) {
+        return !isEmpty() && !other.isEmpty() && other.x >= x && other.y >= y && other.getMaxX() <= getMaxX()
+                && other.getMaxY() <= getMaxY();
+    }
+
+    /**
+     * Moves this box along the given movement and checks when it hits the other
+     * box for the first time. This catches fast movements which would tunnel
+     * through the other box, if only the end position was checked.
+     *
+     * @param other the box which doesn't move
+     * @param dx    the movement along the x-axis
+     * @param dy    the movement along the y-axis
+     * @return the fraction of the movement in [0, 1) after which the boxes start
+     *         to overlap, 0 if they already overlap, 1 if they don't hit each
+     *         other at all
+     */
+    public double sweep(BoundingBox other, double dx, double dy) {
+        if (isEmpty() || other.isEmpty()) {
+            return 1;
+        }
+        if (intersects(other)) {
+            return 0;
+        }
+        double entryX;
+        double exitX;
+        if (dx > 0) {
+            entryX = (other.x - getMaxX()) / dx;
+            exitX = (other.getMaxX() - x) / dx;
+        } else if (dx < 0) {
+            entryX = (other.getMaxX() - x) / dx;
+            exitX = (other.x - getMaxX()) / dx;
+        } else if (x < other.getMaxX() && other.x < getMaxX()) {
+            entryX = Double.NEGATIVE_INFINITY;
+            exitX = Double.POSITIVE_INFINITY;
+        } else {
+            return 1;
+        }
+        double entryY;
+        double exitY;
+        if (dy > 0) {
+            entryY = (other.y - getMaxY()) / dy;
+            exitY = (other.getMaxY() - y) / dy;
+        } else if (dy < 0) {
+            entryY = (other.getMaxY() - y) / dy;
+            exitY = (other.y - getMaxY()) / dy;
+        } else if (y < other.getMaxY() && other.y < getMaxY()) {
+            entryY = Double.NEGATIVE_INFINITY;
+            exitY = Double.POSITIVE_INFINITY;
+        } else {
+            return 1;
+        }
+        double entry = Math.max(entryX, entryY);
+        double exit = Math.min(exitX, exitY);
+        if (entry >= exit || entry < 0 || entry >= 1) {
+            return 1;
+        }
+        return entry;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{x: %.2f, y: %.2f, width: %.2f, height: %.2f}", x, y, width, height);
+    }
+}
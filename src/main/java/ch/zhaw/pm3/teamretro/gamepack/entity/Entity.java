@@ -1,7 +1,5 @@
 package ch.zhaw.pm3.teamretro.gamepack.entity;
 
-import java.util.List;
-
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.json.JSONPropertyIgnore;
@@ -12,7 +10,6 @@ import ch.zhaw.pm3.teamretro.gamepack.sprite.Animation;
 import ch.zhaw.pm3.teamretro.gamepack.sprite.Properties;
 import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite;
 import javafx.scene.image.Image;
-import javafx.scene.shape.Rectangle;
 
 /**
  * Entity object. Every element in a level (player, enemy, block) is an entity
@@ -82,7 +79,7 @@ public abstract class Entity {
      * The entities bounding box used to calculate the intersections, with the
      * surrounding.
      */
-    private final Rectangle boundingBox; // bounding box
+    private final BoundingBox boundingBox; // bounding box
 
     /**
      * Used for index of the current animation index.
@@ -110,7 +107,7 @@ public abstract class Entity {
 
         // Note: width/height must be set dynamically due to sprites potentially
         // changing
-        this.boundingBox = new Rectangle(position.getX(), position.getY(), 0, 0);
+        this.boundingBox = new BoundingBox(position.getX(), position.getY(), 0, 0);
         this.spawnPosition = new Position(position.getX(), position.getY()); // create spawn point
     }
 
@@ -129,7 +126,7 @@ public abstract class Entity {
             this.properties = Properties.valueOf(jsonObject.getJSONObject(PROPERTIES_JSON));
             // Note: width/height must be set dynamically due to sprites potentially
             // changing
-            this.boundingBox = new Rectangle(position.getX(), position.getY(), 0, 0);
+            this.boundingBox = new BoundingBox(position.getX(), position.getY(), 0, 0);
             this.spawnPosition = new Position(position.getX(), position.getY()); // create spawn point
         } catch (JSONException e) {
             throw new InvalidLevelConfiguration(String.format("JSON configuration not valid <%s>", e.getMessage()));
@@ -159,9 +156,8 @@ public abstract class Entity {
     /**
      * Sets a new position for the bounding box.
      */
-    private void updateBoundingBox() {
-        boundingBox.setX(position.getX());
-        boundingBox.setY(position.getY());
+    protected void updateBoundingBox() {
+        boundingBox.setPosition(position.getX(), position.getY());
     }
 
     /**
@@ -171,9 +167,9 @@ public abstract class Entity {
      * @throws InvalidLevelConfiguration if there was something wrong
      */
     @JSONPropertyIgnore
-    public Rectangle getBoundingBox() throws InvalidLevelConfiguration {
-        this.boundingBox.setWidth(getCurrentImage().getWidth());
-        this.boundingBox.setHeight(getCurrentImage().getHeight());
+    public BoundingBox getBoundingBox() throws InvalidLevelConfiguration {
+        Image image = getCurrentImage();
+        this.boundingBox.setSize(image.getWidth(), image.getHeight());
         return boundingBox;
     }
 
@@ -203,15 +199,13 @@ public abstract class Entity {
      */
     @JSONPropertyIgnore
     public Image getCurrentImage() throws InvalidLevelConfiguration {
-        List<Image> images = sprite.getImages(currentAnimation);
-
-        if (images.isEmpty()) {
+        if (sprite.getImageCount(currentAnimation) == 0) {
             throw new InvalidLevelConfiguration(
                     String.format("The sprite called <%s> does not contain the animation type <%s>.", sprite.getName(),
                             currentAnimation.name()));
         }
 
-        return images.get(currentAnimationIndex);
+        return sprite.getImage(currentAnimation, currentAnimationIndex);
     }
 
     /**
@@ -225,9 +219,9 @@ public abstract class Entity {
      *                                   encountered.
      */
     public void getNextImage(Animation animation) throws InvalidLevelConfiguration {
-        List<Image> images = sprite.getImages(animation);
+        int imageCount = sprite.getImageCount(animation);
 
-        if (images.isEmpty()) {
+        if (imageCount == 0) {
             throw new InvalidLevelConfiguration(
                     String.format("The sprite called <%s> does not contain the animation type <%s>.", sprite.getName(),
                             animation.name()));
@@ -238,7 +232,7 @@ public abstract class Entity {
             currentAnimationIndex = ANIMATION_INDEX_DEFAULT; // reset state
         }
         // adding to the next step then looping back via modulo if needed
-        currentAnimationIndex = (currentAnimationIndex + 1) % images.size();
+        currentAnimationIndex = (currentAnimationIndex + 1) % imageCount;
     }
 
     public EntityType getEntityType() {
@@ -22,6 +22,19 @@ public class Item extends Entity {
 		super(EntityType.ITEM, position, sprite, prop);
 	}
 
+	/**
+	 * Creates an item with the given effects.
+	 *
+	 * @param position the position of the item
+	 * @param sprite   the sprite of the item
+	 * @param prop     the properties of the item
+	 * @param effects  the effects the item has
+	 */
+	public Item(Position position, Sprite sprite, Properties prop, List<Effect> effects) {
+		this(position, sprite, prop);
+		effectList.addAll(effects);
+	}
+
 	public Item(JSONObject jsonObject) throws InvalidLevelConfiguration {
 		super(jsonObject);
 		for (Object rawEffect : jsonObject.getJSONArray("effects")) {
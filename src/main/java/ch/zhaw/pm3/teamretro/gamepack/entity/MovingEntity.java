@@ -6,7 +6,7 @@ import org.json.JSONPropertyIgnore;
 import ch.zhaw.pm3.teamretro.gamepack.InvalidLevelConfiguration;
 import ch.zhaw.pm3.teamretro.gamepack.sprite.Properties;
 import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite;
-import javafx.scene.shape.Rectangle;
+import javafx.scene.image.Image;
 
 /**
  * Represents an abstract moving entity. This class creates the basis needed to
@@ -41,8 +41,9 @@ public abstract class MovingEntity extends Entity {
 
     /**
      * The current velocity of the entity in relation to it's current location.
+     * It's changed in place, so moving doesn't allocate.
      */
-    private Position velocity = new Position(0, 0);
+    private final Position velocity = new Position(0, 0);
 
     /**
      * How strongly gravity is currently pulling the entity down.
@@ -76,6 +77,23 @@ public abstract class MovingEntity extends Entity {
      */
     private boolean isColliding = false;
 
+    /**
+     * The x coordinate of the entity at the end of the previous tick.
+     */
+    private double previousX;
+
+    /**
+     * The y coordinate of the entity at the end of the previous tick.
+     */
+    private double previousY;
+
+    /**
+     * The bounding box after the next tick, reused for every tick.
+     *
+     * @see #updateBoundsAfterTick()
+     */
+    private final BoundingBox boundsAfterTick = new BoundingBox();
+
     /**
      * As this is an abstract class this constructor here, will not do much.
      *
@@ -85,6 +103,8 @@ public abstract class MovingEntity extends Entity {
      */
     protected MovingEntity(JSONObject jsonObject) throws InvalidLevelConfiguration {
         super(jsonObject);
+        position = new Position(position.getX(), position.getY());
+        storePreviousPosition();
     }
 
     /**
@@ -97,6 +117,34 @@ public abstract class MovingEntity extends Entity {
      */
     protected MovingEntity(EntityType type, Position position, Sprite sprite, Properties properties) {
         super(type, position, sprite, properties);
+        // the position is changed in place, so it may not be shared
+        this.position = new Position(position.getX(), position.getY());
+        storePreviousPosition();
+    }
+
+    /**
+     * Sets a new position for the entity. The values are copied into the own
+     * position, so the given position isn't shared with the entity.
+     *
+     * @param pos New Position.
+     */
+    @Override
+    public void setPosition(Position pos) {
+        setPosition(pos.getX(), pos.getY());
+    }
+
+    /**
+     * Sets a new position for the entity, the position is changed in place to
+     * avoid allocating a new one on every tick.
+     *
+     * @param x new x coordinate.
+     * @param y new y coordinate.
+     */
+    @Override
+    public void setPosition(double x, double y) {
+        position.setX(x);
+        position.setY(y);
+        updateBoundingBox();
     }
 
     /**
@@ -179,12 +227,37 @@ public abstract class MovingEntity extends Entity {
         return position;
     }
 
+    /**
+     * Remembers the current position as the one of the previous tick, has to be
+     * called before each tick. Used to interpolate the movement while drawing.
+     */
+    public void storePreviousPosition() {
+        previousX = position.getX();
+        previousY = position.getY();
+    }
+
+    /**
+     * @param alpha 0 returns the position of the previous tick, 1 the current one.
+     * @return the x coordinate between the previous and the current tick
+     */
+    public double getInterpolatedX(double alpha) {
+        return previousX + (position.getX() - previousX) * alpha;
+    }
+
+    /**
+     * @param alpha 0 returns the position of the previous tick, 1 the current one.
+     * @return the y coordinate between the previous and the current tick
+     */
+    public double getInterpolatedY(double alpha) {
+        return previousY + (position.getY() - previousY) * alpha;
+    }
+
     /**
      * Moves an entity for test purposes.
      */
     @JSONPropertyIgnore
     public void tick() {
-        move(new Position(velocity.getX(), velocity.getY()));
+        move(velocity);
     }
 
     /**
@@ -212,15 +285,14 @@ public abstract class MovingEntity extends Entity {
     }
 
     /**
-     * @return Bounding box after gravity and movement (velocity vector) has been
-     *         applied to the entity.
+     * Calculates the bounding box after gravity and movement (velocity vector)
+     * has been applied to the entity. The box is reused, so this doesn't
+     * allocate, check it with {@link #intersectsAfterTick(Entity)}.
+     *
      * @throws InvalidLevelConfiguration In case an illegal level configuration was
      *                                   encountered.
      */
-    @JSONPropertyIgnore
-    public Rectangle getBoundingBoxAfterTick() throws InvalidLevelConfiguration {
-        double newX = position.getX() + getVelocity().getX();
-        double newY = position.getY();
+    public void updateBoundsAfterTick() throws InvalidLevelConfiguration {
         double deltaY = getVelocity().getY() + gravity;
 
         if (deltaY > VELOCITY_CAP) {
@@ -229,9 +301,32 @@ public abstract class MovingEntity extends Entity {
             deltaY = -VELOCITY_CAP;
         }
 
-        newY += deltaY;
+        Image image = getCurrentImage();
+        boundsAfterTick.set(position.getX() + getVelocity().getX(), position.getY() + deltaY, image.getWidth(),
+                image.getHeight());
+    }
+
+    /**
+     * @return the bounding box after the next tick, as calculated by
+     *         {@link #updateBoundsAfterTick()}
+     */
+    @JSONPropertyIgnore
+    public BoundingBox getBoundsAfterTick() {
+        return boundsAfterTick;
+    }
 
-        return new Rectangle(newX, newY, getCurrentImage().getWidth(), getCurrentImage().getHeight());
+    /**
+     * Checks if the bounding box after the next tick overlaps with the current
+     * bounds of the other entity. Touching edges don't count as overlapping.
+     *
+     * @param other the entity to check against
+     * @return true if they overlap
+     * @throws InvalidLevelConfiguration In case an illegal level configuration was
+     *                                   encountered.
+     * @see #updateBoundsAfterTick()
+     */
+    public boolean intersectsAfterTick(Entity other) throws InvalidLevelConfiguration {
+        return boundsAfterTick.intersects(other.getBoundingBox());
     }
 
     /**
@@ -311,7 +406,8 @@ public abstract class MovingEntity extends Entity {
         } else if (y < -VELOCITY_CAP) {
             dy = -VELOCITY_CAP;
         }
-        this.velocity = new Position(dx, dy);
+        velocity.setX(dx);
+        velocity.setY(dy);
     }
 
     @JSONPropertyIgnore
@@ -3,6 +3,7 @@ package ch.zhaw.pm3.teamretro.gamepack.sprite;
 import java.util.Objects;
 
 import org.json.JSONObject;
+import org.json.JSONPropertyIgnore;
 
 import ch.zhaw.pm3.teamretro.gamepack.JsonParser;
 import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
@@ -46,6 +47,12 @@ public class Properties {
 	 */
 	private boolean solid = false;
 
+	/**
+	 * Set once the properties are shared between entities, after that they can't
+	 * be changed anymore.
+	 */
+	private boolean shared = false;
+
 	/**
 	 * Constructs a property
 	 * 
@@ -64,6 +71,7 @@ public class Properties {
 	}
 
 	public void setEntityType(EntityType entityType) {
+		checkNotShared();
 		this.entityType = entityType;
 	}
 
@@ -72,6 +80,7 @@ public class Properties {
 	}
 
 	public void setBehavior(Behavior behavior) {
+		checkNotShared();
 		this.behavior = behavior;
 	}
 
@@ -80,9 +89,39 @@ public class Properties {
 	}
 
 	public void setSolid(boolean solid) {
+		checkNotShared();
 		this.solid = solid;
 	}
 
+	/**
+	 * Will mark the properties as shared, so they can't be changed anymore. Shared
+	 * properties are used by many entities at once, an entity which needs other
+	 * properties gets new ones with {@link Entity#setProperties(Properties)}.
+	 * 
+	 * @return this properties
+	 */
+	public Properties share() {
+		shared = true;
+		return this;
+	}
+
+	/**
+	 * @return true if the properties are shared and can't be changed anymore
+	 */
+	@JSONPropertyIgnore
+	public boolean isShared() {
+		return shared;
+	}
+
+	/**
+	 * @throws UnsupportedOperationException if the properties are shared
+	 */
+	private void checkNotShared() {
+		if (shared) {
+			throw new UnsupportedOperationException("Shared properties can not be changed.");
+		}
+	}
+
 	@Override
 	public boolean equals(Object other) {
 		if (this == other) {
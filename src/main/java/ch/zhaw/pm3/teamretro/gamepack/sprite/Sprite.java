@@ -55,6 +55,11 @@ public class Sprite {
 	 */
 	private static final String PROPERTIES_JSON = "properties";
 
+	/**
+	 * The properties of sprites which don't set any, shared by all of them.
+	 */
+	private static final Properties DEFAULT_PROPERTIES = new Properties(Behavior.STATIC, EntityType.BLOCK, true).share();
+
 	/**
 	 * Is the internal name of the given sprite. See {@link SpriteInformation}
 	 */
@@ -108,7 +113,7 @@ public class Sprite {
 	public Sprite(String sprite) {
 		this.name = sprite;
 		this.fancyName = sprite;
-		this.properties = new Properties(Behavior.STATIC, EntityType.BLOCK, true);
+		this.properties = DEFAULT_PROPERTIES;
 	}
 
 	/**
@@ -147,10 +152,9 @@ public class Sprite {
 		}
 		JSONObject propertiesJSON = json.optJSONObject(PROPERTIES_JSON);
 		if (propertiesJSON != null) {
-			this.properties = Properties.valueOf(propertiesJSON);
+			this.properties = Properties.valueOf(propertiesJSON).share();
 		} else {
-			// the default properties
-			this.properties = new Properties(Behavior.STATIC, EntityType.BLOCK, true);
+			this.properties = DEFAULT_PROPERTIES;
 		}
 	}
 
@@ -225,6 +229,28 @@ public class Sprite {
 		return Collections.unmodifiableList(getImagesHelper(animation));
 	}
 
+	/**
+	 * Will return a single image of the given type, without wrapping the list of
+	 * images.
+	 * 
+	 * @param animation the type of animation
+	 * @param index     the index of the image
+	 * @return the image
+	 */
+	public Image getImage(Animation animation, int index) {
+		return getImagesHelper(animation).get(index);
+	}
+
+	/**
+	 * Will return the amount of images of the given type.
+	 * 
+	 * @param animation the type of animation
+	 * @return the amount of images
+	 */
+	public int getImageCount(Animation animation) {
+		return getImagesHelper(animation).size();
+	}
+
 	public SpriteInformation getSpriteInformation() {
 		return SpriteInformation.valueOf(name);
 	}
@@ -0,0 +1,58 @@
+package ch.zhaw.pm3.teamretro.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Opening a single entry of an archive for reading.
+ */
+@Name("ch.zhaw.pm3.teamretro.ArchiveRead")
+@Label("Archive Read")
+@Category({ "Jump and Build", "Archive" })
+public final class ArchiveReadEvent extends Event {
+
+    /**
+     * The path to the archive.
+     */
+    @Label("Archive")
+    private String archive;
+
+    /**
+     * The name of the entry.
+     */
+    @Label("Entry")
+    private String entry;
+
+    /**
+     * The size of the entry as stored in the archive.
+     */
+    @Label("Compressed Size")
+    @DataAmount
+    private long compressedSize;
+
+    /**
+     * The size of the entry once extracted.
+     */
+    @Label("Size")
+    @DataAmount
+    private long size;
+
+    public void setArchive(String archive) {
+        this.archive = archive;
+    }
+
+    public void setEntry(String entry) {
+        this.entry = entry;
+    }
+
+    public void setCompressedSize(long compressedSize) {
+        this.compressedSize = compressedSize;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+}
@@ -0,0 +1,49 @@
+package ch.zhaw.pm3.teamretro.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The collision detection of a single moving entity during a tick.
+ */
+@Name("ch.zhaw.pm3.teamretro.Collision")
+@Label("Collision Check")
+@Category({ "Jump and Build", "Game" })
+@Description("The collision detection of a single moving entity during a tick")
+@StackTrace(false)
+public final class CollisionEvent extends Event {
+
+    /**
+     * The type of the moving entity.
+     */
+    @Label("Subject")
+    private String subject;
+
+    /**
+     * The type of the entity collided with, null if there was no collision.
+     */
+    @Label("Target")
+    private String target;
+
+    /**
+     * The amount of surrounding entities checked.
+     */
+    @Label("Candidates")
+    private int candidates;
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public void setCandidates(int candidates) {
+        this.candidates = candidates;
+    }
+}
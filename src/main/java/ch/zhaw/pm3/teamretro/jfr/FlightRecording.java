@@ -0,0 +1,71 @@
+package ch.zhaw.pm3.teamretro.jfr;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * <p>
+ * Keeps track of whether a JDK Flight Recorder recording is running, e.g. one
+ * started with {@code jcmd <pid> JFR.start}.
+ * </p>
+ * <p>
+ * The events of the hot paths (frames, collisions, rendering) are only created
+ * while a recording is running, so the game doesn't allocate them otherwise.
+ * Whether a single event type is enabled in the recording settings is still
+ * checked by the event itself when it's committed.
+ * </p>
+ */
+public final class FlightRecording {
+
+    /**
+     * Whether at least one recording is running.
+     */
+    private static volatile boolean active;
+
+    static {
+        if (FlightRecorder.isAvailable()) {
+            // called right away if the recorder is already initialized, e.g. a
+            // recording was started along with the JVM
+            FlightRecorder.addListener(new FlightRecorderListener() {
+                @Override
+                public void recorderInitialized(FlightRecorder recorder) {
+                    update();
+                }
+
+                @Override
+                public void recordingStateChanged(Recording recording) {
+                    update();
+                }
+            });
+        }
+    }
+
+    /**
+     * There are no instances, the state is global just like the recorder.
+     */
+    private FlightRecording() {
+    }
+
+    /**
+     * @return true if at least one recording is running
+     */
+    public static boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Checks all the recordings for one which is running.
+     */
+    private static void update() {
+        boolean running = false;
+        for (Recording recording : FlightRecorder.getFlightRecorder().getRecordings()) {
+            if (recording.getState() == RecordingState.RUNNING) {
+                running = true;
+                break;
+            }
+        }
+        active = running;
+    }
+}
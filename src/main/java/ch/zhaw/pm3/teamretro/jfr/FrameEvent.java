@@ -0,0 +1,41 @@
+package ch.zhaw.pm3.teamretro.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A single frame of the game, from the start of the ticks to the end of the
+ * rendering.
+ */
+@Name("ch.zhaw.pm3.teamretro.Frame")
+@Label("Frame")
+@Category({ "Jump and Build", "Game" })
+@Description("A single frame, all of its ticks and the rendering")
+@StackTrace(false)
+public final class FrameEvent extends Event {
+
+    /**
+     * The amount of ticks run during the frame.
+     */
+    @Label("Ticks")
+    private int ticks;
+
+    /**
+     * Whether the game fell too far behind and dropped time.
+     */
+    @Label("Dropped Time")
+    @Description("The game fell too far behind and dropped the time it couldn't catch up with")
+    private boolean droppedTime;
+
+    public void setTicks(int ticks) {
+        this.ticks = ticks;
+    }
+
+    public void setDroppedTime(boolean droppedTime) {
+        this.droppedTime = droppedTime;
+    }
+}
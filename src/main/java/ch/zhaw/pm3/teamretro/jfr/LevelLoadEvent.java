@@ -0,0 +1,45 @@
+package ch.zhaw.pm3.teamretro.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Loading a level out of a game pack, including the setup of its sprites.
+ */
+@Name("ch.zhaw.pm3.teamretro.LevelLoad")
+@Label("Level Load")
+@Category({ "Jump and Build", "Game Pack" })
+public final class LevelLoadEvent extends Event {
+
+    /**
+     * The path to the game pack.
+     */
+    @Label("Archive")
+    private String archive;
+
+    /**
+     * The name of the level.
+     */
+    @Label("Level")
+    private String level;
+
+    /**
+     * The amount of entities in the level.
+     */
+    @Label("Entities")
+    private int entities;
+
+    public void setArchive(String archive) {
+        this.archive = archive;
+    }
+
+    public void setLevel(String level) {
+        this.level = level;
+    }
+
+    public void setEntities(int entities) {
+        this.entities = entities;
+    }
+}
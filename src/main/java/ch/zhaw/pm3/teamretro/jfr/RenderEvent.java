@@ -0,0 +1,47 @@
+package ch.zhaw.pm3.teamretro.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Drawing the visible part of the level onto the canvas.
+ */
+@Name("ch.zhaw.pm3.teamretro.Render")
+@Label("Render")
+@Category({ "Jump and Build", "Game" })
+@StackTrace(false)
+public final class RenderEvent extends Event {
+
+    /**
+     * The amount of entities drawn, the pre-rendered blocks not included.
+     */
+    @Label("Drawn Entities")
+    private int drawnEntities;
+
+    /**
+     * The amount of enemies alive in the level.
+     */
+    @Label("Living Enemies")
+    private int livingEnemies;
+
+    /**
+     * The x axis of the level shown at the left border of the canvas.
+     */
+    @Label("Viewport X")
+    private double viewportX;
+
+    public void setDrawnEntities(int drawnEntities) {
+        this.drawnEntities = drawnEntities;
+    }
+
+    public void setLivingEnemies(int livingEnemies) {
+        this.livingEnemies = livingEnemies;
+    }
+
+    public void setViewportX(double viewportX) {
+        this.viewportX = viewportX;
+    }
+}
@@ -0,0 +1,292 @@
+package ch.zhaw.pm3.teamretro.logic.common;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import ch.zhaw.pm3.teamretro.gamepack.CollisionGrid;
+import ch.zhaw.pm3.teamretro.gamepack.InvalidLevelConfiguration;
+import ch.zhaw.pm3.teamretro.gamepack.SpatialIndex;
+import ch.zhaw.pm3.teamretro.gamepack.TileMap;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
+
+/**
+ * Caches the blocks of a level pre-rendered into one image per chunk of the
+ * {@link SpatialIndex}, which covers the same area as a chunk of the
+ * {@link TileMap}. Blocks never move, so a frame only has to draw a few chunk
+ * images instead of every single block.
+ * <p>
+ * A chunk image is rebuilt as soon as a block inside of the chunk, or one of
+ * the chunks a block could reach into it from, was added or removed.
+ */
+public class BlockLayerCache {
+
+    /**
+     * The height and width of a chunk image in pixels.
+     */
+    private static final int CHUNK_SIZE = SpatialIndex.CHUNK_SIZE;
+
+    /**
+     * The amount of tiles per chunk side.
+     */
+    private static final int CHUNK_TILES = CHUNK_SIZE / CollisionGrid.TILE_SIZE;
+
+    /**
+     * The maximum amount of chunk images kept, the least recently drawn ones are
+     * dropped first.
+     */
+    private static final int MAX_CACHED_CHUNKS = 32;
+
+    /**
+     * The pixel format used to read and write the images.
+     */
+    private static final WritablePixelFormat<IntBuffer> PIXEL_FORMAT = PixelFormat.getIntArgbInstance();
+
+    /**
+     * The pre-rendered chunks, by their chunk coordinates.
+     */
+    private final Map<Long, CachedChunk> cachedChunks = new LinkedHashMap<>(MAX_CACHED_CHUNKS, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CachedChunk> eldest) {
+            return size() > MAX_CACHED_CHUNKS;
+        }
+    };
+
+    /**
+     * The index of the blocks which aren't aligned to the tile grid.
+     */
+    private final SpatialIndex blockIndex;
+
+    /**
+     * The blocks aligned to the tile grid.
+     */
+    private final TileMap tileMap;
+
+    /**
+     * Reused list for the blocks of the chunk currently rendered.
+     */
+    private final List<Entity> chunkBlocks = new ArrayList<>();
+
+    /**
+     * Reused pixel buffer for the chunk currently rendered.
+     */
+    private final int[] chunkPixels = new int[CHUNK_SIZE * CHUNK_SIZE];
+
+    /**
+     * Reused pixel buffer for the block image currently read.
+     */
+    private int[] blockPixels = new int[0];
+
+    /**
+     * Creates a cache for the blocks of a level.
+     *
+     * @param blockIndex the index of the blocks which aren't aligned to the tile
+     *                   grid
+     * @param tileMap    the blocks aligned to the tile grid
+     */
+    public BlockLayerCache(SpatialIndex blockIndex, TileMap tileMap) {
+        this.blockIndex = blockIndex;
+        this.tileMap = tileMap;
+    }
+
+    /**
+     * Will return the pre-rendered image of a chunk and render it first, if it
+     * is outdated.
+     *
+     * @param chunkX the chunk x coordinate
+     * @param chunkY the chunk y coordinate
+     * @return the image or null if there are no blocks in the chunk
+     * @throws InvalidLevelConfiguration In case a block has an invalid sprite.
+     */
+    public Image getChunkImage(int chunkX, int chunkY) throws InvalidLevelConfiguration {
+        long key = ((long) chunkX << Integer.SIZE) | (chunkY & 0xFFFFFFFFL);
+        long stamp = getStamp(chunkX, chunkY);
+        CachedChunk cachedChunk = cachedChunks.get(key);
+        if (cachedChunk == null || cachedChunk.stamp != stamp) {
+            cachedChunk = new CachedChunk(stamp, renderChunk(chunkX, chunkY,
+                    cachedChunk != null ? cachedChunk.image : null));
+            cachedChunks.put(key, cachedChunk);
+        }
+        return cachedChunk.image;
+    }
+
+    /**
+     * Drops all the pre-rendered chunks.
+     */
+    public void clear() {
+        cachedChunks.clear();
+    }
+
+    /**
+     * A chunk image contains the blocks of the chunk and the parts of the blocks
+     * positioned in the chunks to the left and above, which reach into it.
+     *
+     * @param chunkX the chunk x coordinate
+     * @param chunkY the chunk y coordinate
+     * @return the combined stamp of all the chunks the image depends on
+     */
+    private long getStamp(int chunkX, int chunkY) {
+        // the stamps of each index only grow, so the sum changes along with either
+        return Math.max(Math.max(blockIndex.getChunkStamp(chunkX, chunkY), blockIndex.getChunkStamp(chunkX - 1, chunkY)),
+                Math.max(blockIndex.getChunkStamp(chunkX, chunkY - 1),
+                        blockIndex.getChunkStamp(chunkX - 1, chunkY - 1)))
+                + Math.max(Math.max(tileMap.getChunkStamp(chunkX, chunkY), tileMap.getChunkStamp(chunkX - 1, chunkY)),
+                        Math.max(tileMap.getChunkStamp(chunkX, chunkY - 1),
+                                tileMap.getChunkStamp(chunkX - 1, chunkY - 1)));
+    }
+
+    /**
+     * Renders all the blocks touching the chunk into its image.
+     *
+     * @param chunkX the chunk x coordinate
+     * @param chunkY the chunk y coordinate
+     * @param reuse  the previous image of the chunk, may be reused
+     * @return the image or null if there are no blocks in the chunk
+     * @throws InvalidLevelConfiguration In case a block has an invalid sprite.
+     */
+    private WritableImage renderChunk(int chunkX, int chunkY, WritableImage reuse)
+            throws InvalidLevelConfiguration {
+        double minX = (double) chunkX * CHUNK_SIZE;
+        double minY = (double) chunkY * CHUNK_SIZE;
+        blockIndex.query(minX - CHUNK_SIZE, minY - CHUNK_SIZE, minX + CHUNK_SIZE, minY + CHUNK_SIZE, chunkBlocks);
+
+        Arrays.fill(chunkPixels, 0);
+        boolean empty = true;
+        for (int tileX = (chunkX - 1) * CHUNK_TILES; tileX < (chunkX + 1) * CHUNK_TILES; tileX++) {
+            for (int tileY = (chunkY - 1) * CHUNK_TILES; tileY < (chunkY + 1) * CHUNK_TILES; tileY++) {
+                TileMap.Tile tile = tileMap.getTile(tileX, tileY);
+                if (tile != null) {
+                    empty &= !drawImage(tile.getImage(), false, (int) (tileX * CollisionGrid.TILE_SIZE - minX),
+                            (int) (tileY * CollisionGrid.TILE_SIZE - minY));
+                }
+            }
+        }
+        for (Entity block : chunkBlocks) {
+            empty &= !drawImage(block.getCurrentImage(), block.isFlipped(),
+                    (int) Math.floor(block.getPosition().getX() - minX),
+                    (int) Math.floor(block.getPosition().getY() - minY));
+        }
+        chunkBlocks.clear();
+        if (empty) {
+            return null;
+        }
+
+        WritableImage image = reuse != null ? reuse : new WritableImage(CHUNK_SIZE, CHUNK_SIZE);
+        image.getPixelWriter().setPixels(0, 0, CHUNK_SIZE, CHUNK_SIZE, PIXEL_FORMAT, chunkPixels, 0, CHUNK_SIZE);
+        return image;
+    }
+
+    /**
+     * Blends the image of a block into the pixels of the current chunk.
+     *
+     * @param image   the image of the block
+     * @param flipped if the image is drawn mirrored
+     * @param offsetX the x position of the block inside of the chunk
+     * @param offsetY the y position of the block inside of the chunk
+     * @return true if anything was drawn
+     */
+    private boolean drawImage(Image image, boolean flipped, int offsetX, int offsetY) {
+        PixelReader reader = image.getPixelReader();
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        int startX = Math.max(0, -offsetX);
+        int startY = Math.max(0, -offsetY);
+        int endX = Math.min(width, CHUNK_SIZE - offsetX);
+        int endY = Math.min(height, CHUNK_SIZE - offsetY);
+        if (reader == null || startX >= endX || startY >= endY) {
+            return false;
+        }
+
+        if (blockPixels.length < width * height) {
+            blockPixels = new int[width * height];
+        }
+        reader.getPixels(0, 0, width, height, PIXEL_FORMAT, blockPixels, 0, width);
+
+        for (int y = startY; y < endY; y++) {
+            int target = (offsetY + y) * CHUNK_SIZE + offsetX;
+            for (int x = startX; x < endX; x++) {
+                // flipped blocks are drawn mirrored, same as the canvas does
+                int source = y * width + (flipped ? width - 1 - x : x);
+                chunkPixels[target + x] = blend(chunkPixels[target + x], blockPixels[source]);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Draws the source pixel over the destination pixel, both in non
+     * premultiplied ARGB.
+     *
+     * @param destination the pixel drawn over
+     * @param source      the pixel to draw
+     * @return the resulting pixel
+     */
+    static int blend(int destination, int source) {
+        int sourceAlpha = source >>> 24;
+        if (sourceAlpha == 0xFF) {
+            return source;
+        }
+        if (sourceAlpha == 0) {
+            return destination;
+        }
+        int destinationAlpha = destination >>> 24;
+        int remainingAlpha = destinationAlpha * (0xFF - sourceAlpha) / 0xFF;
+        int alpha = sourceAlpha + remainingAlpha;
+        int red = blendChannel(source >> 16, sourceAlpha, destination >> 16, remainingAlpha, alpha);
+        int green = blendChannel(source >> 8, sourceAlpha, destination >> 8, remainingAlpha, alpha);
+        int blue = blendChannel(source, sourceAlpha, destination, remainingAlpha, alpha);
+        return (alpha << 24) | (red << 16) | (green << 8) | blue;
+    }
+
+    /**
+     * Blends a single color channel.
+     *
+     * @param source           the source pixel shifted so the channel is the
+     *                         lowest byte
+     * @param sourceAlpha      the alpha of the source
+     * @param destination      the destination pixel shifted so the channel is the
+     *                         lowest byte
+     * @param destinationAlpha the remaining alpha of the destination
+     * @param alpha            the resulting alpha
+     * @return the resulting channel
+     */
+    private static int blendChannel(int source, int sourceAlpha, int destination, int destinationAlpha,
+            int alpha) {
+        return ((source & 0xFF) * sourceAlpha + (destination & 0xFF) * destinationAlpha) / alpha;
+    }
+
+    /**
+     * A pre-rendered chunk.
+     */
+    private static final class CachedChunk {
+
+        /**
+         * The stamp of the index the image was rendered for.
+         */
+        private final long stamp;
+
+        /**
+         * The image, null if the chunk is empty.
+         */
+        private final WritableImage image;
+
+        /**
+         * @param stamp the stamp of the index the image was rendered for
+         * @param image the image, null if the chunk is empty
+         */
+        private CachedChunk(long stamp, WritableImage image) {
+            this.stamp = stamp;
+            this.image = image;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
 
 /**
  * Abstraction layer to control the canvas, which displays the image of the
@@ -38,6 +39,16 @@ public class CanvasController {
      */
     private final Position camOffset;
 
+    /**
+     * Camera offset of the previous tick, used to interpolate the camera movement.
+     */
+    private final Position previousCamOffset;
+
+    /**
+     * How far the rendering is between the previous and the current tick.
+     */
+    private double interpolation = 1;
+
     /**
      * Constructor of the CanvasController. Needs a root canvas instance passed by
      * the UI Controller class. Sets up the camera
@@ -50,6 +61,7 @@ public class CanvasController {
         width = canvas.getWidth();
         height = canvas.getHeight();
         camOffset = new Position(0, 0);
+        previousCamOffset = new Position(0, 0);
     }
 
     /**
@@ -58,12 +70,76 @@ public class CanvasController {
      * @param entity Entity instance that is drawn on the canvas.
      */
     public void drawImage(Entity entity) throws InvalidLevelConfiguration {
+        drawImage(entity, entity.getPosition().getX(), entity.getPosition().getY());
+    }
+
+    /**
+     * Draws an entity on the canvas at the given position instead of its own.
+     *
+     * @param entity Entity instance that is drawn on the canvas.
+     * @param x      x axis of the level (pixels)
+     * @param y      y axis of the level (pixels)
+     */
+    public void drawImage(Entity entity, double x, double y) throws InvalidLevelConfiguration {
         Image image = entity.getCurrentImage();
         double flipFactor = entity.isFlipped() ? -1 : 1;
         double offset = entity.isFlipped() ? image.getWidth() : 0;
-        offset += camOffset.getX();
-        graphicsContext.drawImage(image, entity.getPosition().getX() + offset, entity.getPosition().getY(),
-                image.getWidth() * flipFactor, image.getHeight());
+        offset += getInterpolatedCamOffsetX();
+        graphicsContext.drawImage(image, x + offset, y, image.getWidth() * flipFactor, image.getHeight());
+    }
+
+    /**
+     * Draws an image on the canvas.
+     *
+     * @param image the image to draw
+     * @param x     x axis of the level (pixels)
+     * @param y     y axis of the level (pixels)
+     */
+    public void drawImage(Image image, double x, double y) {
+        graphicsContext.drawImage(image, x + getInterpolatedCamOffsetX(), y);
+    }
+
+    /**
+     * Draws a filled rectangle on the canvas, the camera is not applied.
+     *
+     * @param x      x axis of the canvas (pixels)
+     * @param y      y axis of the canvas (pixels)
+     * @param width  width of the rectangle (pixels)
+     * @param height height of the rectangle (pixels)
+     * @param color  the fill color
+     */
+    public void fillRect(double x, double y, double width, double height, Color color) {
+        graphicsContext.setFill(color);
+        graphicsContext.fillRect(x, y, width, height);
+    }
+
+    /**
+     * Draws a text on the canvas, the camera is not applied.
+     *
+     * @param text  the text to draw
+     * @param x     x axis of the canvas (pixels)
+     * @param y     y axis of the baseline on the canvas (pixels)
+     * @param color the text color
+     */
+    public void drawText(String text, double x, double y, Color color) {
+        graphicsContext.setFill(color);
+        graphicsContext.fillText(text, x, y);
+    }
+
+    /**
+     * @return the x axis of the level (pixels) shown at the left border of the
+     *         canvas
+     */
+    public double getViewportX() {
+        return -getInterpolatedCamOffsetX();
+    }
+
+    /**
+     * @return the camera offset on the x axis, between the previous and the current
+     *         tick
+     */
+    private double getInterpolatedCamOffsetX() {
+        return previousCamOffset.getX() + (camOffset.getX() - previousCamOffset.getX()) * interpolation;
     }
 
     /**
@@ -83,6 +159,25 @@ public class CanvasController {
     public void setCamOffset(double x, double y) {
         camOffset.setX(x);
         camOffset.setY(y);
+        storeCamOffset();
+    }
+
+    /**
+     * Remembers the current camera offset as the one of the previous tick. Moving
+     * the camera afterwards will be interpolated while drawing.
+     */
+    public void storeCamOffset() {
+        previousCamOffset.setX(camOffset.getX());
+        previousCamOffset.setY(camOffset.getY());
+    }
+
+    /**
+     * Sets how far the rendering is between the previous and the current tick.
+     *
+     * @param alpha 0 draws the camera of the previous tick, 1 the current one.
+     */
+    public void setInterpolation(double alpha) {
+        interpolation = alpha;
     }
 
     /**
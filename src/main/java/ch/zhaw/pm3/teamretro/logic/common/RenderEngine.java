@@ -1,17 +1,47 @@
 package ch.zhaw.pm3.teamretro.logic.common;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import ch.zhaw.pm3.teamretro.gamepack.InvalidLevelConfiguration;
 import ch.zhaw.pm3.teamretro.gamepack.Level;
-import ch.zhaw.pm3.teamretro.gamepack.entity.Block;
+import ch.zhaw.pm3.teamretro.gamepack.SpatialIndex;
 import ch.zhaw.pm3.teamretro.gamepack.entity.Enemy;
-import ch.zhaw.pm3.teamretro.gamepack.entity.Item;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
 import ch.zhaw.pm3.teamretro.gamepack.entity.Player;
 import ch.zhaw.pm3.teamretro.gamepack.sprite.Animation;
+import ch.zhaw.pm3.teamretro.jfr.FlightRecording;
+import ch.zhaw.pm3.teamretro.jfr.RenderEvent;
+import javafx.scene.image.Image;
 
 /**
- * Abstraction layer to draw all entities on screen.
+ * Abstraction layer to draw all entities on screen. Only the entities inside of
+ * the visible part of the level are drawn, the blocks are drawn from
+ * pre-rendered chunks.
  */
 public class RenderEngine {
+    /**
+     * How far outside of the canvas entities are still drawn. The position of an
+     * entity is its top left corner, so this has to be bigger than the largest
+     * sprite.
+     */
+    private static final double CULLING_MARGIN = 128;
+
+    /**
+     * Reused list for the visible entities of the current frame.
+     */
+    private final List<Entity> visibleEntities = new ArrayList<>();
+
+    /**
+     * The amount of entities drawn in the last frame, the blocks not included.
+     */
+    private int drawnEntityCount;
+
+    /**
+     * The pre-rendered blocks of the current level.
+     */
+    private BlockLayerCache blockLayerCache;
+
     /**
      * Reference to current level.
      */
@@ -29,26 +59,101 @@ public class RenderEngine {
      *                                   encountered while drawing.
      */
     public void render() throws InvalidLevelConfiguration {
-        canvasController.clearImage(currentLevel.getBackground().getImages(Animation.IDLE).get(0));
+        render(1);
+    }
 
-        for (Block blk : currentLevel.getBlockList().values()) {
-            canvasController.drawImage(blk);
+    /**
+     * Renders all entities on screen, the moving entities and the camera are
+     * interpolated between their previous and current tick.
+     *
+     * @param alpha How far we are between the previous and the current tick,
+     *              between 0 and 1.
+     * @throws InvalidLevelConfiguration In case an illegal level configuration was
+     *                                   encountered while drawing.
+     */
+    public void render(double alpha) throws InvalidLevelConfiguration {
+        // only created while recording, so rendering doesn't allocate otherwise
+        RenderEvent event = FlightRecording.isActive() ? new RenderEvent() : null;
+        if (event != null) {
+            event.begin();
         }
+        canvasController.setInterpolation(alpha);
+        canvasController.clearImage(currentLevel.getBackground().getImages(Animation.IDLE).get(0));
+
+        double minX = canvasController.getViewportX() - CULLING_MARGIN;
+        double maxX = canvasController.getViewportX() + canvasController.getCanvas().getWidth();
+        double minY = -CULLING_MARGIN;
+        double maxY = canvasController.getCanvas().getHeight();
 
+        renderBlocks(minX, minY, maxX, maxY);
+
+        int drawn = 0;
         for (Enemy enmy : currentLevel.getEnemyList().values()) {
-            canvasController.drawImage(enmy);
+            double x = enmy.getInterpolatedX(alpha);
+            double y = enmy.getInterpolatedY(alpha);
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                canvasController.drawImage(enmy, x, y);
+                drawn++;
+            }
         }
 
         Player p = currentLevel.getPlayer();
-        canvasController.drawImage(p);
+        canvasController.drawImage(p, p.getInterpolatedX(alpha), p.getInterpolatedY(alpha));
+        drawn++;
 
-        for (Item item : currentLevel.getItemList().values()) {
+        for (Entity item : currentLevel.getItemIndex().query(minX, minY, maxX, maxY, visibleEntities)) {
             canvasController.drawImage(item);
+            drawn++;
+        }
+        drawnEntityCount = drawn;
+
+        if (event != null) {
+            event.setDrawnEntities(drawn);
+            event.setLivingEnemies(currentLevel.getLivingEnemies().size());
+            event.setViewportX(canvasController.getViewportX());
+            event.commit();
+        }
+    }
+
+    /**
+     * @return the amount of entities drawn in the last frame, the pre-rendered
+     *         blocks not included
+     */
+    public int getDrawnEntityCount() {
+        return drawnEntityCount;
+    }
+
+    /**
+     * Draws the pre-rendered chunks of blocks which are visible on the canvas. The
+     * area is the same one the other entities are culled with.
+     *
+     * @param minX the left border of the visible area
+     * @param minY the top border of the visible area
+     * @param maxX the right border of the visible area
+     * @param maxY the bottom border of the visible area
+     * @throws InvalidLevelConfiguration In case an illegal level configuration was
+     *                                   encountered while drawing.
+     */
+    private void renderBlocks(double minX, double minY, double maxX, double maxY)
+            throws InvalidLevelConfiguration {
+        int minChunkX = SpatialIndex.toChunk(minX);
+        int maxChunkX = SpatialIndex.toChunk(maxX);
+        int minChunkY = SpatialIndex.toChunk(minY);
+        int maxChunkY = SpatialIndex.toChunk(maxY);
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkY = minChunkY; chunkY <= maxChunkY; chunkY++) {
+                Image image = blockLayerCache.getChunkImage(chunkX, chunkY);
+                if (image != null) {
+                    canvasController.drawImage(image, (double) chunkX * SpatialIndex.CHUNK_SIZE,
+                            (double) chunkY * SpatialIndex.CHUNK_SIZE);
+                }
+            }
         }
     }
 
     public void setCurrentLevel(Level currentLevel) {
         this.currentLevel = currentLevel;
+        blockLayerCache = new BlockLayerCache(currentLevel.getBlockIndex(), currentLevel.getTileMap());
     }
 
     public void setCanvasController(CanvasController canvasController) {
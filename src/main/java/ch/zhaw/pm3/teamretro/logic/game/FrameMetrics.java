@@ -0,0 +1,102 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+/**
+ * <p>
+ * Collects the per frame metrics of the game, like the frame time or the time
+ * spent on the collisions, in a {@link Histogram} per {@link Metric}.
+ * </p>
+ * <p>
+ * Recording doesn't allocate, so it can stay enabled while playing. Once in a
+ * while (e.g. once a second) a {@link MetricsSnapshot} is taken for the debug
+ * overlay and the export, and the histograms start over. The registry is meant
+ * to be used from the JavaFX application thread only, so it's not thread safe.
+ * </p>
+ */
+public class FrameMetrics {
+
+    /**
+     * The histograms, indexed by the ordinal of the metric.
+     */
+    private final Histogram[] histograms = new Histogram[Metric.values().length];
+
+    /**
+     * Timestamp [nanoseconds] of when the histograms were started.
+     */
+    private long intervalStart;
+
+    /**
+     * Whether values are recorded at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Creates an enabled registry with empty histograms.
+     */
+    public FrameMetrics() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new Histogram();
+        }
+        intervalStart = System.nanoTime();
+    }
+
+    /**
+     * Records a single value, nothing happens while the registry is disabled.
+     *
+     * @param metric the metric the value belongs to
+     * @param value  the value, in nanoseconds for durations
+     */
+    public void record(Metric metric, long value) {
+        if (enabled) {
+            histograms[metric.ordinal()].record(value);
+        }
+    }
+
+    /**
+     * @return whether values are recorded, callers can skip measuring otherwise
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param metric the metric to look up
+     * @return the histogram of the metric, it keeps changing
+     */
+    Histogram getHistogram(Metric metric) {
+        return histograms[metric.ordinal()];
+    }
+
+    /**
+     * Summarizes the values recorded since the last reset.
+     *
+     * @return the summary of all the histograms
+     */
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(System.currentTimeMillis(), System.nanoTime() - intervalStart, histograms);
+    }
+
+    /**
+     * Summarizes the values recorded since the last reset and starts over.
+     *
+     * @return the summary of all the histograms
+     */
+    public MetricsSnapshot snapshotAndReset() {
+        MetricsSnapshot snapshot = snapshot();
+        reset();
+        return snapshot;
+    }
+
+    /**
+     * Removes all the recorded values.
+     */
+    public void reset() {
+        for (Histogram histogram : histograms) {
+            histogram.reset();
+        }
+        intervalStart = System.nanoTime();
+    }
+}
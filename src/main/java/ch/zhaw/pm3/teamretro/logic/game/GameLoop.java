@@ -1,46 +1,40 @@
 package ch.zhaw.pm3.teamretro.logic.game;
 
+import static java.util.logging.Level.FINE;
 import static java.util.logging.Level.SEVERE;
+import static java.util.logging.Level.WARNING;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.logging.Logger;
 
 import ch.zhaw.pm3.teamretro.gamepack.GamePackFactory;
 import ch.zhaw.pm3.teamretro.gamepack.InvalidLevelConfiguration;
 import ch.zhaw.pm3.teamretro.gamepack.Level;
-import ch.zhaw.pm3.teamretro.gamepack.entity.Direction;
+import ch.zhaw.pm3.teamretro.gamepack.LevelStreamer;
 import ch.zhaw.pm3.teamretro.gamepack.entity.Enemy;
-import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
-import ch.zhaw.pm3.teamretro.gamepack.entity.EntityType;
-import ch.zhaw.pm3.teamretro.gamepack.entity.MovingEntity;
 import ch.zhaw.pm3.teamretro.gamepack.entity.Player;
-import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
-import ch.zhaw.pm3.teamretro.gamepack.sprite.Animation;
-import ch.zhaw.pm3.teamretro.gamepack.sprite.Behavior;
 import ch.zhaw.pm3.teamretro.logic.common.CanvasController;
 import ch.zhaw.pm3.teamretro.logic.common.KeyEventHandler;
 import ch.zhaw.pm3.teamretro.logic.common.RenderEngine;
-import ch.zhaw.pm3.teamretro.ui.common.MessageHandler;
 import ch.zhaw.pm3.teamretro.ui.game.controller.GameController;
 import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
-import javafx.scene.input.KeyCode;
-import javafx.scene.shape.Rectangle;
 
 /**
  * Houses and instantiates the game loop, so the main flow of the program.
  * Timing is handled by another class called TimedLoop with which we override
- * runInnerLoop() in run().
+ * tick() and render() in run(). The gameplay itself is simulated by the
+ * {@link GameSimulation}, this class adds the keyboard input, the camera and
+ * the rendering on top of it.
  * 
  */
 public class GameLoop {
@@ -56,29 +50,6 @@ public class GameLoop {
      */
     private static final double DEFAULT_Y_OFFSET = 0;
 
-    /**
-     * In collision detection, we define the amount of blocks around the player we
-     * want to check.
-     */
-    private static final int MOVING_ENTITY_SURROUNDING_BLOCK_COUNT = 10;
-
-    /**
-     * What the height and width dimensions of a block are
-     */
-    private static final int BLOCK_SIZE = 32;
-
-    /**
-     * Important to stop the game from spazzing out right after starting the
-     * application
-     */
-    private static final double DELTA_CAP = 100;
-
-    /**
-     * By how much the delta time is multiplied each frame. Effectively defines the
-     * game speed.
-     */
-    private static final double DELTA_MULTIPLIER = 150;
-
     /**
      * definition of the left scroll margin (20% of the screen)
      */
@@ -104,6 +75,23 @@ public class GameLoop {
      */
     private static final int STARTING_SCORE = 0;
 
+    /**
+     * The name of the system property containing the directory the input
+     * recordings are saved to. The recordings are only saved if it's set.
+     */
+    public static final String RECORDING_DIRECTORY_PROPERTY = "jumpandbuild.recording.dir";
+
+    /**
+     * The file name of a saved input recording, made of the level name and the
+     * time the run started.
+     */
+    private static final String RECORDING_FILE_NAME = "%s-%s.jbir";
+
+    /**
+     * The format of the time in the file name of a saved input recording.
+     */
+    private static final DateTimeFormatter RECORDING_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
     /**
      * Current score the player has. The idea is to increase it when the player
      * kills an enemy. It's needed as property so the UI classes can listen for it
@@ -173,14 +161,6 @@ public class GameLoop {
      */
     private String levelName;
 
-    /**
-     * <p>
-     * Reference of the Player object (which we get from the Level instance form the
-     * GamePackFactory).
-     * </p>
-     */
-    private Player plr;
-
     /**
      * <p>
      * Reference to the current level (we get either from outside or load ourselves
@@ -192,28 +172,54 @@ public class GameLoop {
     private Level currentLevel;
 
     /**
-     * <p>
-     * List of currently killed enemies during runtime. The idea to restore them
-     * when we restart the level
-     * </p>
-     * 
-     * @see Level#restoreEnemies(List)
+     * Loads the part of the current level around the player, null if the level
+     * was handed in from outside.
      */
-    private List<Enemy> killedEnemies;
+    private LevelStreamer streamer;
 
     /**
-     * <p>
-     * Delta for any kind of movement on screen
-     * </p>
-     * 
-     * @see <a href="https://en.wikipedia.org/wiki/Delta_timing">Delta Timing</a>
+     * to let framerate stabilize
      */
-    private double delta;
+    private boolean warmUp;
 
     /**
-     * to let framerate stabilize
+     * The gameplay itself, this class only adds timing, rendering and scrolling on
+     * top of it.
      */
-    private boolean warmUp;
+    private final GameSimulation simulation;
+
+    /**
+     * Captures the input of every tick and records it, the simulation only sees
+     * the captured input.
+     */
+    private final RecordingInputSource recordedInput;
+
+    /**
+     * Where the current input recording is saved to, null if it isn't saved.
+     */
+    private Path recordingFile;
+
+    /**
+     * The timings of the frames, ticks and collisions.
+     */
+    private final FrameMetrics metrics = new FrameMetrics();
+
+    /**
+     * Shows the metrics of the last second on top of the game.
+     */
+    private final MetricsOverlay metricsOverlay;
+
+    /**
+     * Writes the metrics of every second to the file given by
+     * {@link MetricsExporter#FILE_PROPERTY}, null if it's not open.
+     */
+    private MetricsExporter metricsExporter;
+
+    /**
+     * Whether the overlay toggle was pressed during the last frame, so holding it
+     * down only toggles once.
+     */
+    private boolean overlayTogglePressed;
 
     /**
      * <p>
@@ -233,20 +239,27 @@ public class GameLoop {
 
         renderer = new RenderEngine();
         renderer.setCanvasController(canvasController);
-    }
 
-    /**
-     * <p>
-     * When we start a new level we don't want that the enemies killed in a previous
-     * level get restored, that's why we clear the current array with killed enemies
-     * </p>
-     * 
-     * @see GameLoop#preRunSetup(boolean)
-     * @see GameLoop#restartLevel()
-     */
-    private void clearKilledEnemies() {
-        killedEnemies = Collections.synchronizedList(new ArrayList<Enemy>());
-        killedEnemies.clear();
+        recordedInput = new RecordingInputSource(this::isKeyPressed);
+        simulation = new GameSimulation(recordedInput, canvasController.getCanvas().getHeight());
+        simulation.setMetrics(metrics);
+        metricsOverlay = new MetricsOverlay(canvasController);
+        simulation.setListener(new SimulationListener() {
+            @Override
+            public void enemyKilled(Enemy enemy) {
+                score.set(score.get() + 1); // we get a score if an enemy dies.
+            }
+
+            @Override
+            public void playerDied() {
+                killPlayer();
+            }
+
+            @Override
+            public void levelWon() {
+                winGame();
+            }
+        });
     }
 
     /**
@@ -267,21 +280,21 @@ public class GameLoop {
         score.set(score.get());
         lives.set(lives.get());
 
+        closeStreamer();
         if (!liveLoad && !(packPath == null || levelName == null)) {
-            currentLevel = GamePackFactory.getLevel(packPath, levelName);
+            streamer = GamePackFactory.streamLevel(packPath, levelName);
+            currentLevel = streamer.getLevel();
         }
 
-        // Reset input and player velocity
-        currentLevel.getPlayer().setVelocity(0, 0);
+        // Reset input, the simulation resets the player velocity
         keyEventHandler.getCurrentlyActiveKeys().clear();
+        simulation.start(currentLevel);
+        startRecording();
 
         renderer.setCurrentLevel(currentLevel);
 
-        clearKilledEnemies();
-
-        plr = currentLevel.getPlayer();
-
         resetCamToPlayer();
+        streamAroundPlayer();
     }
 
     /**
@@ -291,40 +304,53 @@ public class GameLoop {
      *
      * @param liveLoad setCurrentLevel() must be called before (important for
      *                 Editor)
-     * @see TimedLoop#runInnerLoop(double, boolean)
+     * @see TimedLoop#tick(double)
+     * @see TimedLoop#render(double, boolean)
      */
     public void run(boolean liveLoad) throws IOException, InvalidLevelConfiguration {
         preRunSetup(liveLoad);
+        startLoop();
+    }
 
-        loop = new TimedLoop() {
+    /**
+     * <p>
+     * Creates and starts a new TimedLoop for the current level.
+     * </p>
+     */
+    private void startLoop() {
+        loop = new TimedLoop(metrics) {
             @Override
-            public void runInnerLoop(double lastFrameTime, boolean secHappend) {
+            public void tick(double tickDuration) {
                 try {
+                    canvasController.storeCamOffset();
 
-                    if (!warmUp) { // once warmup's over we run the game as usual
-                        delta = DELTA_MULTIPLIER * lastFrameTime;
-                    } else {
-                        // no movement until warmup / stabilization of framerate
-                        delta = 0;
-                        lastFrameTime = 0;
-                    }
-
-                    movableEntitiesTick(lastFrameTime);
+                    // no movement until warmup / stabilization of framerate
+                    recordedInput.capture(warmUp);
+                    streamAroundPlayer();
+                    simulation.tick(warmUp ? 0 : tickDuration);
+                    scrollCamera();
+                } catch (InvalidLevelConfiguration e) {
+                    exitOnInvalidConfiguration();
+                }
+            }
 
-                    renderer.render();
+            @Override
+            public void render(double alpha, boolean secHappend) {
+                try {
+                    renderer.render(alpha);
+                    metrics.record(Metric.ENTITY_COUNT, renderer.getDrawnEntityCount());
+                    toggleOverlayIfPressed();
+                    metricsOverlay.draw();
 
                     if (secHappend) {
-                        handleFallenEntities();
+                        publishMetrics();
                         if (warmUp) {
                             prepCamOffset();
                         }
                         warmUp = false; // warmup done after a second
                     }
-
                 } catch (InvalidLevelConfiguration e) {
-                    LOGGER.log(SEVERE, "Game pack configuration was invalid (Player). Exiting.");
-                    stop();
-                    Platform.exit();
+                    exitOnInvalidConfiguration();
                 }
             }
         };
@@ -334,396 +360,128 @@ public class GameLoop {
 
     /**
      * <p>
-     * All the movement regarding the player, enemies and scrolling around him
-     * happens here.
+     * Shows or hides the metrics overlay when its key was pressed.
      * </p>
-     *
-     * @param lastFrameTime
-     * @throws InvalidLevelConfiguration
      */
-    private void movableEntitiesTick(double lastFrameTime) throws InvalidLevelConfiguration {
-        // bool to know whether it's time to cycle the player walk animation!
-        boolean cycleWalkAnim = plr.tickWalkAnimations(lastFrameTime);
-
-        plr.setGravity(Math.min(10.0 * lastFrameTime, 1));
-        for (Enemy e : currentLevel.getEnemyList().values()) {
-            e.setGravity(Math.min(10.0 * lastFrameTime, 1));
-            boolean cycle = e.tickWalkAnimations(lastFrameTime);
-            if (cycle) {
-                e.getNextImage(Animation.WALK);
-            }
-        }
-
-        checkForCollision(plr);
-
-        for (Enemy e : currentLevel.getEnemyList().values()) {
-            e.setVelocity(e.getWalkDirection() == Direction.LEFT ? -Math.min(delta / 2, DELTA_CAP)
-                    : Math.min(delta / 2, DELTA_CAP), e.getVelocity().getY());
-            e.setFlipped(e.getWalkDirection() != Direction.LEFT);
-
-            checkForCollision(e);
-
-            if (cycleWalkAnim) {
-                plr.getNextImage(Animation.WALK);
-            }
-        }
-
-        handleKeyPresses(cycleWalkAnim);
-
-        // Scroll right
-        if (plr.getPosition().getX() + canvasController.getCamOffset().getX() >= scrollRightBorder) {
-            canvasController.moveCamera(Math.min(delta, DELTA_CAP));
-        }
-        // Scroll left
-        if (plr.getPosition().getX() + canvasController.getCamOffset().getX() <= scrollLeftBorder) {
-            canvasController.moveCamera(-Math.min(delta, DELTA_CAP));
+    private void toggleOverlayIfPressed() {
+        boolean pressed = isKeyPressed(KeyBindings.METRICS_OVERLAY);
+        if (pressed && !overlayTogglePressed) {
+            metricsOverlay.toggle();
         }
+        overlayTogglePressed = pressed;
     }
 
     /**
      * <p>
-     * Handle what happens when certain keys are pressed, for movements and so on.
+     * Hands the metrics of the last second to the overlay and the export, then
+     * starts collecting them over again.
      * </p>
-     * 
-     * @throws InvalidLevelConfiguration
      */
-    private void handleKeyPresses(boolean cycleWalkAnim) throws InvalidLevelConfiguration {
-        // Jump
-        if (plr.isOnGround()) {
-            if (isKeyPressed(KeyBindings.JUMP)) {
-                plr.jump();
-                // set jump animation
-                plr.setOnGround(false);
-
-            } else if (plr.getVelocity().getY() > 0) {
-                plr.setOnGround(true);
-                plr.setColliding(false);
-            } else {
-                if (cycleWalkAnim) {
-                    plr.getNextImage(Animation.WALK);
-                }
-            }
-        } else {
-            plr.getNextImage(Animation.JUMP);
-        }
+    private void publishMetrics() {
+        MetricsSnapshot snapshot = metrics.snapshotAndReset();
+        metricsOverlay.update(snapshot);
+        LOGGER.log(FINE, snapshot::toString);
 
-        // Speed boost
-        if (isKeyPressed(KeyBindings.RUN)) {
-            delta *= 2;
-            plr.setWalkStyle(true);
-        } else {
-            plr.setWalkStyle(false);
+        String file = System.getProperty(MetricsExporter.FILE_PROPERTY);
+        if (file == null) {
+            return;
         }
-
-        if (isKeyPressed(KeyBindings.WALK_RIGHT)) {
-            // Right
-            plr.setFlipped(true);
-            plr.setVelocity(delta, plr.getVelocity().getY());
-            if (plr.isOnGround() && cycleWalkAnim) {
-                plr.getNextImage(Animation.WALK);
-            }
-        } else if (isKeyPressed(KeyBindings.WALK_LEFT)) {
-            // Left
-            plr.setFlipped(false);
-            plr.setVelocity(-delta, plr.getVelocity().getY());
-            if (plr.isOnGround() && cycleWalkAnim) {
-                plr.getNextImage(Animation.WALK);
-            }
-        } else {
-            plr.setVelocity(0, plr.getVelocity().getY());
-            if (plr.isOnGround()) {
-                plr.getNextImage(Animation.IDLE);
+        try {
+            if (metricsExporter == null) {
+                metricsExporter = MetricsExporter.toFile(Paths.get(file));
             }
+            metricsExporter.export(snapshot);
+        } catch (IOException e) {
+            LOGGER.log(WARNING, String.format("Couldn't export the metrics to <%s>", file), e);
+            closeMetricsExporter();
         }
     }
 
     /**
      * <p>
-     * Checks if a key is pressed.
+     * Closes the metrics export, the next second opens it again.
      * </p>
-     *
-     * @param keyBindings Enum object containing an array of applicable KeyCodes.
-     * @return True if key was pressed, false if it wasn't.
      */
-    private boolean isKeyPressed(KeyBindings keyBindings) {
-        for (KeyCode keyCode : keyBindings.getKeyCodes()) {
-            if (keyEventHandler.getCurrentlyActiveKeys().contains(keyCode)) {
-                return true;
-            }
+    private void closeMetricsExporter() {
+        if (metricsExporter == null) {
+            return;
         }
-        return false;
+        try {
+            metricsExporter.close();
+        } catch (IOException e) {
+            LOGGER.log(WARNING, "Couldn't close the metrics export", e);
+        }
+        metricsExporter = null;
     }
 
     /**
      * <p>
-     * Reference: This method very roughly is based upon the following source:
-     * <a href=
-     * "https://github.com/OneLoneCoder/videos/blob/master/OneLoneCoder_PlatformGame1.cpp#L219">OneLoneCoder
-     * Platformer example</a>
+     * Stops the game in case of an invalid game pack, there is no way to recover.
      * </p>
-     *
-     * @throws InvalidLevelConfiguration
      */
-    private void checkForCollision(MovingEntity subject) throws InvalidLevelConfiguration {
-        Direction collisionX = Direction.NONE;
-        Direction collisionY = Direction.NONE;
-
-        // Map with collidables contains entities which can be collided with
-        // Providing a Position gives you the entity which occupies that place
-        // (clamped to 32x32).
-        // The map contains the enemies, blocks, and the player itself.
-        Map<Position, Entity> mapWithCollidables = new ConcurrentHashMap<>();
-        for (Entity ent : currentLevel.getBlockList().values()) {
-            if (ent.getProperties().isSolid() || ent.getProperties().getBehavior() == Behavior.WIN) {
-                mapWithCollidables.put(ent.getPosition(), ent);
-            }
-        }
-        for (Enemy e : currentLevel.getEnemyList().values()) {
-            mapWithCollidables.put(e.getPosition().clamp(), e);
-        }
-        mapWithCollidables.put(plr.getPosition().clamp(), plr);
-        // End: filling up mapWithCollidables
-
-        Entity[] collEnts = getBlockAtPosOfPlr(mapWithCollidables, subject);
-
-        // entity we collided with, can of course be air, so no block at all, thus
-        // optional:
-        Optional<Entity> target = Optional.empty();
-
-        // Here we get the theoretical next position and bounding box after the
-        // next tick.
-        Rectangle newSubjectRect = subject.getBoundingBoxAfterTick();
-
-        if (subject.getVelocity().getY() < 0) { // jumping (v.y < 0)
-            // Entities 0 1 2
-            for (int i = 0; i <= 2; i++) {
-                if (collEnts[i] != null && collEnts[i].getBoundingBox().intersects(newSubjectRect.getBoundsInLocal())) {
-                    // Collides with block i after tick!
-                    collisionY = Direction.UP;
-                    target = Optional.of(collEnts[i]);
-                    break;
-                }
-            }
-        } else if (subject.getVelocity().getY() > 0) { // falling (v.y > 0)
-            // Entities 5 6 7
-            for (int i = 5; i <= 7; i++) {
-                if (collEnts[i] != null && collEnts[i].getBoundingBox().intersects(newSubjectRect.getBoundsInLocal())) {
-                    // Collides with block i after tick!
-                    collisionY = Direction.DOWN;
-                    target = Optional.of(collEnts[i]);
-                    break;
-                }
-            }
-        }
-
-        if (subject.getVelocity().getX() < 0) { // left (v.x < 0)
-            // Entities 8-9
-            for (int i = 8; i <= 9; i++) {
-                if (collEnts[i] != null && collEnts[i].getBoundingBox().intersects(newSubjectRect.getBoundsInLocal())) {
-                    // Collides with block i after tick!
-                    collisionX = Direction.LEFT;
-                    target = Optional.of(collEnts[i]);
-                    break;
-                }
-            }
-        } else if (subject.getVelocity().getX() > 0) { // right (v.x > 0)
-            // Entities 3-4
-            for (int i = 3; i <= 4; i++) {
-                if (collEnts[i] != null && collEnts[i].getBoundingBox().intersects(newSubjectRect.getBoundsInLocal())) {
-                    // Collides with block i after tick!
-                    collisionX = Direction.RIGHT;
-                    target = Optional.of(collEnts[i]);
-                    break;
-                }
-            }
-        }
-
-        handleCollisionResult(subject, target, collisionX, collisionY);
+    private void exitOnInvalidConfiguration() {
+        LOGGER.log(SEVERE, "Game pack configuration was invalid (Player). Exiting.");
+        stop();
+        Platform.exit();
     }
 
     /**
      * <p>
-     * We now concretely implement what happens when entities of certain types and
-     * behaviors collide with each other.
+     * Scrolls the camera along with the player.
      * </p>
-     * 
-     * @param subject    From which subject's perspective we see the collision with.
-     * @param target     The thing we're colliding with.
-     * @param collisionX In which direction we're colliding horizontally.
-     * @param collisionY In which direction we're colliding vertically.
-     */
-    private void handleCollisionResult(MovingEntity subject, Optional<Entity> target, Direction collisionX,
-            Direction collisionY) {
-        if (target.isEmpty()) { // if we collided with any entity
-            subject.tick(collisionX, collisionY);
-            return;
-        }
+     */
+    private void scrollCamera() {
+        Player plr = currentLevel.getPlayer();
+        double delta = simulation.getDelta();
 
-        if (!target.get().getProperties().isSolid()) {
-            // no collision when not solid, such as clouds
-            collisionY = Direction.NONE;
-            collisionX = Direction.NONE;
+        // Scroll right
+        if (plr.getPosition().getX() + canvasController.getCamOffset().getX() >= scrollRightBorder) {
+            canvasController.moveCamera(Math.min(delta, GameSimulation.DELTA_CAP));
         }
-
-        Behavior targetBehavior = target.get().getProperties().getBehavior();
-
-        switch (targetBehavior) {
-            case STATIC:
-                subject.tick(collisionX, collisionY);
-                break;
-            case PLAYABLE: // using fallthrough
-            case GENERICENEMY:
-                handleCollisionWithEnemy(subject, target, collisionX, collisionY);
-                break;
-            case DAMAGE:
-                handleDamageBlocks(subject, collisionY);
-                break;
-            case WIN:
-                if (!winGame(subject)) {
-                    // Someone who can't win the level hit the winning block, so
-                    // just treat collision normally:
-                    subject.tick(collisionX, collisionY);
-                }
-                break;
-            default:
-                // no-op: presumably unset or unimplemented behavior upon collision
-                LOGGER.log(java.util.logging.Level.FINE,
-                        () -> String.format("Collision of type %s is not yet implemented.", targetBehavior.name()));
-                break;
+        // Scroll left
+        if (plr.getPosition().getX() + canvasController.getCamOffset().getX() <= scrollLeftBorder) {
+            canvasController.moveCamera(-Math.min(delta, GameSimulation.DELTA_CAP));
         }
     }
 
     /**
      * <p>
-     * Here we define what happens when the enemy falls on a spike or bonks an enemy
-     * on the head.
+     * Loads the part of the level around the player before the tick, as
+     * {@link InputReplay} does. Only the chunk of the player is waited for, so a
+     * recorded run replays exactly as long as the chunks next to it were loaded
+     * in time.
      * </p>
-     * 
-     * @param subject    From which subject's perspective we see the collision with.
-     * @param collisionY In which direction we're colliding vertically.
+     *
+     * @throws InvalidLevelConfiguration If a part of the level couldn't be loaded.
      */
-    private void handleDamageBlocks(MovingEntity subject, Direction collisionY) {
-        if (collisionY == Direction.DOWN) {
-            if (subject.getEntityType() == EntityType.ENEMY) {
-                handleKillEnemy(subject);
-            }
-            if (subject.getEntityType() == EntityType.PLAYER) {
-                killPlayer();
-            }
-        }
-    }
-
-    /**
-     * <p>
-     * What happens when we run into an enemy (either as player or enemy.
-     * </p>
-     * 
-     * @param subject    From which subject's perspective we see the collision with.
-     * @param target     The thing we're colliding with.
-     * @param collisionX In which direction we're colliding horizontally.
-     * @param collisionY In which direction we're colliding vertically.
-     */
-    private void handleCollisionWithEnemy(MovingEntity subject, Optional<Entity> target, Direction collisionX,
-            Direction collisionY) {
-        if (target.isEmpty()) {
-            return;
-        }
-
-        // if collision on top -> we bonked / killed enemy
-        if (collisionY == Direction.DOWN && collisionX == Direction.NONE) {
-            handleKillEnemy(target.get());
-            subject.jump();
-        }
-        if (subject.getEntityType() == EntityType.PLAYER) {
-            if (collisionY == Direction.LEFT || collisionX == Direction.RIGHT) {
-                // Player runs into enemy
-                killPlayer();
-            }
-        } else if (subject.getEntityType() == EntityType.ENEMY) {
-            Entity tgt = target.get();
-            if (tgt.getEntityType() == EntityType.ENEMY) {
-                // Enemy walks into enemy
-                subject.setWalkDirection(
-                        subject.getWalkDirection() == Direction.LEFT ? Direction.RIGHT : Direction.LEFT);
-            }
-            if (tgt.getEntityType() == EntityType.PLAYER) {
-                // Enemy runs into player
-                killPlayer();
-            }
+    private void streamAroundPlayer() throws InvalidLevelConfiguration {
+        if (streamer != null) {
+            streamer.updateAround(currentLevel.getPlayer().getPosition().getX());
         }
     }
 
     /**
      * <p>
-     * Kill enemy from the level. Stores it in the killed enemy array to be restored
-     * later if the same level.
+     * Stops loading the current level in the background.
      * </p>
-     * 
-     * @param enemy The enemy to be freaking killed.
-     */
-    private void handleKillEnemy(Entity enemy) {
-        Iterator<Enemy> iter = currentLevel.getEnemyList().values().iterator();
-        while (iter.hasNext()) {
-            Enemy e = iter.next();
-            if (enemy == e) {
-                killedEnemies.add(e);
-                iter.remove();
-                score.set(score.get() + 1); // we get a score if an enemy dies.
-            }
+     */
+    private void closeStreamer() {
+        if (streamer != null) {
+            streamer.close();
+            streamer = null;
         }
     }
 
     /**
      * <p>
-     * Returns an array of entities around the Player P like so:
-     * </p>
-     * 
-     * <pre>
-     * <code>
-     *      0_1_2
-     *      9_P_3
-     *      8_P_4
-     *      7_6_5
-     * </code>
-     * </pre>
-     * <p>
-     * They don't necessarily collide! Needs to be checked later on.
+     * Checks if a key is pressed.
      * </p>
+     *
+     * @param keyBindings Enum object containing an array of applicable KeyCodes.
+     * @return True if key was pressed, false if it wasn't.
      */
-    private Entity[] getBlockAtPosOfPlr(Map<Position, Entity> map, Entity subject) {
-        double x = subject.getPosition().getX();
-        double y = subject.getPosition().getY();
-
-        Entity[] blks = new Entity[MOVING_ENTITY_SURROUNDING_BLOCK_COUNT];
-        Position[] blksPos = new Position[MOVING_ENTITY_SURROUNDING_BLOCK_COUNT];
-        Position topL = new Position(x - (x % BLOCK_SIZE), y - (y % BLOCK_SIZE));
-        Position topR = new Position((x + BLOCK_SIZE) - (x % BLOCK_SIZE), topL.getY());
-        Position midL = new Position(topL.getX(), topL.getY() + BLOCK_SIZE);
-        Position midR = new Position(topR.getX(), topR.getY() + BLOCK_SIZE);
-        Position btmL = new Position(topL.getX(), topL.getY() + BLOCK_SIZE * 2);
-        Position btmR = new Position(topR.getX(), topR.getY() + BLOCK_SIZE * 2);
-
-        // Block on top of players head: 0 1 2
-        // Blocks on the right of the player: 3 4
-        // Blocks that the player's standing on: 5 6 7
-        // Blocks on the left of the player: 8 9
-
-        blksPos[0] = new Position(topL.getX() - BLOCK_SIZE, topL.getY() - BLOCK_SIZE);
-        blksPos[1] = new Position(topL.getX(), topL.getY() - BLOCK_SIZE);
-        blksPos[2] = new Position(topL.getX() + BLOCK_SIZE, topL.getY() - BLOCK_SIZE);
-        blksPos[3] = new Position(topR.getX(), topR.getY());
-        blksPos[4] = new Position(midR.getX(), midR.getY());
-        blksPos[5] = new Position(btmR.getX(), btmR.getY());
-        blksPos[6] = new Position(btmL.getX(), btmL.getY());
-        blksPos[7] = new Position(btmL.getX() - BLOCK_SIZE, btmL.getY());
-        blksPos[8] = new Position(midL.getX() - BLOCK_SIZE, midL.getY());
-        blksPos[9] = new Position(topL.getX() - BLOCK_SIZE, topL.getY());
-
-        for (int i = 0; i < MOVING_ENTITY_SURROUNDING_BLOCK_COUNT; i++) {
-            blks[i] = map.get(blksPos[i]);
-        }
-
-        return blks;
+    private boolean isKeyPressed(KeyBindings keyBindings) {
+        return keyBindings.isActive(keyEventHandler.getCurrentlyActiveKeys());
     }
 
     /**
@@ -748,26 +506,30 @@ public class GameLoop {
     }
 
     /**
-     * Resets the game state with the same level over again
+     * Resets the game state with the same level over again. The level is reset
+     * from the snapshot the simulation took at the start, so nothing is loaded
+     * from the game pack again.
      * 
      * @throws IOException
      * @throws InvalidLevelConfiguration
      */
     public void restartLevel() throws IOException, InvalidLevelConfiguration {
-        stop();
-        clearKilledEnemies();
-        resetEnemiesAndPlayerToSpawnPosition();
-        run(false);
+        recordedInput.markRestart();
+        simulation.reset();
+        restart();
     }
 
     /**
-     * Resets all enemies to their original spawn position.
+     * Restarts the loop on the level as it is. The simulation has to be reset
+     * already, it does so by itself when the player dies.
      */
-    private void resetEnemiesAndPlayerToSpawnPosition() {
-        for (Enemy enemy : currentLevel.getEnemyList().values()) {
-            enemy.setPosition(enemy.getSpawnPosition());
-        }
-        plr.setPosition(plr.getSpawnPosition());
+    private void restart() {
+        loop.stop();
+
+        warmUp = true;
+        keyEventHandler.getCurrentlyActiveKeys().clear();
+        resetCamToPlayer();
+        startLoop();
     }
 
     /**
@@ -776,7 +538,7 @@ public class GameLoop {
      * </p>
      */
     private void resetCamToPlayer() {
-        canvasController.setCamOffset(plr.getPosition().getX(), DEFAULT_Y_OFFSET);
+        canvasController.setCamOffset(currentLevel.getPlayer().getPosition().getX(), DEFAULT_Y_OFFSET);
     }
 
     /**
@@ -786,8 +548,53 @@ public class GameLoop {
      */
     public void stop() {
         loop.stop();
-        currentLevel.restoreEnemies(killedEnemies);
-        killedEnemies.clear();
+        simulation.stop();
+        closeStreamer();
+        closeMetricsExporter();
+        saveRecording();
+    }
+
+    /**
+     * <p>
+     * Starts a new input recording for the current level.
+     * </p>
+     */
+    private void startRecording() {
+        InputRecording recording = new InputRecording(packPath, currentLevel.getLevelName(), 0,
+                canvasController.getCanvas().getHeight());
+        recordedInput.setRecording(recording);
+
+        String directory = System.getProperty(RECORDING_DIRECTORY_PROPERTY);
+        recordingFile = directory == null ? null
+                : Paths.get(directory, String.format(RECORDING_FILE_NAME, currentLevel.getLevelName(),
+                        LocalDateTime.now().format(RECORDING_TIME_FORMAT)));
+    }
+
+    /**
+     * <p>
+     * Saves the input recorded so far, a later save of the same run overwrites it.
+     * </p>
+     */
+    private void saveRecording() {
+        InputRecording recording = recordedInput.getRecording();
+        if (recordingFile == null || recording == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(recordingFile.toAbsolutePath().getParent());
+            try (OutputStream output = Files.newOutputStream(recordingFile)) {
+                recording.writeTo(output);
+            }
+        } catch (IOException e) {
+            LOGGER.log(WARNING, String.format("Couldn't save the input recording to <%s>", recordingFile), e);
+        }
+    }
+
+    /**
+     * @return the input recorded since the level was started
+     */
+    public InputRecording getInputRecording() {
+        return recordedInput.getRecording();
     }
 
     /**
@@ -820,59 +627,30 @@ public class GameLoop {
     }
 
     /**
-     * <p>
-     * Handle what happens when enemies or the player falls outside of the canvas
-     * (falls off).
-     * </p>
+     * @return the timings of the frames, ticks and collisions
      */
-    private void handleFallenEntities() {
-        // First for Enemies
-        Iterator<Enemy> iter = currentLevel.getEnemyList().values().iterator();
-        while (iter.hasNext()) {
-            Enemy e = iter.next();
-            if (e.getPosition().getY() > canvasController.getCanvas().getHeight()) {
-                killedEnemies.add(e);
-                iter.remove();
-            }
-        }
-
-        // Then for the player
-        if (plr.getPosition().getY() > canvasController.getCanvas().getHeight()) {
-            killPlayer();
-        }
+    public FrameMetrics getMetrics() {
+        return metrics;
     }
 
     /**
      * <p>
-     * Subtracts a life from the player and makes the player dead (can't play
-     * anymore).
+     * Subtracts a life from the player and restarts the level.
      * </p>
      */
     private void killPlayer() {
         lives.set(lives.get() - 1);
-        try {
-            restartLevel();
-        } catch (IOException | InvalidLevelConfiguration e) {
-            MessageHandler.createErrorWindow(e.getMessage());
-        }
+        restart();
     }
 
     /**
      * <p>
      * Stops gameloop and messages GameController.
      * </p>
-     * 
-     * @return Was the level won by a valid entity (player, and not enemy?
-     */
-    private boolean winGame(MovingEntity movingEntity) {
-        // Logically, only a player can win the game, otherwise enemies could run into
-        // the flag and win the game
-        if (movingEntity.getEntityType() == EntityType.PLAYER) {
-            levelWasWon.set(true);
-            stop();
-            return true;
-        }
-        return false;
+     */
+    private void winGame() {
+        levelWasWon.set(true);
+        stop();
     }
 
     /**
@@ -881,7 +659,7 @@ public class GameLoop {
      * </p>
      */
     private void prepCamOffset() {
-        double x = plr.getPosition().getX() - scrollLeftBorder;
+        double x = currentLevel.getPlayer().getPosition().getX() - scrollLeftBorder;
         canvasController.setCamOffset(-x, 0);
     }
 
@@ -0,0 +1,744 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+import ch.zhaw.pm3.teamretro.gamepack.CollisionGrid;
+import ch.zhaw.pm3.teamretro.gamepack.InvalidLevelConfiguration;
+import ch.zhaw.pm3.teamretro.gamepack.Level;
+import ch.zhaw.pm3.teamretro.gamepack.LevelSnapshot;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Direction;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Enemy;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.EntityType;
+import ch.zhaw.pm3.teamretro.gamepack.entity.MovingEntity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Player;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Animation;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Behavior;
+import ch.zhaw.pm3.teamretro.jfr.CollisionEvent;
+import ch.zhaw.pm3.teamretro.jfr.FlightRecording;
+
+/**
+ * The gameplay of the game: physics, collisions, input handling and the rules
+ * of when an enemy or the player dies and when a level is won. It doesn't know
+ * anything about rendering or timing, the {@link GameLoop} drives it in the
+ * running game, while tests and benchmarks can run it headless.
+ */
+public class GameSimulation implements Simulation {
+
+    /**
+     * Logger instance.
+     */
+    private static final Logger LOGGER = Logger.getLogger(GameSimulation.class.getName());
+
+    /**
+     * In collision detection, we define the amount of blocks around the player we
+     * want to check.
+     */
+    private static final int MOVING_ENTITY_SURROUNDING_BLOCK_COUNT = 10;
+
+    /**
+     * Important to stop the game from spazzing out right after starting the
+     * application
+     */
+    static final double DELTA_CAP = 100;
+
+    /**
+     * By how much the delta time is multiplied each frame. Effectively defines the
+     * game speed.
+     */
+    private static final double DELTA_MULTIPLIER = 150;
+
+    /**
+     * Used when nobody is interested in the events of the simulation.
+     */
+    private static final SimulationListener NO_LISTENER = new SimulationListener() {
+    };
+
+    /**
+     * Where the player input comes from.
+     */
+    private final InputSource input;
+
+    /**
+     * Entities falling below this y coordinate die.
+     */
+    private final double fallLimit;
+
+    /**
+     * Reused buffer for the entities surrounding the entity currently checked for
+     * collisions.
+     * 
+     * @see GameSimulation#getBlockAtPosOfPlr(Entity)
+     */
+    private final Entity[] surroundingEntities = new Entity[MOVING_ENTITY_SURROUNDING_BLOCK_COUNT];
+
+    /**
+     * Reused buffer for the enemies alive at the start of the current tick. The
+     * enemies may be killed while they are walked, so the living enemies of the
+     * level are copied first. The slot of an enemy killed during the tick is
+     * cleared.
+     */
+    private Enemy[] enemyBuffer = new Enemy[0];
+
+    /**
+     * The amount of enemies copied into the enemy buffer.
+     */
+    private int bufferedEnemies = 0;
+
+    /**
+     * <p>
+     * List of currently killed enemies during runtime. The idea to restore them
+     * when we restart the level
+     * </p>
+     * 
+     * @see Level#restoreEnemies(List)
+     */
+    private final List<Enemy> killedEnemies = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Gets notified about deaths and wins.
+     */
+    private SimulationListener listener = NO_LISTENER;
+
+    /**
+     * The level currently simulated.
+     */
+    private Level currentLevel;
+
+    /**
+     * Reference of the Player object of the current level.
+     */
+    private Player plr;
+
+    /**
+     * The state of the level when the simulation was started, a reset goes back to
+     * it.
+     */
+    private LevelSnapshot snapshot;
+
+    /**
+     * <p>
+     * Delta for any kind of movement on screen
+     * </p>
+     * 
+     * @see <a href="https://en.wikipedia.org/wiki/Delta_timing">Delta Timing</a>
+     */
+    private double delta;
+
+    /**
+     * Whether the simulation is running. It stops once the level was won.
+     */
+    private boolean running;
+
+    /**
+     * Where the collision time of every tick is recorded, null if it's not
+     * measured.
+     */
+    private FrameMetrics metrics;
+
+    /**
+     * Time [nanoseconds] spent on detecting collisions during the current tick.
+     */
+    private long collisionTime;
+
+    /**
+     * Set when the current tick must not continue, because the level was reset or
+     * won in the middle of it.
+     */
+    private boolean interrupted;
+
+    /**
+     * Creates a new simulation.
+     *
+     * @param input     where the player input comes from
+     * @param fallLimit entities falling below this y coordinate die
+     */
+    public GameSimulation(InputSource input, double fallLimit) {
+        this.input = input;
+        this.fallLimit = fallLimit;
+    }
+
+    /**
+     * @param listener gets notified about deaths and wins, null to remove it
+     */
+    public void setListener(SimulationListener listener) {
+        this.listener = listener == null ? NO_LISTENER : listener;
+    }
+
+    /**
+     * @param metrics where the collision time of every tick is recorded, null to
+     *                stop measuring it
+     */
+    public void setMetrics(FrameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void start(Level level) {
+        currentLevel = level;
+        plr = level.getPlayer();
+        plr.setVelocity(0, 0);
+        plr.storePreviousPosition();
+        for (Enemy enemy : level.getLivingEnemies()) {
+            enemy.storePreviousPosition();
+        }
+        killedEnemies.clear();
+        snapshot = level.createSnapshot();
+        delta = 0;
+        running = true;
+    }
+
+    @Override
+    public void tick(double frameTime) throws InvalidLevelConfiguration {
+        if (!running) {
+            return;
+        }
+        interrupted = false;
+        delta = DELTA_MULTIPLIER * frameTime;
+        collisionTime = 0;
+
+        movableEntitiesTick(frameTime);
+        if (!interrupted) {
+            handleFallenEntities();
+        }
+        if (isMeasuring()) {
+            metrics.record(Metric.COLLISION_TIME, collisionTime);
+        }
+    }
+
+    /**
+     * @return whether the collision time is measured
+     */
+    private boolean isMeasuring() {
+        return metrics != null && metrics.isEnabled();
+    }
+
+    @Override
+    public void reset() {
+        // the snapshot brings back the killed enemies as well
+        killedEnemies.clear();
+        currentLevel.restoreSnapshot(snapshot);
+        delta = 0;
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (currentLevel != null) {
+            currentLevel.restoreEnemies(killedEnemies);
+        }
+        killedEnemies.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public Level getLevel() {
+        return currentLevel;
+    }
+
+    /**
+     * @return the movement delta of the last tick, doubled if the player ran
+     */
+    public double getDelta() {
+        return delta;
+    }
+
+    /**
+     * <p>
+     * All the movement regarding the player and the enemies happens here.
+     * </p>
+     *
+     * @param lastFrameTime
+     * @throws InvalidLevelConfiguration
+     */
+    private void movableEntitiesTick(double lastFrameTime) throws InvalidLevelConfiguration {
+        // positions may have been reset from outside since the last tick
+        currentLevel.getCollisionGrid().refreshDynamic();
+
+        int enemyCount = bufferLivingEnemies();
+
+        plr.storePreviousPosition();
+        for (int i = 0; i < enemyCount; i++) {
+            enemyBuffer[i].storePreviousPosition();
+        }
+
+        // bool to know whether it's time to cycle the player walk animation!
+        boolean cycleWalkAnim = plr.tickWalkAnimations(lastFrameTime);
+
+        plr.setGravity(Math.min(10.0 * lastFrameTime, 1));
+        for (int i = 0; i < enemyCount; i++) {
+            Enemy e = enemyBuffer[i];
+            e.setGravity(Math.min(10.0 * lastFrameTime, 1));
+            boolean cycle = e.tickWalkAnimations(lastFrameTime);
+            if (cycle) {
+                e.getNextImage(Animation.WALK);
+            }
+        }
+
+        checkForCollision(plr);
+        if (interrupted) {
+            return;
+        }
+
+        for (int i = 0; i < enemyCount; i++) {
+            Enemy e = enemyBuffer[i];
+            if (e == null) {
+                // killed earlier in this tick
+                continue;
+            }
+            e.setVelocity(e.getWalkDirection() == Direction.LEFT ? -Math.min(delta / 2, DELTA_CAP)
+                    : Math.min(delta / 2, DELTA_CAP), e.getVelocity().getY());
+            e.setFlipped(e.getWalkDirection() != Direction.LEFT);
+
+            checkForCollision(e);
+            if (interrupted) {
+                return;
+            }
+
+            if (cycleWalkAnim) {
+                plr.getNextImage(Animation.WALK);
+            }
+        }
+
+        handleKeyPresses(cycleWalkAnim);
+    }
+
+    /**
+     * <p>
+     * Handle what happens when certain keys are pressed, for movements and so on.
+     * </p>
+     * 
+     * @throws InvalidLevelConfiguration
+     */
+    private void handleKeyPresses(boolean cycleWalkAnim) throws InvalidLevelConfiguration {
+        // Jump
+        if (plr.isOnGround()) {
+            if (input.isPressed(KeyBindings.JUMP)) {
+                plr.jump();
+                // set jump animation
+                plr.setOnGround(false);
+
+            } else if (plr.getVelocity().getY() > 0) {
+                plr.setOnGround(true);
+                plr.setColliding(false);
+            } else {
+                if (cycleWalkAnim) {
+                    plr.getNextImage(Animation.WALK);
+                }
+            }
+        } else {
+            plr.getNextImage(Animation.JUMP);
+        }
+
+        // Speed boost
+        if (input.isPressed(KeyBindings.RUN)) {
+            delta *= 2;
+            plr.setWalkStyle(true);
+        } else {
+            plr.setWalkStyle(false);
+        }
+
+        if (input.isPressed(KeyBindings.WALK_RIGHT)) {
+            // Right
+            plr.setFlipped(true);
+            plr.setVelocity(delta, plr.getVelocity().getY());
+            if (plr.isOnGround() && cycleWalkAnim) {
+                plr.getNextImage(Animation.WALK);
+            }
+        } else if (input.isPressed(KeyBindings.WALK_LEFT)) {
+            // Left
+            plr.setFlipped(false);
+            plr.setVelocity(-delta, plr.getVelocity().getY());
+            if (plr.isOnGround() && cycleWalkAnim) {
+                plr.getNextImage(Animation.WALK);
+            }
+        } else {
+            plr.setVelocity(0, plr.getVelocity().getY());
+            if (plr.isOnGround()) {
+                plr.getNextImage(Animation.IDLE);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Reference: This method very roughly is based upon the following source:
+     * <a href=
+     * "https://github.com/OneLoneCoder/videos/blob/master/OneLoneCoder_PlatformGame1.cpp#L219">OneLoneCoder
+     * Platformer example</a>
+     * </p>
+     *
+     * @throws InvalidLevelConfiguration
+     */
+    private void checkForCollision(MovingEntity subject) throws InvalidLevelConfiguration {
+        long start = isMeasuring() ? System.nanoTime() : 0;
+        // only created while recording, so a tick doesn't allocate otherwise
+        CollisionEvent event = FlightRecording.isActive() ? new CollisionEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        Direction collisionX = Direction.NONE;
+        Direction collisionY = Direction.NONE;
+
+        // The collision grid of the level contains the entities which can be
+        // collided with, the enemies, the solid blocks and the player itself.
+        Entity[] collEnts = getBlockAtPosOfPlr(subject);
+
+        // entity we collided with, can of course be air, so no block at all, thus
+        // null in that case
+        Entity target = null;
+
+        // Here we get the theoretical next position and bounding box after the
+        // next tick.
+        subject.updateBoundsAfterTick();
+
+        if (subject.getVelocity().getY() < 0) { // jumping (v.y < 0)
+            // Entities 0 1 2
+            for (int i = 0; i <= 2; i++) {
+                if (collEnts[i] != null && subject.intersectsAfterTick(collEnts[i])) {
+                    // Collides with block i after tick!
+                    collisionY = Direction.UP;
+                    target = collEnts[i];
+                    break;
+                }
+            }
+        } else if (subject.getVelocity().getY() > 0) { // falling (v.y > 0)
+            // Entities 5 6 7
+            for (int i = 5; i <= 7; i++) {
+                if (collEnts[i] != null && subject.intersectsAfterTick(collEnts[i])) {
+                    // Collides with block i after tick!
+                    collisionY = Direction.DOWN;
+                    target = collEnts[i];
+                    break;
+                }
+            }
+        }
+
+        if (subject.getVelocity().getX() < 0) { // left (v.x < 0)
+            // Entities 8-9
+            for (int i = 8; i <= 9; i++) {
+                if (collEnts[i] != null && subject.intersectsAfterTick(collEnts[i])) {
+                    // Collides with block i after tick!
+                    collisionX = Direction.LEFT;
+                    target = collEnts[i];
+                    break;
+                }
+            }
+        } else if (subject.getVelocity().getX() > 0) { // right (v.x > 0)
+            // Entities 3-4
+            for (int i = 3; i <= 4; i++) {
+                if (collEnts[i] != null && subject.intersectsAfterTick(collEnts[i])) {
+                    // Collides with block i after tick!
+                    collisionX = Direction.RIGHT;
+                    target = collEnts[i];
+                    break;
+                }
+            }
+        }
+
+        if (isMeasuring()) {
+            collisionTime += System.nanoTime() - start;
+        }
+        if (event != null) {
+            commitCollisionEvent(event, subject, target, collEnts);
+        }
+        handleCollisionResult(subject, target, collisionX, collisionY);
+        currentLevel.getCollisionGrid().updateDynamic(subject);
+    }
+
+    /**
+     * Fills in the collision event and commits it.
+     *
+     * @param event      the event of the collision check
+     * @param subject    the entity checked for collisions
+     * @param target     the entity collided with, null if there was none
+     * @param candidates the surrounding entities which were checked
+     */
+    private static void commitCollisionEvent(CollisionEvent event, Entity subject, Entity target,
+            Entity[] candidates) {
+        int count = 0;
+        for (Entity candidate : candidates) {
+            if (candidate != null) {
+                count++;
+            }
+        }
+        event.setSubject(subject.getEntityType().name());
+        event.setTarget(target == null ? null : target.getEntityType().name());
+        event.setCandidates(count);
+        event.commit();
+    }
+
+    /**
+     * <p>
+     * We now concretely implement what happens when entities of certain types and
+     * behaviors collide with each other.
+     * </p>
+     * 
+     * @param subject    From which subject's perspective we see the collision with.
+     * @param target     The thing we're colliding with, null for nothing.
+     * @param collisionX In which direction we're colliding horizontally.
+     * @param collisionY In which direction we're colliding vertically.
+     */
+    private void handleCollisionResult(MovingEntity subject, Entity target, Direction collisionX,
+            Direction collisionY) {
+        if (target == null) { // if we didn't collide with any entity
+            subject.tick(collisionX, collisionY);
+            return;
+        }
+
+        if (!target.getProperties().isSolid()) {
+            // no collision when not solid, such as clouds
+            collisionY = Direction.NONE;
+            collisionX = Direction.NONE;
+        }
+
+        Behavior targetBehavior = target.getProperties().getBehavior();
+
+        switch (targetBehavior) {
+            case STATIC:
+                subject.tick(collisionX, collisionY);
+                break;
+            case PLAYABLE: // using fallthrough
+            case GENERICENEMY:
+                handleCollisionWithEnemy(subject, target, collisionX, collisionY);
+                break;
+            case DAMAGE:
+                handleDamageBlocks(subject, collisionY);
+                break;
+            case WIN:
+                if (!winGame(subject)) {
+                    // Someone who can't win the level hit the winning block, so
+                    // just treat collision normally:
+                    subject.tick(collisionX, collisionY);
+                }
+                break;
+            default:
+                // no-op: presumably unset or unimplemented behavior upon collision
+                LOGGER.log(java.util.logging.Level.FINE,
+                        () -> String.format("Collision of type %s is not yet implemented.", targetBehavior.name()));
+                break;
+        }
+    }
+
+    /**
+     * <p>
+     * Here we define what happens when the enemy falls on a spike or bonks an enemy
+     * on the head.
+     * </p>
+     * 
+     * @param subject    From which subject's perspective we see the collision with.
+     * @param collisionY In which direction we're colliding vertically.
+     */
+    private void handleDamageBlocks(MovingEntity subject, Direction collisionY) {
+        if (collisionY == Direction.DOWN) {
+            if (subject.getEntityType() == EntityType.ENEMY) {
+                handleKillEnemy(subject);
+            }
+            if (subject.getEntityType() == EntityType.PLAYER) {
+                killPlayer();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * What happens when we run into an enemy (either as player or enemy.
+     * </p>
+     * 
+     * @param subject    From which subject's perspective we see the collision with.
+     * @param target     The thing we're colliding with.
+     * @param collisionX In which direction we're colliding horizontally.
+     * @param collisionY In which direction we're colliding vertically.
+     */
+    private void handleCollisionWithEnemy(MovingEntity subject, Entity target, Direction collisionX,
+            Direction collisionY) {
+        if (target == null) {
+            return;
+        }
+
+        // if collision on top -> we bonked / killed enemy
+        if (collisionY == Direction.DOWN && collisionX == Direction.NONE) {
+            handleKillEnemy(target);
+            subject.jump();
+        }
+        if (subject.getEntityType() == EntityType.PLAYER) {
+            if (collisionY == Direction.LEFT || collisionX == Direction.RIGHT) {
+                // Player runs into enemy
+                killPlayer();
+            }
+        } else if (subject.getEntityType() == EntityType.ENEMY) {
+            Entity tgt = target;
+            if (tgt.getEntityType() == EntityType.ENEMY) {
+                // Enemy walks into enemy
+                subject.setWalkDirection(
+                        subject.getWalkDirection() == Direction.LEFT ? Direction.RIGHT : Direction.LEFT);
+            }
+            if (tgt.getEntityType() == EntityType.PLAYER) {
+                // Enemy runs into player
+                killPlayer();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Kill enemy from the level. Stores it in the killed enemy array to be restored
+     * later if the same level.
+     * </p>
+     * 
+     * @param enemy The enemy to be freaking killed.
+     */
+    private void handleKillEnemy(Entity enemy) {
+        if (enemy.getEntityType() == EntityType.ENEMY && currentLevel.killEnemy((Enemy) enemy)) {
+            killedEnemies.add((Enemy) enemy);
+            unbufferEnemy((Enemy) enemy);
+            listener.enemyKilled((Enemy) enemy); // we get a score if an enemy dies.
+        }
+    }
+
+    /**
+     * Clears the slot of a killed enemy in the enemy buffer, so it isn't walked
+     * any more during this tick. Enemies are rarely killed, so searching the
+     * buffer here is cheaper than checking every enemy on every tick.
+     *
+     * @param enemy the killed enemy
+     */
+    private void unbufferEnemy(Enemy enemy) {
+        for (int i = 0; i < bufferedEnemies; i++) {
+            if (enemyBuffer[i] == enemy) {
+                enemyBuffer[i] = null;
+                return;
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Returns an array of entities around the Player P like so:
+     * </p>
+     * 
+     * <pre>
+     * <code>
+     *      0_1_2
+     *      9_P_3
+     *      8_P_4
+     *      7_6_5
+     * </code>
+     * </pre>
+     * <p>
+     * They don't necessarily collide! Needs to be checked later on.
+     * </p>
+     * <p>
+     * Attention the returned array is reused for every call.
+     * </p>
+     */
+    private Entity[] getBlockAtPosOfPlr(Entity subject) {
+        CollisionGrid grid = currentLevel.getCollisionGrid();
+        int x = CollisionGrid.toTile(subject.getPosition().getX());
+        int y = CollisionGrid.toTile(subject.getPosition().getY());
+
+        // Block on top of players head: 0 1 2
+        // Blocks on the right of the player: 3 4
+        // Blocks that the player's standing on: 5 6 7
+        // Blocks on the left of the player: 8 9
+
+        surroundingEntities[0] = grid.getEntityAt(x - 1, y - 1);
+        surroundingEntities[1] = grid.getEntityAt(x, y - 1);
+        surroundingEntities[2] = grid.getEntityAt(x + 1, y - 1);
+        surroundingEntities[3] = grid.getEntityAt(x + 1, y);
+        surroundingEntities[4] = grid.getEntityAt(x + 1, y + 1);
+        surroundingEntities[5] = grid.getEntityAt(x + 1, y + 2);
+        surroundingEntities[6] = grid.getEntityAt(x, y + 2);
+        surroundingEntities[7] = grid.getEntityAt(x - 1, y + 2);
+        surroundingEntities[8] = grid.getEntityAt(x - 1, y + 1);
+        surroundingEntities[9] = grid.getEntityAt(x - 1, y);
+
+        return surroundingEntities;
+    }
+
+    /**
+     * Copies the living enemies of the level into the enemy buffer, the buffer
+     * only grows if there are more enemies than ever before. Enemies outside of
+     * the streamed in part of the level are left out, they stay where they are
+     * until the ground below them is loaded.
+     *
+     * @return the amount of enemies in the buffer
+     */
+    private int bufferLivingEnemies() {
+        List<Enemy> livingEnemies = currentLevel.getLivingEnemies();
+        int size = livingEnemies.size();
+        if (enemyBuffer.length < size) {
+            enemyBuffer = Arrays.copyOf(enemyBuffer, size);
+        }
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            Enemy enemy = livingEnemies.get(i);
+            if (currentLevel.isStreamedIn(enemy.getPosition().getX())) {
+                enemyBuffer[count++] = enemy;
+            }
+        }
+        bufferedEnemies = count;
+        return count;
+    }
+
+    /**
+     * <p>
+     * Handle what happens when enemies or the player falls outside of the level
+     * (falls off).
+     * </p>
+     */
+    private void handleFallenEntities() {
+        // First for Enemies
+        int enemyCount = bufferLivingEnemies();
+        for (int i = 0; i < enemyCount; i++) {
+            Enemy e = enemyBuffer[i];
+            if (e.getPosition().getY() > fallLimit && currentLevel.killEnemy(e)) {
+                killedEnemies.add(e);
+            }
+        }
+
+        // Then for the player
+        if (plr.getPosition().getY() > fallLimit) {
+            killPlayer();
+        }
+    }
+
+    /**
+     * <p>
+     * Resets the level and lets the listener know, that the player lost a life.
+     * </p>
+     */
+    private void killPlayer() {
+        reset();
+        interrupted = true;
+        listener.playerDied();
+    }
+
+    /**
+     * <p>
+     * Stops the simulation and lets the listener know about the win.
+     * </p>
+     * 
+     * @return Was the level won by a valid entity (player, and not enemy?
+     */
+    private boolean winGame(MovingEntity movingEntity) {
+        // Logically, only a player can win the game, otherwise enemies could run into
+        // the flag and win the game
+        if (movingEntity.getEntityType() == EntityType.PLAYER) {
+            stop();
+            interrupted = true;
+            listener.levelWon();
+            return true;
+        }
+        return false;
+    }
+}
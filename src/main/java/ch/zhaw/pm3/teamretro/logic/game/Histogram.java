@@ -0,0 +1,155 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A histogram of non negative values with a fixed relative precision, in the
+ * spirit of the HdrHistogram. The values are sorted into buckets, each power of
+ * two is split into {@value #SUB_BUCKET_COUNT} buckets, so a percentile is off
+ * by at most about 3% no matter how big the values are.
+ * </p>
+ * <p>
+ * All the buckets are allocated up front, so recording a value never allocates
+ * and is cheap enough to be done several times per frame.
+ * </p>
+ *
+ * @see <a href="http://hdrhistogram.org/">HdrHistogram</a>
+ */
+public final class Histogram {
+
+    /**
+     * How many bits of a value are kept exactly.
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * The amount of buckets each power of two is split into.
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Enough buckets to hold {@link Long#MAX_VALUE}.
+     */
+    private static final int BUCKET_COUNT = (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT
+            + 2 * SUB_BUCKET_COUNT;
+
+    /**
+     * The amount of values recorded per bucket.
+     */
+    private final long[] counts = new long[BUCKET_COUNT];
+
+    /**
+     * The amount of values recorded.
+     */
+    private long count;
+
+    /**
+     * The sum of all values recorded, used for the mean.
+     */
+    private long sum;
+
+    /**
+     * The smallest value recorded.
+     */
+    private long min = Long.MAX_VALUE;
+
+    /**
+     * The biggest value recorded.
+     */
+    private long max;
+
+    /**
+     * Records a single value, negative values are recorded as 0.
+     *
+     * @param value the value to record
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        counts[indexOf(clamped)]++;
+        count++;
+        sum += clamped;
+        min = Math.min(min, clamped);
+        max = Math.max(max, clamped);
+    }
+
+    /**
+     * Removes all the recorded values.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the smallest value recorded, 0 if nothing was recorded
+     */
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * @return the biggest value recorded, 0 if nothing was recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @return the mean of the values recorded, 0 if nothing was recorded
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Will return the value below which the given percentage of the recorded
+     * values lie. It's the biggest value of the bucket the percentile lies in, but
+     * never bigger than the biggest value recorded.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value at the percentile, 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        double clamped = Math.min(Math.max(percentile, 0), 100);
+        long rank = Math.max(1, (long) Math.ceil(clamped / 100 * count));
+        long seen = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            seen += counts[index];
+            if (seen >= rank) {
+                return Math.min(Math.max(highestValueOf(index), min), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @param value a non negative value
+     * @return the index of the bucket the value is counted in
+     */
+    static int indexOf(long value) {
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value | 1);
+        int shift = Math.max(0, magnitude - SUB_BUCKET_BITS);
+        return shift * SUB_BUCKET_COUNT + (int) (value >>> shift);
+    }
+
+    /**
+     * @param index the index of a bucket
+     * @return the biggest value which is counted in the bucket
+     */
+    static long highestValueOf(int index) {
+        int shift = Math.max(0, index / SUB_BUCKET_COUNT - 1);
+        long subBucket = index - (long) shift * SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
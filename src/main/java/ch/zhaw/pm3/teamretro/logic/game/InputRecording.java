@@ -0,0 +1,305 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * The input of a single run of a level, one byte per tick. The lower bits hold
+ * the {@link KeyBindings} pressed during the tick (bit = ordinal), the upper
+ * two bits whether the tick was frozen (the warm up after a start, where the
+ * simulation ticks without any time passing) and whether the level was
+ * restarted from outside right before the tick.
+ * </p>
+ * <p>
+ * Together with the game pack and the level this is enough to replay the run
+ * exactly, as the simulation runs in fixed ticks. The binary format starts
+ * with a magic number and a version, followed by the game pack, the level, the
+ * seed, the fall limit and the ticks. The ticks are run length encoded, as the
+ * input rarely changes from one tick to the next.
+ * </p>
+ *
+ * @see InputReplay
+ */
+public final class InputRecording {
+
+    /**
+     * Identifies an input recording ("JBIR").
+     */
+    static final int MAGIC = 0x4A424952;
+
+    /**
+     * The current version of the format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Set if the tick was frozen, meaning it ran without any time passing.
+     */
+    public static final int FROZEN = 1 << 6;
+
+    /**
+     * Set if the level was restarted from outside right before the tick.
+     */
+    public static final int RESTART = 1 << 7;
+
+    /**
+     * The bits used for the key bindings.
+     */
+    private static final int KEYS = FROZEN - 1;
+
+    /**
+     * How many ticks there is room for initially, a minute of playing.
+     */
+    private static final int INITIAL_CAPACITY = 3600;
+
+    /**
+     * All the key bindings, cached as {@link KeyBindings#values()} copies the
+     * array on every call.
+     */
+    private static final KeyBindings[] KEY_BINDINGS = KeyBindings.values();
+
+    /**
+     * The game pack the level was loaded from.
+     */
+    private final String gamePack;
+
+    /**
+     * The name of the level.
+     */
+    private final String levelName;
+
+    /**
+     * The seed of the run. The simulation doesn't use any randomness yet, it's
+     * stored so recordings stay valid once it does.
+     */
+    private final long seed;
+
+    /**
+     * Entities falling below this y coordinate die, it depends on the size of the
+     * canvas the run was played on.
+     */
+    private final double fallLimit;
+
+    /**
+     * The recorded ticks, only the first {@link #tickCount} are used.
+     */
+    private byte[] ticks;
+
+    /**
+     * The amount of recorded ticks.
+     */
+    private int tickCount;
+
+    /**
+     * Creates an empty recording.
+     *
+     * @param gamePack  the game pack the level was loaded from
+     * @param levelName the name of the level
+     * @param seed      the seed of the run
+     * @param fallLimit entities falling below this y coordinate die
+     */
+    public InputRecording(String gamePack, String levelName, long seed, double fallLimit) {
+        this(gamePack, levelName, seed, fallLimit, new byte[INITIAL_CAPACITY], 0);
+    }
+
+    /**
+     * Creates a recording out of already recorded ticks.
+     *
+     * @param gamePack  the game pack the level was loaded from
+     * @param levelName the name of the level
+     * @param seed      the seed of the run
+     * @param fallLimit entities falling below this y coordinate die
+     * @param ticks     the recorded ticks, it is not copied
+     * @param tickCount the amount of recorded ticks
+     */
+    private InputRecording(String gamePack, String levelName, long seed, double fallLimit, byte[] ticks,
+            int tickCount) {
+        if (KEY_BINDINGS.length > Integer.bitCount(KEYS)) {
+            throw new IllegalStateException("There are more key bindings than the format has room for.");
+        }
+        this.gamePack = gamePack == null ? "" : gamePack;
+        this.levelName = levelName == null ? "" : levelName;
+        this.seed = seed;
+        this.fallLimit = fallLimit;
+        this.ticks = ticks;
+        this.tickCount = tickCount;
+    }
+
+    /**
+     * Appends a tick to the recording.
+     *
+     * @param tick the key bindings pressed and the flags of the tick
+     */
+    public void append(int tick) {
+        if (tickCount == ticks.length) {
+            ticks = Arrays.copyOf(ticks, ticks.length * 2);
+        }
+        ticks[tickCount++] = (byte) tick;
+    }
+
+    /**
+     * @param index the index of the tick
+     * @return the key bindings pressed and the flags of the tick
+     */
+    public int getTick(int index) {
+        if (index < 0 || index >= tickCount) {
+            throw new IndexOutOfBoundsException(String.format("No tick <%d> recorded.", index));
+        }
+        return ticks[index] & 0xFF;
+    }
+
+    /**
+     * @param tick        a recorded tick
+     * @param keyBindings the key binding to check
+     * @return true if the key binding was pressed during the tick
+     */
+    public static boolean isPressed(int tick, KeyBindings keyBindings) {
+        return (tick & (1 << keyBindings.ordinal())) != 0;
+    }
+
+    /**
+     * Reads which key bindings are currently pressed.
+     *
+     * @param input where the player input comes from
+     * @return the key bindings as bits, bit = ordinal
+     */
+    public static int capture(InputSource input) {
+        int tick = 0;
+        for (KeyBindings keyBindings : KEY_BINDINGS) {
+            if (input.isPressed(keyBindings)) {
+                tick |= 1 << keyBindings.ordinal();
+            }
+        }
+        return tick;
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    public String getGamePack() {
+        return gamePack;
+    }
+
+    public String getLevelName() {
+        return levelName;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public double getFallLimit() {
+        return fallLimit;
+    }
+
+    /**
+     * Will write the recording into the stream.
+     *
+     * @param output the stream to write to, it is not closed
+     * @throws IOException if something went wrong while writing
+     */
+    public void writeTo(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(MAGIC);
+        writeVarInt(out, VERSION);
+        out.writeUTF(gamePack);
+        out.writeUTF(levelName);
+        out.writeLong(seed);
+        out.writeDouble(fallLimit);
+        writeVarInt(out, tickCount);
+
+        int index = 0;
+        while (index < tickCount) {
+            byte tick = ticks[index];
+            int run = 1;
+            while (index + run < tickCount && ticks[index + run] == tick) {
+                run++;
+            }
+            out.writeByte(tick);
+            writeVarInt(out, run);
+            index += run;
+        }
+        out.flush();
+    }
+
+    /**
+     * Will read a recording out of the stream.
+     *
+     * @param input the stream to read from, it is not closed
+     * @return the recording
+     * @throws IOException if the data couldn't be read or isn't a recording
+     */
+    public static InputRecording readFrom(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("The data is not an input recording.");
+            }
+            int version = readVarInt(in);
+            if (version != VERSION) {
+                throw new IOException(String.format("Unsupported recording version <%d>.", version));
+            }
+            String gamePack = in.readUTF();
+            String levelName = in.readUTF();
+            long seed = in.readLong();
+            double fallLimit = in.readDouble();
+            int tickCount = readVarInt(in);
+
+            byte[] ticks = new byte[Math.max(tickCount, 1)];
+            int index = 0;
+            while (index < tickCount) {
+                byte tick = in.readByte();
+                int run = readVarInt(in);
+                if (run <= 0 || run > tickCount - index) {
+                    throw new IOException(String.format("Invalid run length <%d>.", run));
+                }
+                Arrays.fill(ticks, index, index + run, tick);
+                index += run;
+            }
+            return new InputRecording(gamePack, levelName, seed, fallLimit, ticks, tickCount);
+        } catch (EOFException e) {
+            throw new IOException("The input recording is truncated.", e);
+        }
+    }
+
+    /**
+     * Writes an unsigned variable length integer, seven bits per byte.
+     *
+     * @param out   the stream to write to
+     * @param value the value to write
+     * @throws IOException if something went wrong while writing
+     */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads an unsigned variable length integer.
+     *
+     * @param in the stream to read from
+     * @return the value read
+     * @throws IOException if something went wrong while reading
+     */
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int current = in.readUnsignedByte();
+            value |= (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Variable length integer is too long.");
+    }
+}
@@ -0,0 +1,272 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import ch.zhaw.pm3.teamretro.gamepack.GamePackFactory;
+import ch.zhaw.pm3.teamretro.gamepack.InvalidLevelConfiguration;
+import ch.zhaw.pm3.teamretro.gamepack.Level;
+import ch.zhaw.pm3.teamretro.gamepack.LevelStreamer;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Enemy;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Player;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
+
+/**
+ * <p>
+ * Replays an {@link InputRecording} on a headless {@link GameSimulation}, as
+ * fast as possible. As the simulation runs in fixed ticks and sees exactly the
+ * recorded input, the replay ends up in the same state as the recorded run.
+ * </p>
+ * <p>
+ * It's used to reproduce bug reports and to time the simulation on a real
+ * run, e.g. {@code gradle replay -Precording=run.jbir}.
+ * </p>
+ */
+public class InputReplay implements InputSource {
+
+    /**
+     * The recording to replay.
+     */
+    private final InputRecording recording;
+
+    /**
+     * The tick currently replayed.
+     */
+    private int currentTick;
+
+    /**
+     * Creates a replay of the recording.
+     *
+     * @param recording the recording to replay
+     */
+    public InputReplay(InputRecording recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Streams the recorded level out of the game pack the same way the game does
+     * and replays the recording on it. The chunks are loaded right away, as there
+     * is no frame rate to keep.
+     *
+     * @param gamePack the path to the game pack, null to use the recorded one
+     * @return the result of the replay
+     * @throws IOException               if the game pack couldn't be read
+     * @throws InvalidLevelConfiguration if the level is invalid
+     */
+    public Result run(String gamePack) throws IOException, InvalidLevelConfiguration {
+        String path = gamePack == null ? recording.getGamePack() : gamePack;
+        try (LevelStreamer streamer = GamePackFactory.streamLevel(path, recording.getLevelName())) {
+            streamer.loadInForeground();
+            return run(streamer.getLevel(), streamer);
+        }
+    }
+
+    /**
+     * Replays the recording on the level, until all the ticks were replayed or
+     * the level was won.
+     *
+     * @param level the freshly loaded level the recording was made on
+     * @return the result of the replay
+     * @throws InvalidLevelConfiguration if the level is invalid
+     */
+    public Result run(Level level) throws InvalidLevelConfiguration {
+        return run(level, null);
+    }
+
+    /**
+     * Replays the recording on the level, streaming it around the player before
+     * every tick like the game loop does.
+     *
+     * @param level    the freshly loaded level the recording was made on
+     * @param streamer streams the level, null if it's loaded as a whole
+     * @return the result of the replay
+     * @throws InvalidLevelConfiguration if the level is invalid
+     */
+    private Result run(Level level, LevelStreamer streamer) throws InvalidLevelConfiguration {
+        Result result = new Result();
+        GameSimulation simulation = new GameSimulation(this, recording.getFallLimit());
+        simulation.setListener(new SimulationListener() {
+            @Override
+            public void enemyKilled(Enemy enemy) {
+                result.kills++;
+            }
+
+            @Override
+            public void playerDied() {
+                result.deaths++;
+            }
+
+            @Override
+            public void levelWon() {
+                result.won = true;
+            }
+        });
+        simulation.start(level);
+
+        long start = System.nanoTime();
+        int index = 0;
+        while (index < recording.getTickCount() && simulation.isRunning()) {
+            currentTick = recording.getTick(index);
+            if ((currentTick & InputRecording.RESTART) != 0) {
+                simulation.reset();
+                result.restarts++;
+            }
+            if (streamer != null) {
+                streamer.updateAround(level.getPlayer().getPosition().getX());
+            }
+            simulation.tick((currentTick & InputRecording.FROZEN) != 0 ? 0 : Simulation.TICK_DURATION);
+            index++;
+        }
+        result.elapsed = System.nanoTime() - start;
+        result.ticks = index;
+
+        Player player = level.getPlayer();
+        result.playerX = player.getPosition().getX();
+        result.playerY = player.getPosition().getY();
+        for (Enemy enemy : level.getLivingEnemies()) {
+            result.enemyPositions.add(new Position(enemy.getPosition().getX(), enemy.getPosition().getY()));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isPressed(KeyBindings keyBindings) {
+        return InputRecording.isPressed(currentTick, keyBindings);
+    }
+
+    /**
+     * Replays a recording from the command line and prints the result.
+     *
+     * @param args the path to the recording, optionally followed by the path to
+     *             the game pack if it moved since recording
+     * @throws IOException               if the recording or the game pack
+     *                                   couldn't be read
+     * @throws InvalidLevelConfiguration if the level is invalid
+     */
+    public static void main(String[] args) throws IOException, InvalidLevelConfiguration {
+        if (args.length < 1) {
+            System.err.println("Usage: InputReplay <recording> [game pack]");
+            return;
+        }
+        InputRecording recording;
+        try (InputStream input = Files.newInputStream(Paths.get(args[0]))) {
+            recording = InputRecording.readFrom(input);
+        }
+        Result result = new InputReplay(recording).run(args.length > 1 ? args[1] : null);
+        System.out.println(result);
+    }
+
+    /**
+     * The outcome of a replay.
+     */
+    public static final class Result {
+
+        /**
+         * Multiplier to convert nanoseconds to milliseconds.
+         */
+        private static final double NANOSECONDS_TO_MILLISECONDS = 1E-6;
+
+        /**
+         * The amount of ticks replayed.
+         */
+        private int ticks;
+
+        /**
+         * How often the player died.
+         */
+        private int deaths;
+
+        /**
+         * How many enemies were killed.
+         */
+        private int kills;
+
+        /**
+         * How often the level was restarted from outside.
+         */
+        private int restarts;
+
+        /**
+         * Whether the level was won.
+         */
+        private boolean won;
+
+        /**
+         * Time [nanoseconds] the replay took.
+         */
+        private long elapsed;
+
+        /**
+         * The x coordinate of the player at the end.
+         */
+        private double playerX;
+
+        /**
+         * The y coordinate of the player at the end.
+         */
+        private double playerY;
+
+        /**
+         * The positions of the living enemies at the end.
+         */
+        private final List<Position> enemyPositions = new ArrayList<>();
+
+        /**
+         * Only created by the replay.
+         */
+        private Result() {
+        }
+
+        public int getTicks() {
+            return ticks;
+        }
+
+        public int getDeaths() {
+            return deaths;
+        }
+
+        public int getKills() {
+            return kills;
+        }
+
+        public int getRestarts() {
+            return restarts;
+        }
+
+        public boolean isWon() {
+            return won;
+        }
+
+        /**
+         * @return time [nanoseconds] the replay took
+         */
+        public long getElapsed() {
+            return elapsed;
+        }
+
+        public double getPlayerX() {
+            return playerX;
+        }
+
+        public double getPlayerY() {
+            return playerY;
+        }
+
+        public List<Position> getEnemyPositions() {
+            return enemyPositions;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "ticks: %d, deaths: %d, kills: %d, restarts: %d, won: %b, player: (%.2f, %.2f), enemies: %d, "
+                            + "took: %.3fms",
+                    ticks, deaths, kills, restarts, won, playerX, playerY, enemyPositions.size(),
+                    elapsed * NANOSECONDS_TO_MILLISECONDS);
+        }
+    }
+}
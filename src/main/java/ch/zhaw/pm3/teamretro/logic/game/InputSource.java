@@ -0,0 +1,17 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+/**
+ * Source of the player input used by a {@link Simulation}. The keyboard is
+ * only one possible source, a test can as well provide a scripted input.
+ */
+@FunctionalInterface
+public interface InputSource {
+
+    /**
+     * Checks if the control is currently pressed.
+     *
+     * @param keyBindings the control to check
+     * @return true if it is pressed
+     */
+    boolean isPressed(KeyBindings keyBindings);
+}
@@ -1,5 +1,7 @@
 package ch.zhaw.pm3.teamretro.logic.game;
 
+import java.util.Set;
+
 import javafx.scene.input.KeyCode;
 
 /**
@@ -10,7 +12,8 @@ public enum KeyBindings {
     WALK_LEFT(new KeyCode[] { KeyCode.A, KeyCode.LEFT }),
     WALK_RIGHT(new KeyCode[] { KeyCode.D, KeyCode.RIGHT }),
     RUN(new KeyCode[] { KeyCode.K, KeyCode.SHIFT }),
-    RESET(new KeyCode[] { KeyCode.R });
+    RESET(new KeyCode[] { KeyCode.R }),
+    METRICS_OVERLAY(new KeyCode[] { KeyCode.F3 });
 
     /**
      * Container for KeyCode Arrays.
@@ -33,4 +36,19 @@ public enum KeyBindings {
     public KeyCode[] getKeyCodes() {
         return keyCodes.clone();
     }
+
+    /**
+     * Checks if one of the keycodes is active, without copying the keycodes.
+     *
+     * @param activeKeys the currently pressed keys
+     * @return true if one of the keycodes is pressed
+     */
+    public boolean isActive(Set<KeyCode> activeKeys) {
+        for (KeyCode keyCode : keyCodes) {
+            if (activeKeys.contains(keyCode)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+/**
+ * The values recorded by the {@link FrameMetrics}, every one of them gets its
+ * own histogram.
+ */
+public enum Metric {
+    /**
+     * Time [nanoseconds] between the start of two frames.
+     */
+    FRAME_TIME("frameTime", true),
+
+    /**
+     * Time [nanoseconds] spent on all the ticks of a frame.
+     */
+    SIMULATION_TIME("simulationTime", true),
+
+    /**
+     * Time [nanoseconds] spent on detecting collisions during a tick.
+     */
+    COLLISION_TIME("collisionTime", true),
+
+    /**
+     * Time [nanoseconds] spent on drawing a frame.
+     */
+    RENDER_TIME("renderTime", true),
+
+    /**
+     * Amount of entities drawn in a frame.
+     */
+    ENTITY_COUNT("entityCount", false);
+
+    /**
+     * The name used in the exported json.
+     */
+    private final String jsonName;
+
+    /**
+     * Whether the values are durations in nanoseconds, or plain counts.
+     */
+    private final boolean duration;
+
+    /**
+     * Constructor of Metric.
+     *
+     * @param jsonName the name used in the exported json
+     * @param duration whether the values are durations in nanoseconds
+     */
+    Metric(String jsonName, boolean duration) {
+        this.jsonName = jsonName;
+        this.duration = duration;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    public boolean isDuration() {
+        return duration;
+    }
+}
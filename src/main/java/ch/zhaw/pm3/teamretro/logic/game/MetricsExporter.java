@@ -0,0 +1,67 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes {@link MetricsSnapshot}s as json lines (JSONL), one snapshot per
+ * line, so the file can be appended to while playing and analyzed afterwards.
+ */
+public class MetricsExporter implements Closeable {
+
+    /**
+     * The name of the system property containing the file to export to. The
+     * metrics are only exported if it's set.
+     */
+    public static final String FILE_PROPERTY = "jumpandbuild.metrics.file";
+
+    /**
+     * Where the lines are written to.
+     */
+    private final Writer writer;
+
+    /**
+     * Creates an exporter writing to the given writer.
+     *
+     * @param writer where the lines are written to
+     */
+    public MetricsExporter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Creates an exporter appending to the given file, it's created if needed.
+     *
+     * @param file the file to append to
+     * @return the exporter
+     * @throws IOException if the file couldn't be opened
+     */
+    public static MetricsExporter toFile(Path file) throws IOException {
+        BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        return new MetricsExporter(writer);
+    }
+
+    /**
+     * Writes the snapshot as a single line, the line is flushed right away.
+     *
+     * @param snapshot the snapshot to write
+     * @throws IOException if writing failed
+     */
+    public void export(MetricsSnapshot snapshot) throws IOException {
+        writer.write(snapshot.toJson().toString());
+        writer.write('\n');
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,127 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+import ch.zhaw.pm3.teamretro.logic.common.CanvasController;
+import javafx.scene.paint.Color;
+
+/**
+ * In-game debug overlay showing the latest {@link MetricsSnapshot} in the top
+ * left corner of the canvas. The text is only built when a new snapshot
+ * arrives, drawing it every frame doesn't allocate.
+ */
+public class MetricsOverlay {
+
+    /**
+     * Distance [pixels] of the text to the border of the canvas.
+     */
+    private static final double MARGIN = 8;
+
+    /**
+     * Height [pixels] of a single line of text.
+     */
+    private static final double LINE_HEIGHT = 14;
+
+    /**
+     * Width [pixels] of the background behind the text.
+     */
+    private static final double WIDTH = 340;
+
+    /**
+     * Multiplier to convert nanoseconds to milliseconds.
+     */
+    private static final double NANOSECONDS_TO_MILLISECONDS = 1E-6;
+
+    /**
+     * Background behind the text, so it's readable on every level.
+     */
+    private static final Color BACKGROUND = Color.color(0, 0, 0, 0.6);
+
+    /**
+     * Color of the text.
+     */
+    private static final Color TEXT = Color.WHITE;
+
+    /**
+     * Canvas controller, the overlay is drawn onto its canvas.
+     */
+    private final CanvasController canvasController;
+
+    /**
+     * The lines shown, built from the latest snapshot.
+     */
+    private String[] lines = { "collecting metrics..." };
+
+    /**
+     * Whether the overlay is drawn.
+     */
+    private boolean visible;
+
+    /**
+     * Creates a hidden overlay.
+     *
+     * @param canvasController the overlay is drawn onto its canvas
+     */
+    public MetricsOverlay(CanvasController canvasController) {
+        this.canvasController = canvasController;
+    }
+
+    /**
+     * Shows the given snapshot from now on.
+     *
+     * @param snapshot the latest snapshot
+     */
+    public void update(MetricsSnapshot snapshot) {
+        Metric[] metrics = Metric.values();
+        String[] updated = new String[metrics.length + 1];
+        updated[0] = String.format("%.0f fps", snapshot.getFramesPerSecond());
+        for (int i = 0; i < metrics.length; i++) {
+            updated[i + 1] = format(metrics[i], snapshot.getStats(metrics[i]));
+        }
+        lines = updated;
+    }
+
+    /**
+     * @param metric the metric of the stats
+     * @param stats  the stats to format
+     * @return a line containing the median, the 99th percentile and the maximum
+     */
+    private static String format(Metric metric, MetricsSnapshot.Stats stats) {
+        if (metric.isDuration()) {
+            return String.format("%-15s p50 %6.2f p99 %6.2f max %6.2f ms", metric.getJsonName(),
+                    stats.getP50() * NANOSECONDS_TO_MILLISECONDS, stats.getP99() * NANOSECONDS_TO_MILLISECONDS,
+                    stats.getMax() * NANOSECONDS_TO_MILLISECONDS);
+        }
+        return String.format("%-15s p50 %6d p99 %6d max %6d", metric.getJsonName(), stats.getP50(), stats.getP99(),
+                stats.getMax());
+    }
+
+    /**
+     * Draws the overlay if it's visible, it has to be drawn after the level.
+     */
+    public void draw() {
+        if (!visible) {
+            return;
+        }
+        canvasController.fillRect(0, 0, WIDTH, lines.length * LINE_HEIGHT + MARGIN, BACKGROUND);
+        for (int i = 0; i < lines.length; i++) {
+            canvasController.drawText(lines[i], MARGIN, (i + 1) * LINE_HEIGHT, TEXT);
+        }
+    }
+
+    /**
+     * Shows the overlay if it's hidden and the other way around.
+     */
+    public void toggle() {
+        visible = !visible;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * @return the lines currently shown
+     */
+    String[] getLines() {
+        return lines.clone();
+    }
+}
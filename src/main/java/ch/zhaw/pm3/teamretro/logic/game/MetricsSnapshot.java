@@ -0,0 +1,201 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+import org.json.JSONObject;
+
+/**
+ * An immutable summary of the {@link FrameMetrics} over an interval, e.g. the
+ * last second. It's used by the debug overlay and exported as a line of json.
+ */
+public final class MetricsSnapshot {
+
+    /**
+     * The json name of the wall clock time the snapshot was taken at.
+     */
+    private static final String TIMESTAMP_JSON = "timestamp";
+
+    /**
+     * The json name of the length of the interval.
+     */
+    private static final String INTERVAL_JSON = "intervalNanos";
+
+    /**
+     * The json name of the frames per second.
+     */
+    private static final String FPS_JSON = "fps";
+
+    /**
+     * How many nanoseconds are in a second.
+     */
+    private static final double NANOSECONDS_IN_SECOND = 1E9;
+
+    /**
+     * Wall clock time [milliseconds since the epoch] the snapshot was taken at.
+     */
+    private final long timestamp;
+
+    /**
+     * Length [nanoseconds] of the interval the values were recorded in.
+     */
+    private final long interval;
+
+    /**
+     * The summaries, indexed by the ordinal of the metric.
+     */
+    private final Stats[] stats;
+
+    /**
+     * Summarizes the given histograms.
+     *
+     * @param timestamp  wall clock time [milliseconds since the epoch]
+     * @param interval   length [nanoseconds] of the interval
+     * @param histograms the histograms indexed by the ordinal of the metric
+     */
+    MetricsSnapshot(long timestamp, long interval, Histogram[] histograms) {
+        this.timestamp = timestamp;
+        this.interval = interval;
+        this.stats = new Stats[histograms.length];
+        for (int i = 0; i < histograms.length; i++) {
+            stats[i] = new Stats(histograms[i]);
+        }
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return length [nanoseconds] of the interval the values were recorded in
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * @param metric the metric to look up
+     * @return the summary of the metric
+     */
+    public Stats getStats(Metric metric) {
+        return stats[metric.ordinal()];
+    }
+
+    /**
+     * @return the amount of frames per second during the interval
+     */
+    public double getFramesPerSecond() {
+        return interval <= 0 ? 0 : getStats(Metric.FRAME_TIME).getCount() * NANOSECONDS_IN_SECOND / interval;
+    }
+
+    /**
+     * Will return the snapshot as json, every metric is an object with its
+     * summary.
+     *
+     * @return a new json object
+     */
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put(TIMESTAMP_JSON, timestamp);
+        json.put(INTERVAL_JSON, interval);
+        json.put(FPS_JSON, getFramesPerSecond());
+        for (Metric metric : Metric.values()) {
+            json.put(metric.getJsonName(), getStats(metric).toJson());
+        }
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return toJson().toString();
+    }
+
+    /**
+     * The summary of a single histogram.
+     */
+    public static final class Stats {
+
+        /**
+         * The amount of values recorded.
+         */
+        private final long count;
+
+        /**
+         * The smallest value recorded.
+         */
+        private final long min;
+
+        /**
+         * The mean of the values recorded.
+         */
+        private final double mean;
+
+        /**
+         * The median of the values recorded.
+         */
+        private final long p50;
+
+        /**
+         * The 90th percentile of the values recorded.
+         */
+        private final long p90;
+
+        /**
+         * The 99th percentile of the values recorded.
+         */
+        private final long p99;
+
+        /**
+         * The biggest value recorded.
+         */
+        private final long max;
+
+        /**
+         * Summarizes the given histogram.
+         *
+         * @param histogram the histogram to summarize
+         */
+        private Stats(Histogram histogram) {
+            count = histogram.getCount();
+            min = histogram.getMin();
+            mean = histogram.getMean();
+            p50 = histogram.getValueAtPercentile(50);
+            p90 = histogram.getValueAtPercentile(90);
+            p99 = histogram.getValueAtPercentile(99);
+            max = histogram.getMax();
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMin() {
+            return min;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP90() {
+            return p90;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * @return the summary as json object
+         */
+        private JSONObject toJson() {
+            return new JSONObject().put("count", count).put("min", min).put("mean", mean).put("p50", p50)
+                    .put("p90", p90).put("p99", p99).put("max", max);
+        }
+    }
+}
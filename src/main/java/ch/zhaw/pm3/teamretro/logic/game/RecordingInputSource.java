@@ -0,0 +1,88 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+/**
+ * Sits between the live input and the simulation and records the input of
+ * every tick into an {@link InputRecording}. The input is captured once at the
+ * start of a tick and the simulation only sees the captured input, so it sees
+ * exactly what a replay will see later on.
+ */
+public class RecordingInputSource implements InputSource {
+
+    /**
+     * Where the live input comes from.
+     */
+    private final InputSource input;
+
+    /**
+     * Where the ticks are recorded, null if nothing is recorded.
+     */
+    private InputRecording recording;
+
+    /**
+     * The input captured for the current tick.
+     */
+    private int currentTick;
+
+    /**
+     * Whether the level was restarted from outside since the last tick.
+     */
+    private boolean restarted;
+
+    /**
+     * Creates an input source which doesn't record yet.
+     *
+     * @param input where the live input comes from
+     */
+    public RecordingInputSource(InputSource input) {
+        this.input = input;
+    }
+
+    /**
+     * Records into the given recording from now on.
+     *
+     * @param recording where the ticks are recorded, null to stop recording
+     */
+    public void setRecording(InputRecording recording) {
+        this.recording = recording;
+        restarted = false;
+    }
+
+    /**
+     * @return the current recording, null if nothing is recorded
+     */
+    public InputRecording getRecording() {
+        return recording;
+    }
+
+    /**
+     * Marks the next tick, as the level was restarted from outside.
+     */
+    public void markRestart() {
+        restarted = true;
+    }
+
+    /**
+     * Captures the input for the next tick and records it.
+     *
+     * @param frozen whether the tick runs without any time passing
+     */
+    public void capture(boolean frozen) {
+        currentTick = InputRecording.capture(input);
+        if (recording != null) {
+            int tick = currentTick;
+            if (frozen) {
+                tick |= InputRecording.FROZEN;
+            }
+            if (restarted) {
+                tick |= InputRecording.RESTART;
+            }
+            recording.append(tick);
+        }
+        restarted = false;
+    }
+
+    @Override
+    public boolean isPressed(KeyBindings keyBindings) {
+        return InputRecording.isPressed(currentTick, keyBindings);
+    }
+}
@@ -0,0 +1,68 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+import ch.zhaw.pm3.teamretro.gamepack.InvalidLevelConfiguration;
+import ch.zhaw.pm3.teamretro.gamepack.Level;
+
+/**
+ * Steps the world of a single {@link Level} forward. A simulation is
+ * independent of any rendering or timing, it can be driven by the
+ * {@link GameLoop} or run headless as fast as possible.
+ */
+public interface Simulation {
+
+    /**
+     * The duration of a single fixed tick in seconds [s].
+     */
+    double TICK_DURATION = 1.0 / 60.0;
+
+    /**
+     * Will start simulating the given level from its current state.
+     *
+     * @param level the level to simulate
+     */
+    void start(Level level);
+
+    /**
+     * Will advance the world by the given time.
+     *
+     * @param frameTime the time to advance in seconds [s]
+     * @throws InvalidLevelConfiguration if an entity of the level is invalid
+     */
+    void tick(double frameTime) throws InvalidLevelConfiguration;
+
+    /**
+     * Will advance the world by the given amount of fixed ticks, as fast as
+     * possible. Stops early once the simulation isn't running anymore.
+     *
+     * @param ticks the amount of ticks to simulate
+     * @throws InvalidLevelConfiguration if an entity of the level is invalid
+     */
+    default void advance(int ticks) throws InvalidLevelConfiguration {
+        for (int i = 0; i < ticks && isRunning(); i++) {
+            tick(TICK_DURATION);
+        }
+    }
+
+    /**
+     * Brings the level back to the state it had when the simulation was started,
+     * without loading it again. The killed enemies are restored and the player
+     * and all the enemies are moved back. A stopped simulation runs again.
+     */
+    void reset();
+
+    /**
+     * Stops the simulation and restores the killed enemies, so the level is
+     * complete again.
+     */
+    void stop();
+
+    /**
+     * @return whether the simulation is still running
+     */
+    boolean isRunning();
+
+    /**
+     * @return the simulated level
+     */
+    Level getLevel();
+}
@@ -0,0 +1,36 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.Enemy;
+
+/**
+ * Gets notified about the important events happening inside of a
+ * {@link Simulation}. All the methods do nothing by default, so only the
+ * relevant ones have to be implemented.
+ */
+public interface SimulationListener {
+
+    /**
+     * An enemy was killed, either by the player or by a damaging block. Enemies
+     * falling out of the level don't count.
+     *
+     * @param enemy the killed enemy
+     */
+    default void enemyKilled(Enemy enemy) {
+        // nothing to do by default
+    }
+
+    /**
+     * The player died. The simulation already reset the level, when this is
+     * called.
+     */
+    default void playerDied() {
+        // nothing to do by default
+    }
+
+    /**
+     * The player reached the goal, the simulation is stopped afterwards.
+     */
+    default void levelWon() {
+        // nothing to do by default
+    }
+}
@@ -1,109 +1,192 @@
 package ch.zhaw.pm3.teamretro.logic.game;
 
-import java.util.logging.Level;
-import java.util.logging.Logger;
-
+import ch.zhaw.pm3.teamretro.jfr.FlightRecording;
+import ch.zhaw.pm3.teamretro.jfr.FrameEvent;
 import javafx.animation.AnimationTimer;
 
 /**
  * <p>
  * Define a custom timed loop for our inner game loop and timing.
  * </p>
+ * <p>
+ * The game logic runs in fixed ticks of {@link Simulation#TICK_DURATION}, no
+ * matter how fast the frames are rendered. The time passed since the last
+ * frame is collected and consumed tick by tick, the rest is handed to the
+ * rendering as interpolation factor between the previous and the current tick.
+ * </p>
+ * <p>
+ * The frame time and the time spent on the ticks and the rendering are
+ * recorded in the {@link FrameMetrics} of the loop.
+ * </p>
  *
+ * @see <a href="https://gafferongames.com/post/fix_your_timestep/">Fix Your
+ *      Timestep!</a>
  */
 public abstract class TimedLoop extends AnimationTimer {
-    /**
-     * Logger instance.
-     */
-    private static final Logger LOGGER = Logger.getLogger(TimedLoop.class.getName());
-
     /**
      * How many nanoseconds are in a second
      */
     private static final int NANOSECONDS_IN_SECOND = 1_000_000_000;
 
     /**
-     * Multiplier to convert nanoseconds to milliseconds and vice-versa.
+     * The maximum amount of ticks run during a single frame. If the game falls
+     * further behind (e.g. the window was dragged around), the rest of the time is
+     * dropped instead of trying to catch up.
      */
-    private static final double NANOSECONDS_TO_MILLISECONDS_MULTIPLIER = 1E3;
+    private static final int MAX_TICKS_PER_FRAME = 5;
 
     /**
-     * How much time [nanoseconds] has passed since the last frame
+     * Timestamp [nanoseconds] of the last second that passed.
      */
     protected long timeSinceLastFrame;
+
     /**
      * Keeps track of the amount of frames generated in the last second.
      */
     protected long frameCount;
 
     /**
-     * How long the last frame took to generate [nanoseconds].
+     * Timestamp [nanoseconds] of the last frame.
      */
-    protected double lastFrameTime;
+    protected long lastFrameTimestamp;
 
     /**
-     * Target frames per seconds [FPS] the game should run in.
+     * Time [s] which passed, but wasn't consumed by a tick yet.
      */
-    private static final long DESIRED_FPS = 120;
+    private double accumulator;
 
     /**
-     * Amount of time the loop should pause between frames to hit the target FPS.
+     * Whether the loop is running. A tick may stop the loop, in which case the
+     * remaining ticks and the rendering of the frame are skipped.
      */
-    protected static final long FRAME_SLEEP_TIME_MS = (long) (NANOSECONDS_TO_MILLISECONDS_MULTIPLIER / DESIRED_FPS);
+    private boolean running;
 
+    /**
+     * Where the timings of the frames are recorded.
+     */
+    private final FrameMetrics metrics;
+
+    /**
+     * Creates a loop recording into its own metrics.
+     */
     protected TimedLoop() {
-        lastFrameTime = 0;
+        this(new FrameMetrics());
+    }
+
+    /**
+     * Creates a loop recording into the given metrics.
+     *
+     * @param metrics where the timings of the frames are recorded
+     */
+    protected TimedLoop(FrameMetrics metrics) {
+        this.metrics = metrics;
+        lastFrameTimestamp = 0;
         timeSinceLastFrame = 0;
         frameCount = 0;
+        accumulator = 0;
     }
 
     /**
-     * Abstract method for implementing logic specific to the game (the inner game
-     * loop).
+     * Abstract method for implementing the logic specific to the game, called once
+     * per fixed tick.
      * 
-     * @param lastFrameTime The time it took to generate the last game loop cycle in
-     *                      seconds [s].
+     * @param tickDuration The duration of a tick in seconds [s].
      */
-    public abstract void runInnerLoop(double lastFrameTime, boolean secondPass);
+    public abstract void tick(double tickDuration);
+
+    /**
+     * Abstract method for drawing the current state of the game, called once per
+     * frame.
+     * 
+     * @param alpha      How far we are between the previous and the current tick,
+     *                   between 0 and 1.
+     * @param secondPass True once per second.
+     */
+    public abstract void render(double alpha, boolean secondPass);
+
+    /**
+     * @return where the timings of the frames are recorded
+     */
+    public FrameMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        super.stop();
+    }
 
     /**
      * @param frameTime Timestamp in nanoseconds
      */
     @Override
-    public synchronized void handle(long frameTime) {
+    public void handle(long frameTime) {
+        // only created while recording, so a frame doesn't allocate otherwise
+        FrameEvent event = FlightRecording.isActive() ? new FrameEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
         boolean secHappend = false; // is true when a second passed
 
-        lastFrameTime = frameTime - lastFrameTime;
-
-        lastFrameTime /= NANOSECONDS_IN_SECOND; // makes lastFrameTime unit into "seconds".
+        if (lastFrameTimestamp == 0) {
+            lastFrameTimestamp = frameTime;
+        } else {
+            metrics.record(Metric.FRAME_TIME, frameTime - lastFrameTimestamp);
+        }
+        double lastFrameTime = (double) (frameTime - lastFrameTimestamp) / NANOSECONDS_IN_SECOND;
+        lastFrameTimestamp = frameTime;
 
         if (timeSinceLastFrame == 0) {
             timeSinceLastFrame = frameTime;
         } else if ((frameTime - timeSinceLastFrame) >= NANOSECONDS_IN_SECOND) {
-            String fps = String.format("framerate: %dfps%n", frameCount);
-            String logFrameTime = String.format("frametime: %fms%n",
-                    lastFrameTime * NANOSECONDS_TO_MILLISECONDS_MULTIPLIER);
-            LOGGER.log(Level.INFO, fps);
-            LOGGER.log(Level.FINE, logFrameTime);
             frameCount = 0;
             secHappend = true;
             timeSinceLastFrame = frameTime;
         }
 
-        runInnerLoop(lastFrameTime, secHappend);
+        accumulator += lastFrameTime;
+        boolean measure = metrics.isEnabled();
+        long simulationStart = measure ? System.nanoTime() : 0;
+        int ticks = 0;
+        boolean droppedTime = false;
+        while (running && accumulator >= Simulation.TICK_DURATION) {
+            if (ticks == MAX_TICKS_PER_FRAME) {
+                // too far behind, drop the time we can't catch up with
+                accumulator %= Simulation.TICK_DURATION;
+                droppedTime = true;
+                break;
+            }
+            tick(Simulation.TICK_DURATION);
+            accumulator -= Simulation.TICK_DURATION;
+            ticks++;
+        }
+        if (!running) {
+            // the state may already belong to a restarted loop, which draws it
+            return;
+        }
+
+        long renderStart = measure ? System.nanoTime() : 0;
+        if (measure) {
+            metrics.record(Metric.SIMULATION_TIME, renderStart - simulationStart);
+        }
+        render(accumulator / Simulation.TICK_DURATION, secHappend);
+        if (measure) {
+            metrics.record(Metric.RENDER_TIME, System.nanoTime() - renderStart);
+        }
 
         ++frameCount;
-        lastFrameTime = frameTime;
-
-        try {
-            // no loop is required here (as suggested by the lint),
-            // because it is not waited for a specific condition
-            // except waiting until the next iteration begins.
-            this.wait(FRAME_SLEEP_TIME_MS, 0);
-        } catch (InterruptedException e) {
-            LOGGER.log(Level.SEVERE, "Game loop frame limiter interrupted. Stopping.");
-            stop();
-            Thread.currentThread().interrupt();
+
+        if (event != null) {
+            event.setTicks(ticks);
+            event.setDroppedTime(droppedTime);
+            event.commit();
         }
     }
 
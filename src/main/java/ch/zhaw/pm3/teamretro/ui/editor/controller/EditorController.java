@@ -2,6 +2,7 @@ package ch.zhaw.pm3.teamretro.ui.editor.controller;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -73,7 +74,7 @@ public class EditorController {
      * impossible to delete menu entries that are vital for the proper functionality
      * (only level in GamePack)
      */
-    private static final int PROTECTED_ENTRIES_LEVEL_MENU = 3;
+    private static final int PROTECTED_ENTRIES_LEVEL_MENU = 5;
 
     /**
      * Amount of rows the Entities menu has.
@@ -162,6 +163,10 @@ public class EditorController {
     @FXML
     public MenuItem levelSelectionDelete;
     @FXML
+    public MenuItem levelSelectionImport;
+    @FXML
+    public MenuItem levelSelectionExport;
+    @FXML
     public Menu backgroundMenu;
     @FXML
     public MenuBar backgroundMenuBar;
@@ -723,6 +728,51 @@ public class EditorController {
         }
     }
 
+    /**
+     * Imports a level from a json file into the Game Pack, it's stored in the
+     * binary format like any other level.
+     */
+    @FXML
+    public void levelSelectionImportAction() {
+        FileBrowser fileBrowser = new FileBrowser(root.getScene());
+
+        if (!fileBrowser.openFile("json")) {
+            return;
+        }
+
+        String levelName = enterLevelName();
+        try {
+            String json = Files.readString(fileBrowser.getFile().toPath());
+            GamePackFactory.importLevelJson(archivePath, levelName, json);
+            refreshLevelList();
+        } catch (IOException | InvalidLevelConfiguration e) {
+            MessageHandler.handleException(e);
+        }
+    }
+
+    /**
+     * Exports the current level, as it is saved in the Game Pack, into a json
+     * file.
+     */
+    @FXML
+    public void levelSelectionExportAction() {
+        FileBrowser fileBrowser = new FileBrowser(root.getScene());
+
+        if (!fileBrowser.saveFile("json")) {
+            return;
+        }
+
+        try {
+            saveCurrentLevel();
+            String json = GamePackFactory.exportLevelJson(archivePath, currentLevel.getLevelName());
+            Files.writeString(fileBrowser.getFile().toPath(), json);
+            MessageHandler.createSavedWindow("Level " + currentLevel.getLevelName() + " exported to "
+                    + fileBrowser.getFileName());
+        } catch (IOException | InvalidLevelConfiguration e) {
+            MessageHandler.handleException(e);
+        }
+    }
+
     /**
      * Removes the level from the GamePack.
      *
@@ -0,0 +1,159 @@
+package ch.zhaw.pm3.teamretro.archiveengine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DirectoryWriterTest {
+
+    static final String FOLDER = "levels/";
+
+    static final String FILE = "levels/aLevel.json";
+
+    @TempDir
+    Path tempDir;
+
+    DirectoryWriter writer;
+
+    @BeforeEach
+    void setup() throws IOException {
+        writer = new DirectoryWriter(tempDir.toString());
+    }
+
+    @Test
+    void testNoDirectory() {
+        assertThrows(IOException.class, () -> new DirectoryReader(tempDir.resolve("missing").toString()));
+    }
+
+    @Test
+    void testAddAndRead() throws IOException {
+        writer.addFolder(FOLDER);
+        writer.addFile("{\r\n}\n", FILE);
+
+        assertTrue(Files.isRegularFile(tempDir.resolve(FILE)));
+        DirectoryReader reader = new DirectoryReader(tempDir.toString());
+        assertTrue(reader.hasFolder(FOLDER));
+        assertFalse(reader.hasFile(FOLDER));
+        assertTrue(reader.hasFile(FILE));
+        assertFalse(reader.hasFolder(FILE));
+        assertEquals("{\r\n}\n", reader.getText(FILE));
+        assertEquals(reader.getStamp(FILE), writer.getStamp(FILE));
+
+        IOException actual = assertThrows(IOException.class, () -> reader.getFile(FOLDER));
+        assertEquals("No directories may be extracted from this method.", actual.getMessage());
+        assertThrows(IOException.class, () -> reader.getFile("levels/missing.json"));
+    }
+
+    @Test
+    void testPermissions() throws IOException {
+        assumeTrue(Files.getFileAttributeView(tempDir, PosixFileAttributeView.class) != null);
+        writer.addFolder(FOLDER);
+        writer.addFile("new", FILE);
+        // a new file gets the default permissions
+        Path created = Files.createFile(tempDir.resolve("created.json"));
+        assertEquals(Files.getPosixFilePermissions(created), Files.getPosixFilePermissions(tempDir.resolve(FILE)));
+
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(tempDir.resolve(FILE), permissions);
+        writer.addFile("replaced", FILE);
+        assertEquals(permissions, Files.getPosixFilePermissions(tempDir.resolve(FILE)));
+    }
+
+    @Test
+    void testInvalidPaths() {
+        assertThrows(IOException.class, () -> writer.addFile("content", FILE));
+        assertThrows(IOException.class, () -> writer.addFile("content", "../outside.json"));
+        assertThrows(IOException.class, () -> writer.hasFile("../outside.json"));
+        assertThrows(IOException.class, () -> writer.addFolder("levels"));
+        assertThrows(IOException.class, () -> writer.removeFolder("/"));
+    }
+
+    @Test
+    void testRemove() throws IOException {
+        writer.addFolder(FOLDER);
+        writer.addFolder("levels/nested/");
+        writer.addFile("content", FILE);
+        writer.addFile("content", "levels/nested/aLevel.json");
+
+        writer.removeFile(FILE);
+        assertFalse(writer.hasFile(FILE));
+        assertThrows(IOException.class, () -> writer.removeFile(FILE));
+
+        writer.removeFolder(FOLDER);
+        assertFalse(Files.exists(tempDir.resolve(FOLDER)));
+    }
+
+    @Test
+    void testTransaction() throws IOException {
+        writer.addFolder(FOLDER);
+        writer.addFile("old", FILE);
+
+        writer.beginTransaction();
+        writer.addFile("new", FILE);
+        writer.addFile("meta", "meta.json");
+        writer.addFolder("assets/");
+        writer.addFile("sprite", "assets/sprite.json");
+        assertEquals("new", writer.getText(FILE));
+        assertTrue(writer.hasFile("assets/sprite.json"));
+
+        // nothing is written before the commit
+        assertEquals("old", Files.readString(tempDir.resolve(FILE)));
+        assertFalse(Files.exists(tempDir.resolve("meta.json")));
+
+        writer.commit();
+        assertEquals("new", Files.readString(tempDir.resolve(FILE)));
+        assertEquals("meta", Files.readString(tempDir.resolve("meta.json")));
+        assertEquals("sprite", Files.readString(tempDir.resolve("assets/sprite.json")));
+        // no temporary files are left behind
+        try (Stream<Path> files = Files.list(tempDir.resolve(FOLDER))) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testTransactionRemoveFolder() throws IOException {
+        writer.addFolder(FOLDER);
+        writer.addFile("old", FILE);
+
+        writer.beginTransaction();
+        writer.removeFolder(FOLDER);
+        assertFalse(writer.hasFolder(FOLDER));
+        assertFalse(writer.hasFile(FILE));
+        assertThrows(IOException.class, () -> writer.getText(FILE));
+        assertTrue(Files.exists(tempDir.resolve(FILE)));
+
+        writer.addFolder(FOLDER);
+        writer.addFile("new", "levels/other.json");
+        writer.commit();
+
+        assertFalse(Files.exists(tempDir.resolve(FILE)));
+        assertEquals("new", Files.readString(tempDir.resolve("levels/other.json")));
+    }
+
+    @Test
+    void testRollback() throws IOException {
+        writer.beginTransaction();
+        writer.addFile("meta", "meta.json");
+        assertThrows(IOException.class, () -> writer.beginTransaction());
+        writer.rollback();
+
+        assertFalse(writer.isInTransaction());
+        assertFalse(writer.hasFile("meta.json"));
+        assertThrows(IOException.class, () -> writer.commit());
+    }
+}
@@ -0,0 +1,98 @@
+package ch.zhaw.pm3.teamretro.archiveengine;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.lingala.zip4j.model.FileHeader;
+
+class MappedZipReaderTest {
+
+    static final String MASTER_ZIP = Paths.get("src", "test", "resources", "master.zip").toAbsolutePath()
+            .toString();
+
+    static final String IMAGE = "assets/image.png";
+
+    static final String TEXT = "assets/text.json";
+
+    @TempDir
+    Path tempDir;
+
+    String zipFilePath;
+
+    byte[] image;
+
+    @BeforeEach
+    void setup() throws IOException {
+        zipFilePath = tempDir.resolve("mapped.zip").toString();
+        image = new byte[4096];
+        new Random(42).nextBytes(image);
+
+        ZipWriter zw = new ZipWriter(zipFilePath);
+        zw.addFolder("assets/");
+        zw.addFile(new ByteArrayInputStream(image), IMAGE);
+        zw.addFile("{\"key\": \"value\"}", TEXT);
+    }
+
+    static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    @Test
+    void testStoredEntryIsSliceOfMapping() throws IOException {
+        MappedZipReader reader = new MappedZipReader(zipFilePath);
+        ByteBuffer buffer = reader.getBuffer(IMAGE);
+
+        assertTrue(buffer.isReadOnly());
+        assertTrue(buffer.isDirect());
+        assertArrayEquals(image, toArray(buffer));
+        try (InputStream input = reader.getFile(IMAGE)) {
+            assertArrayEquals(image, input.readAllBytes());
+        }
+    }
+
+    @Test
+    void testCompressedEntryIsExtracted() throws IOException {
+        MappedZipReader reader = new MappedZipReader(zipFilePath);
+        assertEquals("{\"key\": \"value\"}", reader.getText(TEXT));
+        assertEquals("{\"key\": \"value\"}", new String(toArray(reader.getBuffer(TEXT))));
+    }
+
+    @Test
+    void testMissingEntries() throws IOException {
+        MappedZipReader reader = new MappedZipReader(zipFilePath);
+        assertThrows(IOException.class, () -> reader.getBuffer("assets/missing.png"));
+        assertThrows(IOException.class, () -> reader.getFile("assets/"));
+    }
+
+    @Test
+    void testSameContentAsZipReader() throws IOException {
+        ZipReader zipReader = new ZipReader(MASTER_ZIP);
+        MappedZipReader mappedReader = new MappedZipReader(MASTER_ZIP);
+        for (FileHeader fileHeader : zipReader.getFiles()) {
+            if (fileHeader.isDirectory()) {
+                continue;
+            }
+            String fileName = fileHeader.getFileName();
+            try (InputStream expected = zipReader.getFile(fileName)) {
+                assertArrayEquals(expected.readAllBytes(), toArray(mappedReader.getBuffer(fileName)), fileName);
+            }
+            assertEquals(zipReader.getStamp(fileName), mappedReader.getStamp(fileName));
+        }
+    }
+}
@@ -1,17 +1,22 @@
 package ch.zhaw.pm3.teamretro.archiveengine;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
@@ -113,4 +118,44 @@ class ZipReaderTest {
     void testIsFileInsteadOfDirectory() throws IOException {
         assertFalse(zipReader.hasFolder(FILES_IN_ZIP[1]));
     }
+
+    @Test
+    void testStamp() throws IOException {
+        assertEquals(zipReader.getStamp(FILES_IN_ZIP[1]), new ZipReader(ZIP_NAME).getStamp(FILES_IN_ZIP[1]));
+        assertThrows(IOException.class, () -> zipReader.getStamp("aRandomNameForAFile.txt"));
+    }
+
+    @Test
+    void testLookupWithWindowsDelimiter() throws IOException {
+        assertTrue(zipReader.hasFile(FILES_IN_ZIP[1].replace('/', '\\')));
+        assertTrue(zipReader.hasFolder(FILES_IN_ZIP[0].replace('/', '\\')));
+    }
+
+    @Test
+    void testMissingFileException() {
+        IOException actual = assertThrows(IOException.class, () -> zipReader.getFile("aRandomNameForAFile.txt"));
+        assertEquals("No such file exists <aRandomNameForAFile.txt>", actual.getMessage());
+    }
+
+    @Test
+    void testReadAllBytes() throws IOException {
+        byte[] expected = Files.readAllBytes(Paths.get(FILENAME));
+        assertArrayEquals(expected, zipReader.readAllBytes(FILES_IN_ZIP[1]));
+        assertEquals(new String(expected, StandardCharsets.UTF_8), zipReader.getText(FILES_IN_ZIP[1]));
+        try (Reader reader = zipReader.getReader(FILES_IN_ZIP[1])) {
+            StringWriter writer = new StringWriter();
+            reader.transferTo(writer);
+            assertEquals(new String(expected, StandardCharsets.UTF_8), writer.toString());
+        }
+        assertThrows(IOException.class, () -> zipReader.readAllBytes("aRandomNameForAFile.txt"));
+    }
+
+    @Test
+    void testReadAllBytesWithWrongSizeHint() throws IOException {
+        byte[] content = "some content".getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(content, ZipReader.readAllBytes(new ByteArrayInputStream(content), content.length));
+        assertArrayEquals(content, ZipReader.readAllBytes(new ByteArrayInputStream(content), 4));
+        assertArrayEquals(content, ZipReader.readAllBytes(new ByteArrayInputStream(content), 100));
+        assertArrayEquals(content, ZipReader.readAllBytes(new ByteArrayInputStream(content), -1));
+    }
 }
@@ -1,9 +1,11 @@
 package ch.zhaw.pm3.teamretro.archiveengine;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -12,12 +14,18 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import net.lingala.zip4j.model.enums.CompressionMethod;
+
 class ZipWriterTest {
 	static final String[] FILES_IN_ZIP = new String[] { "aDir/", "random.xml" };
 
@@ -125,6 +133,9 @@ class ZipWriterTest {
 		setupRemove();
 
 		zw.removeFile(removePathFiles[0]);
+		// the index of the writer is refreshed right away
+		assertFalse(zw.hasFile(removePathFiles[0]));
+		assertTrue(zw.hasFile(removePathFiles[1]));
 
 		ArchiveReader ar = new ZipReader(zipFilePath);
 		assertFalse(ar.hasFile(removePathFiles[0]));
@@ -161,4 +172,160 @@ class ZipWriterTest {
 
 		assertFalse(ar.hasFolder(removePathFiles[1]));
 	}
+
+	@Test
+	void testTransactionStagesChanges() throws IOException {
+		setupRemove();
+		byte[] before = Files.readAllBytes(Path.of(zipFilePath));
+
+		zw.beginTransaction();
+		assertTrue(zw.isInTransaction());
+		zw.addFile("changed", removePathFiles[0]);
+		zw.removeFile(removePathFiles[1]);
+		zw.addFolder(FILES_IN_ZIP[0]);
+		zw.addFile("new", Path.of(FILES_IN_ZIP[0], FILES_IN_ZIP[1]).toString());
+
+		// the writer already sees the staged changes
+		assertEquals("changed", zw.getText(removePathFiles[0]));
+		assertFalse(zw.hasFile(removePathFiles[1]));
+		assertThrows(IOException.class, () -> zw.getFile(removePathFiles[1]));
+		assertTrue(zw.hasFolder(FILES_IN_ZIP[0]));
+
+		// the archive itself is untouched until the commit
+		assertArrayEquals(before, Files.readAllBytes(Path.of(zipFilePath)));
+
+		zw.commit();
+		assertFalse(zw.isInTransaction());
+
+		ArchiveReader ar = new ZipReader(zipFilePath);
+		assertEquals("changed", ar.getText(removePathFiles[0]));
+		assertFalse(ar.hasFile(removePathFiles[1]));
+		assertTrue(ar.hasFolder(removePath[1]));
+		assertTrue(ar.hasFolder(FILES_IN_ZIP[0]));
+		assertEquals("new", ar.getText(Path.of(FILES_IN_ZIP[0], FILES_IN_ZIP[1]).toString()));
+		assertEquals(ar.getStamp(removePathFiles[0]), zw.getStamp(removePathFiles[0]));
+	}
+
+	@Test
+	void testTransactionStampMatchesCommitted() throws IOException {
+		zw.addFile(randomFileContent, FILES_IN_ZIP[1]);
+		long committed = zw.getStamp(FILES_IN_ZIP[1]);
+
+		zw.beginTransaction();
+		zw.addFile(randomFileContent, FILES_IN_ZIP[1]);
+		assertEquals(committed, zw.getStamp(FILES_IN_ZIP[1]));
+		zw.rollback();
+	}
+
+	@Test
+	void testTransactionRemovesFolder() throws IOException {
+		setupRemove();
+
+		zw.beginTransaction();
+		zw.removeFolder(removePath[0]);
+		assertFalse(zw.hasFolder(removePath[1]));
+		assertFalse(zw.hasFile(removePathFiles[1]));
+		assertThrows(IOException.class, () -> zw.addFile(randomFileContent, removePathFiles[0]));
+		zw.commit();
+
+		ArchiveReader ar = new ZipReader(zipFilePath);
+		assertFalse(ar.hasFolder(removePath[0]));
+		assertFalse(ar.hasFolder(removePath[1]));
+		assertFalse(ar.hasFile(removePathFiles[0]));
+		assertFalse(ar.hasFile(removePathFiles[1]));
+	}
+
+	@Test
+	void testTransactionRollback() throws IOException {
+		setupRemove();
+		byte[] before = Files.readAllBytes(Path.of(zipFilePath));
+
+		zw.beginTransaction();
+		zw.removeFile(removePathFiles[0]);
+		zw.addFile("new", FILES_IN_ZIP[1]);
+		zw.rollback();
+
+		assertFalse(zw.isInTransaction());
+		assertTrue(zw.hasFile(removePathFiles[0]));
+		assertFalse(zw.hasFile(FILES_IN_ZIP[1]));
+		assertArrayEquals(before, Files.readAllBytes(Path.of(zipFilePath)));
+	}
+
+	@Test
+	void testTransactionOnNewArchive() throws IOException {
+		zw.beginTransaction();
+		zw.addFolder(removePathFolder());
+		zw.addFile(randomFileContent, Path.of(removePathFolder(), FILES_IN_ZIP[1]).toString());
+		assertFalse(Files.exists(Path.of(zipFilePath)));
+		zw.commit();
+
+		ArchiveReader ar = new ZipReader(zipFilePath);
+		assertEquals(randomFileContent, ar.getText(Path.of(removePathFolder(), FILES_IN_ZIP[1]).toString()));
+		// no temporary files are left behind
+		assertEquals(1, tempDir.toFile().listFiles().length);
+	}
+
+	@Test
+	void testCommitKeepsPermissions() throws IOException {
+		setupRemove();
+		Path archive = Path.of(zipFilePath);
+		assumeTrue(Files.getFileAttributeView(archive, PosixFileAttributeView.class) != null);
+		Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+		Files.setPosixFilePermissions(archive, permissions);
+
+		zw.beginTransaction();
+		zw.addFile("new", FILES_IN_ZIP[1]);
+		zw.commit();
+
+		assertEquals(permissions, Files.getPosixFilePermissions(archive));
+	}
+
+	private static String removePathFolder() {
+		return "aRandomPath/";
+	}
+
+	@Test
+	void testTransactionStates() throws IOException {
+		assertThrows(IOException.class, () -> zw.commit());
+		zw.rollback();
+
+		zw.beginTransaction();
+		assertThrows(IOException.class, () -> zw.beginTransaction());
+		zw.commit();
+		assertFalse(zw.isInTransaction());
+	}
+
+	@Test
+	void testStoresCompressedFiles() throws IOException {
+		zw.addFile(randomFileContent, "image.png");
+		zw.addFile(randomFileContent, FILES_IN_ZIP[1]);
+		zw.setStoreCompressed(false);
+		zw.addFile(randomFileContent, "deflated.png");
+
+		assertEquals(CompressionMethod.STORE, zw.getFileHeader("image.png").getCompressionMethod());
+		assertEquals(CompressionMethod.DEFLATE, zw.getFileHeader(FILES_IN_ZIP[1]).getCompressionMethod());
+		assertEquals(CompressionMethod.DEFLATE, zw.getFileHeader("deflated.png").getCompressionMethod());
+
+		ArchiveReader ar = new ZipReader(zipFilePath);
+		assertEquals(randomFileContent, ar.getText("image.png"));
+	}
+
+	@Test
+	void testTransactionStoresCompressedFiles() throws IOException {
+		zw.beginTransaction();
+		zw.addFile(randomFileContent, "image.png");
+		zw.commit();
+
+		assertEquals(CompressionMethod.STORE, zw.getFileHeader("image.png").getCompressionMethod());
+		assertEquals(randomFileContent, new ZipReader(zipFilePath).getText("image.png"));
+	}
+
+	@Test
+	void testKeepsLineEndings() throws IOException {
+		final String content = "first\r\nsecond\nthird\n";
+		zw.addFile(content, FILES_IN_ZIP[1]);
+
+		ArchiveReader ar = new ZipReader(zipFilePath);
+		assertEquals(content, ar.getText(FILES_IN_ZIP[1]));
+	}
 }
@@ -0,0 +1,122 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.Effect;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.EntityType;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Item;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Behavior;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Properties;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite;
+
+class BinaryLevelParserTest {
+
+    @Test
+    void testRoundTrip() throws IOException, InvalidLevelConfiguration {
+        Level level = Level.valueOf(LevelTest.START_LEVEL_JSON);
+        Level decoded = Level.valueOf(new ByteArrayInputStream(level.toBinary()));
+
+        JSONAssert.assertEquals(LevelTest.START_LEVEL_JSON, decoded.toJson(), false);
+        assertEquals(level.getEntityList().size(), decoded.getEntityList().size());
+    }
+
+    @Test
+    void testSmallerThanJson() throws InvalidLevelConfiguration {
+        Level level = Level.valueOf(LevelTest.START_LEVEL_JSON);
+        int jsonSize = LevelTest.START_LEVEL_JSON.getBytes(StandardCharsets.UTF_8).length;
+
+        assertTrue(level.toBinary().length * 4 < jsonSize);
+    }
+
+    @Test
+    void testUnalignedPosition() throws IOException, InvalidLevelConfiguration {
+        Level level = Level.valueOf(LevelTest.START_LEVEL_JSON);
+        Level decoded = Level.valueOf(new ByteArrayInputStream(level.toBinary()));
+
+        Entity goalPost = decoded.getEntityList().stream()
+                .filter(entity -> entity.getSprite().getName().equals("levelelements.goalPost")).findFirst().get();
+        assertEquals(2, goalPost.getPosition().getX());
+        assertEquals(578, goalPost.getPosition().getY());
+    }
+
+    @Test
+    void testItemEffects() throws IOException, InvalidLevelConfiguration {
+        Properties properties = new Properties(Behavior.STATIC, EntityType.ITEM, false);
+        List<Effect> effects = Arrays.asList(Effect.SCORE, Effect.SPEED);
+        Item item = new Item(new Position(64, 32), new Sprite("items.coin"), properties, effects);
+        Level level = new Level("items", Collections.singleton("items"), "day.sky", Arrays.asList(item));
+
+        Level decoded = Level.valueOf(new ByteArrayInputStream(level.toBinary()));
+
+        Item decodedItem = (Item) decoded.getEntityList().get(0);
+        assertEquals(effects, decodedItem.getEffect());
+        assertEquals(64, decodedItem.getPosition().getX());
+        assertEquals(32, decodedItem.getPosition().getY());
+    }
+
+    @Test
+    void testSharedProperties() throws IOException, InvalidLevelConfiguration {
+        Level level = Level.valueOf(LevelTest.START_LEVEL_JSON);
+        Level decoded = Level.valueOf(new ByteArrayInputStream(level.toBinary()));
+
+        Entity first = decoded.getBlockList().get(new Position(0, 384));
+        Entity second = decoded.getBlockList().get(new Position(32, 384));
+        Entity spikes = decoded.getBlockList().get(new Position(160, 352));
+        assertSame(first.getProperties(), second.getProperties());
+        assertSame(first.getProperties(), spikes.getProperties());
+        assertSame(first.getSprite(), second.getSprite());
+        assertNotSame(first.getSprite(), spikes.getSprite());
+    }
+
+    @Test
+    void testInvalidMagic() {
+        byte[] data = "{\"name\":\"startLevel\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(InvalidLevelConfiguration.class, () -> Level.valueOf(new ByteArrayInputStream(data)));
+    }
+
+    @Test
+    void testTruncated() throws InvalidLevelConfiguration {
+        byte[] data = Level.valueOf(LevelTest.START_LEVEL_JSON).toBinary();
+        byte[] truncated = Arrays.copyOf(data, data.length / 2);
+
+        assertThrows(InvalidLevelConfiguration.class, () -> Level.valueOf(new ByteArrayInputStream(truncated)));
+    }
+
+    @Test
+    void testWriteAndExport(@TempDir Path tempDir) throws IOException, InvalidLevelConfiguration {
+        Path archive = tempDir.resolve("pack.zip");
+        Files.copy(Paths.get(GamePackFactoryTest.MASTER_PATH), archive);
+        String archivePath = archive.toString();
+
+        GamePackFactory.importLevelJson(archivePath, "startLevel", LevelTest.START_LEVEL_JSON);
+
+        JSONAssert.assertEquals(LevelTest.START_LEVEL_JSON,
+                GamePackFactory.exportLevelJson(archivePath, "startLevel"), false);
+        assertEquals(17, GamePackFactory.getLevel(archivePath, "startLevel").getEntityList().size());
+
+        // the level is stored under the name it's imported as
+        GamePackFactory.importLevelJson(archivePath, "imported", LevelTest.START_LEVEL_JSON);
+        assertEquals("imported", GamePackFactory.getLevel(archivePath, "imported").getLevelName());
+    }
+}
@@ -3,11 +3,14 @@ package ch.zhaw.pm3.teamretro.gamepack;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 
 class GamPackTest {
@@ -37,4 +40,14 @@ class GamPackTest {
         }
     }
 
+    @Test
+    void testToJsonUnchanged() throws IOException {
+        GamePack gamePack = GamePack.valueOf(META_JSON);
+        StringWriter compact = new StringWriter();
+        gamePack.writeJson(compact, true);
+
+        assertEquals(JsonParser.objToJson(gamePack), gamePack.toJSON());
+        assertEquals(new JSONObject(gamePack).toString(), compact.toString());
+    }
+
 }
@@ -1,15 +1,30 @@
 package ch.zhaw.pm3.teamretro.gamepack;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.skyscreamer.jsonassert.JSONAssert;
 
+import ch.zhaw.pm3.teamretro.gamepack.entity.EntityType;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Animation;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite;
+import net.lingala.zip4j.ZipFile;
+
 class GamePackFactoryTest {
     static final String MASTER_PATH = Paths.get("src", "test", "resources", "master.zip").toString();
 
@@ -37,8 +52,102 @@ class GamePackFactoryTest {
     void testGetLevel() throws IOException, InvalidLevelConfiguration {
         Level level = GamePackFactory.getLevel(MASTER_PATH, "startLevel");
         // check if the deserializaiton worked correctly
-        String levelJsonExp = GamePackFactory.getLevelJson(MASTER_PATH, "startLevel");
+        ZipFile zipFile = new ZipFile(MASTER_PATH);
+        String levelJsonExp;
+        try (InputStream input = zipFile.getInputStream(zipFile.getFileHeader("levels/startLevel.json"))) {
+            levelJsonExp = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
         String levelJsonArc = level.toJson();
         JSONAssert.assertEquals(levelJsonArc, levelJsonExp, false);
+        JSONAssert.assertEquals(levelJsonExp, GamePackFactory.exportLevelJson(MASTER_PATH, "startLevel"), false);
+    }
+
+    @Test
+    void testExplodedArchive(@TempDir Path tempDir) throws IOException, InvalidLevelConfiguration {
+        String directory = tempDir.resolve("master").toString();
+        new ZipFile(MASTER_PATH).extractAll(directory);
+
+        Level expected = GamePackFactory.getLevel(MASTER_PATH, "startLevel");
+        Level level = GamePackFactory.getLevel(directory, "startLevel");
+        assertEquals(expected.getEntityList().size(), level.getEntityList().size());
+        JSONAssert.assertEquals(expected.toJson(), level.toJson(), false);
+
+        // saving only writes the level and the meta data
+        GamePackFactory.writeLevel(directory, "copy", level);
+        assertTrue(Files.isRegularFile(tempDir.resolve(Paths.get("master", "levels", "copy.bin"))));
+        assertEquals(Arrays.asList("startLevel", "copy"), GamePackFactory.getLevelNames(directory));
+
+        GamePackFactory.removeLevelData(directory, "copy");
+        assertFalse(Files.exists(tempDir.resolve(Paths.get("master", "levels", "copy.bin"))));
+    }
+
+    /**
+     * Extends the start level with a floor far to the right.
+     */
+    private static Level createLongLevel() throws IOException, InvalidLevelConfiguration {
+        Level level = GamePackFactory.getLevel(MASTER_PATH, "startLevel");
+        for (int x = 512; x < 20 * 1024; x += 32) {
+            level.addEntity(EntityType.BLOCK, new Sprite("castle.block1"), new Position(x, 448));
+        }
+        return level;
+    }
+
+    @Test
+    void testLongLevelStoredInChunks(@TempDir Path tempDir) throws IOException, InvalidLevelConfiguration {
+        String archive = tempDir.resolve("master.zip").toString();
+        Files.copy(Paths.get(MASTER_PATH), Paths.get(archive));
+        Level level = createLongLevel();
+
+        GamePackFactory.writeLevel(archive, "long", level);
+        ZipFile zipFile = new ZipFile(archive);
+        assertNotNull(zipFile.getFileHeader("levels/long.bin"));
+        assertNotNull(zipFile.getFileHeader("levels/long/chunk_0.bin"));
+        assertNotNull(zipFile.getFileHeader("levels/long/chunk_19.bin"));
+        assertNull(zipFile.getFileHeader("levels/long/chunk_20.bin"));
+
+        // the editor gets the whole level
+        Level read = GamePackFactory.getLevel(archive, "long");
+        assertEquals(level.getEntityCount(), read.getEntityCount());
+        JSONAssert.assertEquals(level.toJson(), GamePackFactory.exportLevelJson(archive, "long"), false);
+
+        // the game only gets the part around the camera
+        try (LevelStreamer streamer = GamePackFactory.streamLevel(archive, "long")) {
+            Level streamed = streamer.getLevel();
+            assertEquals(2, streamed.getEntityCount());
+            assertNotNull(streamed.getPlayer());
+
+            streamer.update(10240, 11000);
+            TileMap.Tile tile = streamed.getTileMap().getTile(320, 14);
+            assertEquals("castle.block1", tile.getSprite().getName());
+            assertTrue(tile.getSprite().getImageCount(Animation.IDLE) > 0);
+            assertNull(streamed.getTileMap().getTile(0, 12));
+        }
+
+        // a short level doesn't leave any chunks behind
+        GamePackFactory.writeLevel(archive, "long", GamePackFactory.getLevel(MASTER_PATH, "startLevel"));
+        zipFile = new ZipFile(archive);
+        assertNotNull(zipFile.getFileHeader("levels/long.bin"));
+        assertNull(zipFile.getFileHeader("levels/long/chunk_0.bin"));
+        try (LevelStreamer streamer = GamePackFactory.streamLevel(archive, "long")) {
+            assertEquals(17, streamer.getLevel().getEntityCount());
+        }
+    }
+
+    @Test
+    void testLongLevelInExplodedArchive(@TempDir Path tempDir) throws IOException, InvalidLevelConfiguration {
+        String directory = tempDir.resolve("master").toString();
+        new ZipFile(MASTER_PATH).extractAll(directory);
+        Level level = createLongLevel();
+
+        GamePackFactory.writeLevel(directory, "long", level);
+        // writing it again replaces the chunks
+        GamePackFactory.writeLevel(directory, "long", level);
+        Path chunks = tempDir.resolve(Paths.get("master", "levels", "long"));
+        assertTrue(Files.isRegularFile(chunks.resolve("chunk_19.bin")));
+        assertEquals(level.getEntityCount(), GamePackFactory.getLevel(directory, "long").getEntityCount());
+
+        GamePackFactory.removeLevelData(directory, "long");
+        assertFalse(Files.exists(chunks));
+        assertFalse(Files.exists(tempDir.resolve(Paths.get("master", "levels", "long.bin"))));
     }
 }
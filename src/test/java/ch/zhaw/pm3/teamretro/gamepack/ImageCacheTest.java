@@ -0,0 +1,92 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Animation;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+class ImageCacheTest {
+    static final long IMAGE_SIZE = 32 * 32 * 4;
+
+    ImageCache cache;
+    int loads;
+
+    @BeforeEach
+    void setup() {
+        cache = new ImageCache(IMAGE_SIZE * 2);
+        loads = 0;
+    }
+
+    Image load(String path, long stamp) throws IOException {
+        return cache.getImage("pack.zip", path, stamp, () -> {
+            loads++;
+            return new WritableImage(32, 32);
+        });
+    }
+
+    @Test
+    void testCachedImageIsShared() throws IOException {
+        Image first = load("a.png", 1);
+        Image second = load("a.png", 1);
+
+        assertSame(first, second);
+        assertEquals(1, loads);
+        assertEquals(IMAGE_SIZE, cache.getSize());
+    }
+
+    @Test
+    void testChangedStampDecodesAgain() throws IOException {
+        Image first = load("a.png", 1);
+        Image second = load("a.png", 2);
+
+        assertNotSame(first, second);
+        assertEquals(2, loads);
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() throws IOException {
+        load("a.png", 1);
+        load("b.png", 1);
+        // use a, so b is the least recently used
+        load("a.png", 1);
+        load("c.png", 1);
+
+        assertEquals(2, cache.getImageCount());
+        assertEquals(IMAGE_SIZE * 2, cache.getSize());
+        assertEquals(3, loads);
+
+        load("a.png", 1);
+        assertEquals(3, loads);
+        load("b.png", 1);
+        assertEquals(4, loads);
+    }
+
+    @Test
+    void testImageOverBudgetIsKept() throws IOException {
+        cache = new ImageCache(IMAGE_SIZE / 2);
+        Image image = load("a.png", 1);
+
+        assertSame(image, load("a.png", 1));
+        assertEquals(1, cache.getImageCount());
+    }
+
+    @Test
+    void testLevelsShareImages() throws IOException, InvalidLevelConfiguration {
+        Level first = GamePackFactory.getLevel(GamePackFactoryTest.MASTER_PATH, "startLevel");
+        Level second = GamePackFactory.getLevel(GamePackFactoryTest.MASTER_PATH, "startLevel");
+
+        Entity firstEntity = first.getEntityList().get(0);
+        Entity secondEntity = second.getEntityList().get(0);
+        assertSame(firstEntity.getSprite().getImages(Animation.IDLE).get(0),
+                secondEntity.getSprite().getImages(Animation.IDLE).get(0));
+    }
+}
@@ -0,0 +1,92 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.Effect;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Item;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
+
+class JsonLevelParserTest {
+
+    private static final String ITEM_LEVEL_JSON = "{\"name\":\"items\",\"version\":3,\"spritePacks\":[\"items\"],"
+            + "\"background\":\"day.sky\",\"entityList\":[{\"entityType\":\"item\",\"sprite\":\"items.coin\","
+            + "\"comment\":{\"text\":[\"a\",1,null,true]},\"effects\":[\"SCORE\",\"speed\"],"
+            + "\"properties\":{\"entityType\":\"ITEM\",\"behavior\":\"STATIC\",\"solid\":\"false\"},"
+            + "\"position\":{\"x\":\"64\",\"y\":3.2e1}}]}";
+
+    @Test
+    void testStartLevel() throws IOException, InvalidLevelConfiguration {
+        Level level = JsonLevelParser.read(new StringReader(LevelTest.START_LEVEL_JSON));
+
+        JSONAssert.assertEquals(LevelTest.START_LEVEL_JSON, level.toJson(), false);
+        assertEquals(17, level.getEntityList().size());
+    }
+
+    @Test
+    void testSpritesAndPropertiesShared() throws IOException, InvalidLevelConfiguration {
+        Level level = JsonLevelParser.read(new StringReader(LevelTest.START_LEVEL_JSON));
+        Entity first = level.getBlockList().get(new Position(0, 384));
+        Entity second = level.getBlockList().get(new Position(32, 384));
+        Entity win = level.getBlockList().get(new Position(128, 608));
+
+        assertSame(first.getSprite(), second.getSprite());
+        assertSame(first.getSprite(), win.getSprite());
+        assertSame(first.getProperties(), second.getProperties());
+        assertNotSame(first.getProperties(), win.getProperties());
+        assertThrows(UnsupportedOperationException.class, () -> first.getProperties().setSolid(false));
+    }
+
+    @Test
+    void testItemAndUnknownMembers() throws IOException, InvalidLevelConfiguration {
+        Level level = JsonLevelParser.read(new StringReader(ITEM_LEVEL_JSON));
+
+        Item item = (Item) level.getEntityList().get(0);
+        List<Effect> effects = Arrays.asList(Effect.SCORE, Effect.SPEED);
+        assertEquals(effects, item.getEffect());
+        assertEquals(64, item.getPosition().getX());
+        assertEquals(32, item.getPosition().getY());
+        assertFalse(item.getProperties().isSolid());
+    }
+
+    @Test
+    void testEscapes() throws IOException, InvalidLevelConfiguration {
+        String json = "{\"name\":\"a\\\"b\\\\c\\u00e9\\/\",\"spritePacks\":[],\"background\":\"sky\",\"entityList\":[]}";
+
+        Level level = JsonLevelParser.read(new StringReader(json));
+
+        assertEquals("a\"b\\cé/", level.getLevelName());
+        assertTrue(level.getEntityList().isEmpty());
+    }
+
+    @Test
+    void testMissingMember() {
+        String json = "{\"name\":\"a\",\"spritePacks\":[],\"entityList\":[]}";
+
+        InvalidLevelConfiguration e = assertThrows(InvalidLevelConfiguration.class,
+                () -> JsonLevelParser.read(new StringReader(json)));
+        assertTrue(e.getMessage().contains("background is missing"));
+    }
+
+    @Test
+    void testMalformedJson() {
+        assertThrows(InvalidLevelConfiguration.class, () -> JsonLevelParser.read(new StringReader("{\"name\":")));
+        assertThrows(InvalidLevelConfiguration.class,
+                () -> JsonLevelParser.read(new StringReader(LevelTest.START_LEVEL_JSON + "}")));
+        assertThrows(InvalidLevelConfiguration.class, () -> JsonLevelParser
+                .read(new StringReader(LevelTest.START_LEVEL_JSON.replace("\"BLOCK\"", "\"TILE\""))));
+    }
+}
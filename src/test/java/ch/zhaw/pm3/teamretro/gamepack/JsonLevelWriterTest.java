@@ -0,0 +1,107 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.Block;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Effect;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.EntityType;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Item;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Behavior;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Properties;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite;
+
+class JsonLevelWriterTest {
+
+    private static Level itemLevel() throws InvalidLevelConfiguration {
+        List<Entity> entities = Arrays.asList(
+                new Item(new Position(64.5, 32), new Sprite("items.co\"in"),
+                        new Properties(Behavior.STATIC, EntityType.ITEM, false), Arrays.asList(Effect.SCORE)),
+                new Item(new Position(96, 32), new Sprite("items.coin"),
+                        new Properties(Behavior.STATIC, EntityType.ITEM, false), Arrays.asList(Effect.SCORE, Effect.SPEED)),
+                new Block(new Position(0, 0), new Sprite("day.cloudL"),
+                        new Properties(Behavior.STATIC, EntityType.BLOCK, true)));
+        return new Level("items", new LinkedHashSet<>(Arrays.asList("items", "day")), "day.sky", entities);
+    }
+
+    /**
+     * The order of some members of the level depends on the reflection order in
+     * org.json, apart from that the output has to be the same.
+     */
+    private static void assertSameJson(String expected, String actual) {
+        JSONAssert.assertEquals(expected, actual, true);
+        assertEquals(expected.length(), actual.length());
+        assertTrue(actual.endsWith(expected.substring(expected.lastIndexOf("\"name\""))));
+    }
+
+    @Test
+    void testSameAsReflection() throws InvalidLevelConfiguration {
+        Level startLevel = Level.valueOf(LevelTest.START_LEVEL_JSON);
+        Level itemLevel = itemLevel();
+
+        assertSameJson(JsonParser.objToJson(startLevel), startLevel.toJson());
+        assertSameJson(JsonParser.objToJson(itemLevel), itemLevel.toJson());
+    }
+
+    @Test
+    void testEntitiesSameAsReflection() throws InvalidLevelConfiguration {
+        Level level = itemLevel();
+        JSONArray entities = new JSONObject(level).getJSONArray("entityList");
+        String json = level.toJson();
+
+        for (int i = 0; i < entities.length(); i++) {
+            String entity = entities.getJSONObject(i).toString(JsonParser.INDENT).replace("\n", "\n    ");
+            assertTrue(json.contains(entity), entity);
+        }
+    }
+
+    @Test
+    void testSingleMembers() throws InvalidLevelConfiguration {
+        Block block = new Block(new Position(0, 0), new Sprite("day.cloudL"),
+                new Properties(Behavior.STATIC, EntityType.BLOCK, false));
+        Level single = new Level("single", Collections.singleton("day"), "day.sky", Arrays.asList(block));
+        Level empty = new Level("empty", Collections.emptySet(), "day.sky", Collections.emptyList());
+
+        assertSameJson(JsonParser.objToJson(single), single.toJson());
+        assertTrue(single.toJson().contains("\"spritePacks\": [\"day\"]"));
+        assertSameJson(JsonParser.objToJson(empty), empty.toJson());
+    }
+
+    @Test
+    void testCompact() throws IOException, InvalidLevelConfiguration {
+        Level level = itemLevel();
+        StringWriter writer = new StringWriter();
+
+        level.writeJson(writer, true);
+
+        assertSameJson(new JSONObject(level).toString(), writer.toString());
+        assertFalse(writer.toString().contains(" "));
+    }
+
+    @Test
+    void testRoundTrip() throws IOException, InvalidLevelConfiguration {
+        Level level = itemLevel();
+
+        Level read = Level.valueOf(new StringReader(level.toJson()));
+
+        assertEquals(level.toJson(), read.toJson());
+        assertEquals(Arrays.asList(Effect.SCORE, Effect.SPEED),
+                read.getItemList().get(new Position(96, 32)).getEffect());
+    }
+}
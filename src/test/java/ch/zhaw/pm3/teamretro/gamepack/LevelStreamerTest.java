@@ -0,0 +1,164 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.Block;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.EntityType;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Item;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Player;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Behavior;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Properties;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite;
+
+class LevelStreamerTest {
+
+    /**
+     * The amount of tiles per chunk width.
+     */
+    private static final int CHUNK_TILES = LevelStreamer.CHUNK_WIDTH / CollisionGrid.TILE_SIZE;
+
+    Level level;
+
+    @BeforeEach
+    void setup() throws InvalidLevelConfiguration {
+        level = new Level("stream");
+    }
+
+    /**
+     * Every chunk has a single block at its left border.
+     */
+    private static List<Entity> loadChunk(int chunk) {
+        return Arrays.asList(new Block(new Position((double) chunk * LevelStreamer.CHUNK_WIDTH, 384),
+                new Sprite("castle.block1"), new Properties(Behavior.STATIC, EntityType.BLOCK, true)));
+    }
+
+    /**
+     * Every chunk but the one of the player waits for the latch.
+     */
+    private static List<Entity> loadChunkAfter(CountDownLatch latch, int chunk) throws IOException {
+        if (chunk != 4) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        return loadChunk(chunk);
+    }
+
+    @Test
+    void testOnlyPlayerChunkWaitedFor() throws InvalidLevelConfiguration, InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        try (LevelStreamer streamer = new LevelStreamer(level, chunk -> loadChunkAfter(latch, chunk), 0, 7)) {
+            assertFalse(level.isStreamedIn(100));
+
+            // the player is in the middle of the visible area
+            streamer.update(3100, 5100);
+            assertNotNull(level.getTileMap().getTile(4 * CHUNK_TILES, 12));
+            assertNull(level.getTileMap().getTile(5 * CHUNK_TILES, 12));
+            assertTrue(level.isStreamedIn(4096));
+            assertFalse(level.isStreamedIn(4095));
+            assertFalse(level.isStreamedIn(5120));
+
+            latch.countDown();
+            for (int i = 0; i < 500 && !(level.isStreamedIn(2048) && level.isStreamedIn(6000)); i++) {
+                Thread.sleep(10);
+                streamer.update(3100, 5100);
+            }
+            assertNotNull(level.getTileMap().getTile(5 * CHUNK_TILES, 12));
+            assertTrue(level.isStreamedIn(2048));
+            assertTrue(level.isStreamedIn(6143));
+            assertFalse(level.isStreamedIn(6144));
+            assertFalse(level.isStreamedIn(100));
+        }
+    }
+
+    @Test
+    void testFarChunksDropped() throws InvalidLevelConfiguration {
+        LevelStreamer streamer = new LevelStreamer(level, LevelStreamerTest::loadChunk, 0, 7);
+        // loading right away, so the added chunks are known
+        streamer.loadInForeground();
+        Player player = level.getPlayer();
+
+        streamer.update(0, 1000);
+        assertEquals(2, level.getTileMap().size());
+        assertTrue(level.isStreamedIn(-1000));
+        assertTrue(level.isStreamedIn(2047));
+        assertFalse(level.isStreamedIn(2048));
+
+        streamer.update(4096, 5000);
+        assertNull(level.getTileMap().getTile(0, 12));
+        assertNull(level.getTileMap().getTile(CHUNK_TILES, 12));
+        assertEquals(3, level.getTileMap().size());
+        assertFalse(level.isStreamedIn(3071));
+        assertTrue(level.isStreamedIn(3072));
+        assertEquals(player, level.getPlayer());
+
+        streamer.update(7168, 8000);
+        assertTrue(level.isStreamedIn(100000));
+    }
+
+    @Test
+    void testItemsDropped() throws InvalidLevelConfiguration {
+        LevelStreamer streamer = new LevelStreamer(level,
+                chunk -> Arrays.asList(new Item(new Position((double) chunk * LevelStreamer.CHUNK_WIDTH + 5, 300),
+                        new Sprite("items.coin"), new Properties(Behavior.STATIC, EntityType.ITEM, false))),
+                0, 7);
+        streamer.loadInForeground();
+
+        streamer.update(0, 1000);
+        assertEquals(2, level.getItemList().size());
+
+        streamer.update(6144, 7000);
+        assertEquals(3, level.getItemList().size());
+        assertFalse(level.getItemList().containsKey(new Position(5, 300)));
+        assertEquals(4, level.getEntityCount());
+    }
+
+    @Test
+    void testLoadFailure() {
+        try (LevelStreamer streamer = new LevelStreamer(level, chunk -> {
+            throw new IOException("broken");
+        }, 0, 7)) {
+            InvalidLevelConfiguration e = assertThrows(InvalidLevelConfiguration.class,
+                    () -> streamer.update(0, 1000));
+            assertTrue(e.getMessage().contains("broken"));
+        }
+    }
+
+    @Test
+    void testClosed() {
+        LevelStreamer streamer = new LevelStreamer(level, LevelStreamerTest::loadChunk, 0, 7);
+        streamer.close();
+        assertThrows(IllegalStateException.class, () -> streamer.update(0, 1000));
+    }
+
+    @Test
+    void testNothingToStream() throws InvalidLevelConfiguration {
+        try (LevelStreamer streamer = new LevelStreamer(level, chunk -> {
+            throw new IOException("not stored in chunks");
+        }, 0, -1)) {
+            streamer.update(4096, 5000);
+
+            assertTrue(level.isStreamedIn(-100000));
+            assertTrue(level.isStreamedIn(100000));
+        }
+    }
+}
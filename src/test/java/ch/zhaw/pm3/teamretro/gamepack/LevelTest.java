@@ -13,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.skyscreamer.jsonassert.JSONAssert;
 
 import ch.zhaw.pm3.teamretro.gamepack.entity.Block;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Enemy;
 import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
 import ch.zhaw.pm3.teamretro.gamepack.entity.EntityType;
 import ch.zhaw.pm3.teamretro.gamepack.entity.Player;
@@ -137,6 +138,61 @@ class LevelTest {
         }
     }
 
+    @Test
+    void testIndexesFollowEdits() throws InvalidLevelConfiguration {
+        Position pos = new Position(320, 384);
+        int blockCount = startLevel.getBlockList().size();
+        List<Entity> found = new ArrayList<>();
+
+        Entity block = startLevel.addEntity(EntityType.BLOCK, new Sprite("castle.block1"), pos).getKey().get();
+        assertEquals(blockCount + 1, startLevel.getBlockList().size());
+        assertEquals(block.getSpriteName(), startLevel.getBlockList().get(pos).getSpriteName());
+        assertEquals(pos, startLevel.getCollisionGrid().getEntityAt(10, 12).getPosition());
+        assertEquals(block.getSpriteName(), startLevel.getTileMap().getTile(10, 12).getSprite().getName());
+
+        startLevel.removeEntity(pos);
+        assertEquals(blockCount, startLevel.getBlockList().size());
+        assertEquals(null, startLevel.getCollisionGrid().getEntityAt(10, 12));
+        assertEquals(null, startLevel.getTileMap().getTile(10, 12));
+
+        // blocks off the tile grid are kept in the spatial index
+        Position offGrid = new Position(330, 384);
+        block = startLevel.addEntity(EntityType.BLOCK, new Sprite("castle.block1"), offGrid).getKey().get();
+        assertEquals(block, startLevel.getBlockList().get(offGrid));
+        assertTrue(startLevel.getBlockIndex().query(330, 384, 330, 384, found).contains(block));
+        startLevel.removeEntity(offGrid);
+        assertTrue(startLevel.getBlockIndex().query(330, 384, 330, 384, found).isEmpty());
+
+        Player oldPlayer = startLevel.getPlayer();
+        Entity newPlayer = startLevel.addEntity(EntityType.PLAYER, new Sprite(PLAYER_SPRITE), new Position(64, 64))
+                .getKey().get();
+        assertEquals(newPlayer, startLevel.getPlayer());
+        assertEquals(newPlayer, startLevel.getCollisionGrid().getEntityAt(2, 2));
+        assertEquals(null, startLevel.getCollisionGrid().getEntityAt(4, 4));
+        assertTrue(oldPlayer != startLevel.getPlayer());
+    }
+
+    @Test
+    void testSnapshot() throws InvalidLevelConfiguration {
+        LevelSnapshot snapshot = startLevel.createSnapshot();
+        Player player = startLevel.getPlayer();
+        Enemy enemy = startLevel.getEnemyList().values().iterator().next();
+
+        player.setPosition(64, 64);
+        player.setVelocity(3, 4);
+        startLevel.killEnemy(enemy);
+        assertTrue(startLevel.getEnemyList().isEmpty());
+
+        startLevel.restoreSnapshot(snapshot);
+        assertEquals(new Position(128, 128), player.getPosition());
+        assertEquals(0, player.getVelocity().getX());
+        assertTrue(startLevel.getEnemyList().containsValue(enemy));
+        assertEquals(player, startLevel.getCollisionGrid().getEntityAt(4, 4));
+        assertEquals(enemy, startLevel.getCollisionGrid().getEntityAt(4, 18));
+
+        assertThrows(IllegalArgumentException.class, () -> level.restoreSnapshot(snapshot));
+    }
+
     @Test
     void toJson() {
         JSONAssert.assertEquals(START_LEVEL_JSON, startLevel.toJson(), false);
@@ -0,0 +1,86 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.Block;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.EntityType;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Behavior;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Properties;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite;
+
+class SpatialIndexTest {
+
+    SpatialIndex index;
+    List<Entity> result;
+    Sprite sprite;
+    Properties properties;
+
+    @BeforeEach
+    void setup() {
+        index = new SpatialIndex();
+        result = new ArrayList<>();
+        sprite = new Sprite("retro.dirt");
+        properties = new Properties(Behavior.STATIC, EntityType.BLOCK, true);
+    }
+
+    Block block(double x, double y) {
+        Block block = new Block(new Position(x, y), sprite, properties);
+        index.add(block);
+        return block;
+    }
+
+    @Test
+    void testQuery() {
+        Block inside = block(64, 64);
+        Block border = block(640, 480);
+        block(641, 64);
+        block(64, -32);
+        block(5000, 5000);
+
+        index.query(0, 0, 640, 480, result);
+        assertEquals(2, result.size());
+        assertTrue(result.contains(inside));
+        assertTrue(result.contains(border));
+    }
+
+    @Test
+    void testNegativeCoordinates() {
+        Block negative = block(-600, -10);
+        block(-2000, -10);
+
+        index.query(-1000, -100, 0, 0, result);
+        assertEquals(List.of(negative), result);
+    }
+
+    @Test
+    void testRemove() {
+        Block first = block(32, 32);
+        Block second = block(32, 32);
+
+        index.remove(first);
+        index.query(0, 0, 100, 100, result);
+        assertEquals(List.of(second), result);
+
+        index.clear();
+        index.query(0, 0, 100, 100, result);
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void testLevelIndex() throws InvalidLevelConfiguration {
+        Level level = Level.valueOf(LevelTest.START_LEVEL_JSON);
+        level.getBlockIndex().query(0, 0, 640, 640, result);
+        // only the goal post is off the tile grid, the other blocks are tiles
+        assertEquals(1, result.size());
+        assertEquals(new Position(2, 578), result.get(0).getPosition());
+    }
+}
@@ -0,0 +1,154 @@
+package ch.zhaw.pm3.teamretro.gamepack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.zhaw.pm3.teamretro.gamepack.entity.Block;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Entity;
+import ch.zhaw.pm3.teamretro.gamepack.entity.EntityType;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Behavior;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Properties;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite;
+
+class TileMapTest {
+
+    TileMap tileMap;
+
+    @BeforeEach
+    void setup() {
+        tileMap = new TileMap();
+    }
+
+    private static Block block(double x, double y, String sprite, boolean solid) {
+        return new Block(new Position(x, y), new Sprite(sprite), new Properties(Behavior.STATIC, EntityType.BLOCK, solid));
+    }
+
+    @Test
+    void testPutAndRemove() throws InvalidLevelConfiguration {
+        tileMap.put(block(64, 32, "castle.block1", true));
+
+        TileMap.Tile tile = tileMap.getTile(2, 1);
+        assertEquals("castle.block1", tile.getSprite().getName());
+        assertTrue(tile.getProperties().isShared());
+        assertEquals(1, tileMap.size());
+        assertNull(tileMap.getTile(1, 2));
+
+        Block removed = tileMap.remove(new Position(64, 32));
+        assertEquals(new Position(64, 32), removed.getPosition());
+        assertSame(tile.getProperties(), removed.getProperties());
+        assertNull(tileMap.getTile(2, 1));
+        assertNull(tileMap.remove(new Position(64, 32)));
+        assertEquals(0, tileMap.size());
+    }
+
+    @Test
+    void testPaletteShared() throws InvalidLevelConfiguration {
+        tileMap.put(block(0, 0, "castle.block1", true));
+        tileMap.put(block(32, 0, "castle.block1", true));
+        tileMap.put(block(64, 0, "castle.block1", false));
+        tileMap.put(block(0, 0, "castle.block2", true));
+
+        assertEquals(3, tileMap.getPalette().size());
+        assertEquals(3, tileMap.size());
+        assertSame(tileMap.getTile(1, 0), tileMap.getPalette().get(0));
+        assertEquals("castle.block2", tileMap.getTile(0, 0).getSprite().getName());
+    }
+
+    @Test
+    void testSpriteReplacedForAllBlocks() throws InvalidLevelConfiguration {
+        tileMap.put(block(0, 0, "castle.block1", true));
+        tileMap.put(block(32, 0, "castle.block1", true));
+        Sprite loaded = new Sprite("castle.block1");
+
+        tileMap.getPalette().get(0).setSprite(loaded);
+
+        List<Block> blocks = new ArrayList<>();
+        tileMap.addBlocksTo(blocks);
+        assertEquals(2, blocks.size());
+        for (Block block : blocks) {
+            assertSame(loaded, block.getSprite());
+        }
+    }
+
+    @Test
+    void testBlocksInAllChunks() throws InvalidLevelConfiguration {
+        Set<Position> positions = Set.of(new Position(0, 0), new Position(-32, -640), new Position(1024, 96),
+                new Position(480, 480));
+        for (Position position : positions) {
+            tileMap.put(block(position.getX(), position.getY(), "castle.block1", true));
+        }
+
+        List<Block> blocks = new ArrayList<>();
+        tileMap.addBlocksTo(blocks);
+
+        assertEquals(positions, blocks.stream().map(Entity::getPosition).collect(Collectors.toSet()));
+        assertEquals("castle.block1", tileMap.getTile(-1, -20).getSprite().getName());
+    }
+
+    @Test
+    void testOnlyAlignedBlocksAreTiles() {
+        assertTrue(TileMap.isTile(block(32, 64, "castle.block1", true)));
+        assertFalse(TileMap.isTile(block(2, 578, "levelelements.goalPost", true)));
+        assertNull(tileMap.getTile(new Position(2, 578)));
+    }
+
+    @Test
+    void testChunkStamps() throws InvalidLevelConfiguration {
+        long stamp = tileMap.getChunkStamp(0, 0);
+        long otherStamp = tileMap.getChunkStamp(1, 0);
+
+        tileMap.put(block(480, 0, "castle.block1", true));
+        assertNotEquals(stamp, tileMap.getChunkStamp(0, 0));
+        assertEquals(otherStamp, tileMap.getChunkStamp(1, 0));
+
+        stamp = tileMap.getChunkStamp(0, 0);
+        tileMap.clear();
+        assertNotEquals(stamp, tileMap.getChunkStamp(0, 0));
+        assertNull(tileMap.getTile(15, 0));
+    }
+
+    @Test
+    void testLevelKeepsAlignedBlocksAsTiles() throws InvalidLevelConfiguration {
+        Level level = Level.valueOf(LevelTest.START_LEVEL_JSON);
+
+        // the goal post is off the tile grid, the player and the enemy aren't blocks
+        assertEquals(14, level.getTileMap().size());
+        assertEquals(3, level.getStoredEntities().size());
+        assertEquals(17, level.getEntityCount());
+        assertEquals(17, level.getEntityList().size());
+        assertEquals(7, level.getTileMap().getPalette().size());
+    }
+
+    @Test
+    void testCollisionGridReadsTiles() throws InvalidLevelConfiguration {
+        Level level = Level.valueOf(LevelTest.START_LEVEL_JSON);
+        CollisionGrid grid = level.getCollisionGrid();
+
+        Entity block = grid.getEntityAt(5, 11);
+        assertEquals(new Position(160, 352), block.getPosition());
+        assertEquals("castle.spikes", block.getSpriteName());
+        assertEquals(new Position(0, 384), grid.getEntityAt(0, 12).getPosition());
+        // clouds aren't solid, so nothing collides with them
+        assertNull(grid.getEntityAt(0, 0));
+
+        // the block standing in is reused for the tiles 16 tiles apart
+        level.addEntity(EntityType.BLOCK, new Sprite("castle.block1"), new Position(672, 352));
+        Entity other = grid.getEntityAt(21, 11);
+        assertSame(block, other);
+        assertEquals(new Position(672, 352), other.getPosition());
+        assertEquals("castle.block1", other.getSpriteName());
+    }
+}
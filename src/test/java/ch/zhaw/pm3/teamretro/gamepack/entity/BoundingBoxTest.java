@@ -0,0 +1,68 @@
+package ch.zhaw.pm3.teamretro.gamepack.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BoundingBoxTest {
+
+    BoundingBox block = new BoundingBox(32, 32, 32, 32);
+
+    @Test
+    void testIntersects() {
+        assertTrue(block.intersects(new BoundingBox(48, 48, 32, 32)));
+        assertTrue(block.intersects(new BoundingBox(40, 40, 8, 8)));
+        assertFalse(block.intersects(new BoundingBox(100, 32, 32, 32)));
+    }
+
+    @Test
+    void testTouchingEdgesDontIntersect() {
+        assertFalse(block.intersects(new BoundingBox(64, 32, 32, 32)));
+        assertFalse(block.intersects(new BoundingBox(32, 0, 32, 32)));
+    }
+
+    @Test
+    void testEmptyNeverIntersects() {
+        assertFalse(block.intersects(new BoundingBox(40, 40, 0, 8)));
+        assertFalse(new BoundingBox().intersects(block));
+    }
+
+    @Test
+    void testContains() {
+        assertTrue(block.contains(32, 32));
+        assertFalse(block.contains(64, 40));
+        assertTrue(block.contains(new BoundingBox(40, 40, 24, 24)));
+        assertFalse(block.contains(new BoundingBox(40, 40, 25, 24)));
+    }
+
+    @Test
+    void testSweep() {
+        BoundingBox player = new BoundingBox(32, -32, 32, 32);
+        // falls 64px, touches the block after 32px
+        assertEquals(0.5, player.sweep(block, 0, 64));
+
+        // only touches the block at the very end
+        player.setPosition(32, -64);
+        assertEquals(1, player.sweep(block, 0, 64));
+        // moving away never hits
+        assertEquals(1, player.sweep(block, 0, -64));
+        // not far enough
+        assertEquals(1, player.sweep(block, 0, 16));
+    }
+
+    @Test
+    void testSweepTunneling() {
+        BoundingBox bullet = new BoundingBox(0, 40, 4, 4);
+        // ends up behind the block, which a plain intersection would miss
+        BoundingBox end = new BoundingBox(100, 40, 4, 4);
+        assertFalse(end.intersects(block));
+        assertEquals(28.0 / 100.0, bullet.sweep(block, 100, 0));
+    }
+
+    @Test
+    void testSweepAlreadyOverlapping() {
+        assertEquals(0, new BoundingBox(40, 40, 8, 8).sweep(block, 10, 10));
+    }
+}
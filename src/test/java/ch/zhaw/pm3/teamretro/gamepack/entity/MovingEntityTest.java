@@ -67,4 +67,17 @@ class MovingEntityTest {
         player.setColliding(true);
         assertTrue(player.isColliding());
     }
+
+    @Test
+    void testInterpolation() {
+        enemy.setVelocity(8, -4);
+        enemy.storePreviousPosition();
+        enemy.tick();
+        assertEquals(128, enemy.getInterpolatedX(0));
+        assertEquals(576, enemy.getInterpolatedY(0));
+        assertEquals(132, enemy.getInterpolatedX(0.5));
+        assertEquals(574, enemy.getInterpolatedY(0.5));
+        assertEquals(136, enemy.getInterpolatedX(1));
+        assertEquals(572, enemy.getInterpolatedY(1));
+    }
 }
@@ -59,4 +59,16 @@ class PropertiesTest {
 	void testHashCode() {
 		assertEquals(prop.hashCode(), prop2.hashCode());
 	}
-}
\ No newline at end of file
+
+	@Test
+	void testShared() {
+		Properties shared = new Properties(Behavior.STATIC, EntityType.BLOCK, true).share();
+
+		assertTrue(shared.isShared());
+		assertFalse(prop.isShared());
+		assertThrows(UnsupportedOperationException.class, () -> shared.setSolid(false));
+		assertThrows(UnsupportedOperationException.class, () -> shared.setBehavior(Behavior.WIN));
+		assertThrows(UnsupportedOperationException.class, () -> shared.setEntityType(EntityType.ITEM));
+		assertEquals(new Properties(Behavior.STATIC, EntityType.BLOCK, true), shared);
+	}
+}
@@ -0,0 +1,68 @@
+package ch.zhaw.pm3.teamretro.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import ch.zhaw.pm3.teamretro.gamepack.GamePackFactory;
+import ch.zhaw.pm3.teamretro.gamepack.InvalidLevelConfiguration;
+import ch.zhaw.pm3.teamretro.gamepack.Level;
+import ch.zhaw.pm3.teamretro.logic.game.GameSimulation;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class FlightRecordingTest {
+    static final String MASTER_PATH = Paths.get("src", "test", "resources", "master.zip").toString();
+
+    @Test
+    void testEventsAreRecorded() throws IOException, InvalidLevelConfiguration {
+        Path dump = Files.createTempFile("jumpandbuild", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(LevelLoadEvent.class);
+            recording.enable(ArchiveReadEvent.class);
+            recording.enable(CollisionEvent.class);
+            recording.start();
+            assertTrue(FlightRecording.isActive());
+
+            Level level = GamePackFactory.getLevel(MASTER_PATH, "startLevel");
+            GameSimulation simulation = new GameSimulation(keyBindings -> false, 512);
+            simulation.start(level);
+            simulation.advance(10);
+
+            recording.stop();
+            assertFalse(FlightRecording.isActive());
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        Files.delete(dump);
+
+        List<RecordedEvent> loads = byName(events, "ch.zhaw.pm3.teamretro.LevelLoad");
+        assertEquals(1, loads.size());
+        assertEquals("startLevel", loads.get(0).getString("level"));
+        assertEquals(17, loads.get(0).getInt("entities"));
+
+        List<RecordedEvent> reads = byName(events, "ch.zhaw.pm3.teamretro.ArchiveRead");
+        assertTrue(reads.stream().anyMatch(event -> event.getString("entry").startsWith("levels/startLevel")));
+        assertTrue(reads.stream().allMatch(event -> event.getLong("size") > 0));
+
+        List<RecordedEvent> collisions = byName(events, "ch.zhaw.pm3.teamretro.Collision");
+        assertTrue(collisions.size() >= 10);
+        assertTrue(collisions.stream().anyMatch(event -> "PLAYER".equals(event.getString("subject"))));
+    }
+
+    private static List<RecordedEvent> byName(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+}
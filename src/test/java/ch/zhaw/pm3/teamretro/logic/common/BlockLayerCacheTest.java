@@ -0,0 +1,62 @@
+package ch.zhaw.pm3.teamretro.logic.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.zhaw.pm3.teamretro.gamepack.GamePackFactory;
+import ch.zhaw.pm3.teamretro.gamepack.InvalidLevelConfiguration;
+import ch.zhaw.pm3.teamretro.gamepack.Level;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
+import javafx.scene.image.Image;
+
+class BlockLayerCacheTest {
+    static final String MASTER_PATH = Paths.get("src", "test", "resources", "master.zip").toString();
+
+    Level level;
+    BlockLayerCache cache;
+
+    @BeforeEach
+    void setup() throws IOException, InvalidLevelConfiguration {
+        level = GamePackFactory.getLevel(MASTER_PATH, "startLevel");
+        cache = new BlockLayerCache(level.getBlockIndex(), level.getTileMap());
+    }
+
+    @Test
+    void testBlend() {
+        assertEquals(0xFF102030, BlockLayerCache.blend(0xFFFFFFFF, 0xFF102030));
+        assertEquals(0xFFFFFFFF, BlockLayerCache.blend(0xFFFFFFFF, 0x00102030));
+        assertEquals(0x80FF0000, BlockLayerCache.blend(0x00000000, 0x80FF0000));
+        assertEquals(0xFF80007F, BlockLayerCache.blend(0xFF0000FF, 0x80FF0000));
+    }
+
+    @Test
+    void testChunkImage() throws InvalidLevelConfiguration {
+        Image image = cache.getChunkImage(0, 0);
+        assertNotNull(image);
+        // the ground is solid, the sky above it is empty
+        assertEquals(0xFF, image.getPixelReader().getArgb(16, 400) >>> 24);
+        assertEquals(0, image.getPixelReader().getArgb(400, 200));
+
+        assertSame(image, cache.getChunkImage(0, 0));
+        assertNull(cache.getChunkImage(5, 5));
+    }
+
+    @Test
+    void testRebuildOnChange() throws InvalidLevelConfiguration {
+        Image image = cache.getChunkImage(0, 0);
+        int ground = image.getPixelReader().getArgb(16, 400);
+
+        level.removeEntity(new Position(0, 384));
+        image = cache.getChunkImage(0, 0);
+        assertNotEquals(ground, image.getPixelReader().getArgb(16, 400));
+    }
+}
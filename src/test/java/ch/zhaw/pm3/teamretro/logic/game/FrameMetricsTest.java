@@ -0,0 +1,83 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+class FrameMetricsTest {
+
+    @Test
+    void testSnapshotAndReset() {
+        FrameMetrics metrics = new FrameMetrics();
+        for (int i = 1; i <= 100; i++) {
+            metrics.record(Metric.FRAME_TIME, i * 1_000_000L);
+            metrics.record(Metric.ENTITY_COUNT, 20);
+        }
+
+        MetricsSnapshot snapshot = metrics.snapshotAndReset();
+        MetricsSnapshot.Stats frameTime = snapshot.getStats(Metric.FRAME_TIME);
+        assertEquals(100, frameTime.getCount());
+        assertEquals(1_000_000, frameTime.getMin());
+        assertEquals(100_000_000, frameTime.getMax());
+        assertEquals(99_000_000, frameTime.getP99(), 99_000_000 * 0.04);
+        assertEquals(20, snapshot.getStats(Metric.ENTITY_COUNT).getP50());
+        assertEquals(0, snapshot.getStats(Metric.RENDER_TIME).getCount());
+        assertTrue(snapshot.getFramesPerSecond() > 0);
+
+        assertEquals(0, metrics.snapshot().getStats(Metric.FRAME_TIME).getCount());
+    }
+
+    @Test
+    void testDisabled() {
+        FrameMetrics metrics = new FrameMetrics();
+        metrics.setEnabled(false);
+        metrics.record(Metric.FRAME_TIME, 1);
+        assertEquals(0, metrics.snapshot().getStats(Metric.FRAME_TIME).getCount());
+    }
+
+    @Test
+    void testRecordDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        FrameMetrics metrics = new FrameMetrics();
+        recordFrames(metrics);
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        recordFrames(metrics);
+        assertEquals(0, threads.getThreadAllocatedBytes(threadId) - before);
+    }
+
+    @Test
+    void testExportJsonLines() throws IOException {
+        FrameMetrics metrics = new FrameMetrics();
+        metrics.record(Metric.COLLISION_TIME, 5000);
+        StringWriter out = new StringWriter();
+        MetricsExporter exporter = new MetricsExporter(out);
+        exporter.export(metrics.snapshotAndReset());
+        exporter.export(metrics.snapshotAndReset());
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        JSONObject first = new JSONObject(lines[0]);
+        assertEquals(1, first.getJSONObject("collisionTime").getLong("count"));
+        assertEquals(5000, first.getJSONObject("collisionTime").getLong("p99"));
+        assertEquals(0, new JSONObject(lines[1]).getJSONObject("collisionTime").getLong("count"));
+        assertTrue(first.has("frameTime"));
+        assertTrue(first.has("timestamp"));
+    }
+
+    private static void recordFrames(FrameMetrics metrics) {
+        for (int i = 0; i < 10_000; i++) {
+            metrics.record(Metric.FRAME_TIME, 16_000_000L + i);
+            metrics.record(Metric.SIMULATION_TIME, 1_000_000L + i);
+            metrics.record(Metric.ENTITY_COUNT, i % 50);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.zhaw.pm3.teamretro.gamepack.GamePackFactory;
+import ch.zhaw.pm3.teamretro.gamepack.InvalidLevelConfiguration;
+import ch.zhaw.pm3.teamretro.gamepack.Level;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Enemy;
+import ch.zhaw.pm3.teamretro.gamepack.entity.EntityType;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Player;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite;
+
+class GameSimulationTest {
+    static final String MASTER_PATH = Paths.get("src", "test", "resources", "master.zip").toString();
+
+    /**
+     * The height of the game canvas.
+     */
+    static final double FALL_LIMIT = 512;
+
+    private final Set<KeyBindings> pressed = EnumSet.noneOf(KeyBindings.class);
+
+    private GameSimulation simulation;
+
+    private Level level;
+
+    private int deaths;
+
+    @BeforeEach
+    void setUp() throws IOException, InvalidLevelConfiguration {
+        level = GamePackFactory.getLevel(MASTER_PATH, "startLevel");
+        simulation = new GameSimulation(pressed::contains, FALL_LIMIT);
+        simulation.setListener(new SimulationListener() {
+            @Override
+            public void playerDied() {
+                deaths++;
+            }
+        });
+        simulation.start(level);
+    }
+
+    @Test
+    void testPlayerLandsOnGround() throws InvalidLevelConfiguration {
+        Player player = level.getPlayer();
+        simulation.advance(300);
+        double landed = player.getPosition().getY();
+
+        simulation.advance(300);
+        assertEquals(landed, player.getPosition().getY());
+        assertTrue(landed < 384);
+        assertEquals(0, deaths);
+    }
+
+    @Test
+    void testPlayerWalksLeft() throws InvalidLevelConfiguration {
+        Player player = level.getPlayer();
+        simulation.advance(120);
+        double startX = player.getPosition().getX();
+
+        pressed.add(KeyBindings.WALK_LEFT);
+        simulation.advance(30);
+        assertTrue(player.getPosition().getX() < startX);
+    }
+
+    @Test
+    void testPlayerFallsOffLevel() throws InvalidLevelConfiguration {
+        Player player = level.getPlayer();
+        pressed.add(KeyBindings.WALK_RIGHT);
+        pressed.add(KeyBindings.JUMP);
+        for (int i = 0; i < 2000 && deaths == 0; i++) {
+            simulation.advance(1);
+        }
+        assertEquals(1, deaths);
+        assertEquals(player.getSpawnPosition(), player.getPosition());
+        assertTrue(simulation.isRunning());
+    }
+
+    @Test
+    void testStop() throws InvalidLevelConfiguration {
+        simulation.stop();
+        assertFalse(simulation.isRunning());
+        double y = level.getPlayer().getPosition().getY();
+        simulation.advance(10);
+        assertEquals(y, level.getPlayer().getPosition().getY());
+    }
+
+    @Test
+    void testResetRestoresSnapshot() throws InvalidLevelConfiguration {
+        Player player = level.getPlayer();
+        int enemies = level.getEnemyList().size();
+        // the enemy of the start level spawns below the fall limit
+        simulation.advance(60);
+        assertEquals(enemies - 1, level.getEnemyList().size());
+
+        simulation.stop();
+        simulation.reset();
+        assertTrue(simulation.isRunning());
+        assertEquals(enemies, level.getEnemyList().size());
+        assertEquals(player.getSpawnPosition(), player.getPosition());
+    }
+
+    @Test
+    void testTickDoesNotAllocate() throws InvalidLevelConfiguration {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        Enemy enemy = addEnemyOnGround();
+
+        // warm up all the paths, the enemy of the start level falls off, the other
+        // one keeps walking and the player lands
+        walkBackAndForth(50);
+        // every round is checked, an allocation of the tick shows up with at least
+        // 16 bytes per tick, while the JIT compiler occasionally shows up with a
+        // few hundred bytes per round
+        for (int round = 0; round < 5; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            int ticks = walkBackAndForth(50);
+            long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+            assertTrue(allocated < ticks, String.format("%d bytes allocated in %d ticks", allocated, ticks));
+            assertEquals(Collections.singletonList(enemy), level.getLivingEnemies());
+        }
+
+        assertEquals(0, deaths);
+    }
+
+    @Test
+    void testRecordsCollisionTime() throws InvalidLevelConfiguration {
+        FrameMetrics metrics = new FrameMetrics();
+        simulation.setMetrics(metrics);
+        simulation.advance(30);
+        assertEquals(30, metrics.snapshot().getStats(Metric.COLLISION_TIME).getCount());
+
+        simulation.setMetrics(null);
+        simulation.advance(30);
+        assertEquals(30, metrics.snapshot().getStats(Metric.COLLISION_TIME).getCount());
+    }
+
+    /**
+     * Adds an enemy on a floor between two walls, away from the player, and
+     * starts the simulation over again.
+     *
+     * @return the enemy
+     */
+    private Enemy addEnemyOnGround() throws InvalidLevelConfiguration {
+        Sprite block = level.getBlockList().get(new Position(0, 384)).getSprite();
+        Sprite enemySprite = level.getEnemyList().values().iterator().next().getSprite();
+        for (int x = 992; x <= 1344; x += 32) {
+            level.addEntity(EntityType.BLOCK, block, new Position(x, 384));
+        }
+        level.addEntity(EntityType.BLOCK, block, new Position(992, 352));
+        level.addEntity(EntityType.BLOCK, block, new Position(1344, 352));
+        level.addEntity(EntityType.ENEMY, enemySprite, new Position(1152, 256));
+        simulation.start(level);
+        return level.getEnemyList().get(new Position(1152, 256));
+    }
+
+    /**
+     * @return the amount of ticks advanced
+     */
+    private int walkBackAndForth(int times) throws InvalidLevelConfiguration {
+        for (int i = 0; i < times; i++) {
+            pressed.add(KeyBindings.WALK_LEFT);
+            simulation.advance(20);
+            pressed.remove(KeyBindings.WALK_LEFT);
+            pressed.add(KeyBindings.WALK_RIGHT);
+            simulation.advance(20);
+            pressed.remove(KeyBindings.WALK_RIGHT);
+            simulation.advance(20);
+        }
+        return times * 60;
+    }
+}
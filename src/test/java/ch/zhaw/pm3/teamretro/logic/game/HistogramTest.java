@@ -0,0 +1,85 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HistogramTest {
+
+    @Test
+    void testEmpty() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 50; i++) {
+            histogram.record(i);
+        }
+        assertEquals(50, histogram.getCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(50, histogram.getMax());
+        assertEquals(25.5, histogram.getMean());
+        assertEquals(25, histogram.getValueAtPercentile(50));
+        assertEquals(45, histogram.getValueAtPercentile(90));
+        assertEquals(1, histogram.getValueAtPercentile(0));
+        assertEquals(50, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testPercentilesOfFrameTimes() {
+        Histogram histogram = new Histogram();
+        // 990 smooth frames and 10 hiccups
+        for (int i = 0; i < 990; i++) {
+            histogram.record(16_666_666);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(50_000_000);
+        }
+        assertWithinPrecision(16_666_666, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(16_666_666, histogram.getValueAtPercentile(99));
+        assertWithinPrecision(50_000_000, histogram.getValueAtPercentile(99.9));
+        assertEquals(50_000_000, histogram.getMax());
+    }
+
+    @Test
+    void testNegativeAndHugeValues() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.getMin());
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testBucketsAreContiguous() {
+        for (long value = 0; value < 100_000; value++) {
+            int index = Histogram.indexOf(value);
+            assertTrue(Histogram.highestValueOf(index) >= value);
+            assertTrue(index == 0 || Histogram.highestValueOf(index - 1) < value);
+        }
+    }
+
+    @Test
+    void testReset() {
+        Histogram histogram = new Histogram();
+        histogram.record(42);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        histogram.record(7);
+        assertEquals(7, histogram.getMin());
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertEquals(expected, actual, expected * 0.04);
+    }
+}
@@ -0,0 +1,76 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class InputRecordingTest {
+
+    @Test
+    void testCapture() {
+        Set<KeyBindings> pressed = EnumSet.of(KeyBindings.JUMP, KeyBindings.RUN);
+        int tick = InputRecording.capture(pressed::contains);
+        assertTrue(InputRecording.isPressed(tick, KeyBindings.JUMP));
+        assertTrue(InputRecording.isPressed(tick, KeyBindings.RUN));
+        assertFalse(InputRecording.isPressed(tick, KeyBindings.WALK_LEFT));
+        assertEquals(0, tick & (InputRecording.FROZEN | InputRecording.RESTART));
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        InputRecording recording = new InputRecording("pack.zip", "Sky Land", 42, 512);
+        for (int i = 0; i < 10_000; i++) {
+            recording.append(i < 60 ? InputRecording.FROZEN : (i / 500) % 4);
+        }
+        recording.append(InputRecording.RESTART | InputRecording.FROZEN);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recording.writeTo(out);
+        // the input rarely changes, so the ticks are run length encoded
+        assertTrue(out.size() < 200);
+
+        InputRecording read = InputRecording.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("pack.zip", read.getGamePack());
+        assertEquals("Sky Land", read.getLevelName());
+        assertEquals(42, read.getSeed());
+        assertEquals(512, read.getFallLimit());
+        assertEquals(recording.getTickCount(), read.getTickCount());
+        for (int i = 0; i < recording.getTickCount(); i++) {
+            assertEquals(recording.getTick(i), read.getTick(i));
+        }
+    }
+
+    @Test
+    void testEmpty() throws IOException {
+        InputRecording recording = new InputRecording(null, "level", 0, 512);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recording.writeTo(out);
+        InputRecording read = InputRecording.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(0, read.getTickCount());
+        assertEquals("", read.getGamePack());
+        assertThrows(IndexOutOfBoundsException.class, () -> read.getTick(0));
+    }
+
+    @Test
+    void testInvalidData() throws IOException {
+        assertThrows(IOException.class, () -> InputRecording.readFrom(new ByteArrayInputStream(new byte[] { 1, 2 })));
+
+        InputRecording recording = new InputRecording("pack.zip", "level", 0, 512);
+        recording.append(1);
+        recording.append(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recording.writeTo(out);
+        byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 1);
+        assertThrows(IOException.class, () -> InputRecording.readFrom(new ByteArrayInputStream(truncated)));
+    }
+}
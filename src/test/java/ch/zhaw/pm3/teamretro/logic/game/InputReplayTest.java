@@ -0,0 +1,167 @@
+package ch.zhaw.pm3.teamretro.logic.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ch.zhaw.pm3.teamretro.gamepack.GamePackFactory;
+import ch.zhaw.pm3.teamretro.gamepack.InvalidLevelConfiguration;
+import ch.zhaw.pm3.teamretro.gamepack.Level;
+import ch.zhaw.pm3.teamretro.gamepack.LevelStreamer;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Enemy;
+import ch.zhaw.pm3.teamretro.gamepack.entity.EntityType;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Player;
+import ch.zhaw.pm3.teamretro.gamepack.entity.Position;
+import ch.zhaw.pm3.teamretro.gamepack.sprite.Sprite;
+
+class InputReplayTest {
+
+    private final Set<KeyBindings> pressed = EnumSet.noneOf(KeyBindings.class);
+
+    private int deaths;
+
+    @Test
+    void testReplayReachesTheSameState() throws IOException, InvalidLevelConfiguration {
+        Level level = GamePackFactory.getLevel(GameSimulationTest.MASTER_PATH, "startLevel");
+        RecordingInputSource input = new RecordingInputSource(pressed::contains);
+        InputRecording recording = new InputRecording(GameSimulationTest.MASTER_PATH, "startLevel", 0,
+                GameSimulationTest.FALL_LIMIT);
+        input.setRecording(recording);
+        GameSimulation simulation = new GameSimulation(input, GameSimulationTest.FALL_LIMIT);
+        simulation.setListener(new SimulationListener() {
+            @Override
+            public void playerDied() {
+                deaths++;
+            }
+        });
+        simulation.start(level);
+
+        // warm up, walk around, restart from outside and finally run off the level
+        play(input, simulation, 30, true);
+        pressed.add(KeyBindings.WALK_LEFT);
+        play(input, simulation, 80, false);
+        pressed.clear();
+        pressed.add(KeyBindings.JUMP);
+        play(input, simulation, 5, false);
+        pressed.clear();
+        input.markRestart();
+        simulation.reset();
+        pressed.add(KeyBindings.WALK_RIGHT);
+        pressed.add(KeyBindings.RUN);
+        for (int i = 0; i < 3000 && deaths == 0; i++) {
+            play(input, simulation, 1, false);
+        }
+        pressed.clear();
+        play(input, simulation, 120, false);
+
+        Player player = level.getPlayer();
+        assertEquals(1, deaths);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recording.writeTo(out);
+        InputRecording read = InputRecording.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        InputReplay.Result result = new InputReplay(read).run((String) null);
+        assertEquals(recording.getTickCount(), result.getTicks());
+        assertEquals(deaths, result.getDeaths());
+        assertEquals(1, result.getRestarts());
+        assertEquals(player.getPosition().getX(), result.getPlayerX());
+        assertEquals(player.getPosition().getY(), result.getPlayerY());
+        assertTrue(result.getElapsed() > 0);
+    }
+
+    @Test
+    void testReplayOfStreamedLevel(@TempDir Path tempDir) throws IOException, InvalidLevelConfiguration {
+        String archive = tempDir.resolve("master.zip").toString();
+        Files.copy(Paths.get(GameSimulationTest.MASTER_PATH), Paths.get(archive));
+        GamePackFactory.writeLevel(archive, "long", createLongLevel());
+        InputRecording recording = new InputRecording(archive, "long", 0, GameSimulationTest.FALL_LIMIT);
+        RecordingInputSource input = new RecordingInputSource(pressed::contains);
+        input.setRecording(recording);
+        GameSimulation simulation = new GameSimulation(input, GameSimulationTest.FALL_LIMIT);
+
+        Level level;
+        // the replay loads the chunks in the foreground, so the recorded run does too
+        try (LevelStreamer streamer = GamePackFactory.streamLevel(archive, "long")) {
+            streamer.loadInForeground();
+            level = streamer.getLevel();
+            simulation.start(level);
+            pressed.add(KeyBindings.WALK_RIGHT);
+            pressed.add(KeyBindings.RUN);
+            for (int i = 0; i < 2000 && simulation.isRunning(); i++) {
+                input.capture(false);
+                streamer.updateAround(level.getPlayer().getPosition().getX());
+                simulation.tick(Simulation.TICK_DURATION);
+            }
+        }
+        List<Position> enemies = new ArrayList<>();
+        for (Enemy enemy : level.getLivingEnemies()) {
+            enemies.add(new Position(enemy.getPosition().getX(), enemy.getPosition().getY()));
+        }
+        assertTrue(level.getPlayer().getPosition().getX() > 2 * LevelStreamer.VIEW_DISTANCE);
+        assertTrue(enemies.size() > 1);
+
+        InputReplay.Result result = new InputReplay(recording).run((String) null);
+        assertEquals(recording.getTickCount(), result.getTicks());
+        assertEquals(level.getPlayer().getPosition().getX(), result.getPlayerX());
+        assertEquals(level.getPlayer().getPosition().getY(), result.getPlayerY());
+        assertEquals(enemies, result.getEnemyPositions());
+    }
+
+    @Test
+    void testReplayDiffersWithOtherInput() throws IOException, InvalidLevelConfiguration {
+        InputRecording walkLeft = new InputRecording(GameSimulationTest.MASTER_PATH, "startLevel", 0,
+                GameSimulationTest.FALL_LIMIT);
+        InputRecording walkRight = new InputRecording(GameSimulationTest.MASTER_PATH, "startLevel", 0,
+                GameSimulationTest.FALL_LIMIT);
+        for (int i = 0; i < 200; i++) {
+            walkLeft.append(1 << KeyBindings.WALK_LEFT.ordinal());
+            walkRight.append(1 << KeyBindings.WALK_RIGHT.ordinal());
+        }
+        double left = new InputReplay(walkLeft).run((String) null).getPlayerX();
+        double right = new InputReplay(walkRight).run((String) null).getPlayerX();
+        assertNotEquals(left, right);
+        assertTrue(left < right);
+    }
+
+    /**
+     * The start level with a floor long enough to be stored in chunks and an enemy
+     * every few chunks.
+     */
+    private static Level createLongLevel() throws IOException, InvalidLevelConfiguration {
+        Level level = GamePackFactory.getLevel(GameSimulationTest.MASTER_PATH, "startLevel");
+        Sprite block = level.getBlockList().get(new Position(0, 384)).getSprite();
+        Sprite enemy = level.getEnemyList().values().iterator().next().getSprite();
+        for (int x = 0; x < 20 * 1024; x += 32) {
+            if (!level.getBlockList().containsKey(new Position(x, 384))) {
+                level.addEntity(EntityType.BLOCK, block, new Position(x, 384));
+            }
+        }
+        for (int x = 3 * 1024; x < 20 * 1024; x += 3 * 1024) {
+            level.addEntity(EntityType.ENEMY, enemy, new Position(x, 256));
+        }
+        return level;
+    }
+
+    private static void play(RecordingInputSource input, GameSimulation simulation, int ticks, boolean frozen)
+            throws InvalidLevelConfiguration {
+        for (int i = 0; i < ticks; i++) {
+            input.capture(frozen);
+            simulation.tick(frozen ? 0 : Simulation.TICK_DURATION);
+        }
+    }
+}